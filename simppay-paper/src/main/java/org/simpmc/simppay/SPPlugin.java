@@ -24,6 +24,8 @@ import org.simpmc.simppay.service.*;
 import org.simpmc.simppay.service.DiscordService;
 import org.simpmc.simppay.service.UpdateCheckerService;
 import org.simpmc.simppay.service.cache.CacheDataService;
+import org.simpmc.simppay.service.cache.LeaderboardSnapshotService;
+import org.simpmc.simppay.service.database.StreakService;
 import xyz.xenondevs.invui.InvUI;
 
 import java.io.File;
@@ -94,11 +96,20 @@ public final class SPPlugin extends JavaPlugin {
             e.printStackTrace();
             throw new RuntimeException(e);
         }
-        services.add(new OrderIDService());
+        services.add(new HttpClientService()); // Must be first, gateways and BankCacheService use it
+        services.add(new AsyncExecutorService()); // Before BankCacheService, which fetches on it
+        services.add(new PeriodService()); // Before any service that reads period boundaries
         services.add(new BankCacheService()); // Must be before other services that may need bank data
         services.add(new CacheDataService());
         services.add(new DatabaseService(database));
+        services.add(new OrderIDService()); // Must be after DatabaseService when order IDs are shared
+        services.add(new PaymentWriteService()); // Must be after DatabaseService, replays spooled payments on setup
+        services.add(new StreakService()); // Must be after DatabaseService
+        services.add(new LeaderboardSnapshotService()); // Must be after DatabaseService and CacheDataService
         services.add(new PaymentService());
+        services.add(new PaymentPollingService()); // Must be after PaymentService
+        services.add(new CancellationService()); // Must be after PaymentService, resumes the stored backlog on setup
+        services.add(new PaymentJournalService()); // Must be after PaymentPollingService, hands recovered payments to it
         services.add(new MilestoneService());
         services.add(new WebhookService()); // Webhook server for Sepay
         services.add(new DiscordService());
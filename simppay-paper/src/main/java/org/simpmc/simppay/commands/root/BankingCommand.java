@@ -18,6 +18,7 @@ import org.simpmc.simppay.util.SoundUtil;
 import org.simpmc.simppay.util.qrcode.MapQR;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @SuppressWarnings("unboxing") // ignore unboxing create NPE
 public class BankingCommand {
@@ -51,7 +52,10 @@ public class BankingCommand {
                         // resend qr map if player is in banking session
                         MessageUtil.sendMessage(player, messageConfig.existBankingSession);
                         byte[] qrMap = SPPlugin.getService(PaymentService.class).getPlayerBankQRCode().get(player.getUniqueId());
-                        MapQR.sendPacketQRMap(qrMap, player);
+                        // Null while the gateway is still creating the payment
+                        if (qrMap != null) {
+                            MapQR.sendPacketQRMap(qrMap, player);
+                        }
                         return;
                     }
                     UUID uuid = UUID.randomUUID(); // payment uuid is randomized
@@ -62,20 +66,29 @@ public class BankingCommand {
 
                     Payment payment = new Payment(uuid, player.getUniqueId(), detail);
 
-                    PaymentStatus status = SPPlugin.getService(PaymentService.class).sendBank(payment);
-                    if (status == PaymentStatus.EXIST) {
-                        MessageUtil.warn("[BankingCommand] Payment UUID collision for player " + player.getName() + " (amount=" + args.get("amount") + ")");
-                        MessageUtil.sendMessage(player, messageConfig.unknownErrror);
-                        SoundUtil.sendSound(player, messageConfig.soundEffect.get(PaymentStatus.PENDING).toSound());
-                        return;
-                    }
-                    if (status == PaymentStatus.FAILED) {
-                        MessageUtil.warn("[BankingCommand] Bank payment failed for player " + player.getName() + " (amount=" + args.get("amount") + ") - check handler logs above for details");
-                        MessageUtil.sendMessage(player, messageConfig.failedCard);
-                        SoundUtil.sendSound(player, messageConfig.soundEffect.get(PaymentStatus.FAILED).toSound());
-                        return;
-                    }
-                    SPPlugin.getService(PaymentService.class).getPlayerBankingSessionPayment().put(player.getUniqueId(), uuid);
+                    PaymentService paymentService = SPPlugin.getService(PaymentService.class);
+                    // Claimed before the gateway answers, so running the command again meanwhile does not create a second payment
+                    paymentService.getPlayerBankingSessionPayment().put(player.getUniqueId(), uuid);
+                    long amount = (Long) args.get("amount");
+                    CompletableFuture<PaymentStatus> result = paymentService.sendBank(payment);
+                    result.thenAccept(status -> {
+                        if (status != PaymentStatus.PENDING) {
+                            paymentService.getPlayerBankingSessionPayment().remove(player.getUniqueId(), uuid);
+                        }
+                    });
+                    PaymentService.deliver(player, result, status -> {
+                        if (status == PaymentStatus.EXIST) {
+                            MessageUtil.warn("[BankingCommand] Payment UUID collision for player " + player.getName() + " (amount=" + amount + ")");
+                            MessageUtil.sendMessage(player, messageConfig.unknownErrror);
+                            SoundUtil.sendSound(player, messageConfig.soundEffect.get(PaymentStatus.PENDING).toSound());
+                            return;
+                        }
+                        if (status == PaymentStatus.FAILED) {
+                            MessageUtil.warn("[BankingCommand] Bank payment failed for player " + player.getName() + " (amount=" + amount + ") - check handler logs above for details");
+                            MessageUtil.sendMessage(player, messageConfig.failedCard);
+                            SoundUtil.sendSound(player, messageConfig.soundEffect.get(PaymentStatus.FAILED).toSound());
+                        }
+                    });
 
                 })
                 .register();
@@ -18,6 +18,7 @@ import org.simpmc.simppay.util.MessageUtil;
 import org.simpmc.simppay.util.SoundUtil;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 // ignore unboxing create NPE
 @SuppressWarnings("unboxing") // ignore unboxing create NPE
@@ -57,18 +58,19 @@ public class NaptheNhanhCommand {
                             .build();
                     Payment payment = new Payment(uuid, player.getUniqueId(), detail);
 
-                    if (SPPlugin.getService(PaymentService.class).getPayments().containsKey(payment.getPaymentID())) {
+                    if (SPPlugin.getService(PaymentService.class).isPending(payment.getPaymentID())) {
                         MessageUtil.sendMessage(player, messageConfig.pendingCard);
                         SoundUtil.sendSound(player, messageConfig.soundEffect.get(PaymentStatus.PENDING).toSound());
                         return;
                     }
 
-                    PaymentStatus status = SPPlugin.getService(PaymentService.class).sendCard(payment);
-
-                    if (status == PaymentStatus.FAILED) {
-                        MessageUtil.sendMessage(player, messageConfig.failedCard);
-                        SoundUtil.sendSound(player, messageConfig.soundEffect.get(PaymentStatus.FAILED).toSound());
-                    }
+                    CompletableFuture<PaymentStatus> result = SPPlugin.getService(PaymentService.class).sendCard(payment);
+                    PaymentService.deliver(player, result, status -> {
+                        if (status == PaymentStatus.FAILED) {
+                            MessageUtil.sendMessage(player, messageConfig.failedCard);
+                            SoundUtil.sendSound(player, messageConfig.soundEffect.get(PaymentStatus.FAILED).toSound());
+                        }
+                    });
                 })
                 .register();
     }
@@ -15,7 +15,9 @@ public class SimpPayAdminCommand {
                         DeletePlayerCommand.commandCreate(),
                         ReloadServerMilestoneCommand.commandCreate(),
                         ReloadPlayerMilestoneCommand.commandCreate(),
-                        ImportCommand.commandCreate()
+                        ImportCommand.commandCreate(),
+                        RebuildSummaryCommand.commandCreate(),
+                        StatsCommand.commandCreate()
                 )
                 .register();
     }
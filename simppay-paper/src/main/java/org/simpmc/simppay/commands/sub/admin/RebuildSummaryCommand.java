@@ -0,0 +1,32 @@
+package org.simpmc.simppay.commands.sub.admin;
+
+import dev.jorel.commandapi.CommandAPICommand;
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.command.CommandSender;
+import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.MessageConfig;
+import org.simpmc.simppay.service.DatabaseService;
+import org.simpmc.simppay.util.MessageUtil;
+
+public class RebuildSummaryCommand {
+    public static CommandAPICommand commandCreate() {
+        return new CommandAPICommand("rebuildsummary")
+                .withPermission("simppay.admin.rebuildsummary")
+                .executes(RebuildSummaryCommand::execute);
+    }
+
+    public static void execute(CommandSender sender, CommandArguments args) {
+        MessageConfig messages = ConfigManager.getInstance().getConfig(MessageConfig.class);
+        MessageUtil.sendMessage(sender, messages.summaryRebuildStarting);
+
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> {
+            int rows = SPPlugin.getService(DatabaseService.class).getPaymentLogService().rebuildDailySummary();
+            if (rows < 0) {
+                MessageUtil.sendMessage(sender, messages.summaryRebuildFailed);
+                return;
+            }
+            MessageUtil.sendMessage(sender, messages.summaryRebuildComplete.replace("{rows}", String.valueOf(rows)));
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package org.simpmc.simppay.commands.sub.admin;
+
+import dev.jorel.commandapi.CommandAPICommand;
+import dev.jorel.commandapi.executors.CommandArguments;
+import org.bukkit.command.CommandSender;
+import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.MessageConfig;
+import org.simpmc.simppay.service.IService;
+import org.simpmc.simppay.service.StatsProvider;
+import org.simpmc.simppay.util.MessageUtil;
+
+import java.util.Map;
+
+public class StatsCommand {
+    public static CommandAPICommand commandCreate() {
+        return new CommandAPICommand("stats")
+                .withPermission("simppay.admin.stats")
+                .executes(StatsCommand::execute);
+    }
+
+    public static void execute(CommandSender sender, CommandArguments args) {
+        MessageConfig messages = ConfigManager.getInstance().getConfig(MessageConfig.class);
+        for (IService service : SPPlugin.getInstance().getServices()) {
+            if (!(service instanceof StatsProvider provider)) {
+                continue;
+            }
+            MessageUtil.sendMessage(sender, messages.statsHeader.replace("{name}", provider.getStatsName()));
+            for (Map.Entry<String, Object> stat : provider.getStats().entrySet()) {
+                MessageUtil.sendMessage(sender, messages.statsLine
+                        .replace("{key}", stat.getKey())
+                        .replace("{value}", String.valueOf(stat.getValue())));
+            }
+        }
+    }
+}
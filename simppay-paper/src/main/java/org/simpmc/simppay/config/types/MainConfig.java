@@ -3,6 +3,9 @@ package org.simpmc.simppay.config.types;
 import de.exlll.configlib.Comment;
 import de.exlll.configlib.Configuration;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Configuration
 public class MainConfig {
     public boolean debug = false;
@@ -16,18 +19,175 @@ public class MainConfig {
     @Comment("Kênh cập nhật: 'stable' chỉ thông báo bản phát hành chính thức, 'dev' bao gồm cả bản pre-release")
     public String updateChannel = "stable";
 
+    @Comment({"Múi giờ dùng để tính ngày / tuần / tháng / năm cho mốc nạp, bảng xếp hạng và streak, ví dụ 'Asia/Ho_Chi_Minh'",
+            "Để trống để dùng múi giờ của máy chủ"})
+    public String timezone = "";
+
+    @Comment({"Chu kỳ đối chiếu bộ đệm tổng nạp với database, tính theo phút (0 = tắt)",
+            "Nếu phát hiện chênh lệch sẽ ghi cảnh báo ra console và đồng bộ lại từ database"})
+    public int cacheReconcileIntervalMinutes = 10;
+
+    @Comment({"Số người chơi offline (UUID, tên) được giữ trong bộ nhớ đệm",
+            "Người chơi đang online luôn được giữ, không tính vào giới hạn này"})
+    public int playerCacheSize = 2000;
+
+    @Comment("Cấu hình ghi giao dịch vào database theo lô")
+    public PaymentWriteSettings paymentWrite = new PaymentWriteSettings();
+
+    @Comment("Cấu hình lưu snapshot bảng xếp hạng vào database (bảng leaderboard_cache)")
+    public LeaderboardSettings leaderboard = new LeaderboardSettings();
+
     @Comment("Cấu hình BossBar milestone")
     public BossBarSettings bossbar = new BossBarSettings();
 
+    @Comment("Cấu hình kiểm tra trạng thái các giao dịch đang chờ")
+    public PollingSettings polling = new PollingSettings();
+
+    @Comment("Cấu hình hủy giao dịch ngân hàng khi người chơi thoát hoặc hủy mã QR")
+    public CancellationSettings cancellation = new CancellationSettings();
+
+    @Comment({"Nhật ký các giao dịch đang chờ, giúp tiếp tục kiểm tra giao dịch sau khi server tắt đột ngột",
+            "Cần khởi động lại server để áp dụng thay đổi"})
+    public JournalSettings journal = new JournalSettings();
+
+    @Comment("Cấu hình mã đơn hàng gửi tới PayOS")
+    public OrderIdSettings orderId = new OrderIdSettings();
+
+    @Comment("Cấu hình kết nối HTTP tới các cổng thanh toán")
+    public HttpSettings http = new HttpSettings();
+
+    @Comment("Cấu hình luồng xử lý gọi API cổng thanh toán và truy vấn database")
+    public ExecutorSettings executors = new ExecutorSettings();
+
+    @Configuration
+    public static class ExecutorSettings {
+        @Comment("Dùng virtual thread (Java 21) thay vì thread thường")
+        public boolean virtualThreads = true;
+
+        @Comment("Số request tới cổng thanh toán được chạy cùng lúc")
+        public int gatewayConcurrency = 16;
+
+        @Comment("Số request tới cổng thanh toán được xếp hàng chờ tối đa, vượt quá sẽ bị từ chối")
+        public int gatewayQueueCapacity = 256;
+
+        @Comment("Thời gian chờ tối đa một request tới cổng thanh toán, tính theo giây")
+        public int gatewayTimeoutSeconds = 30;
+
+        @Comment("Số truy vấn database (menu, lịch sử) được chạy cùng lúc")
+        public int databaseConcurrency = 8;
+
+        @Comment("Số truy vấn database được xếp hàng chờ tối đa, vượt quá sẽ bị từ chối")
+        public int databaseQueueCapacity = 512;
+
+        @Comment("Thời gian chờ tối đa một truy vấn database, tính theo giây")
+        public int databaseTimeoutSeconds = 15;
+    }
+
+    @Configuration
+    public static class HttpSettings {
+        @Comment("Thời gian chờ kết nối tới máy chủ, tính theo giây")
+        public int connectTimeoutSeconds = 5;
+
+        @Comment({"Thời gian tối đa cho một request theo từng cổng, tính theo giây",
+                "Các khóa: card, web2m, payos, vietqr, discord, update-checker. Bỏ trống để dùng mặc định"})
+        public Map<String, Integer> callTimeoutSeconds = new LinkedHashMap<>();
+
+        @Comment("Số kết nối nhàn rỗi tối đa được giữ lại để dùng lại")
+        public int maxIdleConnections = 10;
+
+        @Comment("Thời gian giữ một kết nối nhàn rỗi, tính theo giây")
+        public int keepAliveSeconds = 300;
+    }
+
+    @Configuration
+    public static class PollingSettings {
+        @Comment({"Khoảng cách tối đa giữa hai lần kiểm tra một giao dịch, tính theo giây",
+                "Bắt đầu từ intervalApiCall, mỗi lần giao dịch vẫn đang chờ thì khoảng cách tăng gấp đôi cho đến giá trị này"})
+        public int maxIntervalSeconds = 20;
+
+        @Comment("Độ lệch ngẫu nhiên của khoảng cách kiểm tra, tính theo phần trăm, để các giao dịch không gọi API cùng lúc")
+        public int jitterPercent = 20;
+    }
+
+    @Configuration
+    public static class CancellationSettings {
+        @Comment("Số lần thử hủy tối đa một giao dịch trên cổng thanh toán trước khi bỏ qua")
+        public int maxAttempts = 8;
+
+        @Comment({"Thời gian chờ trước lần thử lại đầu tiên, tính theo giây",
+                "Mỗi lần thất bại thời gian chờ tăng gấp đôi cho đến retryMaxSeconds"})
+        public int retryBaseSeconds = 5;
+
+        @Comment("Thời gian chờ tối đa giữa hai lần thử lại, tính theo giây")
+        public int retryMaxSeconds = 300;
+
+        @Comment("Số yêu cầu hủy được gửi cùng lúc tới mỗi cổng thanh toán")
+        public int concurrencyPerGateway = 4;
+    }
+
+    @Configuration
+    public static class JournalSettings {
+        @Comment("Bật/tắt nhật ký giao dịch (payment-journal-0.dat và payment-journal-1.dat)")
+        public boolean enabled = true;
+
+        @Comment("Dung lượng mỗi file nhật ký, tính theo KB. Tự tăng nếu số giao dịch đang chờ cần nhiều hơn")
+        public int fileSizeKb = 1024;
+
+        @Comment({"Nhật ký được ghi xuống ổ đĩa sau bao nhiêu game tick (20 tick = 1 giây)",
+                "Các giao dịch trong cùng khoảng thời gian dùng chung một lần ghi"})
+        public int syncIntervalTicks = 1;
+
+        @Comment("Khi file nhật ký đầy quá bao nhiêu phần trăm thì chỉ giữ lại các giao dịch đang chờ")
+        public int compactThresholdPercent = 75;
+    }
+
+    @Configuration
+    public static class OrderIdSettings {
+        @Comment({"Số mã đơn hàng được giữ trước mỗi lần ghi xuống ổ đĩa/database",
+                "Các mã chưa dùng bị bỏ qua khi khởi động lại"})
+        public int blockSize = 100;
+
+        @Comment({"Lấy mã đơn hàng từ database thay vì file last_id.txt",
+                "Bật khi nhiều server dùng chung một tài khoản PayOS và cùng một database MySQL"})
+        public boolean shared = false;
+    }
+
     @Configuration
     public static class BossBarSettings {
         @Comment("Bật/tắt hiển thị BossBar milestone cho toàn server")
         public boolean enabled = true;
 
-        @Comment("Tần suất cập nhật BossBar, tính theo game tick (20 tick = 1 giây). Giá trị nhỏ hơn = mượt hơn nhưng tốn hiệu năng hơn")
+        @Comment("Mỗi người chơi được cập nhật BossBar sau bao nhiêu game tick (20 tick = 1 giây). Các lần cập nhật được chia đều qua các tick. Giá trị nhỏ hơn = mượt hơn nhưng tốn hiệu năng hơn")
         public int updateFrequencyTicks = 1;
 
         @Comment("Thời gian hiển thị mỗi milestone trước khi chuyển sang milestone tiếp theo, tính theo giây")
         public int cycleDurationSeconds = 15;
     }
+
+    @Configuration
+    public static class PaymentWriteSettings {
+        @Comment("Số giao dịch tối đa được ghi trong một lô (một transaction)")
+        public int batchSize = 200;
+
+        @Comment("Chu kỳ ghi các giao dịch đang chờ vào database, tính theo game tick (20 tick = 1 giây)")
+        public int flushIntervalTicks = 20;
+
+        @Comment({"Số giao dịch tối đa được giữ trong hàng đợi",
+                "Khi hàng đợi đầy, giao dịch mới sẽ được ghi trực tiếp từng cái một"})
+        public int queueCapacity = 10000;
+    }
+
+    @Configuration
+    public static class LeaderboardSettings {
+        @Comment({"Chu kỳ lưu top bảng xếp hạng vào database, tính theo giây (0 = tắt)",
+                "Snapshot được nạp lại khi khởi động để placeholder có dữ liệu ngay lập tức"})
+        public int snapshotIntervalSeconds = 60;
+
+        @Comment("Số người chơi được lưu cho mỗi loại bảng xếp hạng")
+        public int snapshotSize = 100;
+
+        @Comment({"Chỉ đọc snapshot, không tự tính bảng xếp hạng từ database",
+                "Dùng cho các server phụ dùng chung MySQL: chỉ một server để false và ghi snapshot, các server còn lại để true"})
+        public boolean readOnly = false;
+    }
 }
@@ -48,6 +48,9 @@ public class MessageConfig {
 
     public String noPromo = "<color:#ff0000>Không có khuyến mại theo mặc định!";
 
+    @Comment("Giá trị placeholder hiển thị trong lúc dữ liệu của người chơi đang được tải")
+    public String placeholderLoading = "...";
+
     public String bossbarHidden = "<color:#00ff00>Đã ẩn BossBar milestone!";
 
     public String bossbarShown = "<color:#00ff00>Đã hiển thị BossBar milestone!";
@@ -60,6 +63,16 @@ public class MessageConfig {
 
     public String importMoreErrors = "<color:#ff0000>  ... và <white>{count}<color:#ff0000> lỗi khác. Xem console để biết thêm chi tiết.";
 
+    public String summaryRebuildStarting = "<color:#E7EE88>Đang dựng lại bảng tổng hợp giao dịch theo ngày, vui lòng chờ...";
+
+    public String summaryRebuildComplete = "<color:#B3E664>Dựng lại bảng tổng hợp hoàn tất! Số dòng: <white>{rows}";
+
+    public String summaryRebuildFailed = "<color:#ff0000>Dựng lại bảng tổng hợp thất bại! Xem console để biết thêm chi tiết.";
+
+    public String statsHeader = "<color:#E7EE88>{name}:";
+
+    public String statsLine = "<color:#aaaaaa>  - {key}: <white>{value}";
+
     public String updateAvailable = "<color:#E7EE88>[SimpPay] Có bản cập nhật mới: v<white>{latest}<color:#E7EE88> (hiện tại: v<white>{current}<color:#E7EE88>). Tải về tại SpigotMC!";
 
     public String updateChangelogLine = "<color:#aaaaaa>  - {line}";
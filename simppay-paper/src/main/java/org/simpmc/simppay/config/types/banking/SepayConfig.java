@@ -56,6 +56,41 @@ public class SepayConfig {
      */
     public String webhookApiKey = "YOUR_WEBHOOK_API_KEY_HERE";
 
+    /**
+     * Metrics endpoint path, served on the webhook port.
+     * Returns queue depth, request counters and latencies as JSON.
+     * Requires the same Authorization header as the webhook.
+     */
+    public String metricsPath = "/sepay/metrics";
+
+    /**
+     * Largest accepted webhook body in bytes. Larger requests are answered with 413.
+     * A Sepay payload is well under 2 KB.
+     */
+    public int maxBodyBytes = 16384;
+
+    /**
+     * Maximum number of accepted webhooks waiting to be processed.
+     * When full, new webhooks are answered with 503 and Sepay retries them later.
+     */
+    public int queueCapacity = 10000;
+
+    /**
+     * Maximum number of queued webhooks processed per tick.
+     */
+    public int dispatchBatchSize = 200;
+
+    /**
+     * Requests allowed per second from one IP address (0 = no limit).
+     * Sepay delivers from a few addresses, keep this well above your peak payment rate.
+     */
+    public double rateLimitPerSecond = 50;
+
+    /**
+     * Requests one IP address may send at once before the per-second limit applies.
+     */
+    public int rateLimitBurst = 200;
+
     /**
      * Prefix for payment description/reference codes.
      * This is added before the 10-character reference code.
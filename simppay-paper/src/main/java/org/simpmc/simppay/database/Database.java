@@ -10,13 +10,19 @@ import lombok.Getter;
 import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.api.DatabaseSettings;
 import org.simpmc.simppay.database.entities.*;
+import org.simpmc.simppay.database.migration.SchemaMigration;
+import org.simpmc.simppay.database.migration.SchemaMigrationRegistry;
+import org.simpmc.simppay.database.migration.SchemaMigrator;
+import org.simpmc.simppay.util.MessageUtil;
 
 import java.sql.SQLException;
+import java.util.List;
 import java.util.UUID;
 
 public class Database {
 
     private final HikariDataSource dataSource;
+    @Getter
     private final DataSourceConnectionSource connectionSource;
     @Getter
     private final Dao<BankingPayment, UUID> bankDao;
@@ -32,6 +38,12 @@ public class Database {
     private final Dao<MilestoneCompletion, UUID> milestoneDao;
     @Getter
     private final Dao<LeaderboardCache, String> leaderboardCacheDao;
+    @Getter
+    private final Dao<PaymentDailySummary, String> summaryDao;
+    @Getter
+    private final Dao<OrderIdSequence, String> orderSequenceDao;
+    @Getter
+    private final Dao<PaymentSummaryState, String> summaryStateDao;
 
     public Database(DatabaseSettings db) throws SQLException {
         // Retrieve config values from your ConfigManager
@@ -92,6 +104,11 @@ public class Database {
         TableUtils.createTableIfNotExists(connectionSource, PlayerData.class);
         TableUtils.createTableIfNotExists(connectionSource, MilestoneCompletion.class);
         TableUtils.createTableIfNotExists(connectionSource, LeaderboardCache.class);
+        TableUtils.createTableIfNotExists(connectionSource, PaymentDailySummary.class);
+        TableUtils.createTableIfNotExists(connectionSource, OrderIdSequence.class);
+        TableUtils.createTableIfNotExists(connectionSource, PaymentSummaryState.class);
+
+        migrateSchema();
 
         // Create the DAOs
         playerDao = DaoManager.createDao(connectionSource, SPPlayer.class);
@@ -101,9 +118,29 @@ public class Database {
         playerDataDao = DaoManager.createDao(connectionSource, PlayerData.class);
         milestoneDao = DaoManager.createDao(connectionSource, MilestoneCompletion.class);
         leaderboardCacheDao = DaoManager.createDao(connectionSource, LeaderboardCache.class);
+        summaryDao = DaoManager.createDao(connectionSource, PaymentDailySummary.class);
+        orderSequenceDao = DaoManager.createDao(connectionSource, OrderIdSequence.class);
+        summaryStateDao = DaoManager.createDao(connectionSource, PaymentSummaryState.class);
 
     }
 
+    /**
+     * Applies pending schema migrations (indexes). A failure is logged and retried on the next start,
+     * the plugin keeps working on the unindexed tables meanwhile.
+     */
+    private void migrateSchema() {
+        try {
+            SchemaMigrator migrator = new SchemaMigrator(dataSource, connectionSource.getDatabaseType());
+            List<SchemaMigration> applied = migrator.migrate(SchemaMigrationRegistry.getMigrations());
+            for (SchemaMigration migration : applied) {
+                MessageUtil.info("[Schema] Applied migration v" + migration.version() + ": " + migration.description());
+            }
+        } catch (SQLException e) {
+            MessageUtil.warn("[Schema] Failed to apply schema migrations: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Closes both the ORMLite connection source and the HikariCP data source.
      */
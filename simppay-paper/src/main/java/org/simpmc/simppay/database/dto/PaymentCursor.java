@@ -0,0 +1,18 @@
+package org.simpmc.simppay.database.dto;
+
+import lombok.Value;
+
+/**
+ * Position in the payment history, newest first: the (timestamp, payment_id) of the last record already shown.
+ * The next page starts right after it, so paging never re-reads or skips rows the way an OFFSET would.
+ */
+@Value
+public class PaymentCursor {
+    long timestamp;
+    // Kept as the stored string so comparisons match the database ordering
+    String paymentId;
+
+    public static PaymentCursor of(PaymentRecord record) {
+        return new PaymentCursor(record.getTimestamp().getTime(), record.getPaymentId().toString());
+    }
+}
@@ -7,7 +7,6 @@ import org.simpmc.simppay.data.card.CardType;
 import org.simpmc.simppay.database.entities.BankingPayment;
 import org.simpmc.simppay.database.entities.CardPayment;
 
-import java.time.Instant;
 import java.util.Date;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,7 +29,7 @@ public class PaymentRecord {
     public static PaymentRecord fromBank(BankingPayment bp) {
         return PaymentRecord.builder()
                 .paymentId(bp.getPaymentID())
-                .timestamp(Date.from(Instant.ofEpochSecond(bp.getTimestamp()))) // TODO: better way to handle this
+                .timestamp(new Date(bp.getTimestamp()))
                 .playerName(bp.getPlayer().getName())
                 .paymentType(PaymentType.BANKING)
                 .provider(bp.getApiProvider().name())
@@ -46,7 +45,7 @@ public class PaymentRecord {
     public static PaymentRecord fromCard(CardPayment cp) {
         return PaymentRecord.builder()
                 .paymentId(cp.getPaymentID())
-                .timestamp(Date.from(Instant.ofEpochSecond(cp.getTimestamp()))) // TODO: better way to handle this
+                .timestamp(new Date(cp.getTimestamp()))
                 .paymentType(PaymentType.CARD)
                 .playerName(cp.getPlayer().getName())
                 .provider(cp.getApiProvider().name())
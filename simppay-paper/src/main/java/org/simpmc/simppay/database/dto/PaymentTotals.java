@@ -0,0 +1,36 @@
+package org.simpmc.simppay.database.dto;
+
+import lombok.Value;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Summed payment amounts for every tracked period, as returned by a single aggregate query.
+ * Bank and card sub-totals are all-time values.
+ */
+@Value
+public class PaymentTotals {
+    public static final PaymentTotals ZERO = new PaymentTotals(0, 0, 0, 0, 0, 0, 0);
+
+    long total;
+    long daily;
+    long weekly;
+    long monthly;
+    long yearly;
+    long bank;
+    long card;
+
+    /**
+     * @return Map with keys: "total", "daily", "weekly", "monthly", "yearly"
+     */
+    public Map<String, Long> toPeriodMap() {
+        Map<String, Long> amounts = new HashMap<>();
+        amounts.put("total", total);
+        amounts.put("daily", daily);
+        amounts.put("weekly", weekly);
+        amounts.put("monthly", monthly);
+        amounts.put("yearly", yearly);
+        return amounts;
+    }
+}
@@ -5,10 +5,8 @@ import com.j256.ormlite.field.DatabaseField;
 import com.j256.ormlite.table.DatabaseTable;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.handler.data.BankAPI;
 import org.simpmc.simppay.model.Payment;
-import org.simpmc.simppay.service.DatabaseService;
 import org.simpmc.simppay.service.PaymentService;
 
 import java.time.Instant;
@@ -22,7 +20,7 @@ public class BankingPayment {
     @DatabaseField(columnName = "payment_id", id = true, dataType = DataType.UUID)
     private UUID paymentID;
 
-    @DatabaseField(columnName = "player_uuid", foreign = true, foreignAutoRefresh = true, canBeNull = false)
+    @DatabaseField(columnName = "player_uuid", foreign = true, canBeNull = false)
     private SPPlayer player;
 
     @DatabaseField(columnName = "amount", canBeNull = false)
@@ -40,8 +38,8 @@ public class BankingPayment {
 
     public BankingPayment(Payment payment) {
         this.paymentID = payment.getPaymentID();
-        // may cause trouble if null, but player should already be created on join
-        this.player = SPPlugin.getService(DatabaseService.class).getPlayerService().findByUuid(payment.getPlayerUUID());
+        // Only the key is written, the player row is created on join
+        this.player = new SPPlayer(payment.getPlayerUUID());
         this.amount = payment.getDetail().getAmount();
         this.refID = payment.getDetail().getRefID();
         this.apiProvider = PaymentService.getBankAPI();
@@ -5,12 +5,10 @@ import com.j256.ormlite.field.DatabaseField;
 import com.j256.ormlite.table.DatabaseTable;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.data.card.CardType;
 import org.simpmc.simppay.handler.data.CardAPI;
 import org.simpmc.simppay.model.Payment;
 import org.simpmc.simppay.model.detail.CardDetail;
-import org.simpmc.simppay.service.DatabaseService;
 import org.simpmc.simppay.service.PaymentService;
 
 import java.time.Instant;
@@ -24,7 +22,7 @@ public class CardPayment {
     @DatabaseField(columnName = "payment_id", id = true, dataType = DataType.UUID)
     private UUID paymentID;
 
-    @DatabaseField(columnName = "player_uuid", foreign = true, foreignAutoRefresh = true, canBeNull = false)
+    @DatabaseField(columnName = "player_uuid", foreign = true, canBeNull = false)
     private SPPlayer player;
 
     @DatabaseField(columnName = "pin", canBeNull = false)
@@ -56,8 +54,8 @@ public class CardPayment {
 
     public CardPayment(Payment payment) {
         this.paymentID = payment.getPaymentID();
-        // may cause trouble if null, but player should already be created on join
-        this.player = SPPlugin.getService(DatabaseService.class).getPlayerService().findByUuid(payment.getPlayerUUID());
+        // Only the key is written, the player row is created on join
+        this.player = new SPPlayer(payment.getPlayerUUID());
         this.pin = ((CardDetail) payment.getDetail()).getPin();
         this.serial = ((CardDetail) payment.getDetail()).getSerial();
         this.priceValue = ((CardDetail) payment.getDetail()).getPrice().getValue();
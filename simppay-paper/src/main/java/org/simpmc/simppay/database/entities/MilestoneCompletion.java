@@ -17,7 +17,7 @@ public class MilestoneCompletion {
     @DatabaseField(generatedId = true, dataType = DataType.UUID)
     private UUID id;
 
-    @DatabaseField(columnName = "player_uuid", foreign = true, foreignAutoRefresh = true, canBeNull = true)
+    @DatabaseField(columnName = "player_uuid", foreign = true, canBeNull = true)
     private SPPlayer player;
 
     @DatabaseField(columnName = "milestone_type", canBeNull = false, dataType = DataType.ENUM_STRING)
@@ -0,0 +1,19 @@
+package org.simpmc.simppay.database.entities;
+
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@DatabaseTable(tableName = "order_id_sequence")
+public class OrderIdSequence {
+    @DatabaseField(columnName = "sequence_name", id = true, canBeNull = false)
+    private String sequenceName;
+
+    @DatabaseField(columnName = "reserved_to", canBeNull = false)
+    private long reservedTo; // Highest ID reserved by any server
+}
@@ -0,0 +1,44 @@
+package org.simpmc.simppay.database.entities;
+
+import com.j256.ormlite.field.DataType;
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.simpmc.simppay.data.PaymentType;
+
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@DatabaseTable(tableName = "payment_daily_summary")
+public class PaymentDailySummary {
+    @DatabaseField(columnName = "summary_id", id = true, canBeNull = false)
+    private String summaryID; // Format: "{player_uuid}:{day_start}:{payment_type}"
+
+    @DatabaseField(columnName = "player_uuid", canBeNull = false, dataType = DataType.UUID)
+    private UUID playerUUID;
+
+    @DatabaseField(columnName = "day_start", canBeNull = false, dataType = DataType.LONG)
+    private long dayStart; // Local midnight of the day, epoch millis
+
+    @DatabaseField(columnName = "payment_type", canBeNull = false, dataType = DataType.ENUM_NAME)
+    private PaymentType paymentType;
+
+    @DatabaseField(columnName = "amount", canBeNull = false)
+    private double amount;
+
+    @DatabaseField(columnName = "payment_count", canBeNull = false)
+    private int paymentCount;
+
+    public static String idOf(UUID playerUUID, long dayStart, PaymentType paymentType) {
+        return playerUUID + ":" + dayStart + ":" + paymentType.name();
+    }
+
+    public void addPayment(double amount) {
+        this.amount += amount;
+        this.paymentCount++;
+    }
+}
@@ -0,0 +1,22 @@
+package org.simpmc.simppay.database.entities;
+
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@DatabaseTable(tableName = "payment_summary_state")
+public class PaymentSummaryState {
+    @DatabaseField(columnName = "state_key", id = true, canBeNull = false)
+    private String stateKey;
+
+    @DatabaseField(columnName = "zone_id", canBeNull = false)
+    private String zoneId; // Time zone the day_start values were computed in
+
+    @DatabaseField(columnName = "built_at", canBeNull = false)
+    private long builtAt;
+}
@@ -11,7 +11,7 @@ import lombok.NoArgsConstructor;
 public class PlayerData {
     @DatabaseField(generatedId = true)
     public int id;
-    @DatabaseField(columnName = "player_uuid", foreign = true, foreignAutoRefresh = true, canBeNull = false, unique = true)
+    @DatabaseField(columnName = "player_uuid", foreign = true, canBeNull = false, unique = true)
     public SPPlayer player;
     @DatabaseField(columnName = "key", canBeNull = false)
     public String key;
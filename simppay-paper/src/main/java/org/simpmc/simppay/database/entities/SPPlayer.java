@@ -18,6 +18,13 @@ public class SPPlayer {
     @DatabaseField(columnName = "name", canBeNull = false)
     private String name;
 
+    /**
+     * Reference to an existing player row by primary key only, enough to write foreign keys without a lookup.
+     */
+    public SPPlayer(UUID uuid) {
+        this.uuid = uuid;
+    }
+
     public SPPlayer(Player bukkitPlayer) {
         this.uuid = bukkitPlayer.getUniqueId();
         this.name = bukkitPlayer.getName();
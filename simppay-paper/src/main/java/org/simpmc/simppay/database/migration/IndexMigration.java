@@ -0,0 +1,79 @@
+package org.simpmc.simppay.database.migration;
+
+import com.j256.ormlite.db.DatabaseType;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Migration that creates a set of indexes, skipping the ones that already exist.
+ */
+public class IndexMigration implements SchemaMigration {
+
+    public record Index(String table, String name, String... columns) {
+    }
+
+    private final int version;
+    private final String description;
+    private final List<Index> indexes;
+
+    public IndexMigration(int version, String description, List<Index> indexes) {
+        this.version = version;
+        this.description = description;
+        this.indexes = indexes;
+    }
+
+    @Override
+    public int version() {
+        return version;
+    }
+
+    @Override
+    public String description() {
+        return description;
+    }
+
+    @Override
+    public void apply(Connection connection, DatabaseType databaseType) throws SQLException {
+        for (Index index : indexes) {
+            if (indexExists(connection, index.table(), index.name())) {
+                continue;
+            }
+            StringBuilder sql = new StringBuilder("CREATE INDEX ");
+            databaseType.appendEscapedEntityName(sql, index.name());
+            sql.append(" ON ");
+            databaseType.appendEscapedEntityName(sql, index.table());
+            sql.append(" (");
+            for (int i = 0; i < index.columns().length; i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                // Columns such as "key" are reserved words, always escape
+                databaseType.appendEscapedEntityName(sql, index.columns()[i]);
+            }
+            sql.append(')');
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(sql.toString());
+            }
+        }
+    }
+
+    static boolean indexExists(Connection connection, String table, String indexName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        // Identifier case in the catalog differs between databases, try both spellings
+        for (String tableName : new String[]{table, table.toUpperCase()}) {
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, tableName, false, true)) {
+                while (rs.next()) {
+                    if (indexName.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
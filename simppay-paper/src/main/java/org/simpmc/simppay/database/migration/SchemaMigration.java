@@ -0,0 +1,19 @@
+package org.simpmc.simppay.database.migration;
+
+import com.j256.ormlite.db.DatabaseType;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Represents a single versioned change to the database schema.
+ * Migrations are applied in ascending version order, each at most once, and must be safe
+ * to re-run in case a previous attempt failed halfway (MySQL DDL cannot be rolled back).
+ */
+public interface SchemaMigration {
+    int version();
+
+    String description();
+
+    void apply(Connection connection, DatabaseType databaseType) throws SQLException;
+}
@@ -0,0 +1,42 @@
+package org.simpmc.simppay.database.migration;
+
+import org.simpmc.simppay.database.migration.IndexMigration.Index;
+
+import java.util.List;
+
+/**
+ * Every schema migration, in version order.
+ * Add new migrations at the end with the next version number, never edit an applied one.
+ */
+public class SchemaMigrationRegistry {
+
+    private static final List<SchemaMigration> migrations = List.of(
+            new IndexMigration(1, "Payment history indexes", List.of(
+                    // Per-player totals and history, covering so the rows are never read
+                    new Index("banking_payments", "idx_banking_player_time", "player_uuid", "timestamp", "amount"),
+                    new Index("card_payments", "idx_card_player_time", "player_uuid", "timestamp", "amount"),
+                    // Server-wide period totals and leaderboards
+                    new Index("banking_payments", "idx_banking_time", "timestamp", "amount"),
+                    new Index("card_payments", "idx_card_time", "timestamp", "amount")
+            )),
+            new IndexMigration(2, "Milestone and player data indexes", List.of(
+                    new Index("milestone_completions", "idx_milestone_type_scope", "milestone_type", "server_wide", "player_uuid"),
+                    new Index("player_data", "idx_player_data_key", "player_uuid", "key")
+            )),
+            new IndexMigration(3, "Daily summary indexes", List.of(
+                    new Index("payment_daily_summary", "idx_summary_player_day", "player_uuid", "day_start", "amount"),
+                    new Index("payment_daily_summary", "idx_summary_day", "day_start", "player_uuid", "amount")
+            )),
+            new IndexMigration(4, "Payment history keyset indexes", List.of(
+                    // History pages seek to (timestamp, payment_id) and read one page in index order
+                    new Index("banking_payments", "idx_banking_player_keyset", "player_uuid", "timestamp", "payment_id"),
+                    new Index("card_payments", "idx_card_player_keyset", "player_uuid", "timestamp", "payment_id"),
+                    new Index("banking_payments", "idx_banking_keyset", "timestamp", "payment_id"),
+                    new Index("card_payments", "idx_card_keyset", "timestamp", "payment_id")
+            ))
+    );
+
+    public static List<SchemaMigration> getMigrations() {
+        return migrations;
+    }
+}
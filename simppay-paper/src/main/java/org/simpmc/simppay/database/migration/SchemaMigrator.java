@@ -0,0 +1,91 @@
+package org.simpmc.simppay.database.migration;
+
+import com.j256.ormlite.db.DatabaseType;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Applies pending SchemaMigrations and records each applied version in the schema_version table.
+ * Called once on startup, right after the ORMLite tables are created.
+ */
+public class SchemaMigrator {
+
+    private static final String VERSION_TABLE = "schema_version";
+
+    private final DataSource dataSource;
+    private final DatabaseType databaseType;
+
+    public SchemaMigrator(DataSource dataSource, DatabaseType databaseType) {
+        this.dataSource = dataSource;
+        this.databaseType = databaseType;
+    }
+
+    /**
+     * @return The migrations applied by this call, empty if the schema was already up to date
+     */
+    public List<SchemaMigration> migrate(List<SchemaMigration> migrations) throws SQLException {
+        List<SchemaMigration> applied = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            ensureVersionTable(connection);
+            int currentVersion = currentVersion(connection);
+
+            List<SchemaMigration> ordered = new ArrayList<>(migrations);
+            ordered.sort(Comparator.comparingInt(SchemaMigration::version));
+            for (SchemaMigration migration : ordered) {
+                if (migration.version() <= currentVersion) {
+                    continue;
+                }
+                migration.apply(connection, databaseType);
+                recordVersion(connection, migration);
+                currentVersion = migration.version();
+                applied.add(migration);
+            }
+        }
+        return applied;
+    }
+
+    public int currentVersion() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            ensureVersionTable(connection);
+            return currentVersion(connection);
+        }
+    }
+
+    private void ensureVersionTable(Connection connection) throws SQLException {
+        StringBuilder sql = new StringBuilder("CREATE TABLE IF NOT EXISTS ");
+        databaseType.appendEscapedEntityName(sql, VERSION_TABLE);
+        sql.append(" (version INT NOT NULL PRIMARY KEY, description VARCHAR(255) NOT NULL, applied_at BIGINT NOT NULL)");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql.toString());
+        }
+    }
+
+    private int currentVersion(Connection connection) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT MAX(version) FROM ");
+        databaseType.appendEscapedEntityName(sql, VERSION_TABLE);
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql.toString())) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void recordVersion(Connection connection, SchemaMigration migration) throws SQLException {
+        StringBuilder sql = new StringBuilder("INSERT INTO ");
+        databaseType.appendEscapedEntityName(sql, VERSION_TABLE);
+        sql.append(" (version, description, applied_at) VALUES (?, ?, ?)");
+        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            statement.setInt(1, migration.version());
+            statement.setString(2, migration.description());
+            statement.setLong(3, System.currentTimeMillis());
+            statement.executeUpdate();
+        }
+    }
+}
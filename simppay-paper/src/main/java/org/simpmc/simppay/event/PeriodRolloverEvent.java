@@ -0,0 +1,61 @@
+package org.simpmc.simppay.event;
+
+import lombok.Getter;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import org.simpmc.simppay.data.milestone.MilestoneType;
+import org.simpmc.simppay.util.PeriodWindow;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fired by PeriodService once each time the day changes; the week, month and year may end with it.
+ */
+@Getter
+public class PeriodRolloverEvent extends Event {
+
+    private static final HandlerList handlers = new HandlerList();
+
+    private final PeriodWindow previous;
+    private final PeriodWindow current;
+    // Timed periods that ended with this rollover
+    private final Set<MilestoneType> endedTypes;
+
+    public PeriodRolloverEvent(PeriodWindow previous, PeriodWindow current) {
+        this.previous = previous;
+        this.current = current;
+        this.endedTypes = endedTypes(previous, current);
+    }
+
+    public boolean hasEnded(MilestoneType type) {
+        return endedTypes.contains(type);
+    }
+
+    public static Set<MilestoneType> endedTypes(PeriodWindow previous, PeriodWindow current) {
+        Set<MilestoneType> ended = EnumSet.noneOf(MilestoneType.class);
+        if (previous.getDayStart() != current.getDayStart()) {
+            ended.add(MilestoneType.DAILY);
+        }
+        if (previous.getWeekStart() != current.getWeekStart()) {
+            ended.add(MilestoneType.WEEKLY);
+        }
+        if (previous.getMonthStart() != current.getMonthStart()) {
+            ended.add(MilestoneType.MONTHLY);
+        }
+        if (previous.getYearStart() != current.getYearStart()) {
+            ended.add(MilestoneType.YEARLY);
+        }
+        return ended;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return handlers;
+    }
+}
@@ -1,5 +1,6 @@
 package org.simpmc.simppay.event;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
@@ -9,16 +10,31 @@ import org.simpmc.simppay.handler.banking.sepay.data.SepayWebhookPayload;
 /**
  * Event fired when a Sepay webhook is received and validated.
  * Listeners can react to incoming transactions.
+ * The payload stays in the webhook spool until the event returns, or until the callback from {@link #defer()} ran.
  */
 @Getter
 public class SepayWebhookReceivedEvent extends Event {
     private static final HandlerList HANDLERS = new HandlerList();
 
     private final SepayWebhookPayload payload;
+    @Getter(AccessLevel.NONE)
+    private final Runnable handled;
+    private boolean deferred;
 
-    public SepayWebhookReceivedEvent(SepayWebhookPayload payload) {
+    public SepayWebhookReceivedEvent(SepayWebhookPayload payload, Runnable handled) {
         super(true); // async = true
         this.payload = payload;
+        this.handled = handled;
+    }
+
+    /**
+     * For listeners that finish handling the payload later, e.g. on the main thread.
+     *
+     * @return the callback to run once the payload was handled, it is kept in the spool until then
+     */
+    public Runnable defer() {
+        deferred = true;
+        return handled;
     }
 
     @NotNull
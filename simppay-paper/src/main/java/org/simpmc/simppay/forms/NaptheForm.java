@@ -19,6 +19,7 @@ import org.simpmc.simppay.util.SoundUtil;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public class NaptheForm {
     public static CustomForm getNapTheForm(Player player) {
@@ -52,18 +53,19 @@ public class NaptheForm {
                             .type(type)
                             .build();
                     Payment payment = new Payment(uuid, player.getUniqueId(), detail);
-                    if (SPPlugin.getService(PaymentService.class).getPayments().containsKey(payment.getPaymentID())) {
+                    if (SPPlugin.getService(PaymentService.class).isPending(payment.getPaymentID())) {
                         MessageUtil.sendMessage(player, messageConfig.pendingCard);
                         SoundUtil.sendSound(player, messageConfig.soundEffect.get(PaymentStatus.PENDING).toSound());
                         return;
                     }
 
-                    PaymentStatus status = SPPlugin.getService(PaymentService.class).sendCard(payment);
-
-                    if (status == PaymentStatus.FAILED) {
-                        MessageUtil.sendMessage(player, messageConfig.failedCard);
-                        SoundUtil.sendSound(player, messageConfig.soundEffect.get(PaymentStatus.FAILED).toSound());
-                    }
+                    CompletableFuture<PaymentStatus> result = SPPlugin.getService(PaymentService.class).sendCard(payment);
+                    PaymentService.deliver(player, result, status -> {
+                        if (status == PaymentStatus.FAILED) {
+                            MessageUtil.sendMessage(player, messageConfig.failedCard);
+                            SoundUtil.sendSound(player, messageConfig.soundEffect.get(PaymentStatus.FAILED).toSound());
+                        }
+                    });
                 })
                 .build();
     }
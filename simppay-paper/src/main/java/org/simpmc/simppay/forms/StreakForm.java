@@ -2,6 +2,7 @@ package org.simpmc.simppay.forms;
 
 import org.bukkit.entity.Player;
 import org.geysermc.cumulus.form.SimpleForm;
+import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.config.ConfigManager;
 import org.simpmc.simppay.config.types.StreakConfig;
 import org.simpmc.simppay.config.types.menu.FormsConfig;
@@ -22,8 +23,7 @@ import java.util.stream.Collectors;
 public class StreakForm {
 
     public static SimpleForm getStreakForm(Player player) {
-        StreakService streakService = new StreakService();
-        PlayerStreakPayment streak = streakService.getStreak(player.getUniqueId());
+        PlayerStreakPayment streak = SPPlugin.getService(StreakService.class).getStreak(player.getUniqueId());
         StreakConfig config = ConfigManager.getInstance().getConfig(StreakConfig.class);
         FormsConfig.StreakFormStrings f = ConfigManager.getInstance().getConfig(FormsConfig.class).streakForm;
 
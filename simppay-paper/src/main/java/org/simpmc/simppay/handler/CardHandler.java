@@ -1,6 +1,12 @@
 package org.simpmc.simppay.handler;
 
-import okhttp3.*;
+import okhttp3.MultipartBody;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.service.AsyncExecutorService;
+import org.simpmc.simppay.service.HttpClientService;
+import org.simpmc.simppay.service.http.HttpGateway;
 
 import java.io.IOException;
 import java.util.List;
@@ -10,9 +16,7 @@ import java.util.concurrent.CompletableFuture;
 public abstract class CardHandler implements CardAdapter, PaymentHandler {
 
     public CompletableFuture<String> postFormData(List<Map<String, String>> formData, String url) {
-        return CompletableFuture.supplyAsync(() -> {
-            OkHttpClient client = new OkHttpClient.Builder().build();
-
+        return SPPlugin.getService(AsyncExecutorService.class).supplyGateway(() -> {
             MultipartBody.Builder requestBodyBuilder = new MultipartBody.Builder()
                     .setType(MultipartBody.FORM);
 
@@ -32,10 +36,8 @@ public abstract class CardHandler implements CardAdapter, PaymentHandler {
                     .post(requestBody)
                     .build();
 
-            Call call = client.newCall(request);
             try {
-                Response response = call.execute();
-                return response.body().string();
+                return SPPlugin.getService(HttpClientService.class).executeForString(HttpGateway.CARD, request);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
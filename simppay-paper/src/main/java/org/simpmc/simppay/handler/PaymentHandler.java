@@ -5,14 +5,49 @@ import org.simpmc.simppay.model.Payment;
 import org.simpmc.simppay.model.PaymentResult;
 import org.simpmc.simppay.model.detail.PaymentDetail;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface PaymentHandler {
 
-    PaymentStatus processPayment(Payment payment); // should only return pending or exist
+    /**
+     * Submits a payment to the gateway without blocking the calling thread, which is usually a command or GUI thread.
+     * The future may complete on a gateway I/O thread; events raised while handling the response are fired with
+     * {@link org.simpmc.simppay.util.EventUtil#callSync}.
+     *
+     * @return PENDING once the gateway accepted the payment, otherwise FAILED or EXIST
+     */
+    CompletableFuture<PaymentStatus> processPayment(Payment payment);
 
     PaymentResult getTransactionResult(PaymentDetail detail);
 
-    default PaymentStatus cancel(Payment payment) {
-        return PaymentStatus.CANCELLED;
+    /**
+     * Checks several pending payments, one result per detail in the same order.
+     * Handlers whose API lists recent transactions in one response override this with a single request.
+     */
+    default List<PaymentResult> getTransactionResults(List<PaymentDetail> details) {
+        List<PaymentResult> results = new ArrayList<>(details.size());
+        for (PaymentDetail detail : details) {
+            results.add(getTransactionResult(detail));
+        }
+        return results;
+    }
+
+    /**
+     * @return true if {@link #getTransactionResults(List)} costs one upstream request however many payments are pending
+     */
+    default boolean supportsBatchPolling() {
+        return false;
+    }
+
+    /**
+     * Cancels a created payment on the gateway without blocking; called from the cancellation worker.
+     *
+     * @return CANCELLED once the gateway confirmed it, anything else is retried later
+     */
+    default CompletableFuture<PaymentStatus> cancel(Payment payment) {
+        return CompletableFuture.completedFuture(PaymentStatus.CANCELLED);
     }
 
     default boolean supportsCancellation() {
@@ -18,7 +18,4 @@ public class BankingData {
 
     @Nullable
     public String qrString;
-
-    @Nullable
-    public String qrImageUrl;
 }
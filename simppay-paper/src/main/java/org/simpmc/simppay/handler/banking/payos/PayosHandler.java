@@ -1,7 +1,9 @@
 package org.simpmc.simppay.handler.banking.payos;
 
 import lombok.NoArgsConstructor;
-import org.bukkit.Bukkit;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
 import org.jetbrains.annotations.NotNull;
 import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.config.ConfigManager;
@@ -19,39 +21,44 @@ import org.simpmc.simppay.model.Payment;
 import org.simpmc.simppay.model.PaymentResult;
 import org.simpmc.simppay.model.detail.BankingDetail;
 import org.simpmc.simppay.model.detail.PaymentDetail;
+import org.simpmc.simppay.service.AsyncExecutorService;
+import org.simpmc.simppay.service.HttpClientService;
 import org.simpmc.simppay.service.OrderIDService;
+import org.simpmc.simppay.service.http.HttpGateway;
+import org.simpmc.simppay.util.EventUtil;
 import org.simpmc.simppay.util.GsonUtil;
 import org.simpmc.simppay.util.HashUtil;
 import org.simpmc.simppay.util.MessageUtil;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
 
 @NoArgsConstructor
 public class PayosHandler extends BankHandler {
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
     String RETURN_CANCEL_URl = "https://payos.vn";
     // Package-accessible for test override
     public String baseApiUrl = "https://api-merchant.payos.vn/v2/payment-requests";
 
     @Override
-    public PaymentStatus processPayment(Payment payment) {
+    public CompletableFuture<PaymentStatus> processPayment(Payment payment) {
         // Create payment through payos and call queue success event, ref id should contain payos payment link id
         BankingDetail detail = (BankingDetail) payment.getDetail();
 
-        PayosResponse request;
-        try {
-            request = requestTransaction(detail).get();
-        } catch (InterruptedException | ExecutionException e) {
-            MessageUtil.error("[PayOS-ProcessPayment] Failed to create payment request", e);
-            return PaymentStatus.FAILED;
-        }
+        return requestTransaction(detail).handle((request, error) -> {
+            if (error != null) {
+                MessageUtil.error("[PayOS-ProcessPayment] Failed to create payment request", error);
+                return PaymentStatus.FAILED;
+            }
+            return onPaymentCreated(payment, request);
+        });
+    }
+
+    private PaymentStatus onPaymentCreated(Payment payment, PayosResponse request) {
         if (request == null || request.getData() == null) {
             MessageUtil.warn("[PayOS-ProcessPayment] Request returned null - check API key/client ID configuration");
             return PaymentStatus.FAILED;
@@ -66,7 +73,7 @@ public class PayosHandler extends BankHandler {
             MessageUtil.debug("[PayOS-ProcessPayment]" + request);
             String refID = request.getData().getPaymentLinkId();
             payment.getDetail().setRefID(refID);
-            Bukkit.getPluginManager().callEvent(new PaymentQueueSuccessEvent(payment));
+            EventUtil.callSync(new PaymentQueueSuccessEvent(payment));
 
             BankingData bankData = BankingData.builder()
                     .bin(request.getData().getBin())
@@ -78,7 +85,7 @@ public class PayosHandler extends BankHandler {
                     .qrString(request.getData().getQrCode())
                     .build();
 
-            Bukkit.getPluginManager().callEvent(new PaymentBankPromptEvent(bankData));
+            EventUtil.callSync(new PaymentBankPromptEvent(bankData));
             return PaymentStatus.PENDING;
         }
         MessageUtil.warn("[PayOS-ProcessPayment] Unexpected status from PayOS: " + request);
@@ -116,10 +123,12 @@ public class PayosHandler extends BankHandler {
     }
 
     @Override
-    public PaymentStatus cancel(Payment payment) {
-        try {
-            PayosResponse response = cancel(payment.getDetail().getRefID()).get();
-
+    public CompletableFuture<PaymentStatus> cancel(Payment payment) {
+        return cancel(payment.getDetail().getRefID()).handle((response, error) -> {
+            if (error != null) {
+                MessageUtil.error("[PayOS-Cancel] Failed to cancel payment", error);
+                return PaymentStatus.FAILED;
+            }
             if (response == null || response.getData() == null) {
                 MessageUtil.debug("[PayOS-Cancel] Data is null");
                 return PaymentStatus.FAILED;
@@ -128,15 +137,12 @@ public class PayosHandler extends BankHandler {
             if (PayosAdapter.getStatus(response.getData().getStatus()) == PaymentStatus.CANCELLED) {
                 return PaymentStatus.CANCELLED;
             }
-        } catch (InterruptedException | ExecutionException e) {
-            MessageUtil.error("[PayOS-Cancel] Failed to cancel payment", e);
             return PaymentStatus.FAILED;
-        }
-        return PaymentStatus.FAILED;
+        });
     }
 
     private CompletableFuture<PayosResponse> getTransactionStatus(String paymentID) {
-        return CompletableFuture.supplyAsync(() -> {
+        return SPPlugin.getService(AsyncExecutorService.class).supplyGateway(() -> {
             PayosConfig config = ConfigManager.getInstance().getConfig(PayosConfig.class);
             String url = MessageFormat.format(baseApiUrl + "/{0}",
                     paymentID
@@ -154,7 +160,7 @@ public class PayosHandler extends BankHandler {
 
     private CompletableFuture<PayosResponse> cancel(String paymentID) {
 
-        return CompletableFuture.supplyAsync(() -> {
+        return SPPlugin.getService(AsyncExecutorService.class).supplyGateway(() -> {
             PayosConfig config = ConfigManager.getInstance().getConfig(PayosConfig.class);
             String url = MessageFormat.format(baseApiUrl + "/{0}/cancel",
                     paymentID
@@ -172,7 +178,7 @@ public class PayosHandler extends BankHandler {
     }
 
     private CompletableFuture<PayosResponse> requestTransaction(BankingDetail bank) {
-        return CompletableFuture.supplyAsync(() -> {
+        return SPPlugin.getService(AsyncExecutorService.class).supplyGateway(() -> {
             PayosConfig config = ConfigManager.getInstance().getConfig(PayosConfig.class);
             BankingConfig bankConfig = ConfigManager.getInstance().getConfig(BankingConfig.class);
 
@@ -216,40 +222,34 @@ public class PayosHandler extends BankHandler {
     }
 
     private @NotNull String post(String base, PayosConfig config, String payload) throws IOException {
-        HttpURLConnection connection = (HttpURLConnection) (new URL(base)).openConnection();
-        connection.setRequestMethod("POST");
-        connection.setRequestProperty("x-api-key", config.apiKey);
-        connection.setRequestProperty("x-client-id", config.clientId);
-        connection.setRequestProperty("x-partner-code", "simpmc");
-        connection.setRequestProperty("Content-Type", "application/json");
-        connection.setRequestProperty("Charset", "UTF-8");
-        connection.setDoOutput(true);
-        connection.setConnectTimeout(7000);
-        connection.setReadTimeout(7000);
-
-        try (var outputStream = connection.getOutputStream()) {
-            outputStream.write(payload.getBytes());
-            outputStream.flush();
-        }
-
-        try (var reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-            return reader.lines().collect(Collectors.joining());
-        }
+        Request request = requestBuilder(base, config)
+                .post(RequestBody.create(payload, JSON))
+                .build();
+        return execute(request);
     }
 
     private @NotNull String get(String base, PayosConfig config) throws IOException {
-        HttpURLConnection connection = (HttpURLConnection) (new URL(base)).openConnection();
-        connection.setRequestMethod("GET");
-        connection.setRequestProperty("x-api-key", config.apiKey);
-        connection.setRequestProperty("x-client-id", config.clientId);
-        connection.setRequestProperty("x-partner-code", "simpmc");
-        connection.setRequestProperty("Content-Type", "application/json");
-        connection.setRequestProperty("Charset", "UTF-8");
-        connection.setConnectTimeout(7000);
-        connection.setReadTimeout(7000);
-
-        try (var reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-            return reader.lines().collect(Collectors.joining());
-        }
+        Request request = requestBuilder(base, config)
+                .get()
+                .build();
+        return execute(request);
+    }
+
+    private static Request.Builder requestBuilder(String url, PayosConfig config) {
+        return new Request.Builder()
+                .url(url)
+                .header("x-api-key", config.apiKey)
+                .header("x-client-id", config.clientId)
+                .header("x-partner-code", "simpmc");
+    }
+
+    private static @NotNull String execute(Request request) throws IOException {
+        return SPPlugin.getService(HttpClientService.class).execute(HttpGateway.PAYOS, request, (code, body, length) -> {
+            // Error statuses used to surface as an IOException from HttpURLConnection
+            if (code >= 400) {
+                throw new IOException("Server returned HTTP response code: " + code + " for URL: " + request.url());
+            }
+            return new String(body, 0, length, StandardCharsets.UTF_8);
+        });
     }
 }
@@ -1,7 +1,6 @@
 package org.simpmc.simppay.handler.banking.sepay;
 
 import lombok.NoArgsConstructor;
-import org.bukkit.Bukkit;
 import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.config.ConfigManager;
 import org.simpmc.simppay.config.types.banking.SepayConfig;
@@ -16,24 +15,30 @@ import org.simpmc.simppay.model.PaymentResult;
 import org.simpmc.simppay.model.detail.BankingDetail;
 import org.simpmc.simppay.model.detail.PaymentDetail;
 import org.simpmc.simppay.service.BankCacheService;
+import org.simpmc.simppay.util.EventUtil;
 import org.simpmc.simppay.util.MessageUtil;
 import org.simpmc.simppay.util.ReferenceCodeUtil;
+import org.simpmc.simppay.util.qrcode.VietQRPayload;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Sepay Banking Handler - Webhook-based
  * <p>
  * Handles manual bank transfer payments through Sepay webhooks.
  * Players transfer to a bank account and Sepay sends webhook when transaction occurs.
- * Uses remote QR API from qr.sepay.vn for QR code generation.
+ * The VietQR code is built locally from the bank BIN, see {@link VietQRPayload}.
  */
 @NoArgsConstructor
 public class SepayHandler extends BankHandler {
 
     @Override
-    public PaymentStatus processPayment(Payment payment) {
+    public CompletableFuture<PaymentStatus> processPayment(Payment payment) {
+        // Nothing to call upstream, the bank details and QR are built from config and the bank cache
+        return CompletableFuture.completedFuture(prepareTransfer(payment));
+    }
+
+    private PaymentStatus prepareTransfer(Payment payment) {
         // Sepay is for manual bank transfers - just display bank account info
         BankingDetail detail = (BankingDetail) payment.getDetail();
         SepayConfig config = ConfigManager.getInstance().getConfig(SepayConfig.class);
@@ -67,16 +72,10 @@ public class SepayHandler extends BankHandler {
         MessageUtil.debug("[Sepay-ProcessPayment] Generated reference code: " + referenceCode);
 
         // Fire queue success event (payment is now pending)
-        Bukkit.getPluginManager().callEvent(new PaymentQueueSuccessEvent(payment));
+        EventUtil.callSync(new PaymentQueueSuccessEvent(payment));
 
-        // Build remote QR API URL
-        String qrImageUrl = buildQrImageUrl(
-                config.accountNumber,
-                config.bankName,
-                (int) detail.getAmount(),
-                referenceCode
-        );
-        MessageUtil.debug("[Sepay-ProcessPayment] QR Image URL: " + qrImageUrl);
+        String qrString = VietQRPayload.build(bin, config.accountNumber, (long) detail.getAmount(), referenceCode);
+        MessageUtil.debug("[Sepay-ProcessPayment] QR payload: " + qrString);
 
         // Build banking data for display to player
         BankingData bankingData = BankingData.builder()
@@ -86,12 +85,11 @@ public class SepayHandler extends BankHandler {
                 .amount(detail.getAmount())
                 .url(null) // No checkout URL for manual transfers
                 .accountNumber(config.accountNumber)
-                .qrString(null) // No longer using local QR string
-                .qrImageUrl(qrImageUrl) // Use remote QR image URL
+                .qrString(qrString)
                 .build();
 
         // Fire bank prompt event (show bank info to player)
-        Bukkit.getPluginManager().callEvent(new PaymentBankPromptEvent(bankingData));
+        EventUtil.callSync(new PaymentBankPromptEvent(bankingData));
 
         MessageUtil.debug("[Sepay-ProcessPayment] Manual transfer initiated for " + detail.getAmount() + " VND");
         MessageUtil.debug("[Sepay-ProcessPayment] Reference: " + referenceCode + ", waiting for webhook...");
@@ -106,23 +104,4 @@ public class SepayHandler extends BankHandler {
         MessageUtil.debug("[Sepay-GetTransactionResult] Webhook-based system - returning PENDING");
         return new PaymentResult(PaymentStatus.PENDING, 0, null);
     }
-
-    /**
-     * Builds the remote QR image URL from qr.sepay.vn
-     *
-     * @param accountNumber Bank account number
-     * @param bankName      Bank name (e.g., "Vietcombank")
-     * @param amount        Payment amount
-     * @param description   Payment description (reference code)
-     * @return QR image URL
-     */
-    private String buildQrImageUrl(String accountNumber, String bankName, int amount, String description) {
-        return String.format(
-                "https://qr.sepay.vn/img?acc=%s&bank=%s&amount=%d&des=%s&template=qronly",
-                URLEncoder.encode(accountNumber, StandardCharsets.UTF_8),
-                URLEncoder.encode(bankName, StandardCharsets.UTF_8),
-                amount,
-                URLEncoder.encode(description, StandardCharsets.UTF_8)
-        );
-    }
 }
@@ -0,0 +1,50 @@
+package org.simpmc.simppay.handler.banking.sepay;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the reference codes ({@code descriptionPrefix} + 10 letters or digits, see ReferenceCodeUtil)
+ * from a transfer description, so a webhook is matched with hash lookups instead of scanning every pending payment.
+ */
+public class SepayReferenceExtractor {
+    private static volatile Compiled compiled;
+
+    /**
+     * @return every candidate code in the content, upper-cased, in order of appearance
+     */
+    public static List<String> extract(String content, String prefix) {
+        List<String> codes = new ArrayList<>(1);
+        if (content == null || content.isEmpty()) {
+            return codes;
+        }
+        Matcher matcher = pattern(prefix).matcher(content);
+        while (matcher.find()) {
+            codes.add(matcher.group().toUpperCase(Locale.ROOT));
+        }
+        return codes;
+    }
+
+    /**
+     * @return the key a reference code is indexed under, matching {@link #extract}
+     */
+    public static String key(String refID) {
+        return refID.toUpperCase(Locale.ROOT);
+    }
+
+    private static Pattern pattern(String prefix) {
+        Compiled current = compiled;
+        if (current == null || !current.prefix.equals(prefix)) {
+            // Recompiled only when the prefix changes on reload
+            current = new Compiled(prefix, Pattern.compile(Pattern.quote(prefix) + "[A-Z0-9]{10}", Pattern.CASE_INSENSITIVE));
+            compiled = current;
+        }
+        return current.pattern;
+    }
+
+    private record Compiled(String prefix, Pattern pattern) {
+    }
+}
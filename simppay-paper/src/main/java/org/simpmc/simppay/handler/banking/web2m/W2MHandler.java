@@ -1,26 +1,36 @@
 package org.simpmc.simppay.handler.banking.web2m;
 
-import org.bukkit.Bukkit;
+import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.MainConfig;
 import org.simpmc.simppay.config.types.banking.Web2mConfig;
 import org.simpmc.simppay.data.PaymentStatus;
 import org.simpmc.simppay.data.bank.web2m.BankType;
 import org.simpmc.simppay.event.PaymentBankPromptEvent;
 import org.simpmc.simppay.event.PaymentQueueSuccessEvent;
-import okhttp3.Call;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import org.simpmc.simppay.handler.BankHandler;
 import org.simpmc.simppay.handler.banking.data.BankingData;
 import org.simpmc.simppay.handler.banking.web2m.data.W2MReponse;
+import org.simpmc.simppay.handler.banking.web2m.data.W2MTransactions;
 import org.simpmc.simppay.model.Payment;
 import org.simpmc.simppay.model.PaymentResult;
 import org.simpmc.simppay.model.detail.PaymentDetail;
+import org.simpmc.simppay.service.AsyncExecutorService;
+import org.simpmc.simppay.service.HttpClientService;
+import org.simpmc.simppay.service.http.HttpGateway;
+import org.simpmc.simppay.util.AhoCorasickMatcher;
+import org.simpmc.simppay.util.EventUtil;
 import org.simpmc.simppay.util.GsonUtil;
 import org.simpmc.simppay.util.MessageUtil;
+import org.simpmc.simppay.util.RecentIdSet;
+import org.simpmc.simppay.util.qrcode.VietQRPayload;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -28,10 +38,19 @@ import java.util.concurrent.ExecutionException;
 public class W2MHandler extends BankHandler {
 
     String urlBase = "https://api.web2m.com/";
+    // Transactions that already paid for a payment, Web2M keeps listing them for a while
+    private final RecentIdSet processedTransactions = new RecentIdSet(10_000);
+    private W2MReponse cachedResponse;
+    private long cachedAt;
 
 
     @Override
-    public PaymentStatus processPayment(Payment payment) {
+    public CompletableFuture<PaymentStatus> processPayment(Payment payment) {
+        // Web2M has no create call, the transfer is matched against the account's transaction list later
+        return CompletableFuture.completedFuture(prepareTransfer(payment));
+    }
+
+    private PaymentStatus prepareTransfer(Payment payment) {
         Web2mConfig w2mConfig = ConfigManager.getInstance().getConfig(Web2mConfig.class);
         BankType bank = w2mConfig.bankType;
         String accountNumber = w2mConfig.accountNumber;
@@ -51,16 +70,118 @@ public class W2MHandler extends BankHandler {
                 .amount(detail.getAmount())
                 .url(null)
                 .accountNumber(w2mConfig.accountNumber)
-                .qrString(null)
+                .qrString(VietQRPayload.build(bank.bin, accountNumber, (long) detail.getAmount(), refId))
                 .build();
         MessageUtil.debug("[W2M-ProcessPayment]" + bankData);
-        Bukkit.getPluginManager().callEvent(new PaymentQueueSuccessEvent(payment));
-        Bukkit.getPluginManager().callEvent(new PaymentBankPromptEvent(bankData));
+        EventUtil.callSync(new PaymentQueueSuccessEvent(payment));
+        EventUtil.callSync(new PaymentBankPromptEvent(bankData));
         return PaymentStatus.PENDING;
     }
 
     @Override
     public PaymentResult getTransactionResult(PaymentDetail detail) {
+        return getTransactionResults(List.of(detail)).get(0);
+    }
+
+    /**
+     * Web2M returns the account's recent transactions, so one fetch answers every pending payment.
+     * The refIDs are matched against each description in a single pass, and a transaction that already paid
+     * for a payment is never matched again.
+     * <p>
+     * If the list cannot be fetched every payment stays PENDING: the batch also holds payments that were not due
+     * yet, and the poller retries with backoff until the banking timeout expires them.
+     */
+    @Override
+    public List<PaymentResult> getTransactionResults(List<PaymentDetail> details) {
+        W2MReponse w2mResponse = fetchTransactionsOncePerInterval();
+        Set<String> paid = w2mResponse == null ? Set.of() : reconcile(w2mResponse, details);
+        List<PaymentResult> results = new ArrayList<>(details.size());
+        for (PaymentDetail detail : details) {
+            if (w2mResponse == null) {
+                // A failed request says nothing about this payment
+                results.add(new PaymentResult(
+                        PaymentStatus.PENDING,
+                        (int) detail.getAmount(),
+                        ""
+                ));
+            } else if (paid.contains(detail.getRefID())) {
+                MessageUtil.debug("[W2M-GetTransactionResult] Transaction found for " + detail.getRefID());
+                results.add(new PaymentResult(
+                        PaymentStatus.SUCCESS,
+                        (int) detail.getAmount(),
+                        ""
+                ));
+            } else {
+                // note: expires after the banking timeout, logic in PaymentPollingService
+                MessageUtil.debug("[W2M-GetTransactionResult] No transaction found for " + detail.getRefID());
+                results.add(new PaymentResult(
+                        PaymentStatus.PENDING,
+                        (int) detail.getAmount(),
+                        ""
+                ));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return refIDs of the pending payments that a new transaction paid for
+     */
+    private Set<String> reconcile(W2MReponse response, List<PaymentDetail> details) {
+        List<String> refIds = new ArrayList<>(details.size());
+        for (PaymentDetail detail : details) {
+            refIds.add(detail.getRefID());
+        }
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(refIds);
+        Set<String> paid = new HashSet<>();
+        if (matcher.isEmpty() || response.getTransactions() == null) {
+            return paid;
+        }
+        for (W2MTransactions tx : response.getTransactions()) {
+            String txId = tx.getTransactionID();
+            if (txId != null && processedTransactions.contains(txId)) {
+                continue;
+            }
+            for (String refId : matcher.findAll(tx.getDescription())) {
+                // One transfer pays for one payment
+                if (paid.add(refId)) {
+                    if (txId != null) {
+                        processedTransactions.add(txId);
+                    }
+                    break;
+                }
+            }
+        }
+        return paid;
+    }
+
+    /**
+     * Reuses the last transaction list while it is younger than the poll interval, so polls of
+     * payments that fall due close together share one request.
+     */
+    private synchronized W2MReponse fetchTransactionsOncePerInterval() {
+        long maxAge = ConfigManager.getInstance().getConfig(MainConfig.class).intervalApiCall * 1000L;
+        long now = System.currentTimeMillis();
+        if (cachedResponse != null && now - cachedAt < maxAge) {
+            return cachedResponse;
+        }
+        W2MReponse response = fetchTransactions();
+        if (response != null) {
+            cachedResponse = response;
+            cachedAt = now;
+        }
+        return response;
+    }
+
+    @Override
+    public boolean supportsBatchPolling() {
+        return true;
+    }
+
+    /**
+     * @return the parsed transaction list, or null if the request failed or the credentials were rejected
+     */
+    private W2MReponse fetchTransactions() {
         Web2mConfig w2mConfig = ConfigManager.getInstance().getConfig(Web2mConfig.class);
 
         String username = w2mConfig.login;
@@ -81,11 +202,7 @@ public class W2MHandler extends BankHandler {
             MessageUtil.debug("[W2M-GetTransactionResult] Response: " + response);
         } catch (InterruptedException | ExecutionException e) {
             MessageUtil.warn("[W2M-GetTransactionResult] Error while getting transaction result: " + e.getMessage());
-            return new PaymentResult(
-                    PaymentStatus.FAILED,
-                    (int) detail.getAmount(),
-                    ""
-            );
+            return null;
         }
         // 3 parse the response
         W2MReponse w2mResponse;
@@ -98,61 +215,25 @@ public class W2MHandler extends BankHandler {
         // 4 check if response is valid
         if (w2mResponse == null) {
             MessageUtil.warn("[W2M-GetTransactionResult] Response is not valid");
-            return new PaymentResult(
-                    PaymentStatus.FAILED,
-                    (int) detail.getAmount(),
-                    ""
-            );
-
+            return null;
         }
         // 5 check if response status is true
         if (!w2mResponse.getStatus()) {
             MessageUtil.warn("[W2M-GetTransactionResult] Invalid login or token");
             MessageUtil.warn("[W2M-GetTransactionResult] " + w2mResponse);
-            return new PaymentResult(
-                    PaymentStatus.FAILED,
-                    (int) detail.getAmount(),
-                    ""
-            );
-        }
-        // 6 if there is returned data, proceed
-        if (w2mResponse.getStatus()) {
-            boolean matched = w2mResponse.getTransactions().stream().anyMatch(tx -> tx.getDescription().contains(detail.getRefID()));
-            if (matched) {
-                MessageUtil.debug("[W2M-GetTransactionResult] Transaction found for " + detail.getRefID());
-                return new PaymentResult(
-                        PaymentStatus.SUCCESS,
-                        (int) detail.getAmount(),
-                        ""
-                );
-            } else {
-                // note: expire after 5 minutes by default, logic in PaymentHandlingListener
-                MessageUtil.debug("[W2M-GetTransactionResult] No transaction found for " + detail.getRefID());
-                return new PaymentResult(
-                        PaymentStatus.PENDING,
-                        (int) detail.getAmount(),
-                        ""
-                );
-            }
+            return null;
         }
-        return new PaymentResult(
-                PaymentStatus.FAILED,
-                (int) detail.getAmount(),
-                ""
-        );
+        return w2mResponse;
     }
 
     private CompletableFuture<String> get(String url) {
-        return CompletableFuture.supplyAsync(() -> {
-            OkHttpClient client = new OkHttpClient.Builder().build();
+        return SPPlugin.getService(AsyncExecutorService.class).supplyGateway(() -> {
             Request request = new Request.Builder()
                     .url(url)
                     .get()
                     .build();
-            Call call = client.newCall(request);
             try {
-                Response response = call.execute();
-                return response.body().string();
+                return SPPlugin.getService(HttpClientService.class).executeForString(HttpGateway.WEB2M, request);
             } catch (IOException e) {
                 MessageUtil.warn("[W2M] GET request failed for URL: " + url + " - " + e.getMessage());
                 throw new RuntimeException(e);
@@ -2,7 +2,6 @@ package org.simpmc.simppay.handler.card.nencer;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import org.bukkit.Bukkit;
 import org.simpmc.simppay.config.ConfigManager;
 import org.simpmc.simppay.data.PaymentStatus;
 import org.simpmc.simppay.data.card.CardType;
@@ -12,12 +11,14 @@ import org.simpmc.simppay.model.Payment;
 import org.simpmc.simppay.model.PaymentResult;
 import org.simpmc.simppay.model.detail.CardDetail;
 import org.simpmc.simppay.model.detail.PaymentDetail;
+import org.simpmc.simppay.util.EventUtil;
 import org.simpmc.simppay.util.HashUtil;
 import org.simpmc.simppay.util.MessageUtil;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 public class NencerCardHandler extends CardHandler {
@@ -54,7 +55,7 @@ public class NencerCardHandler extends CardHandler {
     }
 
     @Override
-    public PaymentStatus processPayment(Payment paymentarg) {
+    public CompletableFuture<PaymentStatus> processPayment(Payment paymentarg) {
         NencerCardConfig config = ConfigManager.getInstance().getConfig(configClass);
         CardDetail detail = (CardDetail) paymentarg.getDetail();
         List<Map<String, String>> formData = new ArrayList<>();
@@ -70,25 +71,24 @@ public class NencerCardHandler extends CardHandler {
                 "sign", hash,
                 "command", "charging"
         ));
-        String response;
-        try {
-            response = postFormData(formData, apiUrl).get();
-        } catch (InterruptedException | ExecutionException e) {
-            MessageUtil.debug("[" + debugPrefix + "-ProcessPayment] Error while processing payment: " + e.getMessage());
-            return PaymentStatus.FAILED;
-        }
-        JsonObject jsonResponse = JsonParser.parseString(response).getAsJsonObject();
-        if (jsonResponse.get("status").getAsInt() == 99) {
-            MessageUtil.debug("[" + debugPrefix + "-ProcessPayment] " + jsonResponse);
-            detail.setRefID(hash);
-            paymentarg.getDetail().setRefID(hash);
-            paymentarg.setDetail(detail);
-            Bukkit.getPluginManager().callEvent(new PaymentQueueSuccessEvent(paymentarg));
-            return PaymentStatus.PENDING;
-        } else {
-            MessageUtil.debug(response);
-            return PaymentStatus.FAILED;
-        }
+        return postFormData(formData, apiUrl).handle((response, error) -> {
+            if (error != null) {
+                MessageUtil.debug("[" + debugPrefix + "-ProcessPayment] Error while processing payment: " + error.getMessage());
+                return PaymentStatus.FAILED;
+            }
+            JsonObject jsonResponse = JsonParser.parseString(response).getAsJsonObject();
+            if (jsonResponse.get("status").getAsInt() == 99) {
+                MessageUtil.debug("[" + debugPrefix + "-ProcessPayment] " + jsonResponse);
+                detail.setRefID(hash);
+                paymentarg.getDetail().setRefID(hash);
+                paymentarg.setDetail(detail);
+                EventUtil.callSync(new PaymentQueueSuccessEvent(paymentarg));
+                return PaymentStatus.PENDING;
+            } else {
+                MessageUtil.debug(response);
+                return PaymentStatus.FAILED;
+            }
+        });
     }
 
     @Override
@@ -0,0 +1,235 @@
+package org.simpmc.simppay.hook.hooks;
+
+import org.jetbrains.annotations.Nullable;
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.CoinsConfig;
+import org.simpmc.simppay.config.types.MessageConfig;
+import org.simpmc.simppay.service.cache.CacheDataService;
+import org.simpmc.simppay.service.cache.FormattedAmount;
+import org.simpmc.simppay.service.cache.FormattedTotals;
+import org.simpmc.simppay.service.cache.LeaderboardEntry;
+import org.simpmc.simppay.service.cache.LeaderboardType;
+import org.simpmc.simppay.service.cache.StreakValues;
+import org.simpmc.simppay.service.database.StreakService;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves %simppay_*% identifiers from in-memory, preformatted values.
+ * <p>
+ * - Fixed identifiers are dispatched with a string switch, leaderboard identifiers are parsed once and cached
+ * - Every value comes from {@link CacheDataService} or {@link StreakService}; nothing here queries the database or blocks
+ * - Player values that are not cached yet are loaded asynchronously, the loading text is returned meanwhile
+ */
+public class PlaceholderResolver {
+    // Upper bound for cached identifier parses, identifiers normally come from a handful of config files
+    private static final int MAX_PARSED_IDENTIFIERS = 4096;
+    private static final LeaderboardKey NOT_LEADERBOARD = new LeaderboardKey(null, 0, null);
+
+    private final CacheDataService cacheService;
+    private final StreakService streakService;
+    private final ConcurrentHashMap<String, LeaderboardKey> leaderboardKeys = new ConcurrentHashMap<>();
+    private volatile PromoEnd promoEnd;
+
+    public PlaceholderResolver(CacheDataService cacheService, StreakService streakService) {
+        this.cacheService = cacheService;
+        this.streakService = streakService;
+    }
+
+    /**
+     * @param playerUUID Player the placeholder is requested for, or null without a player
+     * @param identifier Identifier without the "simppay_" prefix
+     * @return the value, or null if the identifier is unknown or needs a player
+     */
+    public String resolve(@Nullable UUID playerUUID, String identifier) {
+        String id = identifier.toLowerCase(Locale.ROOT);
+
+        // ===== SERVER-WIDE PLACEHOLDERS (work without player) =====
+        switch (id) {
+            case "server_total":
+                return cacheService.getServerFormatted().total().raw();
+            case "server_total_formatted":
+                return cacheService.getServerFormatted().total().formatted();
+            case "server_daily_formatted":
+                return cacheService.getServerFormatted().daily().formatted();
+            case "server_weekly_formatted":
+                return cacheService.getServerFormatted().weekly().formatted();
+            case "server_monthly_formatted":
+                return cacheService.getServerFormatted().monthly().formatted();
+            case "server_yearly_formatted":
+                return cacheService.getServerFormatted().yearly().formatted();
+            case "bank_total_formatted":
+                return cacheService.getServerFormatted().bank().formatted();
+            case "card_total_formatted":
+                return cacheService.getServerFormatted().card().formatted();
+            case "end_promo":
+                return endPromo();
+            default:
+                break;
+        }
+
+        // ===== LEADERBOARD PLACEHOLDERS =====
+        // %simppay_top_daily_1_name%, %simppay_leaderboard_weekly_5_amount%, %simppay_leaderboard_monthly_rank%
+        LeaderboardKey key = leaderboardKey(id);
+        if (key != NOT_LEADERBOARD) {
+            if (key.field() != LeaderboardField.RANK) {
+                LeaderboardEntry entry = cacheService.getLeaderboardEntry(key.type(), key.rank());
+                if (entry == null) {
+                    return "N/A";
+                }
+                return key.field() == LeaderboardField.NAME ? entry.getPlayerName() : entry.getFormattedAmount();
+            }
+            return playerUUID == null ? null : Integer.toString(cacheService.getLeaderboardRank(key.type(), playerUUID));
+        }
+
+        // ===== PLAYER-SPECIFIC PLACEHOLDERS (require player) =====
+        if (playerUUID == null) {
+            return null;
+        }
+        return switch (id) {
+            case "total" -> raw(playerUUID, Period.TOTAL);
+            case "total_formatted" -> formatted(playerUUID, Period.TOTAL);
+            case "daily" -> raw(playerUUID, Period.DAILY);
+            case "daily_formatted" -> formatted(playerUUID, Period.DAILY);
+            case "weekly" -> raw(playerUUID, Period.WEEKLY);
+            case "weekly_formatted" -> formatted(playerUUID, Period.WEEKLY);
+            case "monthly" -> raw(playerUUID, Period.MONTHLY);
+            case "monthly_formatted" -> formatted(playerUUID, Period.MONTHLY);
+            case "yearly" -> raw(playerUUID, Period.YEARLY);
+            case "yearly_formatted" -> formatted(playerUUID, Period.YEARLY);
+            case "streak_current" -> {
+                StreakValues streak = streakService.getStreakValues(playerUUID);
+                yield streak == null ? loading() : streak.current();
+            }
+            case "streak_best" -> {
+                StreakValues streak = streakService.getStreakValues(playerUUID);
+                yield streak == null ? loading() : streak.best();
+            }
+            default -> null;
+        };
+    }
+
+    private String raw(UUID playerUUID, Period period) {
+        FormattedAmount amount = playerAmount(playerUUID, period);
+        return amount == null ? loading() : amount.raw();
+    }
+
+    private String formatted(UUID playerUUID, Period period) {
+        FormattedAmount amount = playerAmount(playerUUID, period);
+        return amount == null ? loading() : amount.formatted();
+    }
+
+    private FormattedAmount playerAmount(UUID playerUUID, Period period) {
+        FormattedTotals totals = cacheService.getPlayerFormatted(playerUUID);
+        if (totals == null) {
+            return null;
+        }
+        return switch (period) {
+            case TOTAL -> totals.total();
+            case DAILY -> totals.daily();
+            case WEEKLY -> totals.weekly();
+            case MONTHLY -> totals.monthly();
+            case YEARLY -> totals.yearly();
+        };
+    }
+
+    private String loading() {
+        return ConfigManager.getInstance().getConfig(MessageConfig.class).placeholderLoading;
+    }
+
+    private String endPromo() {
+        CoinsConfig coinsConfig = ConfigManager.getInstance().getConfig(CoinsConfig.class);
+        PromoEnd cached = promoEnd;
+        // Re-parse only when the configured string changed (config reload)
+        if (cached == null || cached.source() != coinsConfig.promoEndTimeString) {
+            LocalDateTime end;
+            try {
+                end = LocalDateTime.parse(coinsConfig.promoEndTimeString, coinsConfig.formatter);
+            } catch (Exception e) {
+                // Parse lỗi thời gian -> coi như không có khuyến mãi
+                end = null;
+            }
+            cached = new PromoEnd(coinsConfig.promoEndTimeString, end);
+            promoEnd = cached;
+        }
+        if (cached.end() == null || cached.end().isBefore(LocalDateTime.now())) {
+            return ConfigManager.getInstance().getConfig(MessageConfig.class).noPromo;
+        }
+        return cached.source();
+    }
+
+    private LeaderboardKey leaderboardKey(String id) {
+        LeaderboardKey key = leaderboardKeys.get(id);
+        if (key == null) {
+            key = parseLeaderboardKey(id);
+            if (leaderboardKeys.size() < MAX_PARSED_IDENTIFIERS) {
+                leaderboardKeys.put(id, key);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Parses (top|leaderboard)_(type)_(rank)_(name|value|amount) and (top|leaderboard)_(type)_rank.
+     */
+    static LeaderboardKey parseLeaderboardKey(String id) {
+        String rest;
+        if (id.startsWith("top_")) {
+            rest = id.substring(4);
+        } else if (id.startsWith("leaderboard_")) {
+            rest = id.substring(12);
+        } else {
+            return NOT_LEADERBOARD;
+        }
+        String[] parts = rest.split("_");
+        if (parts.length < 2 || parts.length > 3) {
+            return NOT_LEADERBOARD;
+        }
+        LeaderboardType type = switch (parts[0]) {
+            case "daily" -> LeaderboardType.DAILY;
+            case "weekly" -> LeaderboardType.WEEKLY;
+            case "monthly" -> LeaderboardType.MONTHLY;
+            case "yearly" -> LeaderboardType.YEARLY;
+            case "alltime", "all" -> LeaderboardType.ALLTIME;
+            default -> null;
+        };
+        if (type == null) {
+            return NOT_LEADERBOARD;
+        }
+        if (parts.length == 2) {
+            return parts[1].equals("rank") ? new LeaderboardKey(type, 0, LeaderboardField.RANK) : NOT_LEADERBOARD;
+        }
+        LeaderboardField field = switch (parts[2]) {
+            case "name" -> LeaderboardField.NAME;
+            case "value", "amount" -> LeaderboardField.AMOUNT;
+            default -> null;
+        };
+        int rank;
+        try {
+            rank = Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            return NOT_LEADERBOARD;
+        }
+        if (field == null || rank < 1) {
+            return NOT_LEADERBOARD;
+        }
+        return new LeaderboardKey(type, rank, field);
+    }
+
+    private enum Period {
+        TOTAL, DAILY, WEEKLY, MONTHLY, YEARLY
+    }
+
+    enum LeaderboardField {
+        NAME, AMOUNT, RANK
+    }
+
+    record LeaderboardKey(LeaderboardType type, int rank, LeaderboardField field) {
+    }
+
+    private record PromoEnd(String source, LocalDateTime end) {
+    }
+}
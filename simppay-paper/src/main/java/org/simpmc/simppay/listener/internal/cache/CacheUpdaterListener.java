@@ -5,18 +5,20 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.data.milestone.MilestoneType;
 import org.simpmc.simppay.event.PaymentSuccessEvent;
+import org.simpmc.simppay.event.PeriodRolloverEvent;
 import org.simpmc.simppay.service.DatabaseService;
 import org.simpmc.simppay.service.PaymentService;
 import org.simpmc.simppay.service.cache.CacheDataService;
+import org.simpmc.simppay.service.database.StreakService;
 
 /**
- * Cache Updater Listener - Phase 2.1 Redesign
+ * Cache Updater Listener
  * <p>
- * Key Changes:
- * - Removed queue-based updates (no more addPlayerToQueue)
- * - Synchronous cache updates on payment events (real-time)
- * - Async server cache updates remain for performance
+ * - Seeds the server rollup on startup and player rollups on join
+ * - Applies each successful payment to the rollups in place (real-time, no queries)
+ * - Rolls the period buckets over and sweeps broken streaks when the day changes
  */
 public class CacheUpdaterListener implements Listener {
     public CacheUpdaterListener(SPPlugin plugin) {
@@ -32,32 +34,34 @@ public class CacheUpdaterListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         SPPlugin plugin = SPPlugin.getInstance();
         plugin.getFoliaLib().getScheduler().runAsync(task2 -> {
+            // Also preloads the player into the identity cache for the rest of the session
             SPPlugin.getService(DatabaseService.class).getPlayerService().createPlayer(event.getPlayer());
             // Load player cache asynchronously on join (not critical path)
             SPPlugin.getService(CacheDataService.class).updatePlayerCacheSync(event.getPlayer().getUniqueId());
+            SPPlugin.getService(StreakService.class).load(event.getPlayer().getUniqueId());
         });
     }
 
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         SPPlugin.getService(CacheDataService.class).clearPlayerCache(event.getPlayer().getUniqueId());
+        SPPlugin.getService(StreakService.class).unload(event.getPlayer().getUniqueId());
+        SPPlugin.getService(DatabaseService.class).getPlayerService().unpin(event.getPlayer().getUniqueId());
         SPPlugin.getService(PaymentService.class).clearPlayerBankCache(event.getPlayer().getUniqueId());
         SPPlugin.getService(PaymentService.class).cancelBankPayment(event.getPlayer().getUniqueId());
     }
 
     @EventHandler
     public void onPaymentSuccess(PaymentSuccessEvent event) {
-        SPPlugin plugin = SPPlugin.getInstance();
-
-        // Async player cache update - ConcurrentHashMap + AtomicLong is thread-safe
-        // Avoids blocking global/main thread which caused HikariCP pool exhaustion
-        plugin.getFoliaLib().getScheduler().runAsync(task -> {
-            SPPlugin.getService(CacheDataService.class).updatePlayerCacheSync(event.getPlayerUUID());
-        });
+        // O(1) rollup update, no database reads
+        SPPlugin.getService(CacheDataService.class).recordPayment(event.getPlayerUUID(), event.getAmount(), event.getPaymentType());
+    }
 
-        // Async server cache update (less critical, can be delayed slightly)
-        plugin.getFoliaLib().getScheduler().runAsync(task2 -> {
-            SPPlugin.getService(CacheDataService.class).updateServerDataCache();
-        });
+    @EventHandler
+    public void onPeriodRollover(PeriodRolloverEvent event) {
+        SPPlugin.getService(CacheDataService.class).rollOver(event.getCurrent());
+        if (event.hasEnded(MilestoneType.DAILY)) {
+            SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> SPPlugin.getService(StreakService.class).sweep());
+        }
     }
 }
@@ -8,10 +8,14 @@ import org.simpmc.simppay.config.ConfigManager;
 import org.simpmc.simppay.config.types.banking.SepayConfig;
 import org.simpmc.simppay.event.PaymentSuccessEvent;
 import org.simpmc.simppay.event.SepayWebhookReceivedEvent;
+import org.simpmc.simppay.handler.banking.sepay.SepayReferenceExtractor;
 import org.simpmc.simppay.handler.banking.sepay.data.SepayWebhookPayload;
 import org.simpmc.simppay.model.Payment;
+import org.simpmc.simppay.service.DatabaseService;
+import org.simpmc.simppay.service.PaymentJournalService;
 import org.simpmc.simppay.service.PaymentService;
 import org.simpmc.simppay.util.MessageUtil;
+import org.simpmc.simppay.util.RecentIdSet;
 
 /**
  * Listener for Sepay webhook events.
@@ -20,6 +24,7 @@ import org.simpmc.simppay.util.MessageUtil;
 public class SepayWebhookListener implements Listener {
     private final SPPlugin plugin;
     private final PaymentService paymentService;
+    private final RecentIdSet processedTransactions = new RecentIdSet(10_000);
 
     public SepayWebhookListener(SPPlugin plugin) {
         this.plugin = plugin;
@@ -32,6 +37,13 @@ public class SepayWebhookListener implements Listener {
     public void onWebhookReceived(SepayWebhookReceivedEvent event) {
         SepayWebhookPayload payload = event.getPayload();
 
+        // Sepay retries a webhook until it is acknowledged, a transaction is only ever handled once.
+        // Only covers this run; spool replays after a restart are caught by the stored payment check below
+        if (!processedTransactions.add(String.valueOf(payload.getId()))) {
+            MessageUtil.debug("[SepayWebhook] Transaction " + payload.getId() + " already processed, ignoring");
+            return;
+        }
+
         MessageUtil.debug("[SepayWebhook] Processing webhook - Amount: " + payload.getTransferAmount());
         MessageUtil.debug("[SepayWebhook] Content: " + payload.getContent());
 
@@ -52,6 +64,15 @@ public class SepayWebhookListener implements Listener {
 
         MessageUtil.info("[SepayWebhook] Matched transaction to payment: " + matchedPayment.getDetail().getRefID());
 
+        // A webhook replayed from the spool whose payment was credited before the restart, but was resumed as pending
+        if (SPPlugin.getService(DatabaseService.class).getPaymentLogService().bankingPaymentExists(matchedPayment.getPaymentID())) {
+            MessageUtil.info("[SepayWebhook] Payment " + matchedPayment.getPaymentID() + " was already credited, ignoring transaction " + payload.getId());
+            paymentService.removePayment(matchedPayment.getPaymentID());
+            paymentService.getPollingPayments().remove(matchedPayment.getPaymentID());
+            SPPlugin.getService(PaymentJournalService.class).finished(matchedPayment.getPaymentID(), true);
+            return;
+        }
+
         // Verify amount matches
         double expectedAmount = matchedPayment.getDetail().getAmount();
         if (Math.abs(expectedAmount - payload.getTransferAmount()) > 0.01) {
@@ -67,56 +88,34 @@ public class SepayWebhookListener implements Listener {
         // Remove from polling payments since webhook confirmed it
         paymentService.getPollingPayments().remove(matchedPayment.getPaymentID());
 
-        // Fire success event on main thread
+        // Fire success event on main thread, the webhook stays spooled until it ran
+        Runnable handled = event.defer();
         plugin.getFoliaLib().getScheduler().runNextTick(task -> {
-            Bukkit.getPluginManager().callEvent(new PaymentSuccessEvent(matchedPayment));
+            try {
+                Bukkit.getPluginManager().callEvent(new PaymentSuccessEvent(matchedPayment));
+            } finally {
+                handled.run();
+            }
         });
     }
 
     /**
      * Find a pending payment that matches the reference code in webhook content.
      * The content field contains the bank transfer description which should include our reference code.
+     * Candidate codes are extracted once and looked up in the reference index; a matched payment is
+     * removed from the index, so it cannot be credited twice.
      *
      * @param content Webhook content/description field
      * @return Matching payment or null if not found
      */
     private Payment findMatchingPayment(String content) {
         SepayConfig config = ConfigManager.getInstance().getConfig(SepayConfig.class);
-        String prefix = config.descriptionPrefix;
-
-        // First check polling payments (payments being actively checked)
-        for (Payment payment : paymentService.getPollingPayments().values()) {
-            if (isReferenceMatch(payment, content, prefix)) {
-                return payment;
-            }
-        }
-
-        // Then check regular payments map
-        for (Payment payment : paymentService.getPayments().values()) {
-            if (isReferenceMatch(payment, content, prefix)) {
+        for (String code : SepayReferenceExtractor.extract(content, config.descriptionPrefix)) {
+            Payment payment = paymentService.claimByReference(code);
+            if (payment != null) {
                 return payment;
             }
         }
-
         return null;
     }
-
-    /**
-     * Check if payment reference code is found in webhook content.
-     *
-     * @param payment Payment to check
-     * @param content Webhook content
-     * @param prefix  Expected reference code prefix
-     * @return true if reference code matches
-     */
-    private boolean isReferenceMatch(Payment payment, String content, String prefix) {
-        String refID = payment.getDetail().getRefID();
-        if (refID == null || !refID.startsWith(prefix)) {
-            return false;
-        }
-
-        // Check if the reference code is contained in the webhook content
-        // Bank transfer descriptions may have additional text, so we use contains
-        return content.toUpperCase().contains(refID.toUpperCase());
-    }
 }
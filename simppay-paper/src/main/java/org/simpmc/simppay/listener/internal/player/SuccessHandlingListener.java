@@ -38,7 +38,7 @@ public class SuccessHandlingListener implements Listener {
     @EventHandler
     public void removeCaching(PaymentSuccessEvent event) {
 
-        SPPlugin.getService(PaymentService.class).getPayments().remove(event.getPayment().getPaymentID());
+        SPPlugin.getService(PaymentService.class).removePayment(event.getPayment().getPaymentID());
 
         if (event.getPaymentType() == PaymentType.BANKING) {
             SPPlugin.getService(PaymentService.class).clearPlayerBankCache(event.getPlayerUUID());
@@ -5,30 +5,28 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.event.PaymentSuccessEvent;
-import org.simpmc.simppay.service.DatabaseService;
+import org.simpmc.simppay.service.PaymentWriteService;
 import org.simpmc.simppay.service.database.StreakService;
 
 /**
  * Phase 2.1: Removed updateQueue method - cache updates now handled synchronously in CacheUpdaterListener
  * Phase 5: Added streak update on payment success
+ * Payments are handed to the PaymentWriteService queue and written in batches
  */
 public class SuccessDatabaseHandlingListener implements Listener {
-    private final StreakService streakService;
-
     public SuccessDatabaseHandlingListener(SPPlugin plugin) {
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
-        this.streakService = new StreakService();
     }
 
     @EventHandler(priority = EventPriority.LOWEST)
     public void updateDBz(PaymentSuccessEvent event) {
         SPPlugin plugin = SPPlugin.getInstance();
 
-        plugin.getFoliaLib().getScheduler().runAsync(task -> {
-            SPPlugin.getService(DatabaseService.class).getPaymentLogService().addPayment(event.getPayment());
+        SPPlugin.getService(PaymentWriteService.class).enqueue(event.getPayment());
 
-            // Phase 5: Update player streak
-            streakService.updateStreak(event.getPlayerUUID());
+        plugin.getFoliaLib().getScheduler().runAsync(task -> {
+            // Phase 5: Update player streak, the cached counters are updated in place
+            SPPlugin.getService(StreakService.class).updateStreak(event.getPlayerUUID());
         });
     }
 
@@ -1,6 +1,10 @@
 package org.simpmc.simppay.menu;
 
 import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.simpmc.simppay.config.types.data.menu.DisplayItem;
 import org.simpmc.simppay.config.types.data.menu.RoleType;
 import org.simpmc.simppay.util.MessageUtil;
@@ -10,6 +14,7 @@ import xyz.xenondevs.invui.gui.structure.Markers;
 import xyz.xenondevs.invui.item.Item;
 import xyz.xenondevs.invui.item.ItemProvider;
 import xyz.xenondevs.invui.item.ItemWrapper;
+import xyz.xenondevs.invui.item.impl.controlitem.ControlItem;
 import xyz.xenondevs.invui.item.impl.controlitem.PageItem;
 
 import java.util.List;
@@ -39,6 +44,20 @@ public class MenuBuilder {
      */
     public static PagedGui<Item> buildPagedGui(String[] layout, Map<Character, DisplayItem> displayItems,
                                                List<Item> content, Player player) {
+        return buildPagedGui(layout, displayItems, content, player, null, null);
+    }
+
+    /**
+     * Same as {@link #buildPagedGui(String[], Map, List, Player)}, but PREV_PAGE and NEXT_PAGE run the given
+     * actions instead of turning InvUI pages. Used when the content only ever holds the visible page,
+     * for example {@link PaymentHistoryPager}.
+     *
+     * @param previousPage Action for PREV_PAGE, or null for InvUI paging
+     * @param nextPage     Action for NEXT_PAGE, or null for InvUI paging
+     */
+    public static PagedGui<Item> buildPagedGui(String[] layout, Map<Character, DisplayItem> displayItems,
+                                               List<Item> content, Player player,
+                                               @Nullable Runnable previousPage, @Nullable Runnable nextPage) {
         PagedGui.Builder<Item> builder = PagedGui.items()
                 .setStructure(layout)
                 .addIngredient('O', Markers.CONTENT_LIST_SLOT_HORIZONTAL)
@@ -47,7 +66,11 @@ public class MenuBuilder {
         for (Map.Entry<Character, DisplayItem> entry : displayItems.entrySet()) {
             DisplayItem item = entry.getValue();
 
-            if (item.getRole() == RoleType.PREV_PAGE) {
+            if (item.getRole() == RoleType.PREV_PAGE && previousPage != null) {
+                builder.addIngredient(entry.getKey(), new PageButton(item, player, previousPage));
+            } else if (item.getRole() == RoleType.NEXT_PAGE && nextPage != null) {
+                builder.addIngredient(entry.getKey(), new PageButton(item, player, nextPage));
+            } else if (item.getRole() == RoleType.PREV_PAGE) {
                 builder.addIngredient(entry.getKey(), new PageItem(false) {
                     @Override
                     public ItemProvider getItemProvider(PagedGui<?> gui) {
@@ -68,4 +91,31 @@ public class MenuBuilder {
 
         return builder.build();
     }
+
+    /**
+     * Navigation button that delegates the click instead of changing the InvUI page.
+     */
+    private static class PageButton extends ControlItem<PagedGui<?>> {
+        private final DisplayItem item;
+        private final Player viewer;
+        private final Runnable action;
+
+        private PageButton(DisplayItem item, Player viewer, Runnable action) {
+            this.item = item;
+            this.viewer = viewer;
+            this.action = action;
+        }
+
+        @Override
+        public ItemProvider getItemProvider(PagedGui<?> gui) {
+            return new ItemWrapper(item.getItemStack(viewer));
+        }
+
+        @Override
+        public void handleClick(@NotNull ClickType clickType, @NotNull Player player, @NotNull InventoryClickEvent event) {
+            if (clickType == ClickType.LEFT) {
+                action.run();
+            }
+        }
+    }
 }
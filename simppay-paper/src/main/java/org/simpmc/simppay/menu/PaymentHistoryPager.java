@@ -0,0 +1,149 @@
+package org.simpmc.simppay.menu;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.database.dto.PaymentCursor;
+import org.simpmc.simppay.database.dto.PaymentRecord;
+import org.simpmc.simppay.service.AsyncExecutorService;
+import org.simpmc.simppay.util.MessageUtil;
+import xyz.xenondevs.invui.gui.PagedGui;
+import xyz.xenondevs.invui.item.Item;
+import xyz.xenondevs.invui.window.Window;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Feeds a PagedGui one page of payment history at a time.
+ * <p>
+ * - Only the visible page and the prefetched next page are held in memory, items are built for the visible one only
+ * - Pages are read with a keyset cursor, going back re-reads the page from the cursor it started after
+ * - Loads run async; state is only touched on the viewer's entity thread (clicks and load callbacks)
+ */
+public class PaymentHistoryPager {
+    private final Player viewer;
+    private final int pageSize;
+    private final PageLoader loader;
+    private final Function<PaymentRecord, Item> itemFactory;
+    private final Item emptyItem;
+    // Cursor each visited page starts after, index = page number; page 0 starts at null
+    private final List<PaymentCursor> pageStarts = new ArrayList<>();
+
+    private PagedGui<Item> gui;
+    private Window window;
+    private int page;
+    private List<PaymentRecord> current = List.of();
+    private CompletableFuture<List<PaymentRecord>> prefetched;
+    private boolean loading;
+
+    public PaymentHistoryPager(Player viewer, int pageSize, PageLoader loader, Function<PaymentRecord, Item> itemFactory, Item emptyItem) {
+        this.viewer = viewer;
+        this.pageSize = Math.max(1, pageSize);
+        this.loader = loader;
+        this.itemFactory = itemFactory;
+        this.emptyItem = emptyItem;
+        pageStarts.add(null);
+    }
+
+    /**
+     * @return Number of 'O' content slots in the layout, the page size
+     */
+    public static int contentSlots(String[] layout) {
+        int slots = 0;
+        for (String row : layout) {
+            for (char c : row.toCharArray()) {
+                if (c == 'O') {
+                    slots++;
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Loads the first page into the gui.
+     */
+    public void start(PagedGui<Item> gui, Window window) {
+        this.gui = gui;
+        this.window = window;
+        show(0, fetch(null), null);
+    }
+
+    public void nextPage() {
+        if (loading || prefetched == null) {
+            return;
+        }
+        int target = page + 1;
+        if (pageStarts.size() == target) {
+            pageStarts.add(PaymentCursor.of(current.get(current.size() - 1)));
+        }
+        show(target, prefetched, null);
+    }
+
+    public void previousPage() {
+        if (loading || page == 0) {
+            return;
+        }
+        // The page being left is the next page again, no need to read it twice
+        show(page - 1, fetch(pageStarts.get(page - 1)), current);
+    }
+
+    private void show(int target, CompletableFuture<List<PaymentRecord>> records, @Nullable List<PaymentRecord> knownNext) {
+        loading = true;
+        records.whenComplete((result, error) -> SPPlugin.getInstance().getFoliaLib().getScheduler().runAtEntity(viewer, task -> {
+            loading = false;
+            if (error != null) {
+                MessageUtil.warn("[History] Failed to load payment history page " + target + ": " + error.getMessage());
+                if (target > page) {
+                    // Allow another try at the next page
+                    pageStarts.remove(target);
+                    prefetched = fetch(PaymentCursor.of(current.get(current.size() - 1)));
+                }
+                return;
+            }
+            if (!window.isOpen()) {
+                return;
+            }
+            if (result.isEmpty() && target > page) {
+                // The previous page was full and also the last one, stay on it
+                pageStarts.remove(target);
+                prefetched = null;
+                return;
+            }
+            page = target;
+            current = result;
+            if (knownNext != null) {
+                prefetched = CompletableFuture.completedFuture(knownNext);
+            } else if (result.size() == pageSize) {
+                prefetched = fetch(PaymentCursor.of(result.get(result.size() - 1)));
+            } else {
+                // A short page is the last one
+                prefetched = null;
+            }
+
+            List<Item> items = new ArrayList<>(result.size());
+            for (PaymentRecord record : result) {
+                items.add(itemFactory.apply(record));
+            }
+            if (items.isEmpty()) {
+                items.add(emptyItem);
+            }
+            gui.setContent(items);
+        }));
+    }
+
+    private CompletableFuture<List<PaymentRecord>> fetch(@Nullable PaymentCursor after) {
+        return SPPlugin.getService(AsyncExecutorService.class).supplyDatabase(() -> loader.load(after, pageSize));
+    }
+
+    /**
+     * Reads one page of records after the cursor, newest first. Called off the main thread.
+     */
+    @FunctionalInterface
+    public interface PageLoader {
+        List<PaymentRecord> load(@Nullable PaymentCursor after, int limit);
+    }
+}
@@ -9,7 +9,9 @@ import org.simpmc.simppay.config.types.menu.PaymentHistoryMenuConfig;
 import org.simpmc.simppay.data.PaymentType;
 import org.simpmc.simppay.database.dto.PaymentRecord;
 import org.simpmc.simppay.database.entities.SPPlayer;
+import org.simpmc.simppay.service.AsyncExecutorService;
 import org.simpmc.simppay.service.DatabaseService;
+import org.simpmc.simppay.service.database.PaymentLogService;
 import org.simpmc.simppay.util.CalendarUtil;
 import xyz.xenondevs.invui.gui.PagedGui;
 import xyz.xenondevs.invui.item.Item;
@@ -17,31 +19,33 @@ import xyz.xenondevs.invui.item.builder.ItemBuilder;
 import xyz.xenondevs.invui.item.impl.SimpleItem;
 import xyz.xenondevs.invui.window.Window;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 /**
- * Displays a player's payment history with pagination.
+ * Displays a player's payment history, one keyset-paginated page at a time.
  */
 public class PaymentHistoryView {
 
     public static void openMenu(Player player, String playerName) {
         PaymentHistoryMenuConfig config = ConfigManager.getInstance().getConfig(PaymentHistoryMenuConfig.class);
 
-        CompletableFuture<List<PaymentRecord>> recordsFuture = fetchPaymentRecordsAsync(player.getUniqueId(), playerName);
-
         Item loadingItem = new SimpleItem(
                 new ItemBuilder(org.bukkit.Material.PAPER)
                         .setDisplayName(MenuBuilder.mm("<gray>Loading payment history..."))
         );
 
         String[] layout = config.layout.toArray(new String[0]);
-        List<Item> paymentItems = new ArrayList<>();
-        paymentItems.add(loadingItem);
+        CompletableFuture<UUID> owner = resolvePlayerAsync(player.getUniqueId(), playerName);
+        PaymentLogService logService = SPPlugin.getService(DatabaseService.class).getPaymentLogService();
+        // The pager starts once the lookup is done, so loads never block a database thread on it
+        PaymentHistoryPager pager = new PaymentHistoryPager(player, PaymentHistoryPager.contentSlots(layout),
+                (after, limit) -> logService.getPaymentPage(owner.join(), after, limit),
+                record -> createPaymentItem(player, record, config), emptyItem());
 
-        PagedGui<Item> gui = MenuBuilder.buildPagedGui(layout, config.displayItems, paymentItems, player);
+        PagedGui<Item> gui = MenuBuilder.buildPagedGui(layout, config.displayItems, List.of(loadingItem), player,
+                pager::previousPage, pager::nextPage);
 
         Window window = Window.single()
                 .setViewer(player)
@@ -50,26 +54,15 @@ public class PaymentHistoryView {
                 .build();
         window.open();
 
-        recordsFuture.thenAccept(records -> {
-            paymentItems.clear();
-
-            if (records.isEmpty()) {
-                paymentItems.add(new SimpleItem(
-                        new ItemBuilder(org.bukkit.Material.BARRIER)
-                                .setDisplayName(MenuBuilder.mm("<red>No payment history found"))
-                ));
-            } else {
-                for (PaymentRecord record : records) {
-                    paymentItems.add(createPaymentItem(player, record, config));
-                }
-            }
-
-            SPPlugin.getInstance().getFoliaLib().getScheduler().runAtEntity(player, task -> {
-                if (window.isOpen()) {
-                    gui.setContent(paymentItems);
-                }
-            });
-        });
+        owner.whenComplete((uuid, error) -> SPPlugin.getInstance().getFoliaLib().getScheduler()
+                .runAtEntity(player, task -> pager.start(gui, window)));
+    }
+
+    private static Item emptyItem() {
+        return new SimpleItem(
+                new ItemBuilder(org.bukkit.Material.BARRIER)
+                        .setDisplayName(MenuBuilder.mm("<red>No payment history found"))
+        );
     }
 
     private static Item createPaymentItem(Player player, PaymentRecord record, PaymentHistoryMenuConfig config) {
@@ -110,13 +103,13 @@ public class PaymentHistoryView {
         return new SimpleItem(builder);
     }
 
-    private static CompletableFuture<List<PaymentRecord>> fetchPaymentRecordsAsync(UUID playerUUID, String playerName) {
-        return CompletableFuture.supplyAsync(() -> {
+    private static CompletableFuture<UUID> resolvePlayerAsync(UUID playerUUID, String playerName) {
+        return SPPlugin.getService(AsyncExecutorService.class).supplyDatabase(() -> {
             SPPlayer spPlayer = playerName == null
                     ? SPPlugin.getService(DatabaseService.class).getPlayerService().findByUuid(playerUUID)
                     : SPPlugin.getService(DatabaseService.class).getPlayerService().findByName(playerName);
             Preconditions.checkNotNull(spPlayer, "Player not found");
-            return SPPlugin.getService(DatabaseService.class).getPaymentLogService().getPaymentsByPlayer(spPlayer);
+            return spPlayer.getUuid();
         });
     }
 }
@@ -8,6 +8,7 @@ import org.simpmc.simppay.config.types.menu.ServerPaymentHistoryMenuConfig;
 import org.simpmc.simppay.data.PaymentType;
 import org.simpmc.simppay.database.dto.PaymentRecord;
 import org.simpmc.simppay.service.DatabaseService;
+import org.simpmc.simppay.service.database.PaymentLogService;
 import org.simpmc.simppay.util.CalendarUtil;
 import xyz.xenondevs.invui.gui.PagedGui;
 import xyz.xenondevs.invui.item.Item;
@@ -15,30 +16,29 @@ import xyz.xenondevs.invui.item.builder.ItemBuilder;
 import xyz.xenondevs.invui.item.impl.SimpleItem;
 import xyz.xenondevs.invui.window.Window;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 
 /**
- * Displays the entire server's payment history with pagination.
+ * Displays the entire server's payment history, one keyset-paginated page at a time.
  */
 public class ServerPaymentHistoryView {
 
     public static void openMenu(Player player) {
         ServerPaymentHistoryMenuConfig config = ConfigManager.getInstance().getConfig(ServerPaymentHistoryMenuConfig.class);
 
-        CompletableFuture<List<PaymentRecord>> recordsFuture = fetchPaymentRecordsAsync();
-
         Item loadingItem = new SimpleItem(
                 new ItemBuilder(org.bukkit.Material.PAPER)
                         .setDisplayName(MenuBuilder.mm("<gray>Loading server payment history..."))
         );
 
         String[] layout = config.layout.toArray(new String[0]);
-        List<Item> paymentItems = new ArrayList<>();
-        paymentItems.add(loadingItem);
+        PaymentLogService logService = SPPlugin.getService(DatabaseService.class).getPaymentLogService();
+        PaymentHistoryPager pager = new PaymentHistoryPager(player, PaymentHistoryPager.contentSlots(layout),
+                (after, limit) -> logService.getPaymentPage(null, after, limit),
+                record -> createPaymentItem(player, record, config), emptyItem());
 
-        PagedGui<Item> gui = MenuBuilder.buildPagedGui(layout, config.displayItems, paymentItems, player);
+        PagedGui<Item> gui = MenuBuilder.buildPagedGui(layout, config.displayItems, List.of(loadingItem), player,
+                pager::previousPage, pager::nextPage);
 
         Window window = Window.single()
                 .setViewer(player)
@@ -47,26 +47,14 @@ public class ServerPaymentHistoryView {
                 .build();
         window.open();
 
-        recordsFuture.thenAccept(records -> {
-            paymentItems.clear();
-
-            if (records.isEmpty()) {
-                paymentItems.add(new SimpleItem(
-                        new ItemBuilder(org.bukkit.Material.BARRIER)
-                                .setDisplayName(MenuBuilder.mm("<red>No payment history found"))
-                ));
-            } else {
-                for (PaymentRecord record : records) {
-                    paymentItems.add(createPaymentItem(player, record, config));
-                }
-            }
-
-            SPPlugin.getInstance().getFoliaLib().getScheduler().runAtEntity(player, task -> {
-                if (window.isOpen()) {
-                    gui.setContent(paymentItems);
-                }
-            });
-        });
+        pager.start(gui, window);
+    }
+
+    private static Item emptyItem() {
+        return new SimpleItem(
+                new ItemBuilder(org.bukkit.Material.BARRIER)
+                        .setDisplayName(MenuBuilder.mm("<red>No payment history found"))
+        );
     }
 
     private static Item createPaymentItem(Player player, PaymentRecord record, ServerPaymentHistoryMenuConfig config) {
@@ -108,12 +96,4 @@ public class ServerPaymentHistoryView {
 
         return new SimpleItem(builder);
     }
-
-    private static CompletableFuture<List<PaymentRecord>> fetchPaymentRecordsAsync() {
-        return CompletableFuture.supplyAsync(() ->
-                SPPlugin.getService(DatabaseService.class)
-                        .getPaymentLogService()
-                        .getEntireServerPayments()
-        );
-    }
 }
@@ -9,6 +9,7 @@ import org.simpmc.simppay.config.ConfigManager;
 import org.simpmc.simppay.config.types.StreakConfig;
 import org.simpmc.simppay.config.types.menu.StreakMenuConfig;
 import org.simpmc.simppay.database.entities.PlayerStreakPayment;
+import org.simpmc.simppay.service.AsyncExecutorService;
 import org.simpmc.simppay.service.database.StreakService;
 import org.simpmc.simppay.util.CommandDescriptionUtil;
 import xyz.xenondevs.inventoryaccess.component.AdventureComponentWrapper;
@@ -164,6 +165,6 @@ public class StreakMenuView {
     }
 
     private static CompletableFuture<PlayerStreakPayment> fetchStreakDataAsync(UUID playerUUID) {
-        return CompletableFuture.supplyAsync(() -> new StreakService().getStreak(playerUUID));
+        return SPPlugin.getService(AsyncExecutorService.class).supplyDatabase(() -> SPPlugin.getService(StreakService.class).getStreak(playerUUID));
     }
 }
@@ -0,0 +1,102 @@
+package org.simpmc.simppay.repository;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.misc.TransactionManager;
+import com.j256.ormlite.support.ConnectionSource;
+import org.simpmc.simppay.database.entities.LeaderboardCache;
+import org.simpmc.simppay.service.cache.LeaderboardEntry;
+import org.simpmc.simppay.service.cache.LeaderboardType;
+import org.simpmc.simppay.util.PeriodWindow;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes leaderboard snapshots in leaderboard_cache, one row per (type, rank) keyed "{type}_{rank}".
+ * A snapshot replaces the whole table in one transaction, so readers on other servers never see a half-written board.
+ */
+public class LeaderboardSnapshotRepository {
+
+    private final ConnectionSource connectionSource;
+    private final Dao<LeaderboardCache, String> cacheDao;
+
+    public LeaderboardSnapshotRepository(ConnectionSource connectionSource, Dao<LeaderboardCache, String> cacheDao) {
+        this.connectionSource = connectionSource;
+        this.cacheDao = cacheDao;
+    }
+
+    public static String keyOf(LeaderboardType type, int rank) {
+        return type.name().toLowerCase() + "_" + rank;
+    }
+
+    /**
+     * Replaces the stored snapshot with the given boards, batch inserted in a single transaction.
+     *
+     * @return number of rows written
+     */
+    public int write(Map<LeaderboardType, List<LeaderboardEntry>> boards) throws SQLException {
+        Date now = new Date();
+        List<LeaderboardCache> rows = new ArrayList<>();
+        for (Map.Entry<LeaderboardType, List<LeaderboardEntry>> board : boards.entrySet()) {
+            for (LeaderboardEntry entry : board.getValue()) {
+                rows.add(new LeaderboardCache(keyOf(board.getKey(), entry.getRank()), entry.getPlayerUUID(),
+                        entry.getPlayerName(), entry.getAmount(), entry.getRank(), now));
+            }
+        }
+        return TransactionManager.callInTransaction(connectionSource, () -> {
+            cacheDao.deleteBuilder().delete();
+            cacheDao.create(rows);
+            return rows.size();
+        });
+    }
+
+    /**
+     * Loads the stored snapshot. Boards written before the start of their current period
+     * (e.g. yesterday's daily board) are left out.
+     *
+     * @param window Current period window
+     * @return boards by type, each ordered by rank
+     */
+    public Map<LeaderboardType, List<LeaderboardEntry>> read(PeriodWindow window) throws SQLException {
+        Map<LeaderboardType, List<LeaderboardEntry>> boards = new EnumMap<>(LeaderboardType.class);
+        for (LeaderboardCache row : cacheDao.queryForAll()) {
+            LeaderboardType type = typeOf(row.getCacheKey());
+            if (type == null || row.getLastUpdated() == null || row.getLastUpdated().getTime() < periodStart(type, window)) {
+                continue;
+            }
+            boards.computeIfAbsent(type, k -> new ArrayList<>())
+                    .add(new LeaderboardEntry(row.getPlayerUUID(), row.getPlayerName(), row.getAmount(), row.getRank()));
+        }
+        for (List<LeaderboardEntry> board : boards.values()) {
+            board.sort(Comparator.comparingInt(LeaderboardEntry::getRank));
+        }
+        return boards;
+    }
+
+    private static LeaderboardType typeOf(String cacheKey) {
+        int separator = cacheKey.lastIndexOf('_');
+        if (separator <= 0) {
+            return null;
+        }
+        try {
+            return LeaderboardType.valueOf(cacheKey.substring(0, separator).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long periodStart(LeaderboardType type, PeriodWindow window) {
+        return switch (type) {
+            case DAILY -> window.getDayStart();
+            case WEEKLY -> window.getWeekStart();
+            case MONTHLY -> window.getMonthStart();
+            case YEARLY -> window.getYearStart();
+            case ALLTIME -> Long.MIN_VALUE;
+        };
+    }
+}
@@ -1,15 +1,20 @@
 package org.simpmc.simppay.repository;
 
 import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.stmt.DeleteBuilder;
 import com.j256.ormlite.stmt.QueryBuilder;
+import com.j256.ormlite.stmt.Where;
 import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.data.milestone.MilestoneType;
 import org.simpmc.simppay.database.Database;
 import org.simpmc.simppay.database.entities.MilestoneCompletion;
 import org.simpmc.simppay.database.entities.SPPlayer;
 import org.simpmc.simppay.service.DatabaseService;
+import org.simpmc.simppay.service.milestone.MilestoneEvaluator;
+import org.simpmc.simppay.util.PeriodWindow;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -191,20 +196,88 @@ public class MilestoneRepository {
     }
 
     /**
-     * Clears all milestone completions for time-based milestones.
-     * Should be called at the start of a new day/week/month/year.
+     * Loads every server-wide completion in one query, for the in-memory milestone evaluator.
+     * Only type, amount and completion time are selected, so no player row is refreshed.
      *
-     * @param type Milestone type to reset (DAILY, WEEKLY, MONTHLY, YEARLY)
+     * @return server completions, or an empty list on error
      */
-    public void resetTimedMilestones(MilestoneType type) {
-        if (type == MilestoneType.ALL) {
-            return; // Cannot reset ALL milestones
+    public List<MilestoneCompletion> getServerCompletions() {
+        try {
+            return milestoneDao.queryBuilder()
+                    .selectColumns("milestone_type", "milestone_amount", "completed_at")
+                    .where()
+                    .eq("server_wide", true)
+                    .query();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return List.of();
         }
+    }
 
+    /**
+     * Loads every completion of a player in one query, for the in-memory milestone evaluator.
+     *
+     * @param playerUUID Player UUID
+     * @return the player's completions, or an empty list on error
+     */
+    public List<MilestoneCompletion> getPlayerCompletions(UUID playerUUID) {
         try {
-            milestoneDao.executeRaw("DELETE FROM milestone_completions WHERE milestone_type = ?", type.name());
+            return milestoneDao.queryBuilder()
+                    .selectColumns("milestone_type", "milestone_amount", "completed_at")
+                    .where()
+                    .eq("player_uuid", new SPPlayer(playerUUID))
+                    .and()
+                    .eq("server_wide", false)
+                    .query();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return List.of();
+        }
+    }
+
+    /**
+     * Inserts completions recorded in memory by the evaluator, in one batch.
+     *
+     * @param completions Completions to insert
+     */
+    public void saveCompletions(List<MilestoneCompletion> completions) {
+        try {
+            milestoneDao.create(completions);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Deletes the completions of timed milestones made before their current period started, in one statement.
+     * Completions of the current period are kept, so a completion racing the rollover is never lost.
+     *
+     * @param types   Timed milestone types to reset (ALL is ignored)
+     * @param current Window of the period that just started
+     * @return number of deleted completions, 0 on error
+     */
+    public int resetTimedMilestones(Collection<MilestoneType> types, PeriodWindow current) {
+        List<MilestoneType> timed = types.stream().filter(type -> type != MilestoneType.ALL).toList();
+        if (timed.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            DeleteBuilder<MilestoneCompletion, UUID> deleteBuilder = milestoneDao.deleteBuilder();
+            Where<MilestoneCompletion, UUID> where = deleteBuilder.where();
+            for (MilestoneType type : timed) {
+                where.and(
+                        where.eq("milestone_type", type),
+                        where.lt("completed_at", new Date(MilestoneEvaluator.periodStart(type, current)))
+                );
+            }
+            if (timed.size() > 1) {
+                where.or(timed.size());
+            }
+            return deleteBuilder.delete();
         } catch (SQLException e) {
             e.printStackTrace();
+            return 0;
         }
     }
 }
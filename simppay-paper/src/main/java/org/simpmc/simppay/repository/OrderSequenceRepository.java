@@ -0,0 +1,52 @@
+package org.simpmc.simppay.repository;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.misc.TransactionManager;
+import com.j256.ormlite.support.ConnectionSource;
+import org.simpmc.simppay.database.entities.OrderIdSequence;
+
+import java.sql.SQLException;
+
+/**
+ * Shared ID sequences in order_id_sequence, one row per sequence.
+ * The row is bumped by a whole block in one statement, and the row lock held until commit serializes
+ * servers reserving at the same time.
+ */
+public class OrderSequenceRepository {
+    private static final String RESERVE_SQL = "UPDATE order_id_sequence"
+            + " SET reserved_to = GREATEST(reserved_to, ?) + ? WHERE sequence_name = ?";
+
+    private final ConnectionSource connectionSource;
+    private final Dao<OrderIdSequence, String> sequenceDao;
+
+    public OrderSequenceRepository(ConnectionSource connectionSource, Dao<OrderIdSequence, String> sequenceDao) {
+        this.connectionSource = connectionSource;
+        this.sequenceDao = sequenceDao;
+    }
+
+    /**
+     * Reserves {@code size} consecutive IDs, creating the sequence if it does not exist yet.
+     *
+     * @param floor Highest ID known to be used already, the block always starts after it
+     * @return the first ID of the block
+     */
+    public long reserve(String sequenceName, int size, long floor) throws SQLException {
+        return TransactionManager.callInTransaction(connectionSource, () -> {
+            if (bump(sequenceName, size, floor) == 0) {
+                try {
+                    sequenceDao.create(new OrderIdSequence(sequenceName, floor + size));
+                } catch (SQLException e) {
+                    // Another server created the row first
+                    if (bump(sequenceName, size, floor) == 0) {
+                        throw e;
+                    }
+                }
+            }
+            return sequenceDao.queryForId(sequenceName).getReservedTo() - size + 1;
+        });
+    }
+
+    private int bump(String sequenceName, int size, long floor) throws SQLException {
+        return sequenceDao.updateRaw(RESERVE_SQL, Long.toString(floor), Integer.toString(size), sequenceName);
+    }
+}
@@ -0,0 +1,57 @@
+package org.simpmc.simppay.repository;
+
+import org.jetbrains.annotations.Nullable;
+import org.simpmc.simppay.database.dto.PaymentTotals;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+
+/**
+ * Aggregate payment queries, answered either from the raw payment tables
+ * ({@link PaymentAggregateRepository}) or from the daily summary table ({@link PaymentSummaryRepository}).
+ * Range bounds are expected to be period boundaries (start at a local midnight), as produced by CalendarUtil.
+ */
+public interface PaymentAggregateQueries {
+
+    /**
+     * Sums every period in a single round trip.
+     *
+     * @param playerUUID Player to aggregate, or null for the entire server
+     * @param now        Reference time used to compute the period boundaries
+     */
+    PaymentTotals queryTotals(@Nullable UUID playerUUID, long now) throws SQLException;
+
+    /**
+     * Sums payments made within [start, end].
+     *
+     * @param playerUUID Player to aggregate, or null for the entire server
+     */
+    long sumBetween(@Nullable UUID playerUUID, long start, long end) throws SQLException;
+
+    /**
+     * Sums every payment ever made.
+     *
+     * @param playerUUID Player to aggregate, or null for the entire server
+     */
+    long sumAll(@Nullable UUID playerUUID) throws SQLException;
+
+    long sumBank() throws SQLException;
+
+    long sumCard() throws SQLException;
+
+    /**
+     * @param playerUUID Player to count, or null for the entire server
+     */
+    long countPayments(@Nullable UUID playerUUID) throws SQLException;
+
+    /**
+     * @return Ordered map of player UUID to summed amount within [start, end], highest first
+     */
+    LinkedHashMap<UUID, Long> topPlayersBetween(long start, long end, int limit) throws SQLException;
+
+    /**
+     * @return Ordered map of player UUID to summed amount of all time, highest first
+     */
+    LinkedHashMap<UUID, Long> topPlayersAllTime(int limit) throws SQLException;
+}
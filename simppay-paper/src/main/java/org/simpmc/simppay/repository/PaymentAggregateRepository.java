@@ -0,0 +1,209 @@
+package org.simpmc.simppay.repository;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.field.DataType;
+import org.jetbrains.annotations.Nullable;
+import org.simpmc.simppay.database.dto.PaymentTotals;
+import org.simpmc.simppay.database.entities.BankingPayment;
+import org.simpmc.simppay.database.entities.CardPayment;
+import org.simpmc.simppay.util.CalendarUtil;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only aggregate queries over banking_payments and card_payments.
+ * Each table is aggregated on its own and the two partial results are combined with UNION ALL,
+ * so the database never materializes payment rows and only primitives come back.
+ * No payment entity (and no foreign SPPlayer refresh) is ever built.
+ * The SQL is plain ANSI and runs unchanged on H2 and MySQL.
+ */
+public class PaymentAggregateRepository implements PaymentAggregateQueries {
+    private static final String BANK_TABLE = "banking_payments";
+    private static final String CARD_TABLE = "card_payments";
+    private static final String PERIOD_SUM = "SUM(CASE WHEN timestamp BETWEEN ? AND ? THEN amount ELSE 0 END)";
+
+    private final Dao<BankingPayment, UUID> bankDao;
+    private final Dao<CardPayment, UUID> cardDao;
+
+    public PaymentAggregateRepository(Dao<BankingPayment, UUID> bankDao, Dao<CardPayment, UUID> cardDao) {
+        this.bankDao = bankDao;
+        this.cardDao = cardDao;
+    }
+
+    /**
+     * Sums every period in a single round trip using conditional aggregation.
+     *
+     * @param playerUUID Player to aggregate, or null for the entire server
+     * @param now        Reference time used to compute the period boundaries
+     * @return Totals for all periods
+     */
+    @Override
+    public PaymentTotals queryTotals(@Nullable UUID playerUUID, long now) throws SQLException {
+        List<String> bounds = List.of(
+                Long.toString(CalendarUtil.getFirstHourOfDay(now)), Long.toString(CalendarUtil.getLastHourOfDay(now)),
+                Long.toString(CalendarUtil.getFirstDayOfWeek(now)), Long.toString(CalendarUtil.getLastDayOfWeek(now)),
+                Long.toString(CalendarUtil.getFirstDayOfMonth(now)), Long.toString(CalendarUtil.getLastDayOfMonth(now)),
+                Long.toString(CalendarUtil.getFirstDayOfYear(now)), Long.toString(CalendarUtil.getLastDayOfYear(now))
+        );
+        String columns = "SUM(amount) AS total, "
+                + PERIOD_SUM + " AS daily, "
+                + PERIOD_SUM + " AS weekly, "
+                + PERIOD_SUM + " AS monthly, "
+                + PERIOD_SUM + " AS yearly";
+        String sql = "SELECT COALESCE(SUM(total), 0), COALESCE(SUM(daily), 0), COALESCE(SUM(weekly), 0), "
+                + "COALESCE(SUM(monthly), 0), COALESCE(SUM(yearly), 0), "
+                + "COALESCE(SUM(CASE WHEN src = 1 THEN total ELSE 0 END), 0), "
+                + "COALESCE(SUM(CASE WHEN src = 2 THEN total ELSE 0 END), 0) "
+                + "FROM (" + unionOf(columns, playerUUID != null, null, null) + ") t";
+
+        double[] row = queryDoubles(bankDao, sql, 7, branchArgs(bounds, playerUUID, null));
+        return new PaymentTotals((long) row[0], (long) row[1], (long) row[2], (long) row[3], (long) row[4], (long) row[5], (long) row[6]);
+    }
+
+    /**
+     * Sums payments whose timestamp falls within [start, end].
+     *
+     * @param playerUUID Player to aggregate, or null for the entire server
+     */
+    @Override
+    public long sumBetween(@Nullable UUID playerUUID, long start, long end) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(total), 0) FROM ("
+                + unionOf("SUM(amount) AS total", playerUUID != null, "timestamp BETWEEN ? AND ?", null) + ") t";
+        List<String> range = List.of(Long.toString(start), Long.toString(end));
+        return (long) queryDoubles(bankDao, sql, 1, branchArgs(List.of(), playerUUID, range))[0];
+    }
+
+    /**
+     * Sums every payment ever made.
+     *
+     * @param playerUUID Player to aggregate, or null for the entire server
+     */
+    @Override
+    public long sumAll(@Nullable UUID playerUUID) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(total), 0) FROM ("
+                + unionOf("SUM(amount) AS total", playerUUID != null, null, null) + ") t";
+        return (long) queryDoubles(bankDao, sql, 1, branchArgs(List.of(), playerUUID, null))[0];
+    }
+
+    /**
+     * Sums banking_payments only, used for the bank / card split.
+     */
+    @Override
+    public long sumBank() throws SQLException {
+        return (long) queryDoubles(bankDao, "SELECT COALESCE(SUM(amount), 0) FROM " + BANK_TABLE, 1)[0];
+    }
+
+    /**
+     * Sums card_payments only, used for the bank / card split.
+     */
+    @Override
+    public long sumCard() throws SQLException {
+        return (long) queryDoubles(cardDao, "SELECT COALESCE(SUM(amount), 0) FROM " + CARD_TABLE, 1)[0];
+    }
+
+    /**
+     * Counts payments across both tables.
+     *
+     * @param playerUUID Player to count, or null for the entire server
+     */
+    @Override
+    public long countPayments(@Nullable UUID playerUUID) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(total), 0) FROM ("
+                + unionOf("COUNT(*) AS total", playerUUID != null, null, null) + ") t";
+        return (long) queryDoubles(bankDao, sql, 1, branchArgs(List.of(), playerUUID, null))[0];
+    }
+
+    /**
+     * Groups payments within [start, end] by player and returns the highest totals first.
+     *
+     * @param limit Maximum number of players to return
+     * @return Ordered map of player UUID to summed amount, highest first
+     */
+    @Override
+    public LinkedHashMap<UUID, Long> topPlayersBetween(long start, long end, int limit) throws SQLException {
+        String sql = "SELECT player_uuid, SUM(total) AS total FROM ("
+                + unionOf("player_uuid, SUM(amount) AS total", false, "timestamp BETWEEN ? AND ?", "player_uuid")
+                + ") t GROUP BY player_uuid ORDER BY total DESC LIMIT " + Math.max(0, limit);
+        List<String> range = List.of(Long.toString(start), Long.toString(end));
+        return queryPlayerTotals(sql, branchArgs(List.of(), null, range));
+    }
+
+    /**
+     * Same as {@link #topPlayersBetween(long, long, int)} but over all payments ever made.
+     */
+    @Override
+    public LinkedHashMap<UUID, Long> topPlayersAllTime(int limit) throws SQLException {
+        String sql = "SELECT player_uuid, SUM(total) AS total FROM ("
+                + unionOf("player_uuid, SUM(amount) AS total", false, null, "player_uuid")
+                + ") t GROUP BY player_uuid ORDER BY total DESC LIMIT " + Math.max(0, limit);
+        return queryPlayerTotals(sql, new String[0]);
+    }
+
+    private LinkedHashMap<UUID, Long> queryPlayerTotals(String sql, String[] args) throws SQLException {
+        LinkedHashMap<UUID, Long> totals = new LinkedHashMap<>();
+        // getResults closes the underlying iterator
+        List<Object[]> rows = bankDao.queryRaw(sql, new DataType[]{DataType.STRING, DataType.DOUBLE}, args).getResults();
+        for (Object[] row : rows) {
+            if (row[0] == null) {
+                continue;
+            }
+            totals.put(UUID.fromString((String) row[0]), row[1] == null ? 0L : (long) (double) (Double) row[1]);
+        }
+        return totals;
+    }
+
+    /**
+     * Builds "SELECT 1 AS src, columns FROM banking_payments [WHERE ...] [GROUP BY ...] UNION ALL" the same for card_payments.
+     * The src column tags each partial result with 1 (bank) or 2 (card).
+     */
+    private static String unionOf(String columns, boolean byPlayer, @Nullable String condition, @Nullable String groupBy) {
+        StringBuilder tail = new StringBuilder();
+        if (byPlayer) {
+            tail.append(" WHERE player_uuid = ?");
+        }
+        if (condition != null) {
+            tail.append(byPlayer ? " AND " : " WHERE ").append(condition);
+        }
+        if (groupBy != null) {
+            tail.append(" GROUP BY ").append(groupBy);
+        }
+        return "SELECT 1 AS src, " + columns + " FROM " + BANK_TABLE + tail
+                + " UNION ALL SELECT 2 AS src, " + columns + " FROM " + CARD_TABLE + tail;
+    }
+
+    /**
+     * Arguments for one branch in placeholder order (select list, player filter, extra condition), repeated for both tables.
+     */
+    private static String[] branchArgs(List<String> selectArgs, @Nullable UUID playerUUID, @Nullable List<String> conditionArgs) {
+        List<String> branch = new ArrayList<>(selectArgs);
+        if (playerUUID != null) {
+            branch.add(playerUUID.toString());
+        }
+        if (conditionArgs != null) {
+            branch.addAll(conditionArgs);
+        }
+        List<String> args = new ArrayList<>(branch);
+        args.addAll(branch);
+        return args.toArray(new String[0]);
+    }
+
+    private static double[] queryDoubles(Dao<?, ?> dao, String sql, int columns, String... args) throws SQLException {
+        DataType[] types = new DataType[columns];
+        Arrays.fill(types, DataType.DOUBLE);
+        // getFirstResult closes the underlying iterator
+        Object[] row = dao.queryRaw(sql, types, args).getFirstResult();
+        double[] values = new double[columns];
+        if (row == null) {
+            return values;
+        }
+        for (int i = 0; i < columns; i++) {
+            values[i] = row[i] == null ? 0D : (Double) row[i];
+        }
+        return values;
+    }
+}
@@ -0,0 +1,63 @@
+package org.simpmc.simppay.repository;
+
+import org.simpmc.simppay.database.entities.BankingPayment;
+import org.simpmc.simppay.database.entities.CardPayment;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Inserts payment rows with JDBC batches, one round trip per table instead of ORMLite's
+ * SELECT + INSERT per entity. The caller owns the connection and the transaction.
+ * Column values are written exactly as ORMLite persists them (UUIDs and enums as strings).
+ */
+public class PaymentBatchWriter {
+    private static final String INSERT_BANKING = "INSERT INTO banking_payments "
+            + "(payment_id, player_uuid, amount, timestamp, ref_id, api_provider) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CARD = "INSERT INTO card_payments "
+            + "(payment_id, player_uuid, pin, serial, price_value, card_type, ref_id, true_amount, amount, timestamp, api_provider) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public static void insertBanking(Connection connection, List<BankingPayment> payments) throws SQLException {
+        if (payments.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_BANKING)) {
+            for (BankingPayment payment : payments) {
+                statement.setString(1, payment.getPaymentID().toString());
+                statement.setString(2, payment.getPlayer().getUuid().toString());
+                statement.setDouble(3, payment.getAmount());
+                statement.setLong(4, payment.getTimestamp());
+                statement.setString(5, payment.getRefID());
+                statement.setString(6, payment.getApiProvider().name());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    public static void insertCard(Connection connection, List<CardPayment> payments) throws SQLException {
+        if (payments.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_CARD)) {
+            for (CardPayment payment : payments) {
+                statement.setString(1, payment.getPaymentID().toString());
+                statement.setString(2, payment.getPlayer().getUuid().toString());
+                statement.setString(3, payment.getPin());
+                statement.setString(4, payment.getSerial());
+                statement.setDouble(5, payment.getPriceValue());
+                statement.setString(6, payment.getCardType().name());
+                statement.setString(7, payment.getRefID());
+                statement.setDouble(8, payment.getTrueAmount());
+                statement.setDouble(9, payment.getAmount());
+                statement.setLong(10, payment.getTimestamp());
+                statement.setString(11, payment.getApiProvider().name());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.simpmc.simppay.repository;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.field.DataType;
+import org.jetbrains.annotations.Nullable;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.data.card.CardType;
+import org.simpmc.simppay.database.dto.PaymentCursor;
+import org.simpmc.simppay.database.dto.PaymentRecord;
+import org.simpmc.simppay.database.entities.BankingPayment;
+import org.simpmc.simppay.database.entities.CardPayment;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keyset-paginated payment history over banking_payments and card_payments, newest first.
+ * <p>
+ * - Each table returns at most one page after the (timestamp, payment_id) cursor, read in index order
+ * - The two pages are merged in memory, so a page costs the same on the first and the ten-thousandth page
+ * - Player names come from a join on players, no payment entity (and no foreign SPPlayer refresh) is built
+ */
+public class PaymentHistoryRepository {
+    private static final String BANK_TABLE = "banking_payments";
+    private static final String CARD_TABLE = "card_payments";
+    private static final String COLUMNS = "t.payment_id, t.timestamp, t.amount, t.ref_id, t.api_provider, p.name";
+    private static final DataType[] BANK_TYPES = {
+            DataType.STRING, DataType.LONG, DataType.DOUBLE, DataType.STRING, DataType.STRING, DataType.STRING
+    };
+    private static final DataType[] CARD_TYPES = {
+            DataType.STRING, DataType.LONG, DataType.DOUBLE, DataType.STRING, DataType.STRING, DataType.STRING,
+            DataType.STRING, DataType.STRING, DataType.STRING, DataType.DOUBLE
+    };
+    // Same order as "ORDER BY timestamp DESC, payment_id DESC"
+    private static final Comparator<PaymentRecord> NEWEST_FIRST = Comparator
+            .comparingLong((PaymentRecord record) -> record.getTimestamp().getTime())
+            .thenComparing(record -> record.getPaymentId().toString())
+            .reversed();
+
+    private final Dao<BankingPayment, UUID> bankDao;
+    private final Dao<CardPayment, UUID> cardDao;
+
+    public PaymentHistoryRepository(Dao<BankingPayment, UUID> bankDao, Dao<CardPayment, UUID> cardDao) {
+        this.bankDao = bankDao;
+        this.cardDao = cardDao;
+    }
+
+    /**
+     * @param playerUUID Player whose history to read, or null for the entire server
+     * @param after      Cursor of the last record of the previous page, or null for the first page
+     * @param limit      Page size
+     * @return Up to limit records, newest first
+     */
+    public List<PaymentRecord> page(@Nullable UUID playerUUID, @Nullable PaymentCursor after, int limit) throws SQLException {
+        if (limit <= 0) {
+            return List.of();
+        }
+        String[] args = args(playerUUID, after);
+
+        List<PaymentRecord> bank = new ArrayList<>(limit);
+        String bankSql = select(COLUMNS, BANK_TABLE, playerUUID != null, after != null, limit);
+        for (Object[] row : bankDao.queryRaw(bankSql, BANK_TYPES, args).getResults()) {
+            bank.add(bankRecord(row));
+        }
+
+        List<PaymentRecord> card = new ArrayList<>(limit);
+        String cardSql = select(COLUMNS + ", t.serial, t.pin, t.card_type, t.true_amount", CARD_TABLE, playerUUID != null, after != null, limit);
+        for (Object[] row : cardDao.queryRaw(cardSql, CARD_TYPES, args).getResults()) {
+            card.add(cardRecord(row));
+        }
+
+        return merge(bank, card, limit);
+    }
+
+    private static String select(String columns, String table, boolean byPlayer, boolean hasCursor, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns)
+                .append(" FROM ").append(table).append(" t LEFT JOIN players p ON p.uuid = t.player_uuid");
+        if (byPlayer) {
+            sql.append(" WHERE t.player_uuid = ?");
+        }
+        if (hasCursor) {
+            sql.append(byPlayer ? " AND " : " WHERE ")
+                    .append("(t.timestamp < ? OR (t.timestamp = ? AND t.payment_id < ?))");
+        }
+        return sql.append(" ORDER BY t.timestamp DESC, t.payment_id DESC LIMIT ").append(limit).toString();
+    }
+
+    private static String[] args(@Nullable UUID playerUUID, @Nullable PaymentCursor after) {
+        List<String> args = new ArrayList<>(4);
+        if (playerUUID != null) {
+            args.add(playerUUID.toString());
+        }
+        if (after != null) {
+            args.add(Long.toString(after.getTimestamp()));
+            args.add(Long.toString(after.getTimestamp()));
+            args.add(after.getPaymentId());
+        }
+        return args.toArray(new String[0]);
+    }
+
+    /**
+     * Merges two pages that are each newest first and keeps the newest limit records.
+     */
+    static List<PaymentRecord> merge(List<PaymentRecord> bank, List<PaymentRecord> card, int limit) {
+        List<PaymentRecord> merged = new ArrayList<>(Math.min(limit, bank.size() + card.size()));
+        int b = 0;
+        int c = 0;
+        while (merged.size() < limit && (b < bank.size() || c < card.size())) {
+            if (c >= card.size() || (b < bank.size() && NEWEST_FIRST.compare(bank.get(b), card.get(c)) <= 0)) {
+                merged.add(bank.get(b++));
+            } else {
+                merged.add(card.get(c++));
+            }
+        }
+        return merged;
+    }
+
+    private static PaymentRecord bankRecord(Object[] row) {
+        return PaymentRecord.builder()
+                .paymentId(UUID.fromString((String) row[0]))
+                .timestamp(new Date((Long) row[1]))
+                .amount((Double) row[2])
+                .refId((String) row[3])
+                .provider((String) row[4])
+                .playerName((String) row[5])
+                .paymentType(PaymentType.BANKING)
+                .serial(Optional.empty())
+                .pin(Optional.empty())
+                .trueAmount(Optional.empty())
+                .telco(Optional.empty())
+                .build();
+    }
+
+    private static PaymentRecord cardRecord(Object[] row) {
+        return PaymentRecord.builder()
+                .paymentId(UUID.fromString((String) row[0]))
+                .timestamp(new Date((Long) row[1]))
+                .amount((Double) row[2])
+                .refId((String) row[3])
+                .provider((String) row[4])
+                .playerName((String) row[5])
+                .paymentType(PaymentType.CARD)
+                .serial(Optional.ofNullable((String) row[6]))
+                .pin(Optional.ofNullable((String) row[7]))
+                .telco(Optional.ofNullable((String) row[8]).map(CardType::valueOf))
+                .trueAmount(Optional.ofNullable((Double) row[9]))
+                .build();
+    }
+}
@@ -0,0 +1,268 @@
+package org.simpmc.simppay.repository;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.GenericRawResults;
+import com.j256.ormlite.field.DataType;
+import com.j256.ormlite.misc.TransactionManager;
+import com.j256.ormlite.support.ConnectionSource;
+import org.jetbrains.annotations.Nullable;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.database.dto.PaymentTotals;
+import org.simpmc.simppay.database.entities.BankingPayment;
+import org.simpmc.simppay.database.entities.CardPayment;
+import org.simpmc.simppay.database.entities.PaymentDailySummary;
+import org.simpmc.simppay.database.entities.PaymentSummaryState;
+import org.simpmc.simppay.util.CalendarUtil;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Aggregate queries over payment_daily_summary, one row per (player, local day, payment type).
+ * A player has at most one row per day and payment type, so period totals read a few hundred rows
+ * however long the raw payment history grows.
+ * Rows are maintained by {@link #record} in the same transaction as the raw payment insert,
+ * and can be rebuilt from the raw tables with {@link #rebuild()}, which also records in payment_summary_state that
+ * the table is complete.
+ */
+public class PaymentSummaryRepository implements PaymentAggregateQueries {
+    private static final String SUMMARY_TABLE = "payment_daily_summary";
+    private static final String PERIOD_SUM = "COALESCE(SUM(CASE WHEN day_start BETWEEN ? AND ? THEN amount ELSE 0 END), 0)";
+    private static final String UPDATE_SQL = "UPDATE " + SUMMARY_TABLE
+            + " SET amount = amount + ?, payment_count = payment_count + ? WHERE summary_id = ?";
+    private static final String STATE_KEY = "daily_summary";
+
+    private final ConnectionSource connectionSource;
+    private final Dao<PaymentDailySummary, String> summaryDao;
+    private final Dao<BankingPayment, UUID> bankDao;
+    private final Dao<CardPayment, UUID> cardDao;
+    private final Dao<PaymentSummaryState, String> stateDao;
+
+    public PaymentSummaryRepository(ConnectionSource connectionSource, Dao<PaymentDailySummary, String> summaryDao,
+                                    Dao<PaymentSummaryState, String> stateDao, Dao<BankingPayment, UUID> bankDao,
+                                    Dao<CardPayment, UUID> cardDao) {
+        this.connectionSource = connectionSource;
+        this.summaryDao = summaryDao;
+        this.stateDao = stateDao;
+        this.bankDao = bankDao;
+        this.cardDao = cardDao;
+    }
+
+    /**
+     * Adds a payment to (or, with negative values, removes it from) the summary row of its day.
+     * Meant to run inside the transaction that writes the raw payment row.
+     *
+     * @param timestamp Time of the payment, used to pick the day row
+     * @param amount    Amount to add, negative to subtract
+     * @param count     Payments to add, negative to subtract
+     */
+    public void record(UUID playerUUID, long timestamp, PaymentType type, double amount, int count) throws SQLException {
+        long dayStart = CalendarUtil.getFirstHourOfDay(timestamp);
+        apply(new PaymentDailySummary(PaymentDailySummary.idOf(playerUUID, dayStart, type), playerUUID, dayStart, type, amount, count));
+    }
+
+    /**
+     * Adds a batch of newly inserted payments, with one statement per touched summary row.
+     * Meant to run inside the transaction that writes the raw payment rows.
+     */
+    public void recordBatch(List<BankingPayment> bankingPayments, List<CardPayment> cardPayments) throws SQLException {
+        Map<String, PaymentDailySummary> deltas = new HashMap<>();
+        for (BankingPayment payment : bankingPayments) {
+            accumulate(deltas, payment.getPlayer().getUuid(), payment.getTimestamp(), PaymentType.BANKING, payment.getAmount());
+        }
+        for (CardPayment payment : cardPayments) {
+            accumulate(deltas, payment.getPlayer().getUuid(), payment.getTimestamp(), PaymentType.CARD, payment.getAmount());
+        }
+        for (PaymentDailySummary delta : deltas.values()) {
+            apply(delta);
+        }
+    }
+
+    private void apply(PaymentDailySummary delta) throws SQLException {
+        String summaryID = delta.getSummaryID();
+        if (update(summaryID, delta.getAmount(), delta.getPaymentCount()) > 0 || delta.getPaymentCount() <= 0) {
+            return;
+        }
+        try {
+            summaryDao.create(delta);
+        } catch (SQLException e) {
+            // Another payment of the same day created the row first
+            if (update(summaryID, delta.getAmount(), delta.getPaymentCount()) == 0) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Drops every summary row of a player, used when their payment log is reset.
+     */
+    public void deletePlayer(UUID playerUUID) throws SQLException {
+        summaryDao.executeRaw("DELETE FROM " + SUMMARY_TABLE + " WHERE player_uuid = ?", playerUUID.toString());
+    }
+
+    /**
+     * Rebuilds the whole table from banking_payments and card_payments in one transaction.
+     * Raw rows are streamed and folded in memory, so memory grows with the number of
+     * (player, day, type) rows, not with the number of payments.
+     *
+     * @return Number of summary rows written
+     */
+    public int rebuild() throws SQLException {
+        return TransactionManager.callInTransaction(connectionSource, () -> {
+            summaryDao.executeRaw("DELETE FROM " + SUMMARY_TABLE);
+            Map<String, PaymentDailySummary> rows = new HashMap<>();
+            fold(bankDao, "banking_payments", PaymentType.BANKING, rows);
+            fold(cardDao, "card_payments", PaymentType.CARD, rows);
+            // create(Collection) runs as one batch
+            summaryDao.create(rows.values());
+            // Committed with the rows, so the table is never marked complete without them
+            stateDao.createOrUpdate(new PaymentSummaryState(STATE_KEY, CalendarUtil.getZone().getId(), System.currentTimeMillis()));
+            return rows.size();
+        });
+    }
+
+    /**
+     * @return the time zone of the last completed {@link #rebuild()}, or null if the table was never built
+     */
+    public @Nullable String builtZone() throws SQLException {
+        PaymentSummaryState state = stateDao.queryForId(STATE_KEY);
+        return state == null ? null : state.getZoneId();
+    }
+
+    public long countRows() throws SQLException {
+        return summaryDao.countOf();
+    }
+
+    @Override
+    public PaymentTotals queryTotals(@Nullable UUID playerUUID, long now) throws SQLException {
+        List<String> args = new ArrayList<>(List.of(
+                Long.toString(CalendarUtil.getFirstHourOfDay(now)), Long.toString(CalendarUtil.getLastHourOfDay(now)),
+                Long.toString(CalendarUtil.getFirstDayOfWeek(now)), Long.toString(CalendarUtil.getLastDayOfWeek(now)),
+                Long.toString(CalendarUtil.getFirstDayOfMonth(now)), Long.toString(CalendarUtil.getLastDayOfMonth(now)),
+                Long.toString(CalendarUtil.getFirstDayOfYear(now)), Long.toString(CalendarUtil.getLastDayOfYear(now))
+        ));
+        String sql = "SELECT COALESCE(SUM(amount), 0), " + PERIOD_SUM + ", " + PERIOD_SUM + ", " + PERIOD_SUM + ", " + PERIOD_SUM + ", "
+                + "COALESCE(SUM(CASE WHEN payment_type = 'BANKING' THEN amount ELSE 0 END), 0), "
+                + "COALESCE(SUM(CASE WHEN payment_type = 'CARD' THEN amount ELSE 0 END), 0) "
+                + "FROM " + SUMMARY_TABLE;
+        if (playerUUID != null) {
+            sql += " WHERE player_uuid = ?";
+            args.add(playerUUID.toString());
+        }
+        double[] row = queryDoubles(sql, 7, args.toArray(new String[0]));
+        return new PaymentTotals((long) row[0], (long) row[1], (long) row[2], (long) row[3], (long) row[4], (long) row[5], (long) row[6]);
+    }
+
+    @Override
+    public long sumBetween(@Nullable UUID playerUUID, long start, long end) throws SQLException {
+        String range = Long.toString(start);
+        String rangeEnd = Long.toString(end);
+        if (playerUUID == null) {
+            return (long) queryDoubles("SELECT COALESCE(SUM(amount), 0) FROM " + SUMMARY_TABLE
+                    + " WHERE day_start BETWEEN ? AND ?", 1, range, rangeEnd)[0];
+        }
+        return (long) queryDoubles("SELECT COALESCE(SUM(amount), 0) FROM " + SUMMARY_TABLE
+                + " WHERE player_uuid = ? AND day_start BETWEEN ? AND ?", 1, playerUUID.toString(), range, rangeEnd)[0];
+    }
+
+    @Override
+    public long sumAll(@Nullable UUID playerUUID) throws SQLException {
+        if (playerUUID == null) {
+            return (long) queryDoubles("SELECT COALESCE(SUM(amount), 0) FROM " + SUMMARY_TABLE, 1)[0];
+        }
+        return (long) queryDoubles("SELECT COALESCE(SUM(amount), 0) FROM " + SUMMARY_TABLE
+                + " WHERE player_uuid = ?", 1, playerUUID.toString())[0];
+    }
+
+    @Override
+    public long sumBank() throws SQLException {
+        return (long) queryDoubles("SELECT COALESCE(SUM(amount), 0) FROM " + SUMMARY_TABLE
+                + " WHERE payment_type = 'BANKING'", 1)[0];
+    }
+
+    @Override
+    public long sumCard() throws SQLException {
+        return (long) queryDoubles("SELECT COALESCE(SUM(amount), 0) FROM " + SUMMARY_TABLE
+                + " WHERE payment_type = 'CARD'", 1)[0];
+    }
+
+    @Override
+    public long countPayments(@Nullable UUID playerUUID) throws SQLException {
+        if (playerUUID == null) {
+            return (long) queryDoubles("SELECT COALESCE(SUM(payment_count), 0) FROM " + SUMMARY_TABLE, 1)[0];
+        }
+        return (long) queryDoubles("SELECT COALESCE(SUM(payment_count), 0) FROM " + SUMMARY_TABLE
+                + " WHERE player_uuid = ?", 1, playerUUID.toString())[0];
+    }
+
+    @Override
+    public LinkedHashMap<UUID, Long> topPlayersBetween(long start, long end, int limit) throws SQLException {
+        String sql = "SELECT player_uuid, SUM(amount) AS total FROM " + SUMMARY_TABLE
+                + " WHERE day_start BETWEEN ? AND ? GROUP BY player_uuid ORDER BY total DESC LIMIT " + Math.max(0, limit);
+        return queryPlayerTotals(sql, Long.toString(start), Long.toString(end));
+    }
+
+    @Override
+    public LinkedHashMap<UUID, Long> topPlayersAllTime(int limit) throws SQLException {
+        String sql = "SELECT player_uuid, SUM(amount) AS total FROM " + SUMMARY_TABLE
+                + " GROUP BY player_uuid ORDER BY total DESC LIMIT " + Math.max(0, limit);
+        return queryPlayerTotals(sql);
+    }
+
+    private int update(String summaryID, double amount, int count) throws SQLException {
+        return summaryDao.updateRaw(UPDATE_SQL, Double.toString(amount), Integer.toString(count), summaryID);
+    }
+
+    private static void fold(Dao<?, UUID> dao, String table, PaymentType type, Map<String, PaymentDailySummary> rows) throws Exception {
+        String sql = "SELECT player_uuid, timestamp, amount FROM " + table;
+        try (GenericRawResults<Object[]> results = dao.queryRaw(sql, new DataType[]{DataType.STRING, DataType.LONG, DataType.DOUBLE})) {
+            for (Object[] row : results) {
+                if (row[0] == null) {
+                    continue;
+                }
+                accumulate(rows, UUID.fromString((String) row[0]), (Long) row[1], type, row[2] == null ? 0D : (Double) row[2]);
+            }
+        }
+    }
+
+    private static void accumulate(Map<String, PaymentDailySummary> rows, UUID playerUUID, long timestamp, PaymentType type, double amount) {
+        long dayStart = CalendarUtil.getFirstHourOfDay(timestamp);
+        rows.computeIfAbsent(PaymentDailySummary.idOf(playerUUID, dayStart, type),
+                        id -> new PaymentDailySummary(id, playerUUID, dayStart, type, 0D, 0))
+                .addPayment(amount);
+    }
+
+    private LinkedHashMap<UUID, Long> queryPlayerTotals(String sql, String... args) throws SQLException {
+        LinkedHashMap<UUID, Long> totals = new LinkedHashMap<>();
+        // getResults closes the underlying iterator
+        List<Object[]> rows = summaryDao.queryRaw(sql, new DataType[]{DataType.STRING, DataType.DOUBLE}, args).getResults();
+        for (Object[] row : rows) {
+            if (row[0] == null) {
+                continue;
+            }
+            totals.put(UUID.fromString((String) row[0]), row[1] == null ? 0L : (long) (double) (Double) row[1]);
+        }
+        return totals;
+    }
+
+    private double[] queryDoubles(String sql, int columns, String... args) throws SQLException {
+        DataType[] types = new DataType[columns];
+        Arrays.fill(types, DataType.DOUBLE);
+        // getFirstResult closes the underlying iterator
+        Object[] row = summaryDao.queryRaw(sql, types, args).getFirstResult();
+        double[] values = new double[columns];
+        if (row == null) {
+            return values;
+        }
+        for (int i = 0; i < columns; i++) {
+            values[i] = row[i] == null ? 0D : (Double) row[i];
+        }
+        return values;
+    }
+}
@@ -0,0 +1,91 @@
+package org.simpmc.simppay.service;
+
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.MainConfig;
+import org.simpmc.simppay.service.executor.BoundedExecutor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executors for blocking work, so gateway calls and database reads never run on the common ForkJoinPool.
+ * <p>
+ * - Gateway I/O (HTTP calls to card/bank APIs) and database I/O each get their own bounded executor
+ * - Every future returned here fails with a {@link TimeoutException} after the configured timeout
+ * - A full executor fails the future with {@link RejectedExecutionException} instead of queueing without limit
+ */
+public class AsyncExecutorService implements IService, StatsProvider {
+    private BoundedExecutor gateway;
+    private BoundedExecutor database;
+    private long gatewayTimeoutSeconds;
+    private long databaseTimeoutSeconds;
+
+    @Override
+    public void setup() {
+        MainConfig.ExecutorSettings settings = ConfigManager.getInstance().getConfig(MainConfig.class).executors;
+        gateway = new BoundedExecutor("gateway-io", settings.gatewayConcurrency, settings.gatewayQueueCapacity, settings.virtualThreads);
+        database = new BoundedExecutor("db-io", settings.databaseConcurrency, settings.databaseQueueCapacity, settings.virtualThreads);
+        gatewayTimeoutSeconds = Math.max(1, settings.gatewayTimeoutSeconds);
+        databaseTimeoutSeconds = Math.max(1, settings.databaseTimeoutSeconds);
+    }
+
+    @Override
+    public void shutdown() {
+        if (gateway != null) {
+            gateway.shutdown(2000);
+        }
+        if (database != null) {
+            database.shutdown(2000);
+        }
+    }
+
+    /**
+     * Runs a blocking gateway call (HTTP) off the main thread.
+     */
+    public <T> CompletableFuture<T> supplyGateway(Supplier<T> task) {
+        return supply(gateway, task, gatewayTimeoutSeconds);
+    }
+
+    /**
+     * Runs a blocking database read or write off the main thread.
+     */
+    public <T> CompletableFuture<T> supplyDatabase(Supplier<T> task) {
+        return supply(database, task, databaseTimeoutSeconds);
+    }
+
+    private static <T> CompletableFuture<T> supply(BoundedExecutor executor, Supplier<T> task, long timeoutSeconds) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.orTimeout(timeoutSeconds, TimeUnit.SECONDS).whenComplete((result, error) -> {
+            if (error instanceof TimeoutException) {
+                executor.recordTimeout();
+            }
+        });
+    }
+
+    @Override
+    public String getStatsName() {
+        return "Executors";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (gateway != null) {
+            stats.putAll(gateway.getStats());
+        }
+        if (database != null) {
+            stats.putAll(database.getStats());
+        }
+        return stats;
+    }
+}
@@ -1,14 +1,15 @@
 package org.simpmc.simppay.service;
 
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
+import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.handler.banking.sepay.data.BankData;
 import org.simpmc.simppay.handler.banking.sepay.data.VietQRResponse;
+import org.simpmc.simppay.service.http.HttpGateway;
 import org.simpmc.simppay.util.GsonUtil;
 import org.simpmc.simppay.util.MessageUtil;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -55,22 +56,20 @@ public class BankCacheService implements IService {
      * @return CompletableFuture that completes with true if successful
      */
     private CompletableFuture<Boolean> fetchBankDataAsync() {
-        return CompletableFuture.supplyAsync(() -> {
+        return SPPlugin.getService(AsyncExecutorService.class).supplyGateway(() -> {
             try {
-                OkHttpClient client = new OkHttpClient.Builder().build();
-
                 Request request = new Request.Builder()
                         .url(VIETQR_API_URL)
                         .get()
                         .build();
 
-                try (Response response = client.newCall(request).execute()) {
-                    if (!response.isSuccessful()) {
-                        MessageUtil.warn("[BankCache] HTTP error: " + response.code());
+                return SPPlugin.getService(HttpClientService.class).execute(HttpGateway.VIETQR, request, (code, body, length) -> {
+                    if (code < 200 || code >= 300) {
+                        MessageUtil.warn("[BankCache] HTTP error: " + code);
                         return false;
                     }
 
-                    String responseBody = response.body().string();
+                    String responseBody = new String(body, 0, length, StandardCharsets.UTF_8);
                     VietQRResponse vietQRResponse = GsonUtil.getGson().fromJson(responseBody, VietQRResponse.class);
 
                     if (vietQRResponse == null || !vietQRResponse.isSuccess()) {
@@ -96,7 +95,7 @@ public class BankCacheService implements IService {
                     }
 
                     return true;
-                }
+                });
             } catch (IOException e) {
                 MessageUtil.warn("[BankCache] IOException: " + e.getMessage());
                 e.printStackTrace();
@@ -0,0 +1,224 @@
+package org.simpmc.simppay.service;
+
+import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.MainConfig;
+import org.simpmc.simppay.data.PaymentStatus;
+import org.simpmc.simppay.handler.PaymentHandler;
+import org.simpmc.simppay.handler.data.BankAPI;
+import org.simpmc.simppay.model.Payment;
+import org.simpmc.simppay.service.cancellation.CancellationStore;
+import org.simpmc.simppay.service.cancellation.PendingCancellation;
+import org.simpmc.simppay.service.polling.PollBackoff;
+import org.simpmc.simppay.util.MessageUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background worker that cancels abandoned bank payments on their gateway.
+ * <p>
+ * - {@link #enqueue} only records the payment, so quitting players and /banking cancel never wait on HTTP
+ * - Failed cancel calls are retried with exponential backoff until the attempt limit
+ * - Each gateway has its own limit of cancel calls in flight, so a mass disconnect cannot flood it
+ * - The backlog is written to disk on every change (at most once a second) and reloaded on startup
+ */
+public class CancellationService implements IService, StatsProvider {
+    private static final String STORE_FILE = "cancellation-queue.jsonl";
+    private static final long TIMER_PERIOD_TICKS = 20;
+
+    // Payment id -> cancellation still to do
+    private final ConcurrentHashMap<UUID, PendingCancellation> pending = new ConcurrentHashMap<>();
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, AtomicInteger> inFlightByGateway = new ConcurrentHashMap<>();
+    // Handlers of gateways that are no longer configured but still have payments to cancel
+    private final ConcurrentHashMap<BankAPI, PaymentHandler> retiredHandlers = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong abandoned = new AtomicLong();
+    private CancellationStore store;
+    private PollBackoff backoff;
+    private int maxAttempts;
+    private int concurrencyPerGateway;
+    private volatile boolean running;
+
+    @Override
+    public void setup() {
+        MainConfig.CancellationSettings settings = ConfigManager.getInstance().getConfig(MainConfig.class).cancellation;
+        backoff = new PollBackoff(settings.retryBaseSeconds * 1000L, settings.retryMaxSeconds * 1000L, 0.2);
+        maxAttempts = Math.max(1, settings.maxAttempts);
+        concurrencyPerGateway = Math.max(1, settings.concurrencyPerGateway);
+        store = new CancellationStore(SPPlugin.getInstance().getDataFolder().toPath().resolve(STORE_FILE));
+        running = true;
+
+        try {
+            for (PendingCancellation entry : store.load()) {
+                pending.put(entry.paymentID(), entry);
+            }
+            if (!pending.isEmpty()) {
+                MessageUtil.info("[Cancellation] Resuming " + pending.size() + " pending bank cancellations");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runTimerAsync(task -> {
+            if (!running) {
+                task.cancel();
+                return;
+            }
+            dispatchDue();
+            persistIfDirty();
+        }, TIMER_PERIOD_TICKS, TIMER_PERIOD_TICKS);
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        // Calls still in flight are retried on the next start
+        dirty.set(true);
+        persistIfDirty();
+    }
+
+    /**
+     * Schedules a gateway cancellation for the payment and returns immediately.
+     */
+    public void enqueue(Payment payment) {
+        String refID = payment.getDetail().getRefID();
+        if (refID == null || refID.isEmpty()) {
+            // The gateway never assigned an id, there is nothing to cancel
+            return;
+        }
+        PendingCancellation entry = PendingCancellation.of(payment, PaymentService.getBankAPI().name(), System.currentTimeMillis());
+        if (pending.putIfAbsent(payment.getPaymentID(), entry) == null) {
+            dirty.set(true);
+            MessageUtil.debug("[Cancellation] Queued " + payment.getPaymentID() + " (" + entry.gateway() + ")");
+        }
+        if (!running && store != null) {
+            // Timer is gone, keep it for the next start
+            persistIfDirty();
+        }
+    }
+
+    /**
+     * @return number of payments still waiting to be cancelled
+     */
+    public int getBacklog() {
+        return pending.size();
+    }
+
+    private void dispatchDue() {
+        long now = System.currentTimeMillis();
+        for (PendingCancellation entry : new ArrayList<>(pending.values())) {
+            if (entry.nextAttemptAt() > now || inFlight.contains(entry.paymentID())) {
+                continue;
+            }
+            AtomicInteger gatewayInFlight = inFlightByGateway.computeIfAbsent(entry.gateway(), gateway -> new AtomicInteger());
+            if (gatewayInFlight.get() >= concurrencyPerGateway) {
+                continue;
+            }
+            PaymentHandler handler = handler(entry.gateway());
+            if (handler == null) {
+                MessageUtil.warn("[Cancellation] Unknown gateway " + entry.gateway() + ", dropping " + entry.paymentID());
+                drop(entry);
+                continue;
+            }
+            gatewayInFlight.incrementAndGet();
+            inFlight.add(entry.paymentID());
+            attempt(handler, entry).whenComplete((status, error) -> {
+                gatewayInFlight.decrementAndGet();
+                inFlight.remove(entry.paymentID());
+            });
+        }
+    }
+
+    private CompletableFuture<PaymentStatus> attempt(PaymentHandler handler, PendingCancellation entry) {
+        CompletableFuture<PaymentStatus> result;
+        try {
+            result = handler.cancel(entry.toPayment());
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((status, error) -> {
+            if (error == null && status == PaymentStatus.CANCELLED) {
+                MessageUtil.debug("[Cancellation] Cancelled " + entry.paymentID() + " after " + (entry.attempts() + 1) + " attempt(s)");
+                cancelled.incrementAndGet();
+                drop(entry);
+                return;
+            }
+            if (entry.attempts() + 1 >= maxAttempts) {
+                MessageUtil.warn("[Cancellation] Giving up on " + entry.paymentID() + " (" + entry.gateway() + ") after "
+                        + maxAttempts + " attempts" + (error != null ? ": " + error.getMessage() : ", last status " + status));
+                abandoned.incrementAndGet();
+                drop(entry);
+                return;
+            }
+            MessageUtil.debug("[Cancellation] Failed to cancel " + entry.paymentID() + ", retrying later");
+            retries.incrementAndGet();
+            long next = System.currentTimeMillis() + backoff.delayMillis(entry.attempts());
+            if (pending.replace(entry.paymentID(), entry, entry.retryAt(next))) {
+                dirty.set(true);
+            }
+        });
+    }
+
+    private void drop(PendingCancellation entry) {
+        if (pending.remove(entry.paymentID(), entry)) {
+            dirty.set(true);
+        }
+    }
+
+    private PaymentHandler handler(String gateway) {
+        BankAPI api;
+        try {
+            api = BankAPI.valueOf(gateway);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (api == PaymentService.getBankAPI()) {
+            return SPPlugin.getService(PaymentService.class).getHandlerRegistry().getBankHandler();
+        }
+        return retiredHandlers.computeIfAbsent(api, retired -> retired.handlerFactory.get());
+    }
+
+    private void persistIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            store.save(new ArrayList<>(pending.values()));
+        } catch (IOException e) {
+            e.printStackTrace();
+            dirty.set(true);
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "Bank cancellations";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long now = System.currentTimeMillis();
+        long oldest = pending.values().stream().mapToLong(PendingCancellation::enqueuedAt).min().orElse(now);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("backlog", pending.size());
+        stats.put("in-flight", inFlight.size() + " (max " + concurrencyPerGateway + " per gateway)");
+        stats.put("oldest-seconds", (now - oldest) / 1000);
+        stats.put("cancelled", cancelled.get());
+        stats.put("retries", retries.get());
+        stats.put("abandoned", abandoned.get());
+        return stats;
+    }
+}
@@ -1,13 +1,20 @@
 package org.simpmc.simppay.service;
 
 import lombok.Getter;
+import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.MainConfig;
 import org.simpmc.simppay.database.Database;
 import org.simpmc.simppay.service.database.PaymentLogService;
 import org.simpmc.simppay.service.database.PlayerDataService;
+import org.simpmc.simppay.service.database.PlayerIdentityCache;
 import org.simpmc.simppay.service.database.PlayerService;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Getter
-public class DatabaseService implements IService {
+public class DatabaseService implements IService, StatsProvider {
     private final Database database;
     private PlayerService playerService;
     private PaymentLogService paymentLogService;
@@ -19,13 +26,36 @@ public class DatabaseService implements IService {
 
     @Override
     public void setup() {
-        playerService = new PlayerService(database.getPlayerDao());
+        playerService = new PlayerService(database.getPlayerDao(), ConfigManager.getInstance().getConfig(MainConfig.class).playerCacheSize);
         paymentLogService = new PaymentLogService(database);
         playerDataService = new PlayerDataService(database.getPlayerDataDao());
+        // May backfill payment_daily_summary on the first start, keep it off the main thread
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> paymentLogService.prepareDailySummary());
     }
 
     @Override
     public void shutdown() {
 
     }
+
+    @Override
+    public String getStatsName() {
+        return "Player cache";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (playerService == null) {
+            return stats;
+        }
+        PlayerIdentityCache cache = playerService.getCache();
+        long hits = cache.getHits();
+        long lookups = hits + cache.getMisses();
+        stats.put("online", cache.onlineSize());
+        stats.put("offline", cache.offlineSize());
+        stats.put("hit-rate", lookups == 0 ? "-" : String.format("%.1f%% (%d/%d)", hits * 100.0 / lookups, hits, lookups));
+        stats.put("evictions", cache.getEvictions());
+        return stats;
+    }
 }
@@ -3,10 +3,8 @@ package org.simpmc.simppay.service;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import okhttp3.MediaType;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
-import okhttp3.Response;
 import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -19,6 +17,7 @@ import org.simpmc.simppay.data.PaymentType;
 import org.simpmc.simppay.event.MilestoneCompleteEvent;
 import org.simpmc.simppay.event.PaymentSuccessEvent;
 import org.simpmc.simppay.model.detail.CardDetail;
+import org.simpmc.simppay.service.http.HttpGateway;
 import org.simpmc.simppay.util.MessageUtil;
 
 import java.io.IOException;
@@ -29,19 +28,12 @@ import java.util.UUID;
 
 public class DiscordService implements IService, Listener {
 
-    private OkHttpClient client;
-
     @Override
     public void setup() {
-        client = new OkHttpClient();
     }
 
     @Override
     public void shutdown() {
-        if (client != null) {
-            client.dispatcher().executorService().shutdown();
-            client.connectionPool().evictAll();
-        }
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
@@ -107,9 +99,10 @@ public class DiscordService implements IService, Listener {
                     .url(eventConfig.webhookUrl)
                     .post(body)
                     .build();
-            try (Response response = client.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    MessageUtil.warn("[DiscordService] Webhook returned non-2xx: " + response.code());
+            try {
+                int code = SPPlugin.getService(HttpClientService.class).execute(HttpGateway.DISCORD, request, (status, responseBody, length) -> status);
+                if (code < 200 || code >= 300) {
+                    MessageUtil.warn("[DiscordService] Webhook returned non-2xx: " + code);
                 }
             } catch (IOException e) {
                 MessageUtil.warn("[DiscordService] Failed to send Discord webhook: " + e.getMessage());
@@ -0,0 +1,128 @@
+package org.simpmc.simppay.service;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.MainConfig;
+import org.simpmc.simppay.service.http.HostMetrics;
+import org.simpmc.simppay.service.http.HttpGateway;
+import org.simpmc.simppay.service.http.MetricsEventListener;
+import org.simpmc.simppay.service.http.ResponseBufferPool;
+import org.simpmc.simppay.service.http.ResponseTooLargeException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The one HTTP client used for every gateway, webhook and update check.
+ * <p>
+ * - All gateways share one connection pool (keep-alive, HTTP/2 where the server supports it) and TLS sessions
+ * - Each {@link HttpGateway} gets its own connect/call timeouts and response size cap
+ * - Bodies are read into pooled buffers
+ * - Latency, errors and connection reuse are tracked per host and shown by /simppayadmin stats
+ */
+public class HttpClientService implements IService, StatsProvider {
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 32;
+
+    private final HostMetrics metrics = new HostMetrics();
+    private final ResponseBufferPool buffers = new ResponseBufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private final Map<HttpGateway, OkHttpClient> clients = new EnumMap<>(HttpGateway.class);
+    private OkHttpClient baseClient;
+
+    @Override
+    public void setup() {
+        MainConfig.HttpSettings settings = ConfigManager.getInstance().getConfig(MainConfig.class).http;
+        baseClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(Math.max(1, settings.maxIdleConnections), Math.max(1, settings.keepAliveSeconds), TimeUnit.SECONDS))
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(Duration.ofSeconds(Math.max(1, settings.connectTimeoutSeconds)))
+                .eventListenerFactory(MetricsEventListener.factory(metrics))
+                .build();
+        synchronized (clients) {
+            clients.clear();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (baseClient != null) {
+            baseClient.dispatcher().executorService().shutdown();
+            baseClient.connectionPool().evictAll();
+        }
+    }
+
+    /**
+     * Client for one gateway. Shares the pool, dispatcher and TLS state with every other gateway.
+     */
+    public OkHttpClient client(HttpGateway gateway) {
+        synchronized (clients) {
+            return clients.computeIfAbsent(gateway, g -> {
+                Integer override = ConfigManager.getInstance().getConfig(MainConfig.class).http.callTimeoutSeconds.get(g.getConfigKey());
+                int callTimeout = override != null && override > 0 ? override : g.getDefaultCallTimeoutSeconds();
+                return baseClient.newBuilder()
+                        .callTimeout(Duration.ofSeconds(callTimeout))
+                        .readTimeout(Duration.ofSeconds(callTimeout))
+                        .build();
+            });
+        }
+    }
+
+    /**
+     * Runs the request on the calling thread and parses the body from a pooled buffer.
+     *
+     * @param parser receives the status code and body; the buffer must not be kept after it returns
+     */
+    public <T> T execute(HttpGateway gateway, Request request, ResponseParser<T> parser) throws IOException {
+        try (Response response = client(gateway).newCall(request).execute()) {
+            if (response.code() >= 400) {
+                metrics.recordHttpError(request.url().host());
+            }
+            ResponseBody body = response.body();
+            int maxBytes = gateway.getMaxResponseBytes();
+            if (body.contentLength() > maxBytes) {
+                throw new ResponseTooLargeException(maxBytes);
+            }
+            return buffers.read(body.byteStream(), maxBytes, (bytes, length) -> parser.parse(response.code(), bytes, length));
+        }
+    }
+
+    /**
+     * Runs the request and returns the body as a string, whatever the status code.
+     */
+    public String executeForString(HttpGateway gateway, Request request) throws IOException {
+        return execute(gateway, request, (code, body, length) -> new String(body, 0, length, StandardCharsets.UTF_8));
+    }
+
+    @FunctionalInterface
+    public interface ResponseParser<T> {
+        T parse(int code, byte[] body, int length) throws IOException;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "HTTP client";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (baseClient != null) {
+            stats.put("connections", baseClient.connectionPool().connectionCount() + " (" + baseClient.connectionPool().idleConnectionCount() + " idle)");
+        }
+        stats.put("calls", metrics.totalCalls());
+        stats.put("buffer-reuse", buffers.getHits() + "/" + (buffers.getHits() + buffers.getMisses()));
+        stats.putAll(metrics.summary());
+        return stats;
+    }
+}
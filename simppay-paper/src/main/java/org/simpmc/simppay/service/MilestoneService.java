@@ -1,6 +1,7 @@
 package org.simpmc.simppay.service;
 
 import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.simpmc.simppay.SPPlugin;
@@ -11,37 +12,50 @@ import org.simpmc.simppay.config.types.MilestonesServerConfig;
 import org.simpmc.simppay.config.types.data.MilestoneConfig;
 import org.simpmc.simppay.config.types.data.MilestoneEntry;
 import org.simpmc.simppay.data.milestone.MilestoneType;
+import org.simpmc.simppay.database.entities.MilestoneCompletion;
 import org.simpmc.simppay.database.entities.SPPlayer;
 import org.simpmc.simppay.repository.MilestoneRepository;
-import org.simpmc.simppay.service.database.PaymentLogService;
+import org.simpmc.simppay.service.cache.CacheDataService;
+import org.simpmc.simppay.service.milestone.BossBarCycle;
+import org.simpmc.simppay.service.milestone.BossBarTicker;
+import org.simpmc.simppay.service.milestone.MilestoneEvaluator;
+import org.simpmc.simppay.service.milestone.MilestoneLadder;
 import org.simpmc.simppay.util.MessageUtil;
+import org.simpmc.simppay.util.PeriodWindow;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class MilestoneService implements IService {
+public class MilestoneService implements IService, StatsProvider {
     // UNIFIED BOSSBARS (one per player, shows both player and server milestones)
     public ConcurrentHashMap<UUID, BossBar> unifiedBossBar = new ConcurrentHashMap<>();
-    public ConcurrentHashMap<UUID, Integer> cycleIndex = new ConcurrentHashMap<>();
     public ConcurrentHashMap<UUID, List<MilestoneDisplayData>> activeMilestones = new ConcurrentHashMap<>();
-    public ConcurrentHashMap<UUID, Boolean> cyclingActive = new ConcurrentHashMap<>();
     public ConcurrentHashMap<UUID, List<MilestoneConfig>> currentMilestones = new ConcurrentHashMap<>();
 
-    // Countdown timer tracking (elapsed ticks since cycle start)
-    public ConcurrentHashMap<UUID, Integer> cycleElapsedTicks = new ConcurrentHashMap<>();
-
-    // Cycle start time tracking (milliseconds) for smooth time-based progress
-    public ConcurrentHashMap<UUID, Long> cycleStartTimeMs = new ConcurrentHashMap<>();
-
-    // Current amounts cache for smooth progress updates
-    public ConcurrentHashMap<UUID, Double> currentAmountCache = new ConcurrentHashMap<>();
+    // Single timer walking the cycle state of every player with a BossBar
+    private final BossBarTicker bossBarTicker = new BossBarTicker(this::tickBossBar);
+    private final AtomicLong titlesRendered = new AtomicLong();
+    private final AtomicLong titlesReused = new AtomicLong();
+    private final AtomicLong periodResets = new AtomicLong();
+    private final AtomicLong resetCompletions = new AtomicLong();
 
     // Player-specific bossbar visibility toggle
     public ConcurrentHashMap<UUID, Boolean> bossbarHidden = new ConcurrentHashMap<>();
 
+    // Sorted thresholds and completion bitsets, so payments are evaluated without database reads
+    private final MilestoneEvaluator evaluator = new MilestoneEvaluator();
+    // Config instances the evaluator thresholds were built from, replaced on /simppayadmin reload
+    private volatile MilestonesPlayerConfig loadedPlayerConfig;
+    private volatile MilestonesServerConfig loadedServerConfig;
+
     private MilestoneRepository milestoneRepository;
     /**
      * Gets the cycle duration in ticks from config.
@@ -91,60 +105,62 @@ public class MilestoneService implements IService {
     }
 
     /**
-     * Updates BossBar progress with countdown timer.
-     * Progress bar fills from 0% to 100% over the cycle duration.
-     * Uses system time instead of ticks for smooth, lag-independent progress.
-     * Async-safe in PaperMC - Adventure API bossbars are thread-safe.
+     * Returns the BossBar title component, re-rendered only when the milestone or the amount changed.
      */
-    private void updateBossBarProgress(UUID uuid, int elapsedTicks) {
-        BossBar bossBar = unifiedBossBar.get(uuid);
-        if (bossBar == null) {
-            return;
+    private Component bossBarTitle(BossBarCycle cycle, MilestoneDisplayData milestone, double currentAmount) {
+        Component title = cycle.cachedTitle(milestone, currentAmount);
+        if (title != null) {
+            titlesReused.incrementAndGet();
+            return title;
         }
+        title = MessageUtil.getComponentParsed(
+                buildBossBarTitle(milestone.type, currentAmount, milestone.targetAmount, milestone.isServerMilestone),
+                null
+        );
+        cycle.cacheTitle(milestone, currentAmount, title);
+        titlesRendered.incrementAndGet();
+        return title;
+    }
 
-        List<MilestoneDisplayData> milestones = activeMilestones.get(uuid);
-        if (milestones == null || milestones.isEmpty()) {
-            return;
+    /**
+     * Called by the BossBar ticker: cycles to the next milestone once the cycle duration has passed,
+     * otherwise advances the countdown progress.
+     */
+    private void tickBossBar(BossBarCycle cycle, long nowMillis) {
+        long cycleDurationMs = getCycleDurationTicks() * 50L; // Convert ticks to ms (1 tick = 50ms)
+        long elapsedMs = nowMillis - cycle.getCycleStartMillis();
+        if (elapsedMs >= cycleDurationMs) {
+            cycle.setCycleStartMillis(nowMillis);
+            cycleMilestone(cycle);
+        } else {
+            updateBossBarProgress(cycle, elapsedMs, cycleDurationMs);
         }
+    }
 
-        int currentIndex = cycleIndex.getOrDefault(uuid, 0);
-        if (currentIndex >= milestones.size()) {
+    /**
+     * Updates BossBar progress with countdown timer.
+     * Progress bar fills from 0% to 100% over the cycle duration.
+     * Uses system time instead of ticks for smooth, lag-independent progress.
+     * Async-safe in PaperMC - Adventure API bossbars are thread-safe.
+     */
+    private void updateBossBarProgress(BossBarCycle cycle, long elapsedMs, long cycleDurationMs) {
+        BossBar bossBar = unifiedBossBar.get(cycle.getPlayerUUID());
+        if (bossBar == null || !(cycle.getDisplayedMilestone() instanceof MilestoneDisplayData milestone)) {
             return;
         }
 
-        MilestoneDisplayData milestone = milestones.get(currentIndex);
-        Double cachedAmount = currentAmountCache.get(uuid);
-
-        if (cachedAmount != null) {
-            Player player = Bukkit.getPlayer(uuid);
-            if (player != null && player.isOnline()) {
-                // Async-safe: Adventure API bossbars are thread-safe in PaperMC
-                bossBar.name(MessageUtil.getComponentParsed(
-                        buildBossBarTitle(milestone.type, cachedAmount, milestone.targetAmount, milestone.isServerMilestone),
-                        null
-                ));
-                // Use time-based progress calculation for smooth, lag-independent visualization
-                Long startTime = cycleStartTimeMs.get(uuid);
-                if (startTime != null) {
-                    long elapsedMs = System.currentTimeMillis() - startTime;
-                    long cycleDurationMs = getCycleDurationTicks() * 50L; // Convert ticks to ms (1 tick = 50ms)
-                    float countdownProgress = (float) elapsedMs / cycleDurationMs;
-                    bossBar.progress(Math.min(1.0f, Math.max(0.0f, countdownProgress)));
-                }
-            }
-        }
+        // Async-safe: Adventure API bossbars are thread-safe in PaperMC, unchanged values send nothing
+        bossBar.name(bossBarTitle(cycle, milestone, cycle.getDisplayedAmount()));
+        float countdownProgress = (float) elapsedMs / cycleDurationMs;
+        bossBar.progress(Math.min(1.0f, Math.max(0.0f, countdownProgress)));
     }
 
     /**
      * Cycles to next active milestone (player or server).
-     * Called every 15 seconds by scheduled task.
+     * Called by the BossBar ticker every cycle duration.
      */
-    private void cycleMilestone(UUID uuid) {
-        // Check if cycling is still active
-        if (!cyclingActive.getOrDefault(uuid, false)) {
-            return;
-        }
-
+    private void cycleMilestone(BossBarCycle cycle) {
+        UUID uuid = cycle.getPlayerUUID();
         List<MilestoneDisplayData> milestones = activeMilestones.get(uuid);
 
         if (milestones == null || milestones.isEmpty()) {
@@ -152,57 +168,26 @@ public class MilestoneService implements IService {
             return;
         }
 
-        int currentIndex = cycleIndex.getOrDefault(uuid, 0);
+        int currentIndex = cycle.getIndex();
         if (currentIndex >= milestones.size()) {
             currentIndex = 0;
-            cycleIndex.put(uuid, 0);
         }
 
         MilestoneDisplayData milestone = milestones.get(currentIndex);
 
-        // Fetch current amount async
+        // Read current amount async (a player without a cached rollup is seeded first)
         SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> {
-            PaymentLogService paymentLogService = SPPlugin.getService(DatabaseService.class).getPaymentLogService();
-            SPPlayer player = SPPlugin.getService(DatabaseService.class).getPlayerService().findByUuid(uuid);
-
-            if (player == null) {
-                return;
-            }
-
-            double currentAmount;
-            if (milestone.isServerMilestone) {
-                // Fetch server-wide total
-                currentAmount = switch (milestone.type) {
-                    case ALL -> paymentLogService.getEntireServerAmount();
-                    case DAILY -> paymentLogService.getEntireServerDailyAmount();
-                    case WEEKLY -> paymentLogService.getEntireServerWeeklyAmount();
-                    case MONTHLY -> paymentLogService.getEntireServerMonthlyAmount();
-                    case YEARLY -> paymentLogService.getEntireServerYearlyAmount();
-                };
-            } else {
-                // Fetch player total
-                currentAmount = switch (milestone.type) {
-                    case ALL -> paymentLogService.getPlayerTotalAmount(player);
-                    case DAILY -> paymentLogService.getPlayerDailyAmount(player);
-                    case WEEKLY -> paymentLogService.getPlayerWeeklyAmount(player);
-                    case MONTHLY -> paymentLogService.getPlayerMonthlyAmount(player);
-                    case YEARLY -> paymentLogService.getPlayerYearlyAmount(player);
-                };
-            }
-
-            // Cache the amount for smooth updates
-            currentAmountCache.put(uuid, currentAmount);
+            double currentAmount = milestoneBalance(uuid, milestone.type, milestone.isServerMilestone);
 
             // Update BossBar asynchronously (thread-safe in PaperMC)
             Player onlinePlayer = Bukkit.getPlayer(uuid);
-            if (onlinePlayer != null && onlinePlayer.isOnline()) {
-                updateBossBarDisplay(uuid, milestone, currentAmount);
+            if (onlinePlayer != null && onlinePlayer.isOnline() && cycle.isActive()) {
+                updateBossBarDisplay(cycle, milestone, currentAmount);
             }
         });
 
         // Advance to next milestone
-        int nextIndex = (currentIndex + 1) % milestones.size();
-        cycleIndex.put(uuid, nextIndex);
+        cycle.setIndex((currentIndex + 1) % milestones.size());
     }
 
     /**
@@ -210,30 +195,32 @@ public class MilestoneService implements IService {
      * Progress bar starts at 0% on cycle start (for countdown visualization).
      * Async-safe in PaperMC - Adventure API bossbars are thread-safe.
      */
-    private void updateBossBarDisplay(UUID uuid, MilestoneDisplayData milestone, double currentAmount) {
+    private void updateBossBarDisplay(BossBarCycle cycle, MilestoneDisplayData milestone, double currentAmount) {
         // Check global bossbar enabled setting
         if (!ConfigManager.getInstance().getConfig(MainConfig.class).bossbar.enabled) {
             return;
         }
+        UUID uuid = cycle.getPlayerUUID();
         // Check if player has hidden bossbar
         if (isBossBarHidden(uuid)) {
             return;
         }
 
-        BossBar bossBar = unifiedBossBar.get(uuid);
-
-        // Cache the current amount for smooth updates
-        currentAmountCache.put(uuid, currentAmount);
+        // Remember what is shown, progress updates reuse it
+        cycle.setDisplayedAmount(currentAmount);
+        cycle.setDisplayedMilestone(milestone);
 
         Player player = Bukkit.getPlayer(uuid);
         if (player == null || !player.isOnline()) {
             return;
         }
 
+        Component title = bossBarTitle(cycle, milestone, currentAmount);
+        BossBar bossBar = unifiedBossBar.get(uuid);
         if (bossBar == null) {
             // Create new bossbar (async-safe in PaperMC)
             bossBar = BossBar.bossBar(
-                    MessageUtil.getComponentParsed(buildBossBarTitle(milestone.type, currentAmount, milestone.targetAmount, milestone.isServerMilestone), null),
+                    title,
                     0.0f,  // Start at 0% for countdown
                     milestone.color,
                     milestone.style
@@ -242,7 +229,7 @@ public class MilestoneService implements IService {
             bossBar.addViewer(player);
         } else {
             // Update existing bossbar (async-safe in PaperMC)
-            bossBar.name(MessageUtil.getComponentParsed(buildBossBarTitle(milestone.type, currentAmount, milestone.targetAmount, milestone.isServerMilestone), null));
+            bossBar.name(title);
             bossBar.progress(0.0f);  // Reset to 0% for countdown
             bossBar.color(milestone.color);
             bossBar.overlay(milestone.style);
@@ -250,56 +237,17 @@ public class MilestoneService implements IService {
     }
 
     /**
-     * Starts cycling task with smooth progress updates.
+     * Starts (or restarts) cycling for a player on the shared BossBar ticker.
      */
     private void startCyclingTask(UUID uuid) {
-        stopCyclingTask(uuid);
-
-        cyclingActive.put(uuid, true);
-        cycleElapsedTicks.put(uuid, 0);  // Reset countdown
-        cycleStartTimeMs.put(uuid, System.currentTimeMillis());  // Record start time for time-based progress
-
-        int updateFrequency = getUpdateFrequencyTicks();
-
-        SPPlugin.getInstance().getFoliaLib().getScheduler().runTimerAsync(
-                task -> {
-                    if (!cyclingActive.getOrDefault(uuid, false)) {
-                        task.cancel();
-                        cycleElapsedTicks.remove(uuid);
-                        cycleStartTimeMs.remove(uuid);
-                        return;
-                    }
-
-                    Long startTime = cycleStartTimeMs.get(uuid);
-                    if (startTime == null) {
-                        return;
-                    }
-
-                    long elapsedMs = System.currentTimeMillis() - startTime;
-                    long cycleDurationMs = getCycleDurationTicks() * 50L; // Convert ticks to ms
-
-                    if (elapsedMs >= cycleDurationMs) {
-                        // Cycle duration passed - cycle to next milestone
-                        cycleStartTimeMs.put(uuid, System.currentTimeMillis());
-                        cycleElapsedTicks.put(uuid, 0);
-                        cycleMilestone(uuid);
-                    } else {
-                        // Update progress smoothly (still track ticks for compatibility)
-                        int elapsed = cycleElapsedTicks.getOrDefault(uuid, 0);
-                        updateBossBarProgress(uuid, elapsed);
-                        cycleElapsedTicks.put(uuid, elapsed + updateFrequency);
-                    }
-                },
-                0,              // Run immediately
-                updateFrequency // Configurable update frequency
-        );
+        bossBarTicker.add(uuid);
     }
 
     /**
-     * Stops cycling task.
+     * Stops cycling for a player.
      */
     public void stopCyclingTask(UUID uuid) {
-        cyclingActive.put(uuid, false);
+        bossBarTicker.remove(uuid);
     }
 
     /**
@@ -314,13 +262,23 @@ public class MilestoneService implements IService {
             }
         }
         stopCyclingTask(uuid);
-        cycleStartTimeMs.remove(uuid);
-        currentAmountCache.remove(uuid);
     }
 
     @Override
     public void setup() {
         milestoneRepository = new MilestoneRepository();
+        refreshMilestones();
+        bossBarTicker.start(this::getUpdateFrequencyTicks);
+
+        // Load completions once; payments are evaluated in memory afterwards
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> {
+            // Catch up on periods that ended while the server was offline
+            resetTimedCompletions(EnumSet.complementOf(EnumSet.of(MilestoneType.ALL)), PeriodWindow.current());
+            ensureServerLoaded();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                loadPlayerProgress(player.getUniqueId());
+            }
+        });
 
         // Load unified milestones for all online players
         for (Player player : Bukkit.getOnlinePlayers()) {
@@ -330,10 +288,8 @@ public class MilestoneService implements IService {
 
     @Override
     public void shutdown() {
-        // Stop all cycling tasks
-        for (UUID uuid : new ArrayList<>(cyclingActive.keySet())) {
-            stopCyclingTask(uuid);
-        }
+        // Stop the shared BossBar ticker
+        bossBarTicker.stop();
 
         // Remove all BossBars
         for (UUID uuid : new ArrayList<>(unifiedBossBar.keySet())) {
@@ -342,14 +298,10 @@ public class MilestoneService implements IService {
 
         // Clear all caches
         unifiedBossBar.clear();
-        cycleIndex.clear();
         activeMilestones.clear();
-        cyclingActive.clear();
         currentMilestones.clear();
-        cycleElapsedTicks.clear();
-        cycleStartTimeMs.clear();
-        currentAmountCache.clear();
         bossbarHidden.clear();
+        evaluator.clear();
     }
 
     /**
@@ -360,128 +312,38 @@ public class MilestoneService implements IService {
         activeMilestones.remove(uuid);
 
         SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> {
-            PaymentLogService paymentLogService = SPPlugin.getService(DatabaseService.class).getPaymentLogService();
-            SPPlayer player = SPPlugin.getService(DatabaseService.class).getPlayerService().findByUuid(uuid);
+            refreshMilestones();
+            MessageUtil.debug("Loading Unified Milestones for " + uuid);
 
-            if (player == null) {
-                return;
-            }
-
-            MilestonesPlayerConfig playerConfig = ConfigManager.getInstance().getConfig(MilestonesPlayerConfig.class);
-            MilestonesServerConfig serverConfig = ConfigManager.getInstance().getConfig(MilestonesServerConfig.class);
-            MessageUtil.debug("Loading Unified Milestones for " + player.getName());
-
-            currentMilestones.putIfAbsent(uuid, new ArrayList<>());
+            List<MilestoneConfig> remaining = new ArrayList<>();
             List<MilestoneDisplayData> displayList = new ArrayList<>();
 
-            // Load player milestones
-            for (MilestoneType type : MilestoneType.values()) {
-                List<MilestoneEntry> entries = switch (type) {
-                    case ALL -> playerConfig.milestones.alltime;
-                    case DAILY -> playerConfig.milestones.daily;
-                    case WEEKLY -> playerConfig.milestones.weekly;
-                    case MONTHLY -> playerConfig.milestones.monthly;
-                    case YEARLY -> playerConfig.milestones.yearly;
-                };
+            // Player milestones first, then server milestones
+            for (boolean serverWide : new boolean[]{false, true}) {
+                for (MilestoneType type : MilestoneType.values()) {
+                    MilestoneLadder ladder = serverWide ? evaluator.getServerLadder(type) : evaluator.getPlayerLadder(type);
+                    long balance = milestoneBalance(uuid, type, serverWide);
 
-                double playerBal = switch (type) {
-                    case ALL -> paymentLogService.getPlayerTotalAmount(player);
-                    case DAILY -> paymentLogService.getPlayerDailyAmount(player);
-                    case WEEKLY -> paymentLogService.getPlayerWeeklyAmount(player);
-                    case MONTHLY -> paymentLogService.getPlayerMonthlyAmount(player);
-                    case YEARLY -> paymentLogService.getPlayerYearlyAmount(player);
-                };
-
-                // Find the NEXT (minimum) uncompleted milestone for this type
-                MilestoneEntry nextMilestone = null;
-                for (MilestoneEntry entry : entries) {
-                    if (entry.amount > playerBal) {
-                        if (nextMilestone == null || entry.amount < nextMilestone.amount) {
-                            nextMilestone = entry;
-                        }
-                    }
-                }
-
-                // Add all uncompleted milestones to currentMilestones (for retroactive checking)
-                for (MilestoneEntry entry : entries) {
-                    MilestoneConfig config = entryToConfig(entry, type);
-                    if (config.amount > playerBal) {
-                        currentMilestones.get(uuid).add(config);
-                        MessageUtil.debug("Loaded Player Milestone: " + entry.name + " (" + config.amount + ")");
+                    // Every milestone above the balance is still open, the lowest one is shown on the BossBar
+                    for (int i = ladder.reachedCount(balance); i < ladder.size(); i++) {
+                        remaining.add(ladder.config(i));
                     }
-                }
-
-                // Only add the NEXT milestone to display list (for BossBar)
-                if (nextMilestone != null) {
-                    MilestoneConfig config = entryToConfig(nextMilestone, type);
-                    if (config.bossbar.enabled) {
+                    MilestoneConfig next = ladder.next(balance);
+                    if (next != null && next.bossbar.enabled) {
                         displayList.add(new MilestoneDisplayData(
                                 type,
-                                config.amount,
-                                config.bossbar.color,
-                                config.bossbar.style,
-                                false  // isServerMilestone = false
+                                next.amount,
+                                next.bossbar.color,
+                                next.bossbar.style,
+                                serverWide
                         ));
-                        MessageUtil.debug("Added Player BossBar Milestone: " + nextMilestone.name + " (" + config.amount + ")");
-                    }
-                }
-            }
-
-            // Load server milestones
-            for (MilestoneType type : MilestoneType.values()) {
-                List<MilestoneEntry> entries = switch (type) {
-                    case ALL -> serverConfig.milestones.alltime;
-                    case DAILY -> serverConfig.milestones.daily;
-                    case WEEKLY -> serverConfig.milestones.weekly;
-                    case MONTHLY -> serverConfig.milestones.monthly;
-                    case YEARLY -> serverConfig.milestones.yearly;
-                };
-
-                double serverBal = switch (type) {
-                    case ALL -> paymentLogService.getEntireServerAmount();
-                    case DAILY -> paymentLogService.getEntireServerDailyAmount();
-                    case WEEKLY -> paymentLogService.getEntireServerWeeklyAmount();
-                    case MONTHLY -> paymentLogService.getEntireServerMonthlyAmount();
-                    case YEARLY -> paymentLogService.getEntireServerYearlyAmount();
-                };
-
-                // Find the NEXT (minimum) uncompleted milestone for this type
-                MilestoneEntry nextMilestone = null;
-                for (MilestoneEntry entry : entries) {
-                    if (entry.amount > serverBal) {
-                        if (nextMilestone == null || entry.amount < nextMilestone.amount) {
-                            nextMilestone = entry;
-                        }
-                    }
-                }
-
-                // Add all uncompleted milestones to currentMilestones (for retroactive checking)
-                for (MilestoneEntry entry : entries) {
-                    MilestoneConfig config = entryToConfig(entry, type);
-                    if (config.amount > serverBal) {
-                        currentMilestones.get(uuid).add(config);
-                        MessageUtil.debug("Loaded Server Milestone: " + entry.name + " (" + config.amount + ")");
-                    }
-                }
-
-                // Only add the NEXT milestone to display list (for BossBar)
-                if (nextMilestone != null) {
-                    MilestoneConfig config = entryToConfig(nextMilestone, type);
-                    if (config.bossbar.enabled) {
-                        displayList.add(new MilestoneDisplayData(
-                                type,
-                                config.amount,
-                                config.bossbar.color,
-                                config.bossbar.style,
-                                true  // isServerMilestone = true
-                        ));
-                        MessageUtil.debug("Added Server BossBar Milestone: " + nextMilestone.name + " (" + config.amount + ")");
+                        MessageUtil.debug("Added " + (serverWide ? "Server" : "Player") + " BossBar Milestone: " + type + " (" + next.amount + ")");
                     }
                 }
             }
 
+            currentMilestones.put(uuid, remaining);
             activeMilestones.put(uuid, displayList);
-            cycleIndex.put(uuid, 0);
 
             // Start cycling on main thread
             SPPlugin.getInstance().getFoliaLib().getScheduler().runNextTick(t -> {
@@ -490,9 +352,9 @@ public class MilestoneService implements IService {
                 if (onlinePlayer != null && onlinePlayer.isOnline() && !displayList.isEmpty() && bossbarEnabled && !isBossBarHidden(uuid)) {
                     startCyclingTask(uuid);
                 } else if (displayList.isEmpty()) {
-                    MessageUtil.debug("No active milestones for " + player.getName());
+                    MessageUtil.debug("No active milestones for " + uuid);
                 } else if (isBossBarHidden(uuid)) {
-                    MessageUtil.debug("BossBar hidden for " + player.getName());
+                    MessageUtil.debug("BossBar hidden for " + uuid);
                 }
             });
         });
@@ -506,66 +368,143 @@ public class MilestoneService implements IService {
     }
 
     /**
-     * Gets all uncompleted player milestones that should be checked for retroactive completion.
-     * Phase 3.2: Updated to use new MilestonesPlayerConfig format.
+     * Completes every player milestone reached by the player's cached running totals.
+     * Completions are recorded in memory first, then written to the database asynchronously.
+     * Call off the main thread: a player seen for the first time is loaded from the database once.
      *
      * @param playerUUID Player UUID
-     * @param type       Milestone type to check
-     * @return List of uncompleted milestones that can potentially be completed
+     * @return the newly completed milestones
      */
-    public List<MilestoneConfig> getUncompletedPlayerMilestones(UUID playerUUID, MilestoneType type) {
-        MilestonesPlayerConfig milestonesConfig = ConfigManager.getInstance().getConfig(MilestonesPlayerConfig.class);
-
-        // Get milestone entries for this type and convert to MilestoneConfig
-        List<MilestoneEntry> entries = switch (type) {
-            case ALL -> milestonesConfig.milestones.alltime;
-            case DAILY -> milestonesConfig.milestones.daily;
-            case WEEKLY -> milestonesConfig.milestones.weekly;
-            case MONTHLY -> milestonesConfig.milestones.monthly;
-            case YEARLY -> milestonesConfig.milestones.yearly;
-            default -> new ArrayList<>();
-        };
+    public List<MilestoneConfig> evaluatePlayerMilestones(UUID playerUUID) {
+        refreshMilestones();
+        loadPlayerProgress(playerUUID);
+
+        PeriodWindow window = PeriodWindow.current();
+        List<MilestoneConfig> completed = new ArrayList<>();
+        for (MilestoneType type : MilestoneType.values()) {
+            completed.addAll(evaluator.advancePlayer(playerUUID, type, milestoneBalance(playerUUID, type, false), window));
+        }
+        saveCompletionsAsync(new SPPlayer(playerUUID), completed, false);
+        return completed;
+    }
 
-        List<MilestoneConfig> allMilestones = entries.stream()
-                .map(entry -> entryToConfig(entry, type))
-                .collect(Collectors.toList());
+    /**
+     * Completes every server milestone reached by the cached server totals.
+     * Completions are recorded in memory first, then written to the database asynchronously.
+     *
+     * @return the newly completed milestones
+     */
+    public List<MilestoneConfig> evaluateServerMilestones() {
+        refreshMilestones();
+        ensureServerLoaded();
+
+        PeriodWindow window = PeriodWindow.current();
+        List<MilestoneConfig> completed = new ArrayList<>();
+        for (MilestoneType type : MilestoneType.values()) {
+            completed.addAll(evaluator.advanceServer(type, milestoneBalance(null, type, true), window));
+        }
+        saveCompletionsAsync(null, completed, true);
+        return completed;
+    }
 
-        List<Long> completedAmounts = milestoneRepository.getPlayerCompletedAmounts(playerUUID, type);
+    /**
+     * Starts the periods that just ended over: deletes their stored completions in one statement and refreshes
+     * every online player's BossBar. In-memory progress already ignores completions of an earlier period.
+     */
+    public void onPeriodRollover(Set<MilestoneType> endedTypes, PeriodWindow current) {
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> {
+            resetTimedCompletions(endedTypes, current);
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                refreshUnifiedMilestones(player.getUniqueId());
+            }
+        });
+    }
 
-        return allMilestones.stream()
-                .filter(config -> !completedAmounts.contains((long) config.amount))
-                .collect(Collectors.toList());
+    private void resetTimedCompletions(Set<MilestoneType> types, PeriodWindow current) {
+        int deleted = milestoneRepository.resetTimedMilestones(types, current);
+        periodResets.incrementAndGet();
+        resetCompletions.addAndGet(deleted);
+        MessageUtil.debug("[Milestone] Reset " + deleted + " completions of " + types);
     }
 
     /**
-     * Gets all uncompleted server milestones that should be checked for retroactive completion.
-     * Phase 3.2: Updated to use new MilestonesServerConfig format.
-     *
-     * @param type Milestone type to check
-     * @return List of uncompleted server milestones
+     * Loads a player's stored completions into memory if they are not loaded yet. Call off the main thread.
      */
-    public List<MilestoneConfig> getUncompletedServerMilestones(MilestoneType type) {
-        MilestonesServerConfig milestonesConfig = ConfigManager.getInstance().getConfig(MilestonesServerConfig.class);
-
-        // Get milestone entries for this type and convert to MilestoneConfig
-        List<MilestoneEntry> entries = switch (type) {
-            case ALL -> milestonesConfig.milestones.alltime;
-            case DAILY -> milestonesConfig.milestones.daily;
-            case WEEKLY -> milestonesConfig.milestones.weekly;
-            case MONTHLY -> milestonesConfig.milestones.monthly;
-            case YEARLY -> milestonesConfig.milestones.yearly;
-            default -> new ArrayList<>();
-        };
+    public void loadPlayerProgress(UUID playerUUID) {
+        if (!evaluator.isPlayerLoaded(playerUUID)) {
+            evaluator.loadPlayer(playerUUID, milestoneRepository.getPlayerCompletions(playerUUID), PeriodWindow.current());
+        }
+    }
 
-        List<MilestoneConfig> allMilestones = entries.stream()
-                .map(entry -> entryToConfig(entry, type))
-                .collect(Collectors.toList());
+    public void unloadPlayerProgress(UUID playerUUID) {
+        evaluator.unloadPlayer(playerUUID);
+    }
 
-        List<Long> completedAmounts = milestoneRepository.getServerCompletedAmounts(type);
+    private void ensureServerLoaded() {
+        if (!evaluator.isServerLoaded()) {
+            evaluator.loadServer(milestoneRepository.getServerCompletions(), PeriodWindow.current());
+        }
+    }
+
+    private void saveCompletionsAsync(SPPlayer player, List<MilestoneConfig> completed, boolean serverWide) {
+        if (completed.isEmpty()) {
+            return;
+        }
+        List<MilestoneCompletion> rows = new ArrayList<>(completed.size());
+        for (MilestoneConfig config : completed) {
+            rows.add(new MilestoneCompletion(player, config.type, config.amount, serverWide));
+        }
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> milestoneRepository.saveCompletions(rows));
+    }
 
-        return allMilestones.stream()
-                .filter(config -> !completedAmounts.contains((long) config.amount))
-                .collect(Collectors.toList());
+    /**
+     * Current period total from the payment rollups. A player without a cached rollup is seeded first (one aggregate query).
+     */
+    private long milestoneBalance(UUID uuid, MilestoneType type, boolean serverWide) {
+        CacheDataService cacheService = SPPlugin.getService(CacheDataService.class);
+        if (serverWide) {
+            return cacheService.getServerAmount(type);
+        }
+        if (!cacheService.isPlayerCached(uuid)) {
+            cacheService.updatePlayerCacheSync(uuid);
+        }
+        return cacheService.getPlayerAmount(uuid, type);
+    }
+
+    /**
+     * Rebuilds the evaluator thresholds when the milestone configs were (re)loaded.
+     */
+    private void refreshMilestones() {
+        MilestonesPlayerConfig playerConfig = ConfigManager.getInstance().getConfig(MilestonesPlayerConfig.class);
+        MilestonesServerConfig serverConfig = ConfigManager.getInstance().getConfig(MilestonesServerConfig.class);
+        if (playerConfig == loadedPlayerConfig && serverConfig == loadedServerConfig) {
+            return;
+        }
+        synchronized (evaluator) {
+            Map<MilestoneType, List<MilestoneConfig>> playerMilestones = new EnumMap<>(MilestoneType.class);
+            Map<MilestoneType, List<MilestoneConfig>> serverMilestones = new EnumMap<>(MilestoneType.class);
+            for (MilestoneType type : MilestoneType.values()) {
+                List<MilestoneEntry> playerEntries = switch (type) {
+                    case ALL -> playerConfig.milestones.alltime;
+                    case DAILY -> playerConfig.milestones.daily;
+                    case WEEKLY -> playerConfig.milestones.weekly;
+                    case MONTHLY -> playerConfig.milestones.monthly;
+                    case YEARLY -> playerConfig.milestones.yearly;
+                };
+                List<MilestoneEntry> serverEntries = switch (type) {
+                    case ALL -> serverConfig.milestones.alltime;
+                    case DAILY -> serverConfig.milestones.daily;
+                    case WEEKLY -> serverConfig.milestones.weekly;
+                    case MONTHLY -> serverConfig.milestones.monthly;
+                    case YEARLY -> serverConfig.milestones.yearly;
+                };
+                playerMilestones.put(type, playerEntries.stream().map(entry -> entryToConfig(entry, type)).toList());
+                serverMilestones.put(type, serverEntries.stream().map(entry -> entryToConfig(entry, type)).toList());
+            }
+            evaluator.setMilestones(playerMilestones, serverMilestones);
+            loadedPlayerConfig = playerConfig;
+            loadedServerConfig = serverConfig;
+        }
     }
 
     /**
@@ -655,6 +594,29 @@ public class MilestoneService implements IService {
         return bossbarHidden.getOrDefault(uuid, false);
     }
 
+    @Override
+    public String getStatsName() {
+        return "Milestone BossBars";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        int players = bossBarTicker.size();
+        stats.put("players", players);
+        // One shared timer instead of one per cycling player
+        stats.put("timer-tasks-saved", Math.max(0, players - 1));
+        stats.put("ticks", bossBarTicker.getRuns());
+        stats.put("tick-avg-us", String.format("%.1f", bossBarTicker.getAverageRunMicros()));
+        stats.put("tick-last-us", String.format("%.1f", bossBarTicker.getLastRunMicros()));
+        stats.put("tick-max-us", String.format("%.1f", bossBarTicker.getMaxRunMicros()));
+        stats.put("titles-rendered", titlesRendered.get());
+        stats.put("titles-reused", titlesReused.get());
+        stats.put("period-resets", periodResets.get());
+        stats.put("reset-completions", resetCompletions.get());
+        return stats;
+    }
+
     /**
      * Helper class to store milestone display information for cycling.
      */
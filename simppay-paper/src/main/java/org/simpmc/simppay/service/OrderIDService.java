@@ -1,34 +1,51 @@
 package org.simpmc.simppay.service;
 
 import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.MainConfig;
+import org.simpmc.simppay.database.Database;
+import org.simpmc.simppay.repository.OrderSequenceRepository;
+import org.simpmc.simppay.service.orderid.DatabaseIdBlockSource;
+import org.simpmc.simppay.service.orderid.FileIdBlockSource;
+import org.simpmc.simppay.service.orderid.IdAllocator;
+import org.simpmc.simppay.service.orderid.IdBlockSource;
+import org.simpmc.simppay.util.MessageUtil;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.util.concurrent.atomic.AtomicLong;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
-public class OrderIDService implements IService {
+/**
+ * Order codes for PayOS, which rejects a code it has seen before.
+ * <p>
+ * - IDs are reserved a block at a time, with one durable write per block instead of one per payment
+ * - Within a block, IDs are handed out without locking or I/O
+ * - The rest of a block is skipped on restart, so a crash never reuses an ID
+ * - With {@code order-id.shared}, blocks come from a row in the shared database so several servers can use one PayOS account
+ */
+public class OrderIDService implements IService, StatsProvider {
 
     // The filename within the plugin data folder
-    private final String FILE_NAME = "last_id.txt";
+    private static final String FILE_NAME = "last_id.txt";
+    private static final String SEQUENCE_NAME = "payos";
 
-    // Thread-safe counter
-    private final AtomicLong counter = new AtomicLong(0);
-
-    // File where the counter is persisted
-    private File dataFile;
+    private IdAllocator allocator;
 
     /**
-     * Call this once from your plugin's onEnable().
-     * It will create the data folder/file if needed and load the last saved ID.
-     * /**
-     * Gets the next unique ID (thread-safe) and immediately persists it.
+     * Gets the next unique ID (thread-safe). Only the call that starts a new block writes to disk or the database.
      *
      * @return the next ID
+     * @throws IllegalStateException if no ID can be reserved
      */
     public long getNextId() {
-        long next = counter.incrementAndGet();
-        saveCurrent();
-        return next;
+        if (allocator == null) {
+            throw new IllegalStateException("Order IDs are unavailable, check " + FILE_NAME);
+        }
+        try {
+            return allocator.next();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not reserve order IDs: " + e.getMessage(), e);
+        }
     }
 
     @Override
@@ -38,41 +55,46 @@ public class OrderIDService implements IService {
         if (!plugin.getDataFolder().exists()) {
             plugin.getDataFolder().mkdirs();
         }
-        dataFile = new File(plugin.getDataFolder(), FILE_NAME);
+        MainConfig.OrderIdSettings settings = ConfigManager.getInstance().getConfig(MainConfig.class).orderId;
 
-        // If file doesn't exist, create it with a zero
-        if (!dataFile.exists()) {
-            try (Writer w = new OutputStreamWriter(new FileOutputStream(dataFile), StandardCharsets.UTF_8)) {
-                w.write("0");
-            } catch (IOException e) {
-                plugin.getLogger().severe("Could not create " + FILE_NAME + ": " + e.getMessage());
-            }
+        FileIdBlockSource file = new FileIdBlockSource(plugin.getDataFolder().toPath().resolve(FILE_NAME));
+        try {
+            file.load();
+        } catch (IOException e) {
+            // Starting over at zero would resend codes PayOS already knows
+            MessageUtil.error("[OrderID] Could not load " + FILE_NAME + ", fix or delete it. PayOS payments are disabled until then", e);
+            return;
         }
 
-        // Load last ID
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(new FileInputStream(dataFile), StandardCharsets.UTF_8))) {
-            String line = r.readLine();
-            long last = Long.parseLong(line.trim());
-            counter.set(last);
-        } catch (Exception e) {
-            plugin.getLogger().severe("Could not load last ID from " + FILE_NAME + ": " + e.getMessage());
+        IdBlockSource source = file;
+        if (settings.shared) {
+            Database database = SPPlugin.getService(DatabaseService.class).getDatabase();
+            source = new DatabaseIdBlockSource(new OrderSequenceRepository(database.getConnectionSource(), database.getOrderSequenceDao()), SEQUENCE_NAME, file);
         }
+        allocator = new IdAllocator(source, settings.blockSize);
     }
 
-    public void saveCurrent() {
-        if (dataFile == null) {
-            return;
-        }
-        try (Writer w = new OutputStreamWriter(new FileOutputStream(dataFile, false), StandardCharsets.UTF_8)) {
-            w.write(Long.toString(counter.get()));
-        } catch (IOException e) {
-            // Best effort: log to console
-            System.err.println("Failed to save ID to " + FILE_NAME + ": " + e.getMessage());
-        }
+    @Override
+    public void shutdown() {
+        // Nothing to save: every handed out ID is inside a block already on disk
     }
 
     @Override
-    public void shutdown() {
-        saveCurrent();
+    public String getStatsName() {
+        return "Order IDs";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (allocator == null) {
+            stats.put("source", "unavailable");
+            return stats;
+        }
+        stats.put("source", allocator.getSourceName());
+        stats.put("block-size", allocator.getBlockSize());
+        stats.put("remaining", allocator.remaining());
+        stats.put("blocks", allocator.getBlocks());
+        return stats;
     }
 }
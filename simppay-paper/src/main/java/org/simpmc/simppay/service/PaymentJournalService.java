@@ -0,0 +1,168 @@
+package org.simpmc.simppay.service;
+
+import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.MainConfig;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.model.Payment;
+import org.simpmc.simppay.service.journal.JournalEntry;
+import org.simpmc.simppay.service.journal.PaymentJournal;
+import org.simpmc.simppay.util.MessageUtil;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records every pending payment in a {@link PaymentJournal} so a crash or restart does not lose it.
+ * <p>
+ * - sendCard / sendBank journal CREATED before calling the gateway and PENDING once it accepted
+ * - SUCCESS / FAILED are journaled after the payment events were handled, or when the player cancels
+ * - On startup, pending payments and cards whose submission was cut short are handed back to the poller;
+ * bank transfers that were never shown to the player are dropped
+ * - Appends only copy bytes into a memory-mapped file; a timer forces them to disk once per interval and compacts
+ */
+public class PaymentJournalService implements IService, StatsProvider {
+    private final AtomicLong recovered = new AtomicLong();
+    private final AtomicLong failedAppends = new AtomicLong();
+    private PaymentJournal journal;
+    private double compactRatio;
+    private volatile boolean running;
+
+    @Override
+    public void setup() {
+        MainConfig.JournalSettings settings = ConfigManager.getInstance().getConfig(MainConfig.class).journal;
+        if (!settings.enabled) {
+            return;
+        }
+        compactRatio = Math.min(0.95, Math.max(0.1, settings.compactThresholdPercent / 100.0));
+        PaymentJournal opened = new PaymentJournal(SPPlugin.getInstance().getDataFolder().toPath(), settings.fileSizeKb * 1024);
+        List<JournalEntry> unfinished;
+        try {
+            unfinished = opened.open();
+        } catch (IOException e) {
+            MessageUtil.error("[Journal] Failed to open the payment journal, pending payments will not survive a restart", e);
+            opened.close();
+            return;
+        }
+        journal = opened;
+        running = true;
+        recover(unfinished);
+
+        long interval = Math.max(1, settings.syncIntervalTicks);
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runTimerAsync(task -> {
+            if (!running) {
+                task.cancel();
+                return;
+            }
+            syncAndCompact();
+        }, interval, interval);
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        if (journal != null) {
+            // Payments still pending stay in the journal and are polled again on the next start
+            journal.close();
+            journal = null;
+        }
+    }
+
+    /**
+     * Journals a payment about to be sent to its gateway.
+     */
+    public void created(Payment payment) {
+        append(JournalEntry.of(JournalEntry.State.CREATED, payment));
+    }
+
+    /**
+     * Journals a payment the gateway accepted, with the reference it is polled by.
+     */
+    public void pending(Payment payment) {
+        append(JournalEntry.of(JournalEntry.State.PENDING, payment));
+    }
+
+    /**
+     * Journals the end of a payment. Does nothing for payments that are not journaled.
+     */
+    public void finished(UUID paymentID, boolean success) {
+        append(JournalEntry.finished(success ? JournalEntry.State.SUCCESS : JournalEntry.State.FAILED, paymentID));
+    }
+
+    private void append(JournalEntry entry) {
+        PaymentJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.append(entry);
+        } catch (IOException e) {
+            failedAppends.incrementAndGet();
+            MessageUtil.warn("[Journal] Failed to journal " + entry.state() + " for " + entry.paymentID() + ": " + e.getMessage());
+        }
+    }
+
+    private void recover(List<JournalEntry> unfinished) {
+        if (unfinished.isEmpty()) {
+            return;
+        }
+        PaymentService paymentService = SPPlugin.getService(PaymentService.class);
+        PaymentPollingService pollingService = SPPlugin.getService(PaymentPollingService.class);
+        int dropped = 0;
+        for (JournalEntry entry : unfinished) {
+            Payment payment = entry.toPayment();
+            // A card may have been charged before the crash; a bank transfer without PENDING never reached the player
+            if (entry.state() == JournalEntry.State.CREATED && payment.getPaymentType() == PaymentType.BANKING) {
+                finished(payment.getPaymentID(), false);
+                dropped++;
+                continue;
+            }
+            paymentService.trackPayment(payment);
+            pollingService.add(payment);
+            recovered.incrementAndGet();
+        }
+        MessageUtil.info("[Journal] Recovered " + recovered.get() + " pending payments" + (dropped > 0 ? ", dropped " + dropped + " unsent bank transfers" : ""));
+    }
+
+    private void syncAndCompact() {
+        PaymentJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.sync();
+            if (current.compactIfNeeded(compactRatio)) {
+                MessageUtil.debug("[Journal] Compacted to " + current.getLiveCount() + " pending payments");
+            }
+        } catch (IOException | RuntimeException e) {
+            MessageUtil.warn("[Journal] Sync failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "Payment journal";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        PaymentJournal current = journal;
+        if (current == null) {
+            stats.put("enabled", false);
+            return stats;
+        }
+        stats.put("pending", current.getLiveCount());
+        stats.put("used", current.getUsedBytes() / 1024 + "/" + current.getCapacity() / 1024 + " KB");
+        stats.put("appended", current.getAppended());
+        stats.put("syncs", current.getSyncs());
+        stats.put("compactions", current.getCompactions());
+        stats.put("recovered", recovered.get());
+        stats.put("failed-appends", failedAppends.get());
+        return stats;
+    }
+}
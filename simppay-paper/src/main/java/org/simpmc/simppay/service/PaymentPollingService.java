@@ -0,0 +1,291 @@
+package org.simpmc.simppay.service;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.BankingConfig;
+import org.simpmc.simppay.config.types.MainConfig;
+import org.simpmc.simppay.data.PaymentStatus;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.event.PaymentFailedEvent;
+import org.simpmc.simppay.event.PaymentSuccessEvent;
+import org.simpmc.simppay.handler.PaymentHandler;
+import org.simpmc.simppay.model.Payment;
+import org.simpmc.simppay.model.PaymentResult;
+import org.simpmc.simppay.model.detail.CardDetail;
+import org.simpmc.simppay.model.detail.PaymentDetail;
+import org.simpmc.simppay.service.polling.PendingPoll;
+import org.simpmc.simppay.service.polling.PollBackoff;
+import org.simpmc.simppay.service.polling.PollQueue;
+import org.simpmc.simppay.util.EventUtil;
+import org.simpmc.simppay.util.MessageUtil;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks pending card and bank payments from one shared timer.
+ * <p>
+ * - Pending payments wait in a queue ordered by their next check time, no timer task per payment
+ * - Each check calls the gateway once; while a payment stays pending its interval doubles (with jitter) up to a cap
+ * - Gateways that list all recent transactions in one response (Web2M) are asked once per round for every pending payment
+ * - Payments that pass the banking timeout fail and are removed
+ */
+public class PaymentPollingService implements IService, StatsProvider {
+    private static final long TIMER_PERIOD_TICKS = 10;
+
+    private final PollQueue queue = new PollQueue();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong batchRounds = new AtomicLong();
+    private final AtomicLong callsSaved = new AtomicLong();
+    private final AtomicLong totalPollNanos = new AtomicLong();
+    private volatile long lastPollNanos;
+    private volatile long maxPollNanos;
+    private volatile boolean running;
+
+    @Override
+    public void setup() {
+        running = true;
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runTimerAsync(task -> {
+            if (!running) {
+                task.cancel();
+                return;
+            }
+            tick();
+        }, TIMER_PERIOD_TICKS, TIMER_PERIOD_TICKS);
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        queue.clear();
+    }
+
+    /**
+     * Starts checking a payment that the gateway accepted as pending.
+     */
+    public void add(Payment payment) {
+        PaymentService paymentService = SPPlugin.getService(PaymentService.class);
+        if (paymentService.getPollingPayments().putIfAbsent(payment.getPaymentID(), payment) != null) {
+            return;
+        }
+        // Queued before sendBank/sendCard tracks it, so webhooks can already match it
+        paymentService.indexReference(payment);
+        int bankingTimeout = ConfigManager.getInstance().getConfig(BankingConfig.class).bankingTimeout;
+        long now = System.currentTimeMillis();
+        long deadline = payment.getCreatedAt().getTime() + bankingTimeout * 1000L;
+        queue.add(new PendingPoll(payment, deadline, Math.min(deadline, now + backoff().delayMillis(0))));
+    }
+
+    private void tick() {
+        List<PendingPoll> due = queue.pollDue(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        PaymentService paymentService = SPPlugin.getService(PaymentService.class);
+        Map<PaymentHandler, List<PendingPoll>> batches = new LinkedHashMap<>();
+        for (PendingPoll poll : due) {
+            Payment payment = poll.getPayment();
+            // Confirmed elsewhere (webhook) or cancelled by the player
+            if (!paymentService.getPollingPayments().containsKey(payment.getPaymentID())) {
+                MessageUtil.debug("[PaymentPoller] Payment removed from polling queue | PaymentID: " + payment.getPaymentID());
+                continue;
+            }
+            if (System.currentTimeMillis() >= poll.getDeadline()) {
+                expire(poll);
+                continue;
+            }
+            PaymentHandler handler = handlerFor(payment);
+            if (handler.supportsBatchPolling()) {
+                batches.computeIfAbsent(handler, k -> new ArrayList<>()).add(poll);
+            } else {
+                SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> pollSingle(handler, poll));
+            }
+        }
+        for (Map.Entry<PaymentHandler, List<PendingPoll>> batch : batches.entrySet()) {
+            PaymentHandler handler = batch.getKey();
+            List<PendingPoll> polls = batch.getValue();
+            // The same request answers the payments that are not due yet, check them now too
+            polls.addAll(queue.removeIf(poll -> handlerFor(poll.getPayment()) == handler
+                    && paymentService.getPollingPayments().containsKey(poll.getPayment().getPaymentID())));
+            SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> pollBatch(handler, polls));
+        }
+    }
+
+    private void pollSingle(PaymentHandler handler, PendingPoll poll) {
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        PaymentResult result;
+        try {
+            result = handler.getTransactionResult(poll.getPayment().getDetail());
+        } catch (Exception e) {
+            MessageUtil.warn("[PaymentPoller] Status check failed | PaymentID: " + poll.getPayment().getPaymentID() + " | " + e.getMessage());
+            result = new PaymentResult(PaymentStatus.PENDING, (int) poll.getPayment().getDetail().getAmount(), "");
+        } finally {
+            inFlight.decrementAndGet();
+            recordPoll(System.nanoTime() - start);
+        }
+        // The old per-payment task asked the gateway twice per check
+        callsSaved.incrementAndGet();
+        handle(poll, result);
+    }
+
+    private void pollBatch(PaymentHandler handler, List<PendingPoll> polls) {
+        List<PaymentDetail> details = new ArrayList<>(polls.size());
+        for (PendingPoll poll : polls) {
+            details.add(poll.getPayment().getDetail());
+        }
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        List<PaymentResult> results;
+        try {
+            results = handler.getTransactionResults(details);
+        } catch (Exception e) {
+            MessageUtil.warn("[PaymentPoller] Batch status check failed | Payments: " + polls.size() + " | " + e.getMessage());
+            results = null;
+        } finally {
+            inFlight.decrementAndGet();
+            recordPoll(System.nanoTime() - start);
+        }
+        batchRounds.incrementAndGet();
+        // One request instead of two per payment
+        callsSaved.addAndGet(2L * polls.size() - 1);
+        for (int i = 0; i < polls.size(); i++) {
+            PendingPoll poll = polls.get(i);
+            handle(poll, results == null || i >= results.size()
+                    ? new PaymentResult(PaymentStatus.PENDING, (int) poll.getPayment().getDetail().getAmount(), "")
+                    : results.get(i));
+        }
+    }
+
+    private void handle(PendingPoll poll, PaymentResult result) {
+        Payment payment = poll.getPayment();
+        PaymentService paymentService = SPPlugin.getService(PaymentService.class);
+        PaymentStatus status = result == null ? null : result.getStatus();
+
+        if (status == PaymentStatus.PENDING) {
+            if (paymentService.getPollingPayments().containsKey(payment.getPaymentID())) {
+                poll.reschedule(System.currentTimeMillis(), backoff());
+                queue.add(poll);
+            }
+            return;
+        }
+        // Another path (webhook, cancel) already finished this payment while it was being checked
+        if (paymentService.getPollingPayments().remove(payment.getPaymentID()) == null) {
+            return;
+        }
+
+        switch (status) {
+            case SUCCESS -> {
+                // TODO: get actual amount then set into trueamount for card, the true amount should be given in the returned json
+                callEventSync(new PaymentSuccessEvent(payment));
+            }
+            case WRONG_PRICE -> {
+                CardDetail detail = (CardDetail) payment.getDetail().setAmount(result.getAmount());
+                callEventSync(new PaymentSuccessEvent(payment.setDetail(detail), true));
+            }
+            case FAILED -> {
+                logFailure("Payment failed", payment, " | Message: " + result.getMessage());
+                callEventSync(new PaymentFailedEvent(payment));
+                if (payment.getPaymentType() == PaymentType.BANKING) {
+                    paymentService.cancelBankPayment(payment.getPlayerUUID());
+                }
+            }
+            case null -> {
+                logFailure("Null status received", payment, "");
+                callEventSync(new PaymentFailedEvent(payment));
+            }
+            case INVALID -> {
+                logFailure("Invalid payment", payment, "");
+                callEventSync(new PaymentFailedEvent(payment));
+            }
+            case EXIST -> {
+                logFailure("Payment already exists on API", payment, "");
+                callEventSync(new PaymentFailedEvent(payment));
+            }
+            case EXPIRED -> {
+                logFailure("Payment expired on API", payment, "");
+                callEventSync(new PaymentFailedEvent(payment));
+            }
+            case CANCELLED -> {
+                logFailure("Payment cancelled on API", payment, "");
+                callEventSync(new PaymentFailedEvent(payment));
+            }
+            default -> {
+                logFailure("Unexpected status " + status, payment, "");
+                callEventSync(new PaymentFailedEvent(payment));
+            }
+        }
+    }
+
+    private void expire(PendingPoll poll) {
+        Payment payment = poll.getPayment();
+        if (SPPlugin.getService(PaymentService.class).getPollingPayments().remove(payment.getPaymentID()) == null) {
+            return;
+        }
+        int bankingTimeout = ConfigManager.getInstance().getConfig(BankingConfig.class).bankingTimeout;
+        logFailure("Payment expired", payment, " | Timeout: " + bankingTimeout + " seconds");
+        callEventSync(new PaymentFailedEvent(payment));
+    }
+
+    private void logFailure(String reason, Payment payment, String extra) {
+        Player player = Bukkit.getPlayer(payment.getPlayerUUID());
+        String playerName = player != null ? player.getName() : "Unknown";
+        MessageUtil.error("[PaymentPoller] " + reason + " | Player: " + playerName +
+                " | Amount: " + payment.getDetail().getAmount() +
+                " | Type: " + payment.getPaymentType() +
+                " | PaymentID: " + payment.getPaymentID() + extra);
+    }
+
+    private static PaymentHandler handlerFor(Payment payment) {
+        PaymentService paymentService = SPPlugin.getService(PaymentService.class);
+        return payment.getPaymentType() == PaymentType.CARD
+                ? paymentService.getHandlerRegistry().getCardHandler()
+                : paymentService.getHandlerRegistry().getBankHandler();
+    }
+
+    private static PollBackoff backoff() {
+        MainConfig config = ConfigManager.getInstance().getConfig(MainConfig.class);
+        return new PollBackoff(config.intervalApiCall * 1000L, config.polling.maxIntervalSeconds * 1000L, config.polling.jitterPercent / 100.0);
+    }
+
+    private void recordPoll(long nanos) {
+        polls.incrementAndGet();
+        totalPollNanos.addAndGet(nanos);
+        lastPollNanos = nanos;
+        if (nanos > maxPollNanos) {
+            maxPollNanos = nanos;
+        }
+    }
+
+    private void callEventSync(Event event) {
+        EventUtil.callSync(event);
+    }
+
+    @Override
+    public String getStatsName() {
+        return "Payment Polling";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = polls.get();
+        stats.put("pending", queue.size());
+        stats.put("in-flight", inFlight.get());
+        stats.put("polls", count);
+        stats.put("batch-rounds", batchRounds.get());
+        stats.put("calls-saved", callsSaved.get());
+        stats.put("poll-avg-ms", String.format("%.1f", count == 0 ? 0 : totalPollNanos.get() / (double) count / 1_000_000));
+        stats.put("poll-last-ms", String.format("%.1f", lastPollNanos / 1_000_000.0));
+        stats.put("poll-max-ms", String.format("%.1f", maxPollNanos / 1_000_000.0));
+        return stats;
+    }
+}
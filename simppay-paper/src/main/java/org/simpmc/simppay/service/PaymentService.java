@@ -1,19 +1,25 @@
 package org.simpmc.simppay.service;
 
 import lombok.Getter;
+import org.bukkit.entity.Player;
 import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.config.ConfigManager;
 import org.simpmc.simppay.config.types.BankingConfig;
 import org.simpmc.simppay.config.types.CardConfig;
 import org.simpmc.simppay.data.PaymentStatus;
 import org.simpmc.simppay.handler.HandlerRegistry;
+import org.simpmc.simppay.handler.PaymentHandler;
+import org.simpmc.simppay.handler.banking.sepay.SepayReferenceExtractor;
 import org.simpmc.simppay.handler.data.BankAPI;
 import org.simpmc.simppay.handler.data.CardAPI;
 import org.simpmc.simppay.model.Payment;
 import org.simpmc.simppay.util.MessageUtil;
 
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 @Getter
 public class PaymentService implements IService {
@@ -23,6 +29,14 @@ public class PaymentService implements IService {
     private final ConcurrentHashMap<UUID, Payment> payments = new ConcurrentHashMap<>(); // payment id is key
     private final ConcurrentHashMap<UUID, UUID> playerBankingSessionPayment = new ConcurrentHashMap<>(); // Store player uuid and payment id
     private final ConcurrentHashMap<UUID, byte[]> playerBankQRCode = new ConcurrentHashMap<>(); // Store player uuid and map bytes for resend
+    // Upper-cased reference code -> pending payment, for webhook matching
+    private final ConcurrentHashMap<String, Payment> paymentsByReference = new ConcurrentHashMap<>();
+    // Payment id -> key in paymentsByReference, the detail's refID may be replaced by the gateway transaction id later
+    private final ConcurrentHashMap<UUID, String> referenceByPayment = new ConcurrentHashMap<>();
+    // Payment ids submitted to a gateway that has not answered yet
+    private final Set<UUID> submitting = ConcurrentHashMap.newKeySet();
+    // Submitting payments the player cancelled before the gateway answered; guarded by submitting
+    private final Set<UUID> cancelledWhileSubmitting = ConcurrentHashMap.newKeySet();
     private HandlerRegistry handlerRegistry;
 
     // use for storing data and pulling data out of the db later on
@@ -46,23 +60,140 @@ public class PaymentService implements IService {
 
     }
 
-    public PaymentStatus sendCard(Payment payment) {
-        PaymentStatus status = handlerRegistry.getCardHandler().processPayment(payment);
-        if (status == PaymentStatus.PENDING) {
-            payments.putIfAbsent(payment.getPaymentID(), payment);
+    /**
+     * Submits a card to the card gateway. Never blocks: the HTTP call runs on the gateway executor.
+     *
+     * @return the gateway's answer, PENDING payments are already tracked when it completes
+     */
+    public CompletableFuture<PaymentStatus> sendCard(Payment payment) {
+        return submit(handlerRegistry.getCardHandler(), payment);
+    }
+
+    /**
+     * Creates a bank transfer with the bank gateway. Never blocks: the HTTP call, if any, runs on the gateway executor.
+     *
+     * @return the gateway's answer, PENDING payments are already tracked when it completes
+     */
+    public CompletableFuture<PaymentStatus> sendBank(Payment payment) {
+        return submit(handlerRegistry.getBankHandler(), payment);
+    }
+
+    /**
+     * @return true if the payment is waiting for the gateway's answer or already pending
+     */
+    public boolean isPending(UUID paymentID) {
+        return submitting.contains(paymentID) || payments.containsKey(paymentID);
+    }
+
+    /**
+     * Runs the callback on the player's region thread once the submission completed.
+     * Nothing runs if the player left meanwhile; a pending payment is still polled and credited.
+     */
+    public static void deliver(Player player, CompletableFuture<PaymentStatus> result, Consumer<PaymentStatus> callback) {
+        result.thenAccept(status -> {
+            if (!player.isOnline()) {
+                MessageUtil.debug("[PaymentService] " + player.getName() + " left before the gateway answered: " + status);
+                return;
+            }
+            SPPlugin.getInstance().getFoliaLib().getScheduler().runAtEntity(player, task -> callback.accept(status));
+        });
+    }
+
+    private CompletableFuture<PaymentStatus> submit(PaymentHandler handler, Payment payment) {
+        if (!submitting.add(payment.getPaymentID())) {
+            return CompletableFuture.completedFuture(PaymentStatus.EXIST);
+        }
+        PaymentJournalService journal = SPPlugin.getService(PaymentJournalService.class);
+        // Journaled before the gateway sees it, so a crash mid-call cannot lose a charged card
+        journal.created(payment);
+        CompletableFuture<PaymentStatus> result;
+        try {
+            result = handler.processPayment(payment);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.handle((status, error) -> {
+            if (error != null) {
+                MessageUtil.error("[PaymentService] Gateway call failed for " + payment.getPaymentID(), error);
+                status = PaymentStatus.FAILED;
+            }
+            boolean cancelled;
+            synchronized (submitting) {
+                // Tracked before leaving submitting, so a cancel right after finds the payment
+                if (status == PaymentStatus.PENDING) {
+                    journal.pending(payment);
+                    trackPayment(payment);
+                }
+                submitting.remove(payment.getPaymentID());
+                cancelled = cancelledWhileSubmitting.remove(payment.getPaymentID());
+            }
+            if (status != PaymentStatus.PENDING) {
+                journal.finished(payment.getPaymentID(), status == PaymentStatus.SUCCESS);
+            } else if (cancelled) {
+                // The player cancelled or left while the gateway was creating it: cancel it upstream instead of polling
+                MessageUtil.debug("[PaymentService] " + payment.getPaymentID() + " was cancelled while being created, cancelling it on the gateway");
+                cancelCreated(payment, handler);
+                return PaymentStatus.CANCELLED;
+            }
             return status;
+        });
+    }
+
+    private void cancelCreated(Payment payment, PaymentHandler handler) {
+        if (handler.supportsCancellation()) {
+            SPPlugin.getService(CancellationService.class).enqueue(payment);
         }
-        return status;
+        SPPlugin.getService(PaymentJournalService.class).finished(payment.getPaymentID(), false);
+        removePayment(payment.getPaymentID());
+        pollingPayments.remove(payment.getPaymentID());
     }
 
-    public PaymentStatus sendBank(Payment payment) {
+    /**
+     * Keeps a pending payment in memory and indexes its reference code.
+     */
+    public void trackPayment(Payment payment) {
+        payments.putIfAbsent(payment.getPaymentID(), payment);
+        indexReference(payment);
+    }
 
-        PaymentStatus status = handlerRegistry.getBankHandler().processPayment(payment);
-        if (status == PaymentStatus.PENDING) {
-            payments.putIfAbsent(payment.getPaymentID(), payment);
-            return status;
+    /**
+     * Drops a finished payment and its reference index entry.
+     */
+    public void removePayment(UUID paymentID) {
+        payments.remove(paymentID);
+        String key = referenceByPayment.remove(paymentID);
+        if (key != null) {
+            paymentsByReference.remove(key);
+        }
+    }
+
+    /**
+     * Indexes the payment's current reference code, if it has one. Safe to call more than once.
+     */
+    public void indexReference(Payment payment) {
+        String refID = payment.getDetail().getRefID();
+        if (refID == null || refID.isEmpty()) {
+            return;
+        }
+        String key = SepayReferenceExtractor.key(refID);
+        if (paymentsByReference.putIfAbsent(key, payment) == null) {
+            referenceByPayment.put(payment.getPaymentID(), key);
+        }
+    }
+
+    /**
+     * Removes and returns the payment indexed under a reference code, so concurrent matches of the
+     * same code credit it only once.
+     *
+     * @param key Upper-cased reference code
+     * @return the payment, or null if no pending payment has this code
+     */
+    public Payment claimByReference(String key) {
+        Payment payment = paymentsByReference.remove(key);
+        if (payment != null) {
+            referenceByPayment.remove(payment.getPaymentID(), key);
         }
-        return status;
+        return payment;
     }
 
     public void clearPlayerBankCache(UUID playerUUID) {
@@ -77,28 +208,26 @@ public class PaymentService implements IService {
             return;
         }
 
-        if (handlerRegistry.getBankHandler().supportsCancellation()) {
-            int retryCount = 0;
-            boolean cancelled = false;
-            while (retryCount < 5 && !cancelled) {
-                PaymentStatus status = handlerRegistry.getBankHandler().cancel(payments.get(paymentID));
-                if (status == PaymentStatus.CANCELLED) {
-                    MessageUtil.debug("[PaymentService-Cancel] " + payments.get(paymentID));
-                    cancelled = true;
-                } else {
-                    MessageUtil.debug("[PaymentService-Cancel] " + payments.get(paymentID) + " failed to cancel, retrying...");
-                    retryCount++;
-                }
-            }
-            if (!cancelled) {
-                SPPlugin.getInstance().getLogger().info("[PaymentService-Cancel] Max retries reached for " + payments.get(paymentID));
+        playerBankingSessionPayment.remove(playerUUID, paymentID);
+        playerBankQRCode.remove(playerUUID);
+
+        synchronized (submitting) {
+            if (submitting.contains(paymentID)) {
+                // Still waiting for the gateway to create it; submit cancels it once the gateway answers
+                cancelledWhileSubmitting.add(paymentID);
+                return;
             }
         }
 
-        payments.remove(paymentID);
+        Payment payment = payments.get(paymentID);
+        if (payment != null && handlerRegistry.getBankHandler().supportsCancellation()) {
+            // The gateway call runs on the cancellation worker so quitting never waits on it
+            SPPlugin.getService(CancellationService.class).enqueue(payment);
+        }
+
+        SPPlugin.getService(PaymentJournalService.class).finished(paymentID, false);
+        removePayment(paymentID);
         pollingPayments.remove(paymentID);
-        playerBankingSessionPayment.remove(playerUUID);
-        playerBankQRCode.remove(playerUUID);
     }
 
 }
@@ -0,0 +1,368 @@
+package org.simpmc.simppay.service;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.MainConfig;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.database.entities.BankingPayment;
+import org.simpmc.simppay.database.entities.CardPayment;
+import org.simpmc.simppay.model.Payment;
+import org.simpmc.simppay.service.database.PaymentLogService;
+import org.simpmc.simppay.util.GsonUtil;
+import org.simpmc.simppay.util.MessageUtil;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind queue for successful payments.
+ * Payments are queued in memory and appended to a spool file, then written to the database in
+ * JDBC batches (one transaction per batch) every flush interval or as soon as a batch is full.
+ * Every payment is spooled before any write, including those written on their own when the queue is full.
+ * The spool is truncated once everything spooled has been committed, and replayed on startup
+ * so payments queued before a crash are not lost. Replayed payments that were already committed
+ * are skipped by the per-row fallback. Payments whose write failed are retried on every flush.
+ */
+public class PaymentWriteService implements IService, StatsProvider {
+    private static final String SPOOL_FILE = "payment-spool.jsonl";
+
+    private final Object spoolLock = new Object();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final AtomicLong enqueued = new AtomicLong();
+    // Every payment handed to enqueue, queued or not
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong fallbackWrites = new AtomicLong();
+    private final AtomicLong overflowWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    // Spooled payments whose write failed, retried on every flush
+    private final Queue<Object> retries = new ConcurrentLinkedQueue<>();
+    // Spooled payments written on their own task because the queue was full
+    private final AtomicInteger overflowInFlight = new AtomicInteger();
+    private BlockingQueue<Object> queue;
+    private Path spoolPath;
+    private BufferedWriter spoolWriter;
+    private int batchSize;
+    private volatile boolean running;
+    // Set when the spool could not be read on startup, its payments are unknown so it is never truncated
+    private volatile boolean spoolUnread;
+    private volatile long lastFlushMillis;
+    private volatile int lastBatchSize;
+
+    @Override
+    public void setup() {
+        MainConfig.PaymentWriteSettings settings = ConfigManager.getInstance().getConfig(MainConfig.class).paymentWrite;
+        batchSize = Math.max(1, settings.batchSize);
+        queue = new ArrayBlockingQueue<>(Math.max(batchSize, settings.queueCapacity));
+        spoolPath = SPPlugin.getInstance().getDataFolder().toPath().resolve(SPOOL_FILE);
+        running = true;
+
+        replaySpool();
+        openSpool(spoolUnread || !retries.isEmpty());
+
+        long interval = Math.max(1, settings.flushIntervalTicks);
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runTimerAsync(task -> {
+            if (!running) {
+                task.cancel();
+                return;
+            }
+            flush();
+        }, interval, interval);
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        // Wait for an in-flight flush, then write whatever is left
+        while (flushing.get()) {
+            LockSupport.parkNanos(1_000_000L);
+        }
+        flush();
+        synchronized (spoolLock) {
+            closeSpool();
+        }
+    }
+
+    /**
+     * Queues a successful payment for writing. Safe to call from the main thread.
+     * If the queue is full the payment is written on its own async task instead; either way it is spooled first.
+     * After shutdown the payment is only spooled, and written on the next start.
+     */
+    public void enqueue(Payment payment) {
+        // Entities are built now so the stored timestamp is the time of success
+        Object entity = payment.getPaymentType() == PaymentType.BANKING ? new BankingPayment(payment) : new CardPayment(payment);
+        accepted.incrementAndGet();
+        boolean queued;
+        synchronized (spoolLock) {
+            if (!running) {
+                spoolAfterShutdown(entity);
+                return;
+            }
+            appendSpool(entity);
+            queued = queue.offer(entity);
+            if (!queued) {
+                overflowInFlight.incrementAndGet();
+            }
+        }
+        if (!queued) {
+            overflowWrites.incrementAndGet();
+            SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> {
+                try {
+                    writeOrRetryLater(entity);
+                } finally {
+                    overflowInFlight.decrementAndGet();
+                }
+            });
+            return;
+        }
+        enqueued.incrementAndGet();
+        if (queue.size() >= batchSize && !flushing.get()) {
+            SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> flush());
+        }
+    }
+
+    /**
+     * Writes every queued payment. Only one flush runs at a time, concurrent calls return immediately.
+     */
+    public void flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            retryFailed();
+            List<Object> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                long start = System.currentTimeMillis();
+                writeBatch(batch);
+                lastFlushMillis = System.currentTimeMillis() - start;
+                lastBatchSize = batch.size();
+                batch.clear();
+            }
+            synchronized (spoolLock) {
+                // Everything spooled is committed: nothing queued, being written on its own, or waiting for a retry
+                if (queue.isEmpty() && overflowInFlight.get() == 0 && retries.isEmpty() && !spoolUnread) {
+                    truncateSpool();
+                }
+            }
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    /**
+     * Writes everything queued so far, waiting for a flush already in progress first. Blocks on database I/O.
+     */
+    public void flushAndWait() {
+        while (flushing.get()) {
+            LockSupport.parkNanos(1_000_000L);
+        }
+        flush();
+    }
+
+    /**
+     * @return number of payments handed to {@link #enqueue} since startup
+     */
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    /**
+     * Whether every payment is committed and none arrived since {@code mark}, a value of {@link #getAccepted()}.
+     * Database reads made in between then see exactly the payments accepted up to the mark.
+     */
+    public boolean isSettledSince(long mark) {
+        return accepted.get() == mark && queue.isEmpty() && overflowInFlight.get() == 0 && retries.isEmpty() && !flushing.get();
+    }
+
+    private void writeBatch(List<Object> batch) {
+        List<BankingPayment> bankingPayments = new ArrayList<>();
+        List<CardPayment> cardPayments = new ArrayList<>();
+        for (Object entity : batch) {
+            if (entity instanceof BankingPayment bankingPayment) {
+                bankingPayments.add(bankingPayment);
+            } else {
+                cardPayments.add((CardPayment) entity);
+            }
+        }
+        PaymentLogService paymentLogService = SPPlugin.getService(DatabaseService.class).getPaymentLogService();
+        try {
+            paymentLogService.addPaymentsBatch(bankingPayments, cardPayments);
+            persisted.addAndGet(batch.size());
+            batches.incrementAndGet();
+        } catch (Exception e) {
+            // Typically a replayed payment that is already stored, retry row by row
+            MessageUtil.debug("[PaymentWrite] Batch of " + batch.size() + " failed, writing row by row: " + e.getMessage());
+            for (Object entity : batch) {
+                fallbackWrites.incrementAndGet();
+                writeOrRetryLater(entity);
+            }
+        }
+    }
+
+    private void writeOrRetryLater(Object entity) {
+        if (writeSingle(entity)) {
+            return;
+        }
+        failedWrites.incrementAndGet();
+        retries.add(entity);
+        MessageUtil.warn("[PaymentWrite] Failed to write payment " + paymentIdOf(entity) + ", it stays in " + SPOOL_FILE + " and is retried on the next flush");
+    }
+
+    private void retryFailed() {
+        for (int i = retries.size(); i > 0; i--) {
+            Object entity = retries.poll();
+            if (entity == null) {
+                return;
+            }
+            if (!writeSingle(entity)) {
+                retries.add(entity);
+            }
+        }
+    }
+
+    private boolean writeSingle(Object entity) {
+        PaymentLogService paymentLogService = SPPlugin.getService(DatabaseService.class).getPaymentLogService();
+        boolean written = entity instanceof BankingPayment bankingPayment
+                ? paymentLogService.addBankingPayment(bankingPayment)
+                : paymentLogService.addCardPayment((CardPayment) entity);
+        if (written) {
+            persisted.incrementAndGet();
+        }
+        return written;
+    }
+
+    private void replaySpool() {
+        if (!Files.exists(spoolPath)) {
+            return;
+        }
+        List<Object> pending = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(spoolPath, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+                    boolean banking = PaymentType.valueOf(json.get("type").getAsString()) == PaymentType.BANKING;
+                    pending.add(GsonUtil.gson.fromJson(json.get("payment"), banking ? BankingPayment.class : CardPayment.class));
+                } catch (RuntimeException e) {
+                    // A line cut short by a crash mid-append
+                    MessageUtil.warn("[PaymentWrite] Skipping unreadable spool entry: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            MessageUtil.warn("[PaymentWrite] Failed to read " + SPOOL_FILE + ": " + e.getMessage());
+            spoolUnread = true;
+            return;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        MessageUtil.info("[PaymentWrite] Replaying " + pending.size() + " payments from " + SPOOL_FILE);
+        for (int i = 0; i < pending.size(); i += batchSize) {
+            writeBatch(pending.subList(i, Math.min(pending.size(), i + batchSize)));
+        }
+    }
+
+    private void openSpool(boolean append) {
+        try {
+            spoolWriter = Files.newBufferedWriter(spoolPath, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            MessageUtil.warn("[PaymentWrite] Failed to open " + SPOOL_FILE + ", queued payments are kept in memory only: " + e.getMessage());
+        }
+    }
+
+    private void appendSpool(Object entity) {
+        if (spoolWriter == null) {
+            return;
+        }
+        try {
+            spoolWriter.write(spoolLine(entity));
+            spoolWriter.newLine();
+            // Reaches the OS on every payment, so it survives the server process dying
+            spoolWriter.flush();
+        } catch (IOException e) {
+            MessageUtil.warn("[PaymentWrite] Failed to append to " + SPOOL_FILE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Keeps a payment credited after shutdown for the next start, the database may already be closing.
+     */
+    private void spoolAfterShutdown(Object entity) {
+        try (BufferedWriter writer = Files.newBufferedWriter(spoolPath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+            writer.write(spoolLine(entity));
+            writer.newLine();
+        } catch (IOException e) {
+            MessageUtil.error("[PaymentWrite] Failed to spool payment " + paymentIdOf(entity) + " after shutdown", e);
+        }
+    }
+
+    private static String spoolLine(Object entity) {
+        JsonObject json = new JsonObject();
+        json.addProperty("type", (entity instanceof BankingPayment ? PaymentType.BANKING : PaymentType.CARD).name());
+        json.add("payment", GsonUtil.gson.toJsonTree(entity));
+        return json.toString();
+    }
+
+    private void truncateSpool() {
+        closeSpool();
+        openSpool(false);
+    }
+
+    private void closeSpool() {
+        if (spoolWriter == null) {
+            return;
+        }
+        try {
+            spoolWriter.close();
+        } catch (IOException ignored) {
+        }
+        spoolWriter = null;
+    }
+
+    private static Object paymentIdOf(Object entity) {
+        return entity instanceof BankingPayment bankingPayment ? bankingPayment.getPaymentID() : ((CardPayment) entity).getPaymentID();
+    }
+
+    @Override
+    public String getStatsName() {
+        return "Payment write queue";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queue.size() + "/" + (queue.size() + queue.remainingCapacity()));
+        stats.put("enqueued", enqueued.get());
+        stats.put("persisted", persisted.get());
+        stats.put("batches", batches.get());
+        stats.put("last-batch", lastBatchSize + " in " + lastFlushMillis + "ms");
+        stats.put("row-fallbacks", fallbackWrites.get());
+        stats.put("queue-full", overflowWrites.get());
+        stats.put("failed", failedWrites.get());
+        stats.put("awaiting-retry", retries.size());
+        return stats;
+    }
+}
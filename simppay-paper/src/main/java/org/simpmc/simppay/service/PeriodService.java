@@ -0,0 +1,102 @@
+package org.simpmc.simppay.service;
+
+import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.MainConfig;
+import org.simpmc.simppay.event.PeriodRolloverEvent;
+import org.simpmc.simppay.util.CalendarUtil;
+import org.simpmc.simppay.util.EventUtil;
+import org.simpmc.simppay.util.MessageUtil;
+import org.simpmc.simppay.util.PeriodWindow;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the time zone of every daily / weekly / monthly / yearly period and announces period ends.
+ * <p>
+ * - The configured zone is applied to {@link CalendarUtil} and {@link PeriodWindow} on setup
+ * - A once-per-second check compares the clock with the cached day end and fires one {@link PeriodRolloverEvent}
+ * per day boundary, so milestone resets and cache rollovers happen at the boundary instead of on the next payment
+ */
+public class PeriodService implements IService, StatsProvider {
+    private static final long CHECK_PERIOD_TICKS = 20;
+
+    private final AtomicLong rollovers = new AtomicLong();
+    private volatile PeriodWindow window;
+    private volatile boolean running;
+
+    @Override
+    public void setup() {
+        CalendarUtil.setZone(parseZone(ConfigManager.getInstance().getConfig(MainConfig.class).timezone));
+        window = PeriodWindow.current();
+        running = true;
+        MessageUtil.debug("[Period] Using time zone " + window.getZone());
+
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runTimerAsync(task -> {
+            if (!running) {
+                task.cancel();
+                return;
+            }
+            checkRollover();
+        }, CHECK_PERIOD_TICKS, CHECK_PERIOD_TICKS);
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+    }
+
+    /**
+     * @return the window the last rollover moved to
+     */
+    public PeriodWindow getWindow() {
+        return window;
+    }
+
+    private void checkRollover() {
+        PeriodWindow current = PeriodWindow.current();
+        PeriodWindow previous = window;
+        if (current == previous) {
+            return;
+        }
+        window = current;
+        if (current.getDayStart() == previous.getDayStart()) {
+            return;
+        }
+        rollovers.incrementAndGet();
+        MessageUtil.debug("[Period] Rollover to " + CalendarUtil.getFormattedTimestamp(current.getDayStart()));
+        EventUtil.callSync(new PeriodRolloverEvent(previous, current));
+    }
+
+    private static ZoneId parseZone(String configured) {
+        if (configured == null || configured.isBlank()) {
+            return ZoneId.systemDefault();
+        }
+        try {
+            return ZoneId.of(configured.trim());
+        } catch (DateTimeException e) {
+            MessageUtil.warn("[Period] Invalid timezone '" + configured + "', using " + ZoneId.systemDefault());
+            return ZoneId.systemDefault();
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "Periods";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        PeriodWindow current = window;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("timezone", current.getZone().getId());
+        stats.put("day-start", CalendarUtil.getFormattedTimestamp(current.getDayStart()));
+        stats.put("next-rollover-seconds", Math.max(0, (current.getDayEnd() + 1 - System.currentTimeMillis()) / 1000));
+        stats.put("rollovers", rollovers.get());
+        return stats;
+    }
+}
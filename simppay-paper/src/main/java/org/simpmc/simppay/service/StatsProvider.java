@@ -0,0 +1,18 @@
+package org.simpmc.simppay.service;
+
+import java.util.Map;
+
+/**
+ * Implemented by services that expose runtime metrics, listed by /simppayadmin stats.
+ */
+public interface StatsProvider {
+    /**
+     * @return Section title shown above the metrics
+     */
+    String getStatsName();
+
+    /**
+     * @return Current metric values, in display order
+     */
+    Map<String, Object> getStats();
+}
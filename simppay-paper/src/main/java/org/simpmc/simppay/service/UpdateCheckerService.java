@@ -4,9 +4,7 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.Response;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
@@ -14,9 +12,11 @@ import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.config.ConfigManager;
 import org.simpmc.simppay.config.types.MainConfig;
 import org.simpmc.simppay.config.types.MessageConfig;
+import org.simpmc.simppay.service.http.HttpGateway;
 import org.simpmc.simppay.util.MessageUtil;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,7 +27,6 @@ public class UpdateCheckerService implements IService, Listener {
     private static final String RELEASES_API_URL =
             "https://api.github.com/repos/SimpMC-Studio/SimpPay/releases";
 
-    private OkHttpClient client;
     private volatile boolean hasUpdate = false;
     private volatile String latestVersion = null;
     private final List<String> changelog = new ArrayList<>();
@@ -37,7 +36,6 @@ public class UpdateCheckerService implements IService, Listener {
         MainConfig mainConfig = ConfigManager.getInstance().getConfig(MainConfig.class);
         if (!mainConfig.updateChecker) return;
 
-        client = new OkHttpClient();
         String currentVersion = SPPlugin.getInstance().getDescription().getVersion();
         boolean devChannel = "dev".equalsIgnoreCase(mainConfig.updateChannel);
 
@@ -52,21 +50,15 @@ public class UpdateCheckerService implements IService, Listener {
 
     @Override
     public void shutdown() {
-        if (client != null) {
-            client.dispatcher().executorService().shutdown();
-            client.connectionPool().evictAll();
-        }
     }
 
     private void checkForUpdate(String currentVersion) {
         Request request = new Request.Builder().url(STABLE_VERSION_URL).build();
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful() || response.body() == null) {
-                MessageUtil.debug("[UpdateChecker] Không thể lấy thông tin phiên bản: HTTP " + response.code());
+        try {
+            String body = fetch(request, "[UpdateChecker] Không thể lấy thông tin phiên bản: HTTP ");
+            if (body == null) {
                 return;
             }
-
-            String body = response.body().string();
             JsonObject json = JsonParser.parseString(body).getAsJsonObject();
             String fetchedVersion = json.get("version").getAsString();
 
@@ -98,13 +90,11 @@ public class UpdateCheckerService implements IService, Listener {
                 .url(RELEASES_API_URL)
                 .header("Accept", "application/vnd.github+json")
                 .build();
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful() || response.body() == null) {
-                MessageUtil.debug("[UpdateChecker] Không thể lấy danh sách releases: HTTP " + response.code());
+        try {
+            String body = fetch(request, "[UpdateChecker] Không thể lấy danh sách releases: HTTP ");
+            if (body == null) {
                 return;
             }
-
-            String body = response.body().string();
             JsonArray releases = JsonParser.parseString(body).getAsJsonArray();
 
             for (JsonElement element : releases) {
@@ -149,6 +139,19 @@ public class UpdateCheckerService implements IService, Listener {
         }
     }
 
+    /**
+     * @return the body, or null (logged at debug level) if the status is not 2xx
+     */
+    private String fetch(Request request, String failureMessage) throws IOException {
+        return SPPlugin.getService(HttpClientService.class).execute(HttpGateway.UPDATE_CHECKER, request, (code, body, length) -> {
+            if (code < 200 || code >= 300) {
+                MessageUtil.debug(failureMessage + code);
+                return null;
+            }
+            return new String(body, 0, length, StandardCharsets.UTF_8);
+        });
+    }
+
     private boolean isNewerVersion(String latest, String current) {
         // Strip leading non-numeric prefix (e.g. "dev-26.03.5-abc1234" -> compare numerics)
         String latestClean = latest.replaceAll("[^0-9.]", "");
@@ -1,32 +1,37 @@
 package org.simpmc.simppay.service;
 
-import com.google.gson.JsonSyntaxException;
-import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
-import com.sun.net.httpserver.HttpServer;
 import org.bukkit.Bukkit;
 import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.config.ConfigManager;
 import org.simpmc.simppay.config.types.banking.SepayConfig;
 import org.simpmc.simppay.event.SepayWebhookReceivedEvent;
 import org.simpmc.simppay.handler.banking.sepay.data.SepayWebhookPayload;
-import org.simpmc.simppay.util.GsonUtil;
+import org.simpmc.simppay.service.webhook.WebhookIngestServer;
+import org.simpmc.simppay.service.webhook.WebhookSpool;
 import org.simpmc.simppay.util.MessageUtil;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.InetSocketAddress;
-import java.nio.charset.StandardCharsets;
-import java.util.concurrent.Executors;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * HTTP server for receiving Sepay webhooks.
- * Listens on configured port and validates incoming webhook requests.
+ * Requests are acknowledged as soon as the payload is spooled and queued (see {@link WebhookIngestServer});
+ * a single consumer drains the queue every tick and fires {@link SepayWebhookReceivedEvent} for each payload.
+ * The spool keeps a payload until its event and anything a listener deferred with {@link SepayWebhookReceivedEvent#defer()} finished.
  */
-public class WebhookService implements IService {
-    private HttpServer server;
+public class WebhookService implements IService, StatsProvider {
+    private static final String SPOOL_FILE = "webhook-spool.jsonl";
+    // Forget idle clients of the rate limiter once a minute
+    private static final long EVICT_EVERY_TICKS = 1200;
+
+    private WebhookIngestServer server;
     private SepayConfig config;
+    private volatile boolean running;
+    private long ticks;
+    private long reportedSpoolErrors;
 
     @Override
     public void setup() {
@@ -37,125 +42,98 @@ public class WebhookService implements IService {
             return;
         }
 
-        try {
-            // Create HTTP server
-            server = HttpServer.create(new InetSocketAddress(config.webhookPort), 0);
-
-            // Register webhook endpoint
-            server.createContext(config.webhookPath, new SepayWebhookHandler());
+        WebhookIngestServer.Settings settings = new WebhookIngestServer.Settings(
+                config.webhookPort,
+                config.webhookPath,
+                config.metricsPath,
+                config.webhookApiKey,
+                config.maxBodyBytes,
+                config.queueCapacity,
+                config.rateLimitPerSecond,
+                config.rateLimitBurst
+        );
+        WebhookSpool spool = new WebhookSpool(SPPlugin.getInstance().getDataFolder().toPath().resolve(SPOOL_FILE));
+        server = new WebhookIngestServer(settings, spool);
 
-            // Use virtual thread executor for better performance
-            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
-
-            // Start server
+        try {
             server.start();
-
-            MessageUtil.info("[WebhookService] Server started on port " + config.webhookPort);
-            MessageUtil.info("[WebhookService] Webhook URL: http://YOUR_SERVER_IP:" + config.webhookPort + config.webhookPath);
         } catch (IOException e) {
             MessageUtil.warn("[WebhookService] Failed to start HTTP server: " + e.getMessage());
             e.printStackTrace();
+            server = null;
+            return;
         }
+
+        MessageUtil.info("[WebhookService] Server started on port " + config.webhookPort);
+        MessageUtil.info("[WebhookService] Webhook URL: http://YOUR_SERVER_IP:" + config.webhookPort + config.webhookPath);
+        if (server.getReplayed() > 0) {
+            MessageUtil.info("[WebhookService] Replaying " + server.getReplayed() + " webhooks from " + SPOOL_FILE);
+        }
+
+        running = true;
+        int batchSize = Math.max(1, config.dispatchBatchSize);
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runTimerAsync(task -> {
+            if (!running) {
+                task.cancel();
+                return;
+            }
+            server.dispatch(batchSize, this::fireEvents);
+            if (++ticks % EVICT_EVERY_TICKS == 0) {
+                server.evictIdleClients();
+            }
+            long spoolErrors = server.getSpoolErrors();
+            if (spoolErrors > reportedSpoolErrors) {
+                reportedSpoolErrors = spoolErrors;
+                MessageUtil.warn("[WebhookService] Failed to write " + SPOOL_FILE + ", accepted webhooks are kept in memory only");
+            }
+        }, 1, 1);
     }
 
     @Override
     public void shutdown() {
+        running = false;
         if (server != null) {
-            server.stop(0);
+            server.stop();
             MessageUtil.info("[WebhookService] HTTP server stopped");
         }
     }
 
     /**
-     * HTTP handler for Sepay webhook endpoint
+     * Runs on the consumer thread. The event is asynchronous, listeners move to the main thread themselves
+     * only for the payments they match. {@code settled} runs once every payload was handled.
      */
-    private class SepayWebhookHandler implements HttpHandler {
-        @Override
-        public void handle(HttpExchange exchange) throws IOException {
-            // Only accept POST requests
-            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
-                sendResponse(exchange, 405, "{\"success\": false, \"error\": \"Method not allowed\"}");
-                return;
+    private void fireEvents(List<SepayWebhookPayload> payloads, Runnable settled) {
+        AtomicInteger remaining = new AtomicInteger(payloads.size());
+        Runnable handled = () -> {
+            if (remaining.decrementAndGet() == 0) {
+                settled.run();
             }
-
+        };
+        for (SepayWebhookPayload payload : payloads) {
+            MessageUtil.info("[Webhook] Received transaction: ID=" + payload.getId() +
+                    ", Amount=" + payload.getTransferAmount() +
+                    ", Content=" + payload.getContent());
+            SepayWebhookReceivedEvent event = new SepayWebhookReceivedEvent(payload, handled);
             try {
-                // Validate API key authentication
-                String authHeader = exchange.getRequestHeaders().getFirst("Authorization");
-                if (authHeader == null || !authHeader.startsWith("Apikey")) {
-                    MessageUtil.debug("[Webhook] Missing or invalid Authorization header");
-                    sendResponse(exchange, 401, "{\"success\": false, \"error\": \"Unauthorized\"}");
-                    return;
-                }
-
-                String providedKey = authHeader.substring(7); // Remove "APIkey_" prefix
-                if (!providedKey.equals(config.webhookApiKey)) {
-                    MessageUtil.debug("[Webhook] Invalid API key");
-                    sendResponse(exchange, 403, "{\"success\": false, \"error\": \"Forbidden\"}");
-                    return;
-                }
-
-                // Read and parse request body
-                String requestBody = readRequestBody(exchange.getRequestBody());
-                MessageUtil.debug("[Webhook] Received payload: " + requestBody);
-
-                SepayWebhookPayload payload;
-                try {
-                    payload = GsonUtil.getGson().fromJson(requestBody, SepayWebhookPayload.class);
-                } catch (JsonSyntaxException e) {
-                    MessageUtil.warn("[Webhook] Invalid JSON payload: " + e.getMessage());
-                    sendResponse(exchange, 400, "{\"success\": false, \"error\": \"Invalid JSON\"}");
-                    return;
-                }
-
-                if (payload == null) {
-                    MessageUtil.warn("[Webhook] Null payload after parsing");
-                    sendResponse(exchange, 400, "{\"success\": false, \"error\": \"Invalid payload\"}");
-                    return;
-                }
-
-                // Validate it's an incoming transfer
-                if (!payload.isIncomingTransfer()) {
-                    MessageUtil.debug("[Webhook] Ignoring non-incoming transfer");
-                    sendResponse(exchange, 200, "{\"success\": true, \"message\": \"Ignored non-incoming transfer\"}");
-                    return;
-                }
-
-                MessageUtil.info("[Webhook] Received transaction: ID=" + payload.getId() +
-                        ", Amount=" + payload.getTransferAmount() +
-                        ", Content=" + payload.getContent());
-
-                // Fire event on main thread
-                SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> {
-                    Bukkit.getPluginManager().callEvent(new SepayWebhookReceivedEvent(payload));
-                });
-
-                // Send success response
-                sendResponse(exchange, 200, "{\"success\": true}");
-
+                Bukkit.getPluginManager().callEvent(event);
             } catch (Exception e) {
-                MessageUtil.warn("[Webhook] Error processing webhook: " + e.getMessage());
+                MessageUtil.warn("[Webhook] Error processing webhook " + payload.getId() + ": " + e.getMessage());
                 e.printStackTrace();
-                sendResponse(exchange, 500, "{\"success\": false, \"error\": \"Internal server error\"}");
+            } finally {
+                if (!event.isDeferred()) {
+                    handled.run();
+                }
             }
         }
+    }
 
-        /**
-         * Read request body as string
-         */
-        private String readRequestBody(InputStream inputStream) throws IOException {
-            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-        }
+    @Override
+    public String getStatsName() {
+        return "Sepay webhook";
+    }
 
-        /**
-         * Send HTTP response
-         */
-        private void sendResponse(HttpExchange exchange, int statusCode, String response) throws IOException {
-            byte[] responseBytes = response.getBytes(StandardCharsets.UTF_8);
-            exchange.getResponseHeaders().set("Content-Type", "application/json");
-            exchange.sendResponseHeaders(statusCode, responseBytes.length);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(responseBytes);
-            }
-        }
+    @Override
+    public Map<String, Object> getStats() {
+        return server == null ? new LinkedHashMap<>() : server.getStats();
     }
 }
@@ -1,52 +1,61 @@
 package org.simpmc.simppay.service.cache;
 
-import lombok.Getter;
+import org.bukkit.Bukkit;
 import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.MainConfig;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.data.milestone.MilestoneType;
+import org.simpmc.simppay.database.dto.PaymentTotals;
 import org.simpmc.simppay.database.entities.SPPlayer;
 import org.simpmc.simppay.service.DatabaseService;
 import org.simpmc.simppay.service.IService;
+import org.simpmc.simppay.service.PaymentWriteService;
 import org.simpmc.simppay.service.database.PaymentLogService;
 import org.simpmc.simppay.service.database.PlayerService;
+import org.simpmc.simppay.util.MessageUtil;
+import org.simpmc.simppay.util.PeriodWindow;
 
-import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
- * Redesigned Cache Service - Phase 2.1
+ * Payment totals cache backed by incremental rollups.
  * <p>
- * Key Improvements:
- * - Removed queue-based processing (no more 1-second delay)
- * - Synchronous cache updates on payment events
- * - Batch query optimization (5 queries → 2 queries)
- * - Leaderboard caching with 1-minute TTL
- * - Real-time updates for milestone and placeholder systems
+ * - Server rollup is seeded once at startup, player rollups once on join (one SQL aggregate each)
+ * - Each successful payment adds its amount to the rollups: O(1) work, zero database reads
+ * - Daily / weekly / monthly / yearly buckets roll over on PeriodRolloverEvent, and lazily if a read comes first
+ * - A periodic reconciliation job compares the rollups with the database and reports drift; rollups loaded for
+ * offline players (placeholders, milestones) are dropped there instead of being checked
+ * - Database reads that seed or check rollups wait for the write-behind queue, so they see every payment already applied
+ * - Leaderboards live in a {@link LeaderboardEngine}, updated per payment; reconciliation compares each board's sum
+ * with the server total for its period and re-seeds only the boards that differ
+ * - Placeholder reads never block: missing player values are loaded asynchronously
  */
-@Getter
 public class CacheDataService implements IService {
+    // Reads repeated while payments keep arriving before giving up until the next seed or reconciliation
+    private static final int COMMITTED_READ_ATTEMPTS = 3;
+    // How often offline rollups are dropped when reconciliation is disabled (10 minutes)
+    private static final long EVICT_INTERVAL_TICKS = 10 * 60 * 20L;
 
-    private static final long LEADERBOARD_TTL = 60000; // 1 minute in milliseconds
     private static CacheDataService instance;
-    // Player-level caches
-    private final ConcurrentHashMap<UUID, AtomicLong> playerTotalValue = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<UUID, AtomicLong> playerDailyTotalValue = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<UUID, AtomicLong> playerWeeklyTotalValue = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<UUID, AtomicLong> playerMonthlyTotalValue = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<UUID, AtomicLong> playerYearlyTotalValue = new ConcurrentHashMap<>();
-    // Server-level caches
-    private final AtomicLong serverTotalValue = new AtomicLong(0);
-    private final AtomicLong serverDailyTotalValue = new AtomicLong(0);
-    private final AtomicLong serverWeeklyTotalValue = new AtomicLong(0);
-    private final AtomicLong serverMonthlyTotalValue = new AtomicLong(0);
-    private final AtomicLong serverYearlyTotalValue = new AtomicLong(0);
-    private final AtomicLong cardTotalValue = new AtomicLong(0);
-    private final AtomicLong bankTotalValue = new AtomicLong(0);
-    // Leaderboard caches with TTL
-    private final ConcurrentHashMap<String, List<LeaderboardEntry>> leaderboardCache = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Long> leaderboardExpiry = new ConcurrentHashMap<>();
+    // Player-level rollups: online players, plus offline players looked up since the last reconciliation
+    private final ConcurrentHashMap<UUID, PaymentRollup> playerRollups = new ConcurrentHashMap<>();
+    // Server-level rollup
+    private final PaymentRollup serverRollup = new PaymentRollup(PaymentTotals.ZERO, PeriodWindow.current());
+    // Sorted leaderboards of every player, plus the name cache used to display them
+    private final LeaderboardEngine leaderboards = new LeaderboardEngine(PeriodWindow.current());
+    // Players with an asynchronous rollup load in flight
+    private final Set<UUID> loadingRollups = ConcurrentHashMap.newKeySet();
+    // Number of rollups corrected by reconciliation since startup
+    private final AtomicLong driftCorrections = new AtomicLong();
+    private volatile boolean running;
 
     public static CacheDataService getInstance() {
         return instance;
@@ -55,18 +64,39 @@ public class CacheDataService implements IService {
     @Override
     public void setup() {
         instance = this;
-        // No more queue processing - updates are synchronous!
-        // Initial server cache will be updated on first player join or can be triggered manually
+        running = true;
+        // Server rollup is seeded by CacheUpdaterListener once the database service is up
+        int intervalMinutes = ConfigManager.getInstance().getConfig(MainConfig.class).cacheReconcileIntervalMinutes;
+        if (intervalMinutes > 0) {
+            long intervalTicks = intervalMinutes * 60L * 20L;
+            SPPlugin.getInstance().getFoliaLib().getScheduler().runTimerAsync(task -> {
+                if (!running) {
+                    task.cancel();
+                    return;
+                }
+                reconcile();
+            }, intervalTicks, intervalTicks);
+        } else {
+            // Offline rollups are otherwise dropped by reconciliation
+            SPPlugin.getInstance().getFoliaLib().getScheduler().runTimerAsync(task -> {
+                if (!running) {
+                    task.cancel();
+                    return;
+                }
+                evictOfflineRollups();
+            }, EVICT_INTERVAL_TICKS, EVICT_INTERVAL_TICKS);
+        }
     }
 
     @Override
     public void shutdown() {
+        running = false;
         clearAllCache();
     }
 
     /**
-     * Synchronously updates player cache using batch queries
-     * Called directly from PaymentSuccessEvent - NO DELAY
+     * Seeds (or re-seeds) a player's rollup from the database with a single aggregate query.
+     * Called on join and after imports; payments afterwards are applied with {@link #recordPayment}.
      *
      * @param playerUUID Player to update
      */
@@ -79,176 +109,338 @@ public class CacheDataService implements IService {
             return;
         }
 
-        // Single batch query returns all time periods - 80% query reduction!
-        Map<String, Long> amounts = paymentService.getPlayerAmountsBatch(player);
-
-        // Update all caches atomically
-        playerTotalValue.compute(playerUUID, (k, v) ->
-                v == null ? new AtomicLong(amounts.get("total")) : setAndReturn(v, amounts.get("total"))
-        );
-        playerDailyTotalValue.compute(playerUUID, (k, v) ->
-                v == null ? new AtomicLong(amounts.get("daily")) : setAndReturn(v, amounts.get("daily"))
-        );
-        playerWeeklyTotalValue.compute(playerUUID, (k, v) ->
-                v == null ? new AtomicLong(amounts.get("weekly")) : setAndReturn(v, amounts.get("weekly"))
-        );
-        playerMonthlyTotalValue.compute(playerUUID, (k, v) ->
-                v == null ? new AtomicLong(amounts.get("monthly")) : setAndReturn(v, amounts.get("monthly"))
-        );
-        playerYearlyTotalValue.compute(playerUUID, (k, v) ->
-                v == null ? new AtomicLong(amounts.get("yearly")) : setAndReturn(v, amounts.get("yearly"))
-        );
+        applyCommitted(() -> seedPlayerRollup(playerUUID, player.getName(), paymentService.getPlayerTotals(player)));
     }
 
     /**
-     * Helper method to set AtomicLong value and return it (for compute lambda)
+     * Replaces a player's rollup with already loaded totals and records their name for leaderboards.
      */
-    private AtomicLong setAndReturn(AtomicLong atomicLong, long value) {
-        atomicLong.set(value);
-        return atomicLong;
+    public void seedPlayerRollup(UUID playerUUID, String playerName, PaymentTotals totals) {
+        leaderboards.updateName(playerUUID, playerName);
+
+        PeriodWindow window = PeriodWindow.current();
+        playerRollups.compute(playerUUID, (k, v) -> {
+            if (v == null) {
+                return new PaymentRollup(totals, window);
+            }
+            v.reset(totals, window);
+            return v;
+        });
     }
 
     /**
-     * Updates server-wide cache
-     * Optimized to reduce database calls
+     * Seeds (or re-seeds) the server rollup from the database with a single aggregate query.
      */
     public void updateServerDataCache() {
         PaymentLogService paymentService = SPPlugin.getService(DatabaseService.class).getPaymentLogService();
+        applyCommitted(() -> serverRollup.reset(paymentService.getEntireServerTotals(), PeriodWindow.current()));
+        applyCommitted(this::reloadLeaderboards);
+    }
 
-        // These are still separate queries but less frequent (only on payment, not every placeholder request)
-        serverTotalValue.set(paymentService.getEntireServerAmount());
-        serverDailyTotalValue.set(paymentService.getEntireServerDailyAmount());
-        serverWeeklyTotalValue.set(paymentService.getEntireServerWeeklyAmount());
-        serverMonthlyTotalValue.set(paymentService.getEntireServerMonthlyAmount());
-        serverYearlyTotalValue.set(paymentService.getEntireServerYearlyAmount());
-        cardTotalValue.set(paymentService.getEntireServerCardAmount());
-        bankTotalValue.set(paymentService.getEntireServerBankAmount());
+    /**
+     * Re-seeds every leaderboard and the name cache from the database: one grouped query per leaderboard type.
+     * In read-only leaderboard mode the boards are loaded from the stored snapshot instead.
+     */
+    public void reloadLeaderboards() {
+        if (ConfigManager.getInstance().getConfig(MainConfig.class).leaderboard.readOnly) {
+            Map<LeaderboardType, List<LeaderboardEntry>> snapshot = SPPlugin.getService(LeaderboardSnapshotService.class).readSnapshot();
+            if (snapshot != null) {
+                leaderboards.load(snapshot, PeriodWindow.current());
+            }
+            return;
+        }
+        DatabaseService databaseService = SPPlugin.getService(DatabaseService.class);
+        PaymentLogService paymentService = databaseService.getPaymentLogService();
 
-        // Invalidate leaderboard caches when server data changes
-        invalidateAllLeaderboards();
+        PeriodWindow window = PeriodWindow.current();
+        Map<LeaderboardType, Map<UUID, Long>> scores = new EnumMap<>(LeaderboardType.class);
+        for (LeaderboardType type : LeaderboardType.values()) {
+            scores.put(type, loadScores(paymentService, type, window));
+        }
+        leaderboards.reload(scores, databaseService.getPlayerService().getAllNames(), window);
     }
 
     /**
-     * Gets leaderboard entries with caching and TTL
-     *
-     * @param type  Leaderboard type (DAILY, WEEKLY, MONTHLY, ALLTIME)
-     * @param limit Number of entries to return
-     * @return List of leaderboard entries
+     * Every player's summed amount in the period of {@code type}, one grouped query.
      */
-    public List<LeaderboardEntry> getLeaderboard(LeaderboardType type, int limit) {
-        String cacheKey = type.name() + "_" + limit;
+    private Map<UUID, Long> loadScores(PaymentLogService paymentService, LeaderboardType type, PeriodWindow window) {
+        return switch (type) {
+            case DAILY -> paymentService.getTopPlayers(window.getDayStart(), window.getDayEnd(), Integer.MAX_VALUE);
+            case WEEKLY -> paymentService.getTopPlayers(window.getWeekStart(), window.getWeekEnd(), Integer.MAX_VALUE);
+            case MONTHLY -> paymentService.getTopPlayers(window.getMonthStart(), window.getMonthEnd(), Integer.MAX_VALUE);
+            case YEARLY -> paymentService.getTopPlayers(window.getYearStart(), window.getYearEnd(), Integer.MAX_VALUE);
+            case ALLTIME -> paymentService.getTopPlayersAllTime(Integer.MAX_VALUE);
+        };
+    }
 
-        // Check if cached and not expired
-        if (leaderboardCache.containsKey(cacheKey) && !isExpired(cacheKey)) {
-            return leaderboardCache.get(cacheKey);
+    /**
+     * Applies a successful payment to the server rollup and, if cached, the player's rollup.
+     * Players without a rollup pick the payment up from the database when they are seeded on join.
+     */
+    public void recordPayment(UUID playerUUID, double amount, PaymentType type) {
+        PeriodWindow window = PeriodWindow.current();
+        long value = (long) amount;
+        serverRollup.add(value, type, window);
+        PaymentRollup rollup = playerRollups.get(playerUUID);
+        if (rollup != null) {
+            rollup.add(value, type, window);
         }
+        leaderboards.record(playerUUID, value, window);
+    }
 
-        // Build from database
-        List<LeaderboardEntry> entries = buildLeaderboardFromDB(type, limit);
+    /**
+     * Compares every rollup with the database, logs any drift and resets drifted rollups to the database values,
+     * then checks the leaderboards the same way. Rollups of players who are no longer online are dropped instead.
+     * Runs on the async reconciliation timer; drift normally means a payment was written outside this server.
+     */
+    public void reconcile() {
+        DatabaseService databaseService = SPPlugin.getService(DatabaseService.class);
+        if (databaseService == null || databaseService.getPaymentLogService() == null) {
+            return;
+        }
+        PaymentLogService paymentService = databaseService.getPaymentLogService();
+        PaymentWriteService writes = SPPlugin.getService(PaymentWriteService.class);
+        // Payments still in the write-behind queue are in the rollups but not yet in the database
+        writes.flushAndWait();
+
+        PeriodWindow window = PeriodWindow.current();
+        reconcileRollup(writes, "server", serverRollup, paymentService::getEntireServerTotals, window);
+
+        evictOfflineRollups();
+        for (Map.Entry<UUID, PaymentRollup> entry : playerRollups.entrySet()) {
+            SPPlayer player = databaseService.getPlayerService().findByUuid(entry.getKey());
+            if (player == null) {
+                continue;
+            }
+            reconcileRollup(writes, player.getName(), entry.getValue(), () -> paymentService.getPlayerTotals(player), window);
+        }
+        reconcileLeaderboards(databaseService, writes, window);
+    }
 
-        // Cache with TTL
-        leaderboardCache.put(cacheKey, entries);
-        leaderboardExpiry.put(cacheKey, System.currentTimeMillis() + LEADERBOARD_TTL);
+    /**
+     * Compares the sum of each leaderboard with the server total for its period (one aggregate query) and re-seeds
+     * only the boards that differ, so a reconciliation without drift reads no player rows.
+     * Boards whose period rolled over were already cleared by the engine and are compared with the new period.
+     */
+    private void reconcileLeaderboards(DatabaseService databaseService, PaymentWriteService writes, PeriodWindow window) {
+        if (ConfigManager.getInstance().getConfig(MainConfig.class).leaderboard.readOnly) {
+            // Only reads the stored snapshot, no grouped queries
+            reloadLeaderboards();
+            return;
+        }
+        PaymentLogService paymentService = databaseService.getPaymentLogService();
+        long mark = writes.getAccepted();
+        Map<LeaderboardType, Long> cached = new EnumMap<>(LeaderboardType.class);
+        for (LeaderboardType type : LeaderboardType.values()) {
+            cached.put(type, leaderboards.total(type, window));
+        }
+        PaymentTotals dbTotals = paymentService.getEntireServerTotals();
+        if (!writes.isSettledSince(mark)) {
+            MessageUtil.debug("[Cache] Skipped leaderboard check, a payment is still being written");
+            return;
+        }
 
-        return entries;
+        Map<UUID, String> names = null;
+        for (LeaderboardType type : LeaderboardType.values()) {
+            long expected = switch (type) {
+                case DAILY -> dbTotals.getDaily();
+                case WEEKLY -> dbTotals.getWeekly();
+                case MONTHLY -> dbTotals.getMonthly();
+                case YEARLY -> dbTotals.getYearly();
+                case ALLTIME -> dbTotals.getTotal();
+            };
+            if (cached.get(type) == expected) {
+                continue;
+            }
+            driftCorrections.incrementAndGet();
+            MessageUtil.warn("[Cache] Leaderboard drift for " + type + ": cached=" + cached.get(type) + ", database=" + expected + ". Reloading it");
+            if (names == null) {
+                names = databaseService.getPlayerService().getAllNames();
+            }
+            Map<UUID, String> boardNames = names;
+            applyCommitted(() -> leaderboards.reload(type, loadScores(paymentService, type, window), boardNames, window));
+        }
     }
 
     /**
-     * Builds leaderboard from current cache (fast) or database (fallback)
+     * Drops the rollups of players who are not online. Quitting clears a player's rollup, but placeholders and
+     * milestones also load them for offline players; those are loaded again on the next lookup.
      */
-    private List<LeaderboardEntry> buildLeaderboardFromDB(LeaderboardType type, int limit) {
-        List<LeaderboardEntry> entries = new ArrayList<>();
+    public void evictOfflineRollups() {
+        int evicted = 0;
+        for (Map.Entry<UUID, PaymentRollup> entry : playerRollups.entrySet()) {
+            if (Bukkit.getPlayer(entry.getKey()) == null && playerRollups.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            MessageUtil.debug("[Cache] Dropped " + evicted + " rollups of offline players");
+        }
+    }
 
-        // Get map of all cached players and their amounts for the specified type
-        ConcurrentHashMap<UUID, AtomicLong> sourceMap = switch (type) {
-            case DAILY -> playerDailyTotalValue;
-            case WEEKLY -> playerWeeklyTotalValue;
-            case MONTHLY -> playerMonthlyTotalValue;
-            case ALLTIME -> playerTotalValue;
-        };
+    private void reconcileRollup(PaymentWriteService writes, String owner, PaymentRollup rollup,
+                                 Supplier<PaymentTotals> dbRead, PeriodWindow window) {
+        long mark = writes.getAccepted();
+        PaymentTotals cached = rollup.snapshot(window);
+        PaymentTotals dbTotals = dbRead.get();
+        if (!writes.isSettledSince(mark)) {
+            // A payment arrived or is not committed yet, the two sides may differ by it; compared next time
+            MessageUtil.debug("[Cache] Skipped rollup check for " + owner + ", a payment is still being written");
+            return;
+        }
+        if (cached.equals(dbTotals)) {
+            return;
+        }
+        driftCorrections.incrementAndGet();
+        MessageUtil.warn("[Cache] Rollup drift for " + owner + ": cached=" + cached + ", database=" + dbTotals + ". Resetting to database values");
+        rollup.reset(dbTotals, window);
+    }
 
-        // Convert to list and sort
-        PlayerService playerService = SPPlugin.getService(DatabaseService.class).getPlayerService();
+    public long getServerAmount(MilestoneType type) {
+        return serverRollup.get(type, PeriodWindow.current());
+    }
+
+    public long getServerBankTotal() {
+        return serverRollup.snapshot(PeriodWindow.current()).getBank();
+    }
+
+    public long getServerCardTotal() {
+        return serverRollup.snapshot(PeriodWindow.current()).getCard();
+    }
+
+    /**
+     * @return the cached amount for the period, or 0 if the player has no rollup loaded
+     */
+    public long getPlayerAmount(UUID playerUUID, MilestoneType type) {
+        PaymentRollup rollup = playerRollups.get(playerUUID);
+        return rollup == null ? 0L : rollup.get(type, PeriodWindow.current());
+    }
 
-        List<Map.Entry<UUID, AtomicLong>> sortedEntries = sourceMap.entrySet()
-                .stream()
-                .sorted((a, b) -> Long.compare(b.getValue().get(), a.getValue().get()))
-                .limit(limit)
-                .toList();
-
-        int rank = 1;
-        for (Map.Entry<UUID, AtomicLong> entry : sortedEntries) {
-            SPPlayer player = playerService.findByUuid(entry.getKey());
-            if (player != null) {
-                entries.add(new LeaderboardEntry(
-                        entry.getKey(),
-                        player.getName(),
-                        entry.getValue().get(),
-                        rank++
-                ));
+    public boolean isPlayerCached(UUID playerUUID) {
+        return playerRollups.containsKey(playerUUID);
+    }
+
+    public long getDriftCorrections() {
+        return driftCorrections.get();
+    }
+
+    /**
+     * Runs a database read and applies it, once every payment accepted before the read is committed.
+     * Repeated if payments arrived meanwhile, since the read may have missed one that recordPayment then
+     * skipped or overwrote. After the last attempt the result is kept, the next reconciliation corrects it.
+     */
+    private void applyCommitted(Runnable readAndApply) {
+        PaymentWriteService writes = SPPlugin.getService(PaymentWriteService.class);
+        for (int attempt = 1; ; attempt++) {
+            long mark = writes.getAccepted();
+            writes.flushAndWait();
+            readAndApply.run();
+            if (writes.isSettledSince(mark) || attempt == COMMITTED_READ_ATTEMPTS) {
+                return;
             }
         }
+    }
 
-        return entries;
+    /**
+     * Gets the top of a leaderboard from memory
+     *
+     * @param type  Leaderboard type (DAILY, WEEKLY, MONTHLY, YEARLY, ALLTIME)
+     * @param limit Number of entries to return
+     * @return List of leaderboard entries, highest amount first
+     */
+    public List<LeaderboardEntry> getLeaderboard(LeaderboardType type, int limit) {
+        return leaderboards.top(type, limit, PeriodWindow.current());
     }
 
     /**
-     * Checks if a leaderboard cache entry has expired
+     * @return the top {@code limit} entries of every leaderboard type, for snapshots
      */
-    private boolean isExpired(String cacheKey) {
-        Long expiryTime = leaderboardExpiry.get(cacheKey);
-        return expiryTime == null || System.currentTimeMillis() > expiryTime;
+    public Map<LeaderboardType, List<LeaderboardEntry>> getLeaderboardSnapshot(int limit) {
+        PeriodWindow window = PeriodWindow.current();
+        Map<LeaderboardType, List<LeaderboardEntry>> boards = new EnumMap<>(LeaderboardType.class);
+        for (LeaderboardType type : LeaderboardType.values()) {
+            boards.put(type, leaderboards.top(type, limit, window));
+        }
+        return boards;
     }
 
     /**
-     * Invalidates all leaderboard caches (call after payment)
+     * Fills the leaderboards from a stored snapshot if they have not been seeded from the database yet.
+     *
+     * @return whether the snapshot was applied
      */
-    public void invalidateAllLeaderboards() {
-        leaderboardCache.clear();
-        leaderboardExpiry.clear();
+    public boolean warmLeaderboards(Map<LeaderboardType, List<LeaderboardEntry>> snapshot) {
+        return leaderboards.warm(snapshot, PeriodWindow.current());
     }
 
     /**
-     * Gets or loads player cache value (for lazy loading on PlaceholderAPI requests)
+     * @param rank 1-based rank
+     * @return the leaderboard entry at that rank, or null if fewer players are ranked
      */
-    public long getOrLoadPlayerTotal(UUID playerUUID) {
-        AtomicLong cached = playerTotalValue.get(playerUUID);
-        if (cached != null) {
-            return cached.get();
-        }
+    public LeaderboardEntry getLeaderboardEntry(LeaderboardType type, int rank) {
+        return leaderboards.entryAt(type, rank, PeriodWindow.current());
+    }
+
+    /**
+     * @return the player's 1-based rank on the leaderboard, or 0 if they have no payment in the period
+     */
+    public int getLeaderboardRank(LeaderboardType type, UUID playerUUID) {
+        return leaderboards.rankOf(type, playerUUID, PeriodWindow.current());
+    }
+
+    /**
+     * @return preformatted server totals for placeholders
+     */
+    public FormattedTotals getServerFormatted() {
+        return serverRollup.formatted(PeriodWindow.current());
+    }
 
-        // Lazy load and cache
-        updatePlayerCacheSync(playerUUID);
-        return playerTotalValue.getOrDefault(playerUUID, new AtomicLong(0)).get();
+    /**
+     * Non-blocking read for placeholders. If the player has no rollup yet, one is loaded asynchronously.
+     *
+     * @return preformatted player totals, or null while they are being loaded
+     */
+    public FormattedTotals getPlayerFormatted(UUID playerUUID) {
+        PaymentRollup rollup = playerRollups.get(playerUUID);
+        if (rollup != null) {
+            return rollup.formatted(PeriodWindow.current());
+        }
+        if (loadingRollups.add(playerUUID)) {
+            SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> {
+                try {
+                    updatePlayerCacheSync(playerUUID);
+                } finally {
+                    loadingRollups.remove(playerUUID);
+                }
+            });
+        }
+        return null;
     }
 
     /**
      * Clears all caches (use for /reload or debugging)
      */
     public void clearAllCache() {
-        playerTotalValue.clear();
-        playerDailyTotalValue.clear();
-        playerWeeklyTotalValue.clear();
-        playerMonthlyTotalValue.clear();
-        playerYearlyTotalValue.clear();
-        serverTotalValue.set(0);
-        serverDailyTotalValue.set(0);
-        serverWeeklyTotalValue.set(0);
-        serverMonthlyTotalValue.set(0);
-        serverYearlyTotalValue.set(0);
-        cardTotalValue.set(0);
-        bankTotalValue.set(0);
-        invalidateAllLeaderboards();
+        playerRollups.clear();
+        serverRollup.reset(PaymentTotals.ZERO, PeriodWindow.current());
+        leaderboards.clear();
+    }
+
+    /**
+     * Zeroes the ended period buckets of every cached rollup and leaderboard at once.
+     */
+    public void rollOver(PeriodWindow current) {
+        serverRollup.rollOver(current);
+        for (PaymentRollup rollup : playerRollups.values()) {
+            rollup.rollOver(current);
+        }
+        leaderboards.rollOver(current);
     }
 
     /**
      * Clears cache for a single player (on quit)
      */
     public void clearPlayerCache(UUID playerUUID) {
-        playerTotalValue.remove(playerUUID);
-        playerDailyTotalValue.remove(playerUUID);
-        playerWeeklyTotalValue.remove(playerUUID);
-        playerMonthlyTotalValue.remove(playerUUID);
-        playerYearlyTotalValue.remove(playerUUID);
+        playerRollups.remove(playerUUID);
     }
 }
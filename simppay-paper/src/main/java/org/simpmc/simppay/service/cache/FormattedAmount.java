@@ -0,0 +1,23 @@
+package org.simpmc.simppay.service.cache;
+
+/**
+ * An amount together with its placeholder strings, formatted once when the amount changes.
+ *
+ * @param value     The amount
+ * @param raw       The amount as a plain number, e.g. "1500000"
+ * @param formatted The amount with thousand separators, e.g. "1,500,000"
+ */
+public record FormattedAmount(long value, String raw, String formatted) {
+    public static final FormattedAmount ZERO = of(0);
+
+    public static FormattedAmount of(long value) {
+        return new FormattedAmount(value, Long.toString(value), String.format("%,d", value));
+    }
+
+    /**
+     * @return {@code previous} if it already holds this value, otherwise a newly formatted amount
+     */
+    public static FormattedAmount of(long value, FormattedAmount previous) {
+        return previous.value == value ? previous : of(value);
+    }
+}
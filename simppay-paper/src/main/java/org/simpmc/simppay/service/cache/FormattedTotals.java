@@ -0,0 +1,26 @@
+package org.simpmc.simppay.service.cache;
+
+import org.simpmc.simppay.util.PeriodWindow;
+
+/**
+ * Immutable placeholder view of a {@link PaymentRollup}, rebuilt only when one of its amounts changes.
+ * Unchanged amounts keep their previously formatted strings.
+ *
+ * @param window The period window the period amounts belong to
+ */
+public record FormattedTotals(PeriodWindow window, FormattedAmount total, FormattedAmount daily, FormattedAmount weekly,
+                              FormattedAmount monthly, FormattedAmount yearly, FormattedAmount bank, FormattedAmount card) {
+    public static final FormattedTotals ZERO = new FormattedTotals(null, FormattedAmount.ZERO, FormattedAmount.ZERO, FormattedAmount.ZERO,
+            FormattedAmount.ZERO, FormattedAmount.ZERO, FormattedAmount.ZERO, FormattedAmount.ZERO);
+
+    public FormattedTotals update(PeriodWindow window, long total, long daily, long weekly, long monthly, long yearly, long bank, long card) {
+        return new FormattedTotals(window,
+                FormattedAmount.of(total, this.total),
+                FormattedAmount.of(daily, this.daily),
+                FormattedAmount.of(weekly, this.weekly),
+                FormattedAmount.of(monthly, this.monthly),
+                FormattedAmount.of(yearly, this.yearly),
+                FormattedAmount.of(bank, this.bank),
+                FormattedAmount.of(card, this.card));
+    }
+}
@@ -0,0 +1,194 @@
+package org.simpmc.simppay.service.cache;
+
+import org.simpmc.simppay.util.PeriodWindow;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory leaderboards for every {@link LeaderboardType}, covering all players rather than only online ones.
+ * <p>
+ * - Seeded from the database with one grouped query per type, then moved forward by {@link #record}
+ * - Reconciliation compares each board's {@link #total} with the server total and reloads only the boards that drifted
+ * - Rank and top-k reads come from a {@link RankedIndex} and names from an in-memory name cache,
+ * so leaderboard placeholders never query the database
+ * - Period leaderboards are emptied lazily when their period ends, like {@link PaymentRollup}
+ * - Can be warmed from a stored top-N snapshot until the first full seed completes
+ */
+public class LeaderboardEngine {
+
+    private final Map<LeaderboardType, RankedIndex> indexes = new EnumMap<>(LeaderboardType.class);
+    private final ConcurrentHashMap<UUID, String> names = new ConcurrentHashMap<>();
+    private volatile PeriodWindow window;
+    // Set once the boards hold every player, after which snapshots no longer overwrite them
+    private boolean seeded;
+
+    public LeaderboardEngine(PeriodWindow window) {
+        for (LeaderboardType type : LeaderboardType.values()) {
+            indexes.put(type, new RankedIndex());
+        }
+        this.window = window;
+    }
+
+    /**
+     * Replaces every leaderboard and the name cache with freshly loaded values.
+     *
+     * @param scores Per type, each player's summed amount in the period of {@code window}
+     * @param names  Player names by UUID
+     */
+    public synchronized void reload(Map<LeaderboardType, Map<UUID, Long>> scores, Map<UUID, String> names, PeriodWindow window) {
+        this.names.putAll(names);
+        for (LeaderboardType type : LeaderboardType.values()) {
+            indexes.get(type).replaceAll(scores.getOrDefault(type, Map.of()));
+        }
+        this.window = window;
+        this.seeded = true;
+    }
+
+    /**
+     * Replaces one leaderboard with freshly loaded values, leaving the others as they are.
+     *
+     * @param scores Each player's summed amount in the period of {@code current}
+     * @param names  Names of players that may not be cached yet
+     */
+    public synchronized void reload(LeaderboardType type, Map<UUID, Long> scores, Map<UUID, String> names, PeriodWindow current) {
+        rollOver(current);
+        this.names.putAll(names);
+        indexes.get(type).replaceAll(scores);
+    }
+
+    /**
+     * @return the sum of every player's amount on the board, equal to the server total for its period when in sync
+     */
+    public long total(LeaderboardType type, PeriodWindow current) {
+        return index(type, current).total();
+    }
+
+    /**
+     * Replaces every leaderboard with a stored top-N snapshot. Players below the snapshot are unranked
+     * until the next full {@link #reload}.
+     */
+    public void load(Map<LeaderboardType, List<LeaderboardEntry>> snapshot, PeriodWindow window) {
+        Map<LeaderboardType, Map<UUID, Long>> scores = new EnumMap<>(LeaderboardType.class);
+        Map<UUID, String> snapshotNames = new HashMap<>();
+        for (Map.Entry<LeaderboardType, List<LeaderboardEntry>> board : snapshot.entrySet()) {
+            Map<UUID, Long> boardScores = new HashMap<>();
+            for (LeaderboardEntry entry : board.getValue()) {
+                boardScores.put(entry.getPlayerUUID(), entry.getAmount());
+                snapshotNames.put(entry.getPlayerUUID(), entry.getPlayerName());
+            }
+            scores.put(board.getKey(), boardScores);
+        }
+        reload(scores, snapshotNames, window);
+    }
+
+    /**
+     * Loads a stored snapshot only if the boards have not been seeded yet, so placeholders have
+     * values right after startup while the full seed is still running.
+     *
+     * @return whether the snapshot was applied
+     */
+    public synchronized boolean warm(Map<LeaderboardType, List<LeaderboardEntry>> snapshot, PeriodWindow window) {
+        if (seeded) {
+            return false;
+        }
+        load(snapshot, window);
+        seeded = false;
+        return true;
+    }
+
+    /**
+     * Adds a successful payment to every leaderboard.
+     */
+    public synchronized void record(UUID playerUUID, long amount, PeriodWindow current) {
+        rollOver(current);
+        for (RankedIndex index : indexes.values()) {
+            index.add(playerUUID, amount);
+        }
+    }
+
+    public void updateName(UUID playerUUID, String name) {
+        names.put(playerUUID, name);
+    }
+
+    /**
+     * @return the first {@code limit} entries, highest amount first
+     */
+    public List<LeaderboardEntry> top(LeaderboardType type, int limit, PeriodWindow current) {
+        List<RankedIndex.Ranked> ranked = index(type, current).top(limit);
+        List<LeaderboardEntry> entries = new ArrayList<>(ranked.size());
+        for (RankedIndex.Ranked entry : ranked) {
+            entries.add(toEntry(entry));
+        }
+        return entries;
+    }
+
+    /**
+     * @param rank 1-based rank
+     * @return the entry at that rank, or null if fewer players are ranked
+     */
+    public LeaderboardEntry entryAt(LeaderboardType type, int rank, PeriodWindow current) {
+        RankedIndex.Ranked ranked = index(type, current).at(rank);
+        return ranked == null ? null : toEntry(ranked);
+    }
+
+    /**
+     * @return the player's 1-based rank, or 0 if they have no payment in the period
+     */
+    public int rankOf(LeaderboardType type, UUID playerUUID, PeriodWindow current) {
+        return index(type, current).rank(playerUUID);
+    }
+
+    public int size(LeaderboardType type, PeriodWindow current) {
+        return index(type, current).size();
+    }
+
+    public synchronized void clear() {
+        for (RankedIndex index : indexes.values()) {
+            index.clear();
+        }
+        names.clear();
+        seeded = false;
+    }
+
+    private RankedIndex index(LeaderboardType type, PeriodWindow current) {
+        if (current != window) {
+            synchronized (this) {
+                rollOver(current);
+            }
+        }
+        return indexes.get(type);
+    }
+
+    private LeaderboardEntry toEntry(RankedIndex.Ranked ranked) {
+        String name = names.getOrDefault(ranked.playerUUID(), ranked.playerUUID().toString());
+        return new LeaderboardEntry(ranked.playerUUID(), name, ranked.score(), ranked.rank(), ranked.formattedScore());
+    }
+
+    /**
+     * Empties the leaderboards whose period ended since they were last touched.
+     */
+    public synchronized void rollOver(PeriodWindow current) {
+        if (current == window) {
+            return;
+        }
+        if (window.getDayStart() != current.getDayStart()) {
+            indexes.get(LeaderboardType.DAILY).clear();
+        }
+        if (window.getWeekStart() != current.getWeekStart()) {
+            indexes.get(LeaderboardType.WEEKLY).clear();
+        }
+        if (window.getMonthStart() != current.getMonthStart()) {
+            indexes.get(LeaderboardType.MONTHLY).clear();
+        }
+        if (window.getYearStart() != current.getYearStart()) {
+            indexes.get(LeaderboardType.YEARLY).clear();
+        }
+        window = current;
+    }
+}
@@ -15,4 +15,17 @@ public class LeaderboardEntry {
     private String playerName;
     private long amount;
     private int rank;
+    // Amount with thousand separators, formatted on first use when not supplied
+    private String formattedAmount;
+
+    public LeaderboardEntry(UUID playerUUID, String playerName, long amount, int rank) {
+        this(playerUUID, playerName, amount, rank, null);
+    }
+
+    public String getFormattedAmount() {
+        if (formattedAmount == null) {
+            formattedAmount = String.format("%,d", amount);
+        }
+        return formattedAmount;
+    }
 }
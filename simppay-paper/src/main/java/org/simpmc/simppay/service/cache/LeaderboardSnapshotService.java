@@ -0,0 +1,121 @@
+package org.simpmc.simppay.service.cache;
+
+import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.config.ConfigManager;
+import org.simpmc.simppay.config.types.MainConfig;
+import org.simpmc.simppay.database.Database;
+import org.simpmc.simppay.repository.LeaderboardSnapshotRepository;
+import org.simpmc.simppay.service.DatabaseService;
+import org.simpmc.simppay.service.IService;
+import org.simpmc.simppay.service.StatsProvider;
+import org.simpmc.simppay.util.MessageUtil;
+import org.simpmc.simppay.util.PeriodWindow;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists the top of every leaderboard to leaderboard_cache.
+ * <p>
+ * - On startup the stored snapshot warms the in-memory leaderboards before the full seed finishes
+ * - Writer servers replace the snapshot every interval in one batched transaction
+ * - Read-only servers (sharing a MySQL database with a writer) reload the snapshot every interval instead of
+ * computing leaderboards themselves
+ */
+public class LeaderboardSnapshotService implements IService, StatsProvider {
+
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private LeaderboardSnapshotRepository repository;
+    private MainConfig.LeaderboardSettings settings;
+    private volatile boolean running;
+    private volatile int lastRows;
+    private volatile long lastDurationMillis;
+
+    @Override
+    public void setup() {
+        settings = ConfigManager.getInstance().getConfig(MainConfig.class).leaderboard;
+        Database database = SPPlugin.getService(DatabaseService.class).getDatabase();
+        repository = new LeaderboardSnapshotRepository(database.getConnectionSource(), database.getLeaderboardCacheDao());
+        running = true;
+
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> warmUp());
+
+        if (settings.snapshotIntervalSeconds > 0) {
+            long intervalTicks = settings.snapshotIntervalSeconds * 20L;
+            SPPlugin.getInstance().getFoliaLib().getScheduler().runTimerAsync(task -> {
+                if (!running) {
+                    task.cancel();
+                    return;
+                }
+                if (settings.readOnly) {
+                    SPPlugin.getService(CacheDataService.class).reloadLeaderboards();
+                } else {
+                    writeSnapshot();
+                }
+            }, intervalTicks, intervalTicks);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+    }
+
+    private void warmUp() {
+        Map<LeaderboardType, List<LeaderboardEntry>> snapshot = readSnapshot();
+        if (snapshot != null && !snapshot.isEmpty() && SPPlugin.getService(CacheDataService.class).warmLeaderboards(snapshot)) {
+            MessageUtil.info("[Leaderboard] Warmed leaderboards from the stored snapshot");
+        }
+    }
+
+    /**
+     * Writes the current top of every leaderboard, replacing the previous snapshot.
+     */
+    public void writeSnapshot() {
+        long start = System.currentTimeMillis();
+        try {
+            lastRows = repository.write(SPPlugin.getService(CacheDataService.class).getLeaderboardSnapshot(Math.max(1, settings.snapshotSize)));
+            lastDurationMillis = System.currentTimeMillis() - start;
+            writes.incrementAndGet();
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            MessageUtil.warn("[Leaderboard] Failed to write the leaderboard snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the stored snapshot with expired period boards left out, or null if it could not be read
+     */
+    public Map<LeaderboardType, List<LeaderboardEntry>> readSnapshot() {
+        try {
+            Map<LeaderboardType, List<LeaderboardEntry>> snapshot = repository.read(PeriodWindow.current());
+            reads.incrementAndGet();
+            return snapshot;
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            MessageUtil.warn("[Leaderboard] Failed to read the leaderboard snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "Leaderboard snapshots";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", settings.readOnly ? "read-only" : "writer");
+        stats.put("writes", writes.get());
+        stats.put("reads", reads.get());
+        stats.put("failures", failures.get());
+        stats.put("last-rows", lastRows);
+        stats.put("last-write-ms", lastDurationMillis);
+        return stats;
+    }
+}
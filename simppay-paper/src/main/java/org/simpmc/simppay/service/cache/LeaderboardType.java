@@ -7,5 +7,6 @@ public enum LeaderboardType {
     DAILY,
     WEEKLY,
     MONTHLY,
+    YEARLY,
     ALLTIME
 }
@@ -0,0 +1,121 @@
+package org.simpmc.simppay.service.cache;
+
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.data.milestone.MilestoneType;
+import org.simpmc.simppay.database.dto.PaymentTotals;
+import org.simpmc.simppay.util.PeriodWindow;
+
+/**
+ * Running per-period totals for one player or for the whole server.
+ * Seeded once from the database, then moved forward by adding each new payment amount.
+ * Period buckets are rolled over when the period ends, and lazily as a fallback: whenever the current
+ * {@link PeriodWindow} no longer matches the window the buckets were counted in, the expired buckets are zeroed
+ * before reading or writing.
+ * Every change also republishes a {@link FormattedTotals}, so placeholders read preformatted strings without locking.
+ */
+public class PaymentRollup {
+    private PeriodWindow window;
+    private long total;
+    private long daily;
+    private long weekly;
+    private long monthly;
+    private long yearly;
+    private long bank;
+    private long card;
+    private volatile FormattedTotals formatted = FormattedTotals.ZERO;
+
+    public PaymentRollup(PaymentTotals totals, PeriodWindow window) {
+        reset(totals, window);
+    }
+
+    /**
+     * Replaces every bucket with freshly queried totals.
+     */
+    public synchronized void reset(PaymentTotals totals, PeriodWindow window) {
+        this.window = window;
+        this.total = totals.getTotal();
+        this.daily = totals.getDaily();
+        this.weekly = totals.getWeekly();
+        this.monthly = totals.getMonthly();
+        this.yearly = totals.getYearly();
+        this.bank = totals.getBank();
+        this.card = totals.getCard();
+        refreshFormatted();
+    }
+
+    /**
+     * Adds a payment made now to every bucket.
+     */
+    public synchronized void add(long amount, PaymentType type, PeriodWindow current) {
+        rollOver(current);
+        total += amount;
+        daily += amount;
+        weekly += amount;
+        monthly += amount;
+        yearly += amount;
+        if (type == PaymentType.BANKING) {
+            bank += amount;
+        } else if (type == PaymentType.CARD) {
+            card += amount;
+        }
+        refreshFormatted();
+    }
+
+    public synchronized long get(MilestoneType type, PeriodWindow current) {
+        rollOver(current);
+        return switch (type) {
+            case ALL -> total;
+            case DAILY -> daily;
+            case WEEKLY -> weekly;
+            case MONTHLY -> monthly;
+            case YEARLY -> yearly;
+        };
+    }
+
+    public synchronized PaymentTotals snapshot(PeriodWindow current) {
+        rollOver(current);
+        return new PaymentTotals(total, daily, weekly, monthly, yearly, bank, card);
+    }
+
+    /**
+     * @return the preformatted amounts, recomputed only after a change or a period rollover
+     */
+    public FormattedTotals formatted(PeriodWindow current) {
+        FormattedTotals cached = formatted;
+        if (cached.window() == current) {
+            return cached;
+        }
+        synchronized (this) {
+            rollOver(current);
+            return formatted;
+        }
+    }
+
+    private void refreshFormatted() {
+        formatted = formatted.update(window, total, daily, weekly, monthly, yearly, bank, card);
+    }
+
+    /**
+     * Zeroes the buckets whose period ended; called on {@link org.simpmc.simppay.event.PeriodRolloverEvent}
+     * so formatted totals are fresh before the next read.
+     */
+    public synchronized void rollOver(PeriodWindow current) {
+        if (window == current) {
+            return;
+        }
+        if (window.getDayStart() != current.getDayStart()) {
+            daily = 0;
+        }
+        if (window.getWeekStart() != current.getWeekStart()) {
+            weekly = 0;
+        }
+        if (window.getMonthStart() != current.getMonthStart()) {
+            monthly = 0;
+        }
+        if (window.getYearStart() != current.getYearStart()) {
+            yearly = 0;
+        }
+        window = current;
+        refreshFormatted();
+    }
+}
@@ -0,0 +1,307 @@
+package org.simpmc.simppay.service.cache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Player scores kept sorted in an order-statistic treap (a randomized balanced tree whose nodes
+ * also track their subtree size).
+ * <p>
+ * Ordered by score descending, ties broken by UUID so every player has a stable position.
+ * Updates and rank lookups are O(log n), reading the top k is O(log n + k).
+ * Reads share a read lock, updates take the write lock.
+ */
+public class RankedIndex {
+
+    private final Map<UUID, Long> scores = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root;
+    // Sum of every score, compared with the database on reconciliation
+    private long total;
+
+    /**
+     * Adds an amount to a player's score, inserting the player if they are not ranked yet.
+     *
+     * @return the new score
+     */
+    public long add(UUID playerUUID, long amount) {
+        lock.writeLock().lock();
+        try {
+            Long previous = scores.get(playerUUID);
+            long score = previous == null ? amount : previous + amount;
+            if (previous != null) {
+                root = remove(root, previous, playerUUID);
+            }
+            scores.put(playerUUID, score);
+            root = insert(root, new Node(playerUUID, score));
+            total += amount;
+            return score;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces every score with the given ones.
+     */
+    public void replaceAll(Map<UUID, Long> newScores) {
+        lock.writeLock().lock();
+        try {
+            scores.clear();
+            root = null;
+            total = 0;
+            for (Map.Entry<UUID, Long> entry : newScores.entrySet()) {
+                scores.put(entry.getKey(), entry.getValue());
+                root = insert(root, new Node(entry.getKey(), entry.getValue()));
+                total += entry.getValue();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        replaceAll(Map.of());
+    }
+
+    /**
+     * @return the player's 1-based rank, or 0 if the player is not ranked
+     */
+    public int rank(UUID playerUUID) {
+        lock.readLock().lock();
+        try {
+            Long score = scores.get(playerUUID);
+            if (score == null) {
+                return 0;
+            }
+            int before = 0;
+            Node node = root;
+            while (node != null) {
+                int cmp = compare(score, playerUUID, node.score, node.playerUUID);
+                if (cmp < 0) {
+                    node = node.left;
+                } else if (cmp > 0) {
+                    before += size(node.left) + 1;
+                    node = node.right;
+                } else {
+                    before += size(node.left);
+                    break;
+                }
+            }
+            return before + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the player's score, or 0 if the player is not ranked
+     */
+    public long score(UUID playerUUID) {
+        lock.readLock().lock();
+        try {
+            return scores.getOrDefault(playerUUID, 0L);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param rank 1-based rank
+     * @return the player at that rank, or null if fewer players are ranked
+     */
+    public Ranked at(int rank) {
+        lock.readLock().lock();
+        try {
+            if (rank < 1 || rank > size(root)) {
+                return null;
+            }
+            int index = rank - 1;
+            Node node = root;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (index < leftSize) {
+                    node = node.left;
+                } else if (index > leftSize) {
+                    index -= leftSize + 1;
+                    node = node.right;
+                } else {
+                    return new Ranked(node.playerUUID, node.score, node.formattedScore(), rank);
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the first {@code limit} players, highest score first
+     */
+    public List<Ranked> top(int limit) {
+        lock.readLock().lock();
+        try {
+            List<Ranked> result = new ArrayList<>(Math.min(Math.max(limit, 0), scores.size()));
+            Deque<Node> stack = new ArrayDeque<>();
+            Node node = root;
+            while ((node != null || !stack.isEmpty()) && result.size() < limit) {
+                while (node != null) {
+                    stack.push(node);
+                    node = node.left;
+                }
+                node = stack.pop();
+                result.add(new Ranked(node.playerUUID, node.score, node.formattedScore(), result.size() + 1));
+                node = node.right;
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the sum of every player's score
+     */
+    public long total() {
+        lock.readLock().lock();
+        try {
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return scores.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Negative when (scoreA, a) ranks above (scoreB, b)
+    private static int compare(long scoreA, UUID a, long scoreB, UUID b) {
+        int cmp = Long.compare(scoreB, scoreA);
+        return cmp != 0 ? cmp : a.compareTo(b);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void resize(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static Node insert(Node node, Node item) {
+        if (node == null) {
+            return item;
+        }
+        if (item.priority > node.priority) {
+            Node[] parts = split(node, item.score, item.playerUUID);
+            item.left = parts[0];
+            item.right = parts[1];
+            resize(item);
+            return item;
+        }
+        if (compare(item.score, item.playerUUID, node.score, node.playerUUID) < 0) {
+            node.left = insert(node.left, item);
+        } else {
+            node.right = insert(node.right, item);
+        }
+        resize(node);
+        return node;
+    }
+
+    private static Node remove(Node node, long score, UUID playerUUID) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(score, playerUUID, node.score, node.playerUUID);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, score, playerUUID);
+        } else {
+            node.right = remove(node.right, score, playerUUID);
+        }
+        resize(node);
+        return node;
+    }
+
+    // Splits into nodes ranked above the key and nodes ranked at or below it
+    private static Node[] split(Node node, long score, UUID playerUUID) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(node.score, node.playerUUID, score, playerUUID) < 0) {
+            Node[] parts = split(node.right, score, playerUUID);
+            node.right = parts[0];
+            resize(node);
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, score, playerUUID);
+        node.left = parts[1];
+        resize(node);
+        return new Node[]{parts[0], node};
+    }
+
+    // Every node of a ranks above every node of b
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            resize(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        resize(b);
+        return b;
+    }
+
+    /**
+     * @param formattedScore Score with thousand separators, formatted once per score change
+     */
+    public record Ranked(UUID playerUUID, long score, String formattedScore, int rank) {
+    }
+
+    private static final class Node {
+        private final UUID playerUUID;
+        private final long score;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left;
+        private Node right;
+        private int size = 1;
+        // Formatted on first read; racing readers may both format, which is harmless
+        private String formattedScore;
+
+        private Node(UUID playerUUID, long score) {
+            this.playerUUID = playerUUID;
+            this.score = score;
+        }
+
+        private String formattedScore() {
+            String formatted = formattedScore;
+            if (formatted == null) {
+                formatted = String.format("%,d", score);
+                formattedScore = formatted;
+            }
+            return formatted;
+        }
+    }
+}
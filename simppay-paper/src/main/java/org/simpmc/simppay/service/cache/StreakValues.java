@@ -0,0 +1,10 @@
+package org.simpmc.simppay.service.cache;
+
+/**
+ * A player's streak counters as placeholder strings.
+ */
+public record StreakValues(String current, String best) {
+    public static StreakValues of(int current, int best) {
+        return new StreakValues(Integer.toString(current), Integer.toString(best));
+    }
+}
@@ -0,0 +1,63 @@
+package org.simpmc.simppay.service.cancellation;
+
+import com.google.gson.JsonParseException;
+import org.simpmc.simppay.util.FileUtil;
+import org.simpmc.simppay.util.GsonUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the cancellation backlog on disk, one JSON object per line.
+ * <p>
+ * The file is rewritten as a whole with {@link FileUtil#writeAtomically}, so a crash or power loss mid-write
+ * leaves either the previous or the new backlog, never a mix.
+ */
+public class CancellationStore {
+    private final Path path;
+
+    public CancellationStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * @return the stored backlog, empty if there is none; unreadable lines are skipped
+     */
+    public List<PendingCancellation> load() throws IOException {
+        List<PendingCancellation> entries = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                PendingCancellation entry = GsonUtil.gson.fromJson(line, PendingCancellation.class);
+                if (entry != null && entry.paymentID() != null) {
+                    entries.add(entry);
+                }
+            } catch (JsonParseException e) {
+                // Hand-edited or truncated line, the rest is still usable
+            }
+        }
+        return entries;
+    }
+
+    public void save(Collection<PendingCancellation> entries) throws IOException {
+        if (entries.isEmpty()) {
+            Files.deleteIfExists(path);
+            return;
+        }
+        StringBuilder content = new StringBuilder();
+        for (PendingCancellation entry : entries) {
+            content.append(GsonUtil.gson.toJson(entry)).append('\n');
+        }
+        FileUtil.writeAtomically(path, content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
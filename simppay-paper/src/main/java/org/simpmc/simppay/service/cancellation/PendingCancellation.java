@@ -0,0 +1,37 @@
+package org.simpmc.simppay.service.cancellation;
+
+import org.simpmc.simppay.model.Payment;
+import org.simpmc.simppay.model.detail.BankingDetail;
+
+import java.util.UUID;
+
+/**
+ * A bank payment that still has to be cancelled on its gateway.
+ *
+ * @param gateway       {@link org.simpmc.simppay.handler.data.BankAPI} name of the gateway that created the payment
+ * @param attempts      Failed cancel calls so far
+ * @param nextAttemptAt Epoch millis before which the payment is not retried
+ */
+public record PendingCancellation(UUID paymentID, UUID playerUUID, String gateway, String refID, double amount,
+                                  int attempts, long nextAttemptAt, long enqueuedAt) {
+
+    public static PendingCancellation of(Payment payment, String gateway, long now) {
+        return new PendingCancellation(payment.getPaymentID(), payment.getPlayerUUID(), gateway,
+                payment.getDetail().getRefID(), payment.getDetail().getAmount(), 0, now, now);
+    }
+
+    public PendingCancellation retryAt(long time) {
+        return new PendingCancellation(paymentID, playerUUID, gateway, refID, amount, attempts + 1, time, enqueuedAt);
+    }
+
+    /**
+     * Rebuilds the payment with the fields gateways need to cancel it.
+     */
+    public Payment toPayment() {
+        BankingDetail detail = BankingDetail.builder()
+                .amount(amount)
+                .refID(refID)
+                .build();
+        return new Payment(paymentID, playerUUID, detail);
+    }
+}
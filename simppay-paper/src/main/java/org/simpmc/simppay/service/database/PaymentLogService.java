@@ -1,41 +1,125 @@
 package org.simpmc.simppay.service.database;
 
 import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.misc.TransactionManager;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import org.jetbrains.annotations.Nullable;
 import org.simpmc.simppay.data.PaymentType;
 import org.simpmc.simppay.database.Database;
+import org.simpmc.simppay.database.dto.PaymentCursor;
 import org.simpmc.simppay.database.dto.PaymentRecord;
+import org.simpmc.simppay.database.dto.PaymentTotals;
 import org.simpmc.simppay.database.entities.BankingPayment;
 import org.simpmc.simppay.database.entities.CardPayment;
 import org.simpmc.simppay.database.entities.SPPlayer;
 import org.simpmc.simppay.model.Payment;
+import org.simpmc.simppay.repository.PaymentAggregateQueries;
+import org.simpmc.simppay.repository.PaymentAggregateRepository;
+import org.simpmc.simppay.repository.PaymentBatchWriter;
+import org.simpmc.simppay.repository.PaymentHistoryRepository;
+import org.simpmc.simppay.repository.PaymentSummaryRepository;
 import org.simpmc.simppay.util.CalendarUtil;
 import org.simpmc.simppay.util.MessageUtil;
 
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class PaymentLogService {
+    private final ConnectionSource connectionSource;
     private final Dao<BankingPayment, UUID> bankDao;
     private final Dao<CardPayment, UUID> cardDao;
+    private final PaymentAggregateRepository rawAggregates;
+    private final PaymentSummaryRepository summaries;
+    private final PaymentHistoryRepository history;
+    // Payment writes share the read lock, a summary rebuild takes the write lock
+    private final ReadWriteLock summaryLock = new ReentrantReadWriteLock();
+    private volatile boolean summaryReady = false;
 
     public PaymentLogService(Database database) {
+        this.connectionSource = database.getConnectionSource();
         this.bankDao = database.getBankDao();
         this.cardDao = database.getCardDao();
+        this.rawAggregates = new PaymentAggregateRepository(bankDao, cardDao);
+        this.summaries = new PaymentSummaryRepository(connectionSource, database.getSummaryDao(), database.getSummaryStateDao(), bankDao, cardDao);
+        this.history = new PaymentHistoryRepository(bankDao, cardDao);
+    }
+
+    /**
+     * Totals come from payment_daily_summary once it is known to be complete, from the raw tables otherwise.
+     */
+    private PaymentAggregateQueries aggregates() {
+        return summaryReady ? summaries : rawAggregates;
+    }
+
+    /**
+     * Switches aggregate reads to payment_daily_summary, rebuilding it first if no rebuild ever completed
+     * (first start after upgrading) or if it was built in another time zone, since its rows are keyed by local day.
+     * Payments written meanwhile already add rows, so an empty table is not the test.
+     */
+    public void prepareDailySummary() {
+        try {
+            String builtZone = summaries.builtZone();
+            if (builtZone == null) {
+                MessageUtil.info("[Summary] payment_daily_summary has not been built yet, building it from the payment history...");
+                rebuildDailySummary();
+                return;
+            }
+            String zone = CalendarUtil.getZone().getId();
+            if (!builtZone.equals(zone)) {
+                MessageUtil.info("[Summary] Time zone changed from " + builtZone + " to " + zone + ", rebuilding payment_daily_summary...");
+                rebuildDailySummary();
+                return;
+            }
+            summaryReady = true;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Rebuilds payment_daily_summary from banking_payments and card_payments.
+     * New payments wait for the rebuild to finish so none is counted twice or lost.
+     *
+     * @return Number of summary rows written, or -1 if the rebuild failed
+     */
+    public int rebuildDailySummary() {
+        summaryLock.writeLock().lock();
+        try {
+            long start = System.currentTimeMillis();
+            int rows = summaries.rebuild();
+            summaryReady = true;
+            MessageUtil.info("[Summary] Rebuilt payment_daily_summary: " + rows + " rows in " + (System.currentTimeMillis() - start) + "ms");
+            return rows;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return -1;
+        } finally {
+            summaryLock.writeLock().unlock();
+        }
     }
 
-    // TODO: Please, someone make a PR to optimize this code, i know it is trash, better when using proper SQL Query with JOIN and SUM :D
     public boolean todaysPaymentExists(UUID playerId) {
         try {
-            List<BankingPayment> bankingPayments = bankDao.queryBuilder()
-                    .where()
-                    .eq("player_uuid", playerId)
-                    .query();
-            List<CardPayment> cardPayments = cardDao.queryBuilder()
-                    .where()
-                    .eq("player_uuid", playerId)
-                    .query();
-            return !bankingPayments.isEmpty() || !cardPayments.isEmpty();
+            return aggregates().countPayments(playerId) > 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * @return whether the bank payment is stored, i.e. it was already credited
+     */
+    public boolean bankingPaymentExists(UUID paymentID) {
+        try {
+            return bankDao.idExists(paymentID);
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -44,11 +128,13 @@ public class PaymentLogService {
 
     public List<PaymentRecord> getPaymentsByPlayer(SPPlayer playerId) {
         try {
+            // Foreign players are not refreshed, every row belongs to playerId anyway
             List<PaymentRecord> payments = new java.util.ArrayList<>(bankDao.queryBuilder()
                     .where()
                     .eq("player_uuid", playerId)
                     .query()
                     .stream()
+                    .peek(payment -> payment.setPlayer(playerId))
                     .map(PaymentRecord::fromBank)
                     .toList());
 
@@ -57,6 +143,7 @@ public class PaymentLogService {
                     .eq("player_uuid", playerId)
                     .query()
                     .stream()
+                    .peek(payment -> payment.setPlayer(playerId))
                     .map(PaymentRecord::fromCard)
                     .toList());
 
@@ -67,21 +154,16 @@ public class PaymentLogService {
         }
     }
 
-    public List<PaymentRecord> getEntireServerPayments() {
+    /**
+     * One page of payment history, newest first, merged from banking_payments and card_payments.
+     *
+     * @param playerUUID Player whose history to read, or null for the entire server
+     * @param after      Cursor of the last record of the previous page, or null for the first page
+     * @param limit      Page size
+     */
+    public List<PaymentRecord> getPaymentPage(@Nullable UUID playerUUID, @Nullable PaymentCursor after, int limit) {
         try {
-            List<PaymentRecord> payments = new java.util.ArrayList<>(bankDao
-                    .queryForAll()
-                    .stream()
-                    .map(PaymentRecord::fromBank)
-                    .toList());
-
-            payments.addAll(cardDao
-                    .queryForAll()
-                    .stream()
-                    .map(PaymentRecord::fromCard)
-                    .toList());
-
-            return payments;
+            return history.page(playerUUID, after, limit);
         } catch (Exception e) {
             e.printStackTrace();
             return List.of();
@@ -90,22 +172,26 @@ public class PaymentLogService {
 
     public void resetPlayerPaymentLog(SPPlayer playerId) {
         try {
-            List<BankingPayment> bankingPayments = bankDao.queryBuilder()
-                    .where()
-                    .eq("player_uuid", playerId)
-                    .query();
-            List<CardPayment> cardPayments = cardDao.queryBuilder()
-                    .where()
-                    .eq("player_uuid", playerId)
-                    .query();
-
-            for (BankingPayment payment : bankingPayments) {
-                bankDao.delete(payment);
-                MessageUtil.debug(String.format("Removed %s payment: %s", playerId.getName(), payment.toString()));
-            }
-            for (CardPayment payment : cardPayments) {
-                cardDao.delete(payment);
-            }
+            writeWithSummary(() -> {
+                List<BankingPayment> bankingPayments = bankDao.queryBuilder()
+                        .where()
+                        .eq("player_uuid", playerId)
+                        .query();
+                List<CardPayment> cardPayments = cardDao.queryBuilder()
+                        .where()
+                        .eq("player_uuid", playerId)
+                        .query();
+
+                for (BankingPayment payment : bankingPayments) {
+                    bankDao.delete(payment);
+                    MessageUtil.debug(String.format("Removed %s payment: %s", playerId.getName(), payment.toString()));
+                }
+                for (CardPayment payment : cardPayments) {
+                    cardDao.delete(payment);
+                }
+                summaries.deletePlayer(playerId.getUuid());
+                return null;
+            });
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -113,21 +199,7 @@ public class PaymentLogService {
 
     public Double getPlayerTotalAmount(SPPlayer playerId) {
         try {
-            List<BankingPayment> bankingPayments = bankDao.queryBuilder()
-                    .where()
-                    .eq("player_uuid", playerId)
-                    .query();
-            List<CardPayment> cardPayments = cardDao.queryBuilder()
-                    .where()
-                    .eq("player_uuid", playerId)
-                    .query();
-            double bankingTotal = bankingPayments.stream()
-                    .mapToDouble(BankingPayment::getAmount)
-                    .sum();
-            double cardTotal = cardPayments.stream()
-                    .mapToDouble(CardPayment::getAmount)
-                    .sum();
-            return bankingTotal + cardTotal;
+            return (double) aggregates().sumAll(playerId.getUuid());
         } catch (Exception e) {
             e.printStackTrace();
             return 0.0;
@@ -136,15 +208,7 @@ public class PaymentLogService {
 
     public long getEntireServerAmount() {
         try {
-            List<BankingPayment> bankingPayments = bankDao.queryForAll();
-            List<CardPayment> cardPayments = cardDao.queryForAll();
-            double bankingTotal = bankingPayments.stream()
-                    .mapToDouble(BankingPayment::getAmount)
-                    .sum();
-            double cardTotal = cardPayments.stream()
-                    .mapToDouble(CardPayment::getAmount)
-                    .sum();
-            return (long) (bankingTotal + cardTotal);
+            return aggregates().sumAll(null);
         } catch (Exception e) {
             e.printStackTrace();
             return 0L;
@@ -153,11 +217,7 @@ public class PaymentLogService {
 
     public long getEntireServerBankAmount() {
         try {
-            List<BankingPayment> bankingPayments = bankDao.queryForAll();
-            double bankingTotal = bankingPayments.stream()
-                    .mapToDouble(BankingPayment::getAmount)
-                    .sum();
-            return (long) (bankingTotal);
+            return aggregates().sumBank();
         } catch (Exception e) {
             e.printStackTrace();
             return 0L;
@@ -166,11 +226,7 @@ public class PaymentLogService {
 
     public long getEntireServerCardAmount() {
         try {
-            List<CardPayment> cardPayments = cardDao.queryForAll();
-            double cardTotal = cardPayments.stream()
-                    .mapToDouble(CardPayment::getAmount)
-                    .sum();
-            return (long) (cardTotal);
+            return aggregates().sumCard();
         } catch (Exception e) {
             e.printStackTrace();
             return 0L;
@@ -178,94 +234,34 @@ public class PaymentLogService {
     }
 
     public long getEntireServerDailyAmount() {
-        try {
-            long epoch = System.currentTimeMillis();
-            long startOfDay = CalendarUtil.getFirstHourOfDay(epoch);
-            long endOfDay = CalendarUtil.getLastHourOfDay(epoch);
-
-            List<BankingPayment> bankingPayments = bankDao.queryBuilder()
-                    .where().between("timestamp", startOfDay, endOfDay).query();
-            List<CardPayment> cardPayments = cardDao.queryBuilder().where().between("timestamp", startOfDay, endOfDay).query();
-
-            double bankingTotal = bankingPayments.stream()
-                    .mapToDouble(BankingPayment::getAmount)
-                    .sum();
-            double cardTotal = cardPayments.stream()
-                    .mapToDouble(CardPayment::getAmount)
-                    .sum();
-            return (long) (bankingTotal + cardTotal);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return 0L;
-        }
+        long epoch = System.currentTimeMillis();
+        return queryForServerAmount(CalendarUtil.getFirstHourOfDay(epoch), CalendarUtil.getLastHourOfDay(epoch));
     }
 
     public long getEntireServerWeeklyAmount() {
-        try {
-            long epoch = System.currentTimeMillis();
-            long startOfWeek = CalendarUtil.getFirstDayOfWeek(epoch);
-            long endOfWeek = CalendarUtil.getLastDayOfWeek(epoch);
-
-            List<BankingPayment> bankingPayments = bankDao.queryBuilder()
-                    .where().between("timestamp", startOfWeek, endOfWeek).query();
-            List<CardPayment> cardPayments = cardDao.queryBuilder().where().between("timestamp", startOfWeek, endOfWeek).query();
-
-            double bankingTotal = bankingPayments.stream()
-                    .mapToDouble(BankingPayment::getAmount)
-                    .sum();
-            double cardTotal = cardPayments.stream()
-                    .mapToDouble(CardPayment::getAmount)
-                    .sum();
-            return (long) (bankingTotal + cardTotal);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return 0L;
-        }
+        long epoch = System.currentTimeMillis();
+        return queryForServerAmount(CalendarUtil.getFirstDayOfWeek(epoch), CalendarUtil.getLastDayOfWeek(epoch));
     }
 
     public long getEntireServerMonthlyAmount() {
-        try {
-            long epoch = System.currentTimeMillis();
-            long startOfMonth = CalendarUtil.getFirstDayOfMonth(epoch);
-            long endOfMonth = CalendarUtil.getLastDayOfMonth(epoch);
-
-            List<BankingPayment> bankingPayments = bankDao.queryBuilder()
-                    .where().between("timestamp", startOfMonth, endOfMonth).query();
-            List<CardPayment> cardPayments = cardDao.queryBuilder().where().between("timestamp", startOfMonth, endOfMonth).query();
-
-            double bankingTotal = bankingPayments.stream()
-                    .mapToDouble(BankingPayment::getAmount)
-                    .sum();
-            double cardTotal = cardPayments.stream()
-                    .mapToDouble(CardPayment::getAmount)
-                    .sum();
-            return (long) (bankingTotal + cardTotal);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return 0L;
-        }
+        long epoch = System.currentTimeMillis();
+        return queryForServerAmount(CalendarUtil.getFirstDayOfMonth(epoch), CalendarUtil.getLastDayOfMonth(epoch));
     }
 
     public long getEntireServerYearlyAmount() {
-        try {
-            long epoch = System.currentTimeMillis();
-            long startOfYear = CalendarUtil.getFirstDayOfYear(epoch);
-            long endOfYear = CalendarUtil.getLastDayOfYear(epoch);
+        long epoch = System.currentTimeMillis();
+        return queryForServerAmount(CalendarUtil.getFirstDayOfYear(epoch), CalendarUtil.getLastDayOfYear(epoch));
+    }
 
-            List<BankingPayment> bankingPayments = bankDao.queryBuilder()
-                    .where().between("timestamp", startOfYear, endOfYear).query();
-            List<CardPayment> cardPayments = cardDao.queryBuilder().where().between("timestamp", startOfYear, endOfYear).query();
-
-            double bankingTotal = bankingPayments.stream()
-                    .mapToDouble(BankingPayment::getAmount)
-                    .sum();
-            double cardTotal = cardPayments.stream()
-                    .mapToDouble(CardPayment::getAmount)
-                    .sum();
-            return (long) (bankingTotal + cardTotal);
+    /**
+     * Every server-wide total (all-time, bank, card and each period) in a single query.
+     */
+    public PaymentTotals getEntireServerTotals() {
+        try {
+            return aggregates().queryTotals(null, System.currentTimeMillis());
         } catch (Exception e) {
             e.printStackTrace();
-            return 0L;
+            return PaymentTotals.ZERO;
         }
     }
 
@@ -322,121 +318,66 @@ public class PaymentLogService {
     }
 
     private long queryForPlayerAmount(SPPlayer playerId, long start, long end) throws SQLException {
-        List<BankingPayment> bankingPayments = bankDao.queryBuilder()
-                .where().between("timestamp", start, end)
-                .and()
-                .eq("player_uuid", playerId)
-                .query();
-        List<CardPayment> cardPayments = cardDao.queryBuilder()
-                .where().between("timestamp", start, end)
-                .and()
-                .eq("player_uuid", playerId)
-                .query();
-
-        double bankingTotal = bankingPayments.stream()
-                .mapToDouble(BankingPayment::getAmount)
-                .sum();
-        double cardTotal = cardPayments.stream()
-                .mapToDouble(CardPayment::getAmount)
-                .sum();
-        return (long) (bankingTotal + cardTotal);
+        return aggregates().sumBetween(playerId.getUuid(), start, end);
+    }
+
+    private long queryForServerAmount(long start, long end) {
+        try {
+            return aggregates().sumBetween(null, start, end);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return 0L;
+        }
+    }
+
+    /**
+     * Every total of a player (all-time, bank, card and each period) in a single query.
+     */
+    public PaymentTotals getPlayerTotals(SPPlayer playerId) {
+        try {
+            return aggregates().queryTotals(playerId.getUuid(), System.currentTimeMillis());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return PaymentTotals.ZERO;
+        }
     }
 
     /**
-     * Batch query optimization - retrieves all time period amounts in optimized queries
-     * Reduces 5 separate database calls to more efficient batched processing
+     * Retrieves all time period amounts for a player in a single aggregate query.
      *
      * @param playerId Player to query
      * @return Map with keys: "total", "daily", "weekly", "monthly", "yearly"
      */
-    public java.util.Map<String, Long> getPlayerAmountsBatch(SPPlayer playerId) {
-        java.util.Map<String, Long> amounts = new java.util.HashMap<>();
+    public Map<String, Long> getPlayerAmountsBatch(SPPlayer playerId) {
+        return getPlayerTotals(playerId).toPeriodMap();
+    }
 
+    /**
+     * Highest spenders within [start, end], grouped and ordered by the database.
+     *
+     * @return Ordered map of player UUID to summed amount, highest first
+     */
+    public LinkedHashMap<UUID, Long> getTopPlayers(long start, long end, int limit) {
         try {
-            long epoch = System.currentTimeMillis();
-
-            // Calculate all time boundaries
-            long startOfDay = CalendarUtil.getFirstHourOfDay(epoch);
-            long endOfDay = CalendarUtil.getLastHourOfDay(epoch);
-            long startOfWeek = CalendarUtil.getFirstDayOfWeek(epoch);
-            long endOfWeek = CalendarUtil.getLastDayOfWeek(epoch);
-            long startOfMonth = CalendarUtil.getFirstDayOfMonth(epoch);
-            long endOfMonth = CalendarUtil.getLastDayOfMonth(epoch);
-            long startOfYear = CalendarUtil.getFirstDayOfYear(epoch);
-            long endOfYear = CalendarUtil.getLastDayOfYear(epoch);
-
-            // Fetch ALL payments for this player once
-            List<BankingPayment> allBankingPayments = bankDao.queryBuilder()
-                    .where()
-                    .eq("player_uuid", playerId)
-                    .query();
-            List<CardPayment> allCardPayments = cardDao.queryBuilder()
-                    .where()
-                    .eq("player_uuid", playerId)
-                    .query();
-
-            // Calculate totals by filtering in-memory (much faster than 5 separate queries)
-            long total = 0;
-            long daily = 0;
-            long weekly = 0;
-            long monthly = 0;
-            long yearly = 0;
-
-            for (BankingPayment payment : allBankingPayments) {
-                long amount = (long) payment.getAmount();
-                long timestamp = payment.getTimestamp();
-                total += amount;
-
-                if (timestamp >= startOfDay && timestamp <= endOfDay) {
-                    daily += amount;
-                }
-                if (timestamp >= startOfWeek && timestamp <= endOfWeek) {
-                    weekly += amount;
-                }
-                if (timestamp >= startOfMonth && timestamp <= endOfMonth) {
-                    monthly += amount;
-                }
-                if (timestamp >= startOfYear && timestamp <= endOfYear) {
-                    yearly += amount;
-                }
-            }
-
-            for (CardPayment payment : allCardPayments) {
-                long amount = (long) payment.getAmount();
-                long timestamp = payment.getTimestamp();
-                total += amount;
-
-                if (timestamp >= startOfDay && timestamp <= endOfDay) {
-                    daily += amount;
-                }
-                if (timestamp >= startOfWeek && timestamp <= endOfWeek) {
-                    weekly += amount;
-                }
-                if (timestamp >= startOfMonth && timestamp <= endOfMonth) {
-                    monthly += amount;
-                }
-                if (timestamp >= startOfYear && timestamp <= endOfYear) {
-                    yearly += amount;
-                }
-            }
-
-            amounts.put("total", total);
-            amounts.put("daily", daily);
-            amounts.put("weekly", weekly);
-            amounts.put("monthly", monthly);
-            amounts.put("yearly", yearly);
-
+            return aggregates().topPlayersBetween(start, end, limit);
         } catch (Exception e) {
             e.printStackTrace();
-            // Return zeros on error
-            amounts.put("total", 0L);
-            amounts.put("daily", 0L);
-            amounts.put("weekly", 0L);
-            amounts.put("monthly", 0L);
-            amounts.put("yearly", 0L);
+            return new LinkedHashMap<>();
         }
+    }
 
-        return amounts;
+    /**
+     * Highest spenders of all time, grouped and ordered by the database.
+     *
+     * @return Ordered map of player UUID to summed amount, highest first
+     */
+    public LinkedHashMap<UUID, Long> getTopPlayersAllTime(int limit) {
+        try {
+            return aggregates().topPlayersAllTime(limit);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new LinkedHashMap<>();
+        }
     }
 
     public void removePayment(Payment payment) {
@@ -461,27 +402,75 @@ public class PaymentLogService {
         throw new IllegalArgumentException("Invalid payment type: " + payment.getPaymentType());
     }
 
-    private void addBankingPayment(BankingPayment payment) {
+    /**
+     * Writes one payment and its summary row, doing nothing if the payment is already stored.
+     *
+     * @return false if the write failed
+     */
+    public boolean addBankingPayment(BankingPayment payment) {
         try {
-            bankDao.createOrUpdate(payment);
+            writeWithSummary(() -> {
+                if (bankDao.createOrUpdate(payment).isCreated()) {
+                    summaries.record(payment.getPlayer().getUuid(), payment.getTimestamp(), PaymentType.BANKING, payment.getAmount(), 1);
+                }
+                return null;
+            });
+            return true;
         } catch (Exception e) {
             e.printStackTrace();
+            return false;
         }
     }
 
-    private void addCardPayment(CardPayment payment) {
+    /**
+     * Writes one payment and its summary row, doing nothing if the payment is already stored.
+     *
+     * @return false if the write failed
+     */
+    public boolean addCardPayment(CardPayment payment) {
         try {
-            cardDao.createOrUpdate(payment);
+            writeWithSummary(() -> {
+                if (cardDao.createOrUpdate(payment).isCreated()) {
+                    summaries.record(payment.getPlayer().getUuid(), payment.getTimestamp(), PaymentType.CARD, payment.getAmount(), 1);
+                }
+                return null;
+            });
+            return true;
         } catch (Exception e) {
             e.printStackTrace();
+            return false;
         }
     }
 
+    /**
+     * Inserts new payments with JDBC batches and updates their summary rows, all in one transaction.
+     * Fails as a whole (for example on a payment that is already stored); callers then fall back to
+     * {@link #addBankingPayment} / {@link #addCardPayment}, which skip existing rows.
+     */
+    public void addPaymentsBatch(List<BankingPayment> bankingPayments, List<CardPayment> cardPayments) throws SQLException {
+        writeWithSummary(() -> {
+            // Inside the transaction this is the connection ORMLite saved for it
+            DatabaseConnection connection = connectionSource.getReadWriteConnection("banking_payments");
+            try {
+                PaymentBatchWriter.insertBanking(connection.getUnderlyingConnection(), bankingPayments);
+                PaymentBatchWriter.insertCard(connection.getUnderlyingConnection(), cardPayments);
+            } finally {
+                connectionSource.releaseConnection(connection);
+            }
+            summaries.recordBatch(bankingPayments, cardPayments);
+            return null;
+        });
+    }
+
     private void removeBankingPayment(UUID paymentID) {
         try {
-
-            BankingPayment payment = bankDao.queryForId(paymentID);
-            bankDao.delete(payment);
+            writeWithSummary(() -> {
+                BankingPayment payment = bankDao.queryForId(paymentID);
+                if (payment != null && bankDao.delete(payment) > 0) {
+                    summaries.record(payment.getPlayer().getUuid(), payment.getTimestamp(), PaymentType.BANKING, -payment.getAmount(), -1);
+                }
+                return null;
+            });
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -489,12 +478,29 @@ public class PaymentLogService {
 
     private void removeCardPayment(UUID paymentID) {
         try {
-            CardPayment payment = cardDao.queryForId(paymentID);
-            cardDao.delete(payment);
+            writeWithSummary(() -> {
+                CardPayment payment = cardDao.queryForId(paymentID);
+                if (payment != null && cardDao.delete(payment) > 0) {
+                    summaries.record(payment.getPlayer().getUuid(), payment.getTimestamp(), PaymentType.CARD, -payment.getAmount(), -1);
+                }
+                return null;
+            });
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Runs a raw payment write and its summary update in one transaction.
+     */
+    private void writeWithSummary(Callable<Void> write) throws SQLException {
+        summaryLock.readLock().lock();
+        try {
+            TransactionManager.callInTransaction(connectionSource, write);
+        } finally {
+            summaryLock.readLock().unlock();
+        }
+    }
+
 
 }
@@ -0,0 +1,135 @@
+package org.simpmc.simppay.service.database;
+
+import org.simpmc.simppay.database.entities.SPPlayer;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory copy of the players table, indexed by UUID and lowercase name.
+ * <p>
+ * - Online players are kept until they quit
+ * - Offline players (leaderboards, admin lookups, history menus) sit in an LRU bounded by {@code offlineCapacity}
+ * - {@link PlayerService} writes through it, so it never holds a name the database does not have
+ */
+public class PlayerIdentityCache {
+    private final Map<UUID, SPPlayer> online = new HashMap<>();
+    private final Map<UUID, SPPlayer> offline;
+    private final Map<String, UUID> names = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PlayerIdentityCache(int offlineCapacity) {
+        int max = Math.max(1, offlineCapacity);
+        this.offline = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, SPPlayer> eldest) {
+                if (size() <= max) {
+                    return false;
+                }
+                names.remove(key(eldest.getValue().getName()), eldest.getKey());
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the cached player, or null if the caller has to load it
+     */
+    public synchronized SPPlayer get(UUID uuid) {
+        SPPlayer player = lookup(uuid);
+        (player != null ? hits : misses).increment();
+        return player;
+    }
+
+    /**
+     * @return the cached player with this name (any case), or null if the caller has to load it
+     */
+    public synchronized SPPlayer getByName(String name) {
+        UUID uuid = names.get(key(name));
+        SPPlayer player = uuid == null ? null : lookup(uuid);
+        (player != null ? hits : misses).increment();
+        return player;
+    }
+
+    /**
+     * Stores a player just read from or written to the database.
+     *
+     * @param pin true for online players, which are not evicted until {@link #unpin}; an already pinned player stays pinned
+     */
+    public synchronized void put(SPPlayer player, boolean pin) {
+        UUID uuid = player.getUuid();
+        boolean pinned = pin || online.containsKey(uuid);
+        SPPlayer previous = online.remove(uuid);
+        if (previous == null) {
+            previous = offline.remove(uuid);
+        }
+        if (previous != null && previous.getName() != null) {
+            names.remove(key(previous.getName()), uuid);
+        }
+        if (pinned) {
+            online.put(uuid, player);
+        } else {
+            offline.put(uuid, player);
+        }
+        if (player.getName() != null) {
+            names.put(key(player.getName()), uuid);
+        }
+    }
+
+    /**
+     * Moves a player who went offline into the LRU.
+     */
+    public synchronized void unpin(UUID uuid) {
+        SPPlayer player = online.remove(uuid);
+        if (player != null) {
+            offline.put(uuid, player);
+        }
+    }
+
+    public synchronized void invalidate(UUID uuid) {
+        SPPlayer player = online.remove(uuid);
+        if (player == null) {
+            player = offline.remove(uuid);
+        }
+        if (player != null && player.getName() != null) {
+            names.remove(key(player.getName()), uuid);
+        }
+    }
+
+    public synchronized int onlineSize() {
+        return online.size();
+    }
+
+    public synchronized int offlineSize() {
+        return offline.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private SPPlayer lookup(UUID uuid) {
+        SPPlayer player = online.get(uuid);
+        return player != null ? player : offline.get(uuid);
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,23 +1,35 @@
 package org.simpmc.simppay.service.database;
 
 import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.GenericRawResults;
+import lombok.Getter;
 import org.bukkit.entity.Player;
 import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.database.entities.SPPlayer;
 import org.simpmc.simppay.service.DatabaseService;
 
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Reads and writes the players table through a {@link PlayerIdentityCache}, so repeated lookups of the same
+ * player (milestones, leaderboards, payments) stay in memory.
+ */
 public class PlayerService {
 
     private final Dao<SPPlayer, UUID> playerDao;
+    @Getter
+    private final PlayerIdentityCache cache;
 
     /**
      * @param playerDao the ORMLite DAO for the SPPlayer entity
+     * @param cacheSize how many offline players to keep cached
      */
-    public PlayerService(Dao<SPPlayer, UUID> playerDao) {
+    public PlayerService(Dao<SPPlayer, UUID> playerDao, int cacheSize) {
         this.playerDao = playerDao;
+        this.cache = new PlayerIdentityCache(cacheSize);
     }
 
     /**
@@ -27,8 +39,16 @@ public class PlayerService {
      * @return the matching SPPlayer entity, or null if not found
      */
     public SPPlayer findByUuid(UUID uuid) {
+        SPPlayer cached = cache.get(uuid);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            return playerDao.queryForId(uuid);
+            SPPlayer player = playerDao.queryForId(uuid);
+            if (player != null) {
+                cache.put(player, false);
+            }
+            return player;
         } catch (SQLException e) {
             e.printStackTrace();
             return null;
@@ -36,20 +56,45 @@ public class PlayerService {
     }
 
     /**
-     * Finds a SPPlayer entity by name.
+     * Finds a SPPlayer entity by name. Cached players match in any case.
      *
      * @param name the name of the player to find
      * @return the matching SPPlayer entity, or null if not found
      */
     public SPPlayer findByName(String name) {
+        SPPlayer cached = cache.getByName(name);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            return playerDao.queryBuilder().where().eq("name", name).queryForFirst();
+            SPPlayer player = playerDao.queryBuilder().where().eq("name", name).queryForFirst();
+            if (player != null) {
+                cache.put(player, false);
+            }
+            return player;
         } catch (SQLException e) {
             e.printStackTrace();
             return null;
         }
     }
 
+    /**
+     * Loads every stored player name in a single query, for in-memory name lookups.
+     *
+     * @return map of player UUID to last known name, empty on error
+     */
+    public Map<UUID, String> getAllNames() {
+        Map<UUID, String> names = new HashMap<>();
+        try (GenericRawResults<String[]> rows = playerDao.queryRaw("SELECT uuid, name FROM players")) {
+            for (String[] row : rows) {
+                names.put(UUID.fromString(row[0]), row[1]);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return names;
+    }
+
     /**
      * Checks if a SPPlayer entity exists for the given player.
      *
@@ -63,16 +108,23 @@ public class PlayerService {
     /**
      * Creates a new SPPlayer entity in the database if it doesn't already exist.
      * If the SPPlayer already exists, it will update the stored name.
+     * Called on join, the player then stays cached until {@link #unpin}.
      *
      * @param player the player interface (contains UUID, name, etc.)
      */
     public void createPlayer(Player player) {
         try {
-            if (!exists(player)) {
-                playerDao.create(new SPPlayer(player));
+            SPPlayer existing = findByUuid(player.getUniqueId());
+            SPPlayer current = new SPPlayer(player);
+            if (existing == null) {
+                playerDao.create(current);
+            } else if (!player.getName().equals(existing.getName())) {
+                playerDao.update(current);
             } else {
-                updatePlayerName(player);
+                current = existing;
             }
+            // The join task can run after a quick quit, never pin a player who already left
+            cache.put(current, player.isOnline());
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -85,10 +137,10 @@ public class PlayerService {
      */
     public void updatePlayerName(Player player) {
         try {
-            SPPlayer existing = findByUuid(player.getUniqueId());
-            if (existing != null) {
-                existing.setName(player.getName());
-                playerDao.update(existing);
+            if (findByUuid(player.getUniqueId()) != null) {
+                SPPlayer renamed = new SPPlayer(player);
+                playerDao.update(renamed);
+                cache.put(renamed, false);
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -105,12 +157,20 @@ public class PlayerService {
             SPPlayer existing = findByUuid(player.getUniqueId());
             if (existing != null) {
                 playerDao.delete(existing);
+                cache.invalidate(player.getUniqueId());
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Lets the player's cache entry be evicted once they are offline.
+     */
+    public void unpin(UUID uuid) {
+        cache.unpin(uuid);
+    }
+
     //             if (spPlayer != null && !spPlayer.isFirstCharge()) {
     //                plugin.getPlayerService().setFirstCharge(spPlayer);
     //             }
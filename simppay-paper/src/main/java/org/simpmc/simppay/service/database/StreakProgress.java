@@ -0,0 +1,111 @@
+package org.simpmc.simppay.service.database;
+
+import org.simpmc.simppay.config.types.StreakConfig;
+import org.simpmc.simppay.database.entities.PlayerStreakPayment;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Day arithmetic for payment streaks, applied to a {@link PlayerStreakPayment} in memory.
+ * <p>
+ * - Day 1 payment = streak 1
+ * - Day 2 payment = streak 2
+ * - Gap > 1 day = reset to 1
+ * - Same day multiple payments = no change
+ */
+final class StreakProgress {
+    enum Outcome {
+        CREATED,
+        SAME_DAY,
+        INCREMENTED,
+        RESET
+    }
+
+    private StreakProgress() {
+    }
+
+    static PlayerStreakPayment newStreak(UUID playerUUID, LocalDate today, ZoneId zone) {
+        PlayerStreakPayment streak = new PlayerStreakPayment();
+        streak.setPlayerUUID(playerUUID);
+        streak.setCurrentStreak(1);
+        streak.setBestStreak(1);
+        streak.setLastRechargeDate(startOf(today, zone));
+        streak.setLastRewardTier(0);
+        streak.setClaimedToday(false);
+        return streak;
+    }
+
+    /**
+     * Records a payment made today on an existing streak.
+     */
+    static Outcome advance(PlayerStreakPayment streak, LocalDate today, ZoneId zone) {
+        LocalDate lastPaymentDate = dayOf(streak, zone);
+        if (lastPaymentDate != null && lastPaymentDate.isEqual(today)) {
+            return Outcome.SAME_DAY;
+        }
+
+        streak.setLastRechargeDate(startOf(today, zone));
+        if (lastPaymentDate != null && ChronoUnit.DAYS.between(lastPaymentDate, today) == 1) {
+            streak.setCurrentStreak(streak.getCurrentStreak() + 1);
+            if (streak.getCurrentStreak() > streak.getBestStreak()) {
+                streak.setBestStreak(streak.getCurrentStreak());
+            }
+            return Outcome.INCREMENTED;
+        }
+
+        streak.setCurrentStreak(1);
+        streak.setLastRewardTier(0);
+        streak.setClaimedToday(false);
+        return Outcome.RESET;
+    }
+
+    /**
+     * @return true if the streak is still counted but its last payment is older than yesterday
+     */
+    static boolean isBroken(PlayerStreakPayment streak, LocalDate today, ZoneId zone) {
+        LocalDate lastPaymentDate = dayOf(streak, zone);
+        return streak.getCurrentStreak() > 0 && (lastPaymentDate == null || lastPaymentDate.isBefore(today.minusDays(1)));
+    }
+
+    /**
+     * Applies the same reset the daily sweep writes to the database.
+     */
+    static void expire(PlayerStreakPayment streak) {
+        streak.setCurrentStreak(0);
+        streak.setLastRewardTier(0);
+        streak.setClaimedToday(false);
+    }
+
+    /**
+     * Collects every reward tier reached but not yet awarded, in ascending order, and marks the highest as awarded.
+     */
+    static List<StreakConfig.StreakReward> claimRewards(PlayerStreakPayment streak, List<StreakConfig.StreakReward> rewards) {
+        List<StreakConfig.StreakReward> reached = new ArrayList<>();
+        for (StreakConfig.StreakReward reward : rewards) {
+            if (streak.getCurrentStreak() >= reward.days && reward.days > streak.getLastRewardTier()) {
+                reached.add(reward);
+            }
+        }
+        reached.sort(Comparator.comparingInt(reward -> reward.days));
+        if (!reached.isEmpty()) {
+            streak.setLastRewardTier(reached.get(reached.size() - 1).days);
+        }
+        return reached;
+    }
+
+    static Date startOf(LocalDate day, ZoneId zone) {
+        return Date.from(day.atStartOfDay(zone).toInstant());
+    }
+
+    private static LocalDate dayOf(PlayerStreakPayment streak, ZoneId zone) {
+        Date date = streak.getLastRechargeDate();
+        return date == null ? null : date.toInstant().atZone(zone).toLocalDate();
+    }
+}
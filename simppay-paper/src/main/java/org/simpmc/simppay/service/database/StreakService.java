@@ -1,45 +1,93 @@
 package org.simpmc.simppay.service.database;
 
 import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.stmt.UpdateBuilder;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.simpmc.simppay.SPPlugin;
 import org.simpmc.simppay.config.ConfigManager;
 import org.simpmc.simppay.config.types.StreakConfig;
-import org.simpmc.simppay.database.Database;
 import org.simpmc.simppay.database.entities.PlayerStreakPayment;
 import org.simpmc.simppay.service.DatabaseService;
+import org.simpmc.simppay.service.IService;
+import org.simpmc.simppay.service.StatsProvider;
+import org.simpmc.simppay.service.cache.StreakValues;
+import org.simpmc.simppay.util.CalendarUtil;
 import org.simpmc.simppay.util.CommandUtils;
 import org.simpmc.simppay.util.MessageUtil;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Phase 5: Streak Service Implementation
+ * Manages consecutive daily payment streaks for players, see {@link StreakProgress} for the day rules.
  * <p>
- * Manages consecutive daily payment streaks for players.
- * <p>
- * Streak Logic:
- * - Day 1 payment = streak 1
- * - Day 2 payment = streak 2
- * - Gap > 1 day = reset to 1
- * - Same day multiple payments = no change
+ * - Each player's {@link PlayerStreakPayment} is loaded once (on join, or on first read) and kept in memory
+ * - A payment mutates the cached row and applies every reward tier, then writes it once
+ * - Placeholders read preformatted counters from memory and never block
+ * - Broken streaks are reset by one sweep per day, a single UPDATE plus a pass over the cached rows
+ * - Rows of players who quit, and of offline payers at the daily sweep, leave the cache; until their write is done a
+ * player who rejoins gets the same entry back instead of the older row still in the database
+ * - Rows whose write failed stay dirty and are retried by the periodic flush, on quit and on shutdown
  */
-public class StreakService {
-    private final Dao<PlayerStreakPayment, UUID> streakDao;
+public class StreakService implements IService, StatsProvider {
+    private static final StreakValues NO_STREAK = StreakValues.of(0, 0);
+    // How often the timer flushes dirty rows and checks for a new day, 1 minute
+    private static final long TICK_PERIOD = 20L * 60;
+
+    private final ConcurrentHashMap<UUID, StreakEntry> entries = new ConcurrentHashMap<>();
+    // Entries dropped from the cache whose row may not be written yet
+    private final ConcurrentHashMap<UUID, StreakEntry> departing = new ConcurrentHashMap<>();
+    // Players with an asynchronous load in flight
+    private final Set<UUID> loading = ConcurrentHashMap.newKeySet();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong sweeps = new AtomicLong();
+    private final AtomicLong sweptRows = new AtomicLong();
+    private Dao<PlayerStreakPayment, UUID> streakDao;
+    private volatile boolean running;
+    private volatile LocalDate sweptDay;
+
+    @Override
+    public void setup() {
+        streakDao = SPPlugin.getService(DatabaseService.class).getDatabase().getStreakDao();
+        running = true;
+
+        // Catch up on streaks that broke while the server was offline
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> sweep());
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runTimerAsync(task -> {
+            if (!running) {
+                task.cancel();
+                return;
+            }
+            flushDirty();
+            // PeriodRolloverEvent sweeps at midnight, this catches a sweep that failed or was missed
+            if (!LocalDate.now(zone()).equals(sweptDay)) {
+                sweep();
+            }
+        }, TICK_PERIOD, TICK_PERIOD);
+    }
 
-    public StreakService() {
-        Database database = SPPlugin.getService(DatabaseService.class).getDatabase();
-        this.streakDao = database.getStreakDao();
+    @Override
+    public void shutdown() {
+        running = false;
+        flushDirty();
+        entries.clear();
+        departing.clear();
     }
 
     /**
      * Updates player streak when they make a payment.
-     * Called from SuccessDatabaseHandlingListener on PaymentSuccessEvent.
+     * Called from SuccessDatabaseHandlingListener on PaymentSuccessEvent, off the main thread.
      *
      * @param playerUUID Player who made the payment
      */
@@ -50,162 +98,283 @@ public class StreakService {
             return;
         }
 
-        try {
-            PlayerStreakPayment streak = streakDao.queryForId(playerUUID);
-            LocalDate today = LocalDate.now();
+        StreakEntry entry = entry(playerUUID);
+        if (entry == null) {
+            MessageUtil.debug("[Streak] Database error updating streak for " + playerUUID);
+            return;
+        }
 
-            if (streak == null) {
-                // First payment ever - create new streak
-                streak = createNewStreak(playerUUID, today);
-                MessageUtil.debug("[Streak] Created new streak for " + playerUUID + ": Day 1");
+        ZoneId zone = zone();
+        StreakProgress.Outcome outcome;
+        List<StreakConfig.StreakReward> rewards = List.of();
+        int currentStreak;
+        int oldBest;
+        synchronized (entry) {
+            if (entry.streak == null) {
+                entry.streak = StreakProgress.newStreak(playerUUID, LocalDate.now(zone), zone);
+                outcome = StreakProgress.Outcome.CREATED;
+                oldBest = 0;
             } else {
-                LocalDate lastPaymentDate = streak.getLastRechargeDate().toInstant()
-                        .atZone(ZoneId.systemDefault())
-                        .toLocalDate();
-
-                if (lastPaymentDate.isEqual(today)) {
-                    // Same day payment - no change to streak
-                    MessageUtil.debug("[Streak] Same day payment for " + playerUUID + ", no streak change");
-                    return;
-                }
-
-                long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(lastPaymentDate, today);
-
-                if (daysBetween == 1) {
-                    // Consecutive day - increment streak
-                    streak.setCurrentStreak(streak.getCurrentStreak() + 1);
-                    streak.setLastRechargeDate(Date.from(today.atStartOfDay(ZoneId.systemDefault()).toInstant()));
-
-                    // Update best streak if current exceeds it
-                    if (streak.getCurrentStreak() > streak.getBestStreak()) {
-                        streak.setBestStreak(streak.getCurrentStreak());
-                    }
-
-                    streakDao.update(streak);
-
-                    MessageUtil.debug("[Streak] Incremented streak for " + playerUUID + ": Day " + streak.getCurrentStreak());
-
-                    // Notify player
-                    if (config.settings.notifyOnStreak) {
-                        notifyPlayer(playerUUID, config.settings.streakIncreaseMessage
-                                .replace("%streak%", String.valueOf(streak.getCurrentStreak())));
-                    }
-
-                    // Check for streak rewards
-                    checkStreakRewards(playerUUID, streak);
-
-                } else {
-                    // Streak broken - reset to 1
-                    int oldBest = streak.getBestStreak();
-                    streak.setCurrentStreak(1);
-                    streak.setLastRechargeDate(Date.from(today.atStartOfDay(ZoneId.systemDefault()).toInstant()));
-                    streak.setLastRewardTier(0); // Reset reward tier
-                    streak.setClaimedToday(false);
-
-                    streakDao.update(streak);
-
-                    MessageUtil.debug("[Streak] Reset streak for " + playerUUID + ", was " + oldBest + " best");
+                oldBest = entry.streak.getBestStreak();
+                outcome = StreakProgress.advance(entry.streak, LocalDate.now(zone), zone);
+            }
+            if (outcome == StreakProgress.Outcome.SAME_DAY) {
+                MessageUtil.debug("[Streak] Same day payment for " + playerUUID + ", no streak change");
+                return;
+            }
+            if (outcome == StreakProgress.Outcome.INCREMENTED) {
+                rewards = StreakProgress.claimRewards(entry.streak, config.rewards);
+            }
+            currentStreak = entry.streak.getCurrentStreak();
+            entry.dirty = true;
+            entry.refreshValues();
+        }
+        // One write for the streak and every reward tier it reached
+        persist(entry);
 
-                    // Notify player of break
-                    notifyPlayer(playerUUID, config.settings.streakBreakMessage
-                            .replace("%best%", String.valueOf(oldBest)));
+        switch (outcome) {
+            case CREATED -> MessageUtil.debug("[Streak] Created new streak for " + playerUUID + ": Day 1");
+            case INCREMENTED -> {
+                MessageUtil.debug("[Streak] Incremented streak for " + playerUUID + ": Day " + currentStreak);
+                if (config.settings.notifyOnStreak) {
+                    notifyPlayer(playerUUID, config.settings.streakIncreaseMessage
+                            .replace("%streak%", String.valueOf(currentStreak)));
                 }
+                giveRewards(playerUUID, rewards);
+            }
+            case RESET -> {
+                MessageUtil.debug("[Streak] Reset streak for " + playerUUID + ", was " + oldBest + " best");
+                notifyPlayer(playerUUID, config.settings.streakBreakMessage
+                        .replace("%best%", String.valueOf(oldBest)));
+            }
+            default -> {
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            MessageUtil.debug("[Streak] Database error updating streak for " + playerUUID);
         }
     }
 
     /**
-     * Gets player's current streak data.
+     * Gets player's current streak data, loading it into the cache if needed. May block on the database.
      *
      * @param playerUUID Player UUID
-     * @return PlayerStreakPayment or null if player has no streak
+     * @return a copy of the PlayerStreakPayment, or null if player has no streak
      */
     public PlayerStreakPayment getStreak(UUID playerUUID) {
-        try {
-            return streakDao.queryForId(playerUUID);
-        } catch (SQLException e) {
-            e.printStackTrace();
+        StreakEntry entry = entry(playerUUID);
+        if (entry == null) {
             return null;
         }
+        synchronized (entry) {
+            return copy(entry.streak);
+        }
     }
 
     /**
-     * Gets player's current streak count.
+     * Non-blocking read for placeholders. If the player's streak is not cached yet, it is loaded asynchronously.
      *
-     * @param playerUUID Player UUID
-     * @return Current streak (0 if no streak data)
+     * @return the player's streak counters, or null while they are being loaded
      */
-    public int getCurrentStreak(UUID playerUUID) {
-        PlayerStreakPayment streak = getStreak(playerUUID);
-        return streak != null ? streak.getCurrentStreak() : 0;
+    public StreakValues getStreakValues(UUID playerUUID) {
+        StreakEntry entry = entries.get(playerUUID);
+        if (entry != null) {
+            return entry.values;
+        }
+        if (loading.add(playerUUID)) {
+            SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> {
+                try {
+                    entry(playerUUID);
+                } finally {
+                    loading.remove(playerUUID);
+                }
+            });
+        }
+        return null;
     }
 
     /**
-     * Gets player's best streak count.
-     *
-     * @param playerUUID Player UUID
-     * @return Best streak (0 if no streak data)
+     * Loads the player's streak into the cache. Call off the main thread, e.g. on join.
      */
-    public int getBestStreak(UUID playerUUID) {
-        PlayerStreakPayment streak = getStreak(playerUUID);
-        return streak != null ? streak.getBestStreak() : 0;
+    public void load(UUID playerUUID) {
+        entry(playerUUID);
     }
 
     /**
-     * Creates a new streak entry for a player.
+     * Drops a player who quit, writing their row first if it is still dirty.
      */
-    private PlayerStreakPayment createNewStreak(UUID playerUUID, LocalDate today) throws SQLException {
-        PlayerStreakPayment streak = new PlayerStreakPayment();
-        streak.setPlayerUUID(playerUUID);
-        streak.setCurrentStreak(1);
-        streak.setBestStreak(1);
-        streak.setLastRechargeDate(Date.from(today.atStartOfDay(ZoneId.systemDefault()).toInstant()));
-        streak.setLastRewardTier(0);
-        streak.setClaimedToday(false);
-
-        streakDao.create(streak);
-        return streak;
+    public void unload(UUID playerUUID) {
+        StreakEntry entry = entries.get(playerUUID);
+        if (entry != null && depart(playerUUID, entry)) {
+            SPPlugin.getInstance().getFoliaLib().getScheduler().runAsync(task -> settleDeparted(playerUUID, entry));
+        }
     }
 
     /**
-     * Checks if player has reached any streak reward milestones.
+     * Resets every streak whose last payment is older than yesterday, in the database and in the cache.
+     * Runs once per day; reads never have to check for a missed day.
      */
-    private void checkStreakRewards(UUID playerUUID, PlayerStreakPayment streak) {
-        StreakConfig config = ConfigManager.getInstance().getConfig(StreakConfig.class);
-        int currentStreak = streak.getCurrentStreak();
-        int lastRewardTier = streak.getLastRewardTier();
-
-        for (StreakConfig.StreakReward reward : config.rewards) {
-            // Check if player reached this tier and hasn't claimed it yet
-            if (currentStreak >= reward.days && reward.days > lastRewardTier) {
-                // Award rewards
-                Player player = Bukkit.getPlayer(playerUUID);
-                for (String command : reward.commands) {
-                    String formattedCommand = command.replace("%player_name%", player != null ? player.getName() : "Unknown");
-                    CommandUtils.dispatchCommand(Bukkit.getConsoleSender(), formattedCommand);
-                }
+    public synchronized void sweep() {
+        ZoneId zone = zone();
+        LocalDate today = LocalDate.now(zone);
+        try {
+            UpdateBuilder<PlayerStreakPayment, UUID> update = streakDao.updateBuilder();
+            update.updateColumnValue("current_streak", 0)
+                    .updateColumnValue("last_reward_tier", 0)
+                    .updateColumnValue("claimed_today", false);
+            update.where()
+                    .gt("current_streak", 0)
+                    .and()
+                    .lt("last_recharge_date", StreakProgress.startOf(today.minusDays(1), zone));
+            int rows = update.update();
+            sweptRows.addAndGet(rows);
+            sweptDay = today;
+            MessageUtil.debug("[Streak] Daily sweep reset " + rows + " streaks");
+        } catch (SQLException e) {
+            e.printStackTrace();
+            // sweptDay is left unchanged so the next tick retries, the cached rows are still reset below
+        }
 
-                // Update last reward tier
-                streak.setLastRewardTier(reward.days);
-                try {
-                    streakDao.update(streak);
-                } catch (SQLException e) {
-                    e.printStackTrace();
+        for (StreakEntry entry : entries.values()) {
+            synchronized (entry) {
+                if (entry.streak != null && StreakProgress.isBroken(entry.streak, today, zone)) {
+                    StreakProgress.expire(entry.streak);
+                    entry.refreshValues();
                 }
+            }
+        }
 
-                MessageUtil.debug("[Streak] Awarded " + reward.name + " to " + playerUUID);
+        // Offline payers and placeholder lookups cache rows of players who are not online, drop them once a day
+        int evicted = 0;
+        for (Map.Entry<UUID, StreakEntry> cached : entries.entrySet()) {
+            if (Bukkit.getPlayer(cached.getKey()) == null && depart(cached.getKey(), cached.getValue())) {
+                settleDeparted(cached.getKey(), cached.getValue());
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            MessageUtil.debug("[Streak] Dropped " + evicted + " streaks of offline players");
+        }
+        sweeps.incrementAndGet();
+    }
 
-                // Notify player
-                if (player != null) {
-                    notifyPlayer(playerUUID, "<green>Streak Reward: <gold>" + reward.name + "</gold>!");
+    /**
+     * Writes every cached or departing row whose last write failed.
+     */
+    public void flushDirty() {
+        for (StreakEntry entry : entries.values()) {
+            if (entry.isDirty()) {
+                persist(entry);
+            }
+        }
+        for (Map.Entry<UUID, StreakEntry> departed : departing.entrySet()) {
+            settleDeparted(departed.getKey(), departed.getValue());
+        }
+    }
+
+    /**
+     * Moves an entry out of the cache into {@link #departing}, where {@link #entry} still finds it until its row is
+     * written. It is put there first, so a concurrent load never sees it in neither map.
+     *
+     * @return false if the entry was no longer cached
+     */
+    private boolean depart(UUID playerUUID, StreakEntry entry) {
+        departing.put(playerUUID, entry);
+        if (entries.remove(playerUUID, entry)) {
+            return true;
+        }
+        departing.remove(playerUUID, entry);
+        return false;
+    }
+
+    /**
+     * Writes a departing entry and forgets it once nothing is left to write. Kept for the next flush if it failed.
+     */
+    private void settleDeparted(UUID playerUUID, StreakEntry entry) {
+        persist(entry);
+        synchronized (entry) {
+            if (!entry.dirty) {
+                departing.remove(playerUUID, entry);
+            }
+        }
+    }
+
+    private StreakEntry entry(UUID playerUUID) {
+        StreakEntry entry = entries.get(playerUUID);
+        if (entry != null) {
+            return entry;
+        }
+        StreakEntry departed = departing.get(playerUUID);
+        if (departed != null) {
+            // Rejoined before the row was written, the database still has the older copy
+            StreakEntry existing = entries.putIfAbsent(playerUUID, departed);
+            return existing != null ? existing : departed;
+        }
+        PlayerStreakPayment streak;
+        try {
+            streak = streakDao.queryForId(playerUUID);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        loads.incrementAndGet();
+        boolean expired = streak != null && StreakProgress.isBroken(streak, LocalDate.now(zone()), zone());
+        if (expired) {
+            // Missed by the sweep (e.g. its update failed), expire it like the sweep would have
+            StreakProgress.expire(streak);
+        }
+        StreakEntry loaded = new StreakEntry(streak);
+        loaded.dirty = expired;
+        StreakEntry existing = entries.putIfAbsent(playerUUID, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private void persist(StreakEntry entry) {
+        // Serializes writes of one row, so an insert is never overtaken by the update that follows it
+        synchronized (entry.writeLock) {
+            PlayerStreakPayment snapshot;
+            boolean create;
+            synchronized (entry) {
+                if (!entry.dirty || entry.streak == null) {
+                    return;
+                }
+                snapshot = copy(entry.streak);
+                create = !entry.stored;
+                entry.dirty = false;
+            }
+            try {
+                if (create) {
+                    streakDao.create(snapshot);
+                } else {
+                    streakDao.update(snapshot);
+                }
+                synchronized (entry) {
+                    entry.stored = true;
+                }
+                writes.incrementAndGet();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                failedWrites.incrementAndGet();
+                synchronized (entry) {
+                    entry.dirty = true;
                 }
             }
         }
     }
 
+    private void giveRewards(UUID playerUUID, List<StreakConfig.StreakReward> rewards) {
+        Player player = Bukkit.getPlayer(playerUUID);
+        for (StreakConfig.StreakReward reward : rewards) {
+            for (String command : reward.commands) {
+                String formattedCommand = command.replace("%player_name%", player != null ? player.getName() : "Unknown");
+                CommandUtils.dispatchCommand(Bukkit.getConsoleSender(), formattedCommand);
+            }
+
+            MessageUtil.debug("[Streak] Awarded " + reward.name + " to " + playerUUID);
+
+            if (player != null) {
+                notifyPlayer(playerUUID, "<green>Streak Reward: <gold>" + reward.name + "</gold>!");
+            }
+        }
+    }
+
     /**
      * Sends a notification message to the player.
      */
@@ -215,4 +384,70 @@ public class StreakService {
             player.sendMessage(MessageUtil.getComponentParsed(message, player));
         }
     }
+
+    private static ZoneId zone() {
+        return CalendarUtil.getZone();
+    }
+
+    private static PlayerStreakPayment copy(PlayerStreakPayment streak) {
+        if (streak == null) {
+            return null;
+        }
+        PlayerStreakPayment copy = new PlayerStreakPayment();
+        copy.setPlayerUUID(streak.getPlayerUUID());
+        copy.setLastRechargeDate(streak.getLastRechargeDate());
+        copy.setCurrentStreak(streak.getCurrentStreak());
+        copy.setBestStreak(streak.getBestStreak());
+        copy.setLastRewardTier(streak.getLastRewardTier());
+        copy.setClaimedToday(streak.isClaimedToday());
+        return copy;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "Streaks";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long dirty = entries.values().stream().filter(StreakEntry::isDirty).count();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cached", entries.size());
+        stats.put("dirty", dirty);
+        stats.put("departing", departing.size());
+        stats.put("loads", loads.get());
+        stats.put("writes", writes.get());
+        stats.put("failed-writes", failedWrites.get());
+        stats.put("sweeps", sweeps.get());
+        stats.put("swept-rows", sweptRows.get());
+        stats.put("last-sweep", sweptDay == null ? "-" : sweptDay.toString());
+        return stats;
+    }
+
+    /**
+     * Cached streak row of one player. Fields are guarded by the entry's monitor.
+     */
+    private static final class StreakEntry {
+        private final Object writeLock = new Object();
+        // Null while the player has never paid
+        private PlayerStreakPayment streak;
+        // True once the row exists in the database
+        private boolean stored;
+        private boolean dirty;
+        private volatile StreakValues values;
+
+        private StreakEntry(PlayerStreakPayment streak) {
+            this.streak = streak;
+            this.stored = streak != null;
+            refreshValues();
+        }
+
+        private synchronized boolean isDirty() {
+            return dirty;
+        }
+
+        private void refreshValues() {
+            values = streak == null ? NO_STREAK : StreakValues.of(streak.getCurrentStreak(), streak.getBestStreak());
+        }
+    }
 }
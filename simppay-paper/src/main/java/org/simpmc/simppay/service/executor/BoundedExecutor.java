@@ -0,0 +1,144 @@
+package org.simpmc.simppay.service.executor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Named executor for blocking I/O with a fixed number of tasks running at once and a bounded backlog.
+ * <p>
+ * - Virtual mode starts a virtual thread per task and limits how many run with a semaphore
+ * - Platform mode uses a fixed pool of named daemon threads
+ * - Tasks past {@code concurrency + queueCapacity} are rejected with {@link RejectedExecutionException}
+ */
+public class BoundedExecutor implements Executor {
+    private final String name;
+    private final int concurrency;
+    private final int queueCapacity;
+    private final boolean virtual;
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    public BoundedExecutor(String name, int concurrency, int queueCapacity, boolean virtual) {
+        this.name = name;
+        this.concurrency = Math.max(1, concurrency);
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.virtual = virtual;
+        if (virtual) {
+            this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("SimpPay-" + name + "-", 0).factory());
+            this.permits = new Semaphore(this.concurrency, true);
+        } else {
+            AtomicInteger threadId = new AtomicInteger();
+            this.delegate = new ThreadPoolExecutor(this.concurrency, this.concurrency, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "SimpPay-" + name + "-" + threadId.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.permits = null;
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (pending.incrementAndGet() > concurrency + queueCapacity) {
+            pending.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("Executor " + name + " is full (" + concurrency + " running, " + queueCapacity + " queued)");
+        }
+        long queuedAt = System.nanoTime();
+        try {
+            delegate.execute(() -> run(command, queuedAt));
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private void run(Runnable command, long queuedAt) {
+        boolean acquired = false;
+        try {
+            if (permits != null) {
+                permits.acquire();
+                acquired = true;
+            }
+            long wait = System.nanoTime() - queuedAt;
+            totalWaitNanos.addAndGet(wait);
+            maxWaitNanos.accumulate(wait);
+            active.incrementAndGet();
+            try {
+                command.run();
+            } finally {
+                active.decrementAndGet();
+                completed.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+            pending.decrementAndGet();
+        }
+    }
+
+    public void recordTimeout() {
+        timedOut.incrementAndGet();
+    }
+
+    /**
+     * Stops accepting tasks and waits briefly for running ones.
+     */
+    public void shutdown(long timeoutMillis) {
+        delegate.shutdown();
+        try {
+            delegate.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueued() {
+        return Math.max(0, pending.get() - active.get());
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long done = completed.get();
+        stats.put(name + "-mode", virtual ? "virtual" : "platform");
+        stats.put(name + "-active", active.get() + "/" + concurrency);
+        stats.put(name + "-queued", getQueued() + "/" + queueCapacity);
+        stats.put(name + "-completed", done);
+        stats.put(name + "-rejected", rejected.get());
+        stats.put(name + "-timed-out", timedOut.get());
+        stats.put(name + "-wait-avg-ms", String.format("%.1f", done == 0 ? 0 : totalWaitNanos.get() / (double) done / 1_000_000));
+        stats.put(name + "-wait-max-ms", String.format("%.1f", maxWaitNanos.get() / 1_000_000.0));
+        return stats;
+    }
+}
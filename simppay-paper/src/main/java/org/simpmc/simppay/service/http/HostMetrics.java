@@ -0,0 +1,76 @@
+package org.simpmc.simppay.service.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, error and connection reuse counters per remote host.
+ */
+public class HostMetrics {
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+
+    public void recordCall(String host, long nanos, boolean failed) {
+        Host metrics = host(host);
+        metrics.calls.increment();
+        metrics.totalNanos.add(nanos);
+        metrics.maxNanos.accumulate(nanos);
+        if (failed) {
+            metrics.errors.increment();
+        }
+    }
+
+    /**
+     * Counts an HTTP error status; the call itself completed and is recorded by {@link #recordCall}.
+     */
+    public void recordHttpError(String host) {
+        host(host).errors.increment();
+    }
+
+    public void recordConnectionAcquired(String host, boolean reused) {
+        Host metrics = host(host);
+        metrics.connections.increment();
+        if (reused) {
+            metrics.reused.increment();
+        }
+    }
+
+    /**
+     * One line per host: calls, errors, average/max latency and the share of calls that reused a connection.
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        for (Map.Entry<String, Host> entry : new TreeMap<>(hosts).entrySet()) {
+            Host metrics = entry.getValue();
+            long calls = metrics.calls.sum();
+            long connections = metrics.connections.sum();
+            summary.put(entry.getKey(), String.format("calls=%d errors=%d avg=%.1fms max=%.1fms reuse=%.0f%%",
+                    calls,
+                    metrics.errors.sum(),
+                    calls == 0 ? 0 : metrics.totalNanos.sum() / (double) calls / 1_000_000,
+                    metrics.maxNanos.get() / 1_000_000.0,
+                    connections == 0 ? 0 : metrics.reused.sum() * 100.0 / connections));
+        }
+        return summary;
+    }
+
+    public long totalCalls() {
+        return hosts.values().stream().mapToLong(host -> host.calls.sum()).sum();
+    }
+
+    private Host host(String host) {
+        return hosts.computeIfAbsent(host, k -> new Host());
+    }
+
+    private static final class Host {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder connections = new LongAdder();
+        private final LongAdder reused = new LongAdder();
+    }
+}
@@ -0,0 +1,27 @@
+package org.simpmc.simppay.service.http;
+
+import lombok.Getter;
+
+/**
+ * Remote APIs the plugin talks to. Each gets its own timeouts and response size cap on the shared client.
+ */
+@Getter
+public enum HttpGateway {
+    CARD("card", 15, 64 * 1024),
+    WEB2M("web2m", 15, 1024 * 1024),
+    PAYOS("payos", 15, 64 * 1024),
+    VIETQR("vietqr", 20, 512 * 1024),
+    DISCORD("discord", 10, 64 * 1024),
+    UPDATE_CHECKER("update-checker", 15, 1024 * 1024),
+    DEFAULT("default", 15, 1024 * 1024);
+
+    private final String configKey;
+    private final int defaultCallTimeoutSeconds;
+    private final int maxResponseBytes;
+
+    HttpGateway(String configKey, int defaultCallTimeoutSeconds, int maxResponseBytes) {
+        this.configKey = configKey;
+        this.defaultCallTimeoutSeconds = defaultCallTimeoutSeconds;
+        this.maxResponseBytes = maxResponseBytes;
+    }
+}
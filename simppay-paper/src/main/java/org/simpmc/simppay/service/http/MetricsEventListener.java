@@ -0,0 +1,54 @@
+package org.simpmc.simppay.service.http;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+
+/**
+ * Per-call OkHttp listener feeding {@link HostMetrics}. A connection counts as reused when the call
+ * acquired it without opening a new one.
+ */
+public class MetricsEventListener extends EventListener {
+    private final HostMetrics metrics;
+    private final String host;
+    private long startNanos;
+    private boolean connected;
+
+    public MetricsEventListener(HostMetrics metrics, Call call) {
+        this.metrics = metrics;
+        this.host = call.request().url().host();
+    }
+
+    public static EventListener.Factory factory(HostMetrics metrics) {
+        return call -> new MetricsEventListener(metrics, call);
+    }
+
+    @Override
+    public void callStart(Call call) {
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connected = true;
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        metrics.recordConnectionAcquired(host, !connected);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        metrics.recordCall(host, System.nanoTime() - startNanos, false);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        metrics.recordCall(host, System.nanoTime() - startNanos, true);
+    }
+}
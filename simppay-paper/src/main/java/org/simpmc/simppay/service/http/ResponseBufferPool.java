@@ -0,0 +1,98 @@
+package org.simpmc.simppay.service.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reusable buffers for reading response bodies.
+ * A body that fits in one buffer is read and parsed without allocating a byte array per response;
+ * larger bodies grow a private copy up to the gateway cap.
+ */
+public class ResponseBufferPool {
+
+    @FunctionalInterface
+    public interface BodyParser<T> {
+        /**
+         * @param body   buffer holding the body, only valid during the call
+         * @param length number of body bytes in the buffer
+         */
+        T parse(byte[] body, int length) throws IOException;
+    }
+
+    private final Queue<byte[]> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final int bufferSize;
+    private final int maxPooled;
+
+    public ResponseBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Reads the whole stream and hands it to {@code parser}.
+     *
+     * @throws ResponseTooLargeException if the stream has more than {@code maxBytes} bytes
+     */
+    public <T> T read(InputStream in, int maxBytes, BodyParser<T> parser) throws IOException {
+        byte[] pooledBuffer = acquire();
+        byte[] buffer = pooledBuffer;
+        try {
+            int length = 0;
+            while (true) {
+                if (length == Math.min(buffer.length, maxBytes)) {
+                    if (length == maxBytes) {
+                        // Full at the cap, one more byte means the body is too large
+                        if (in.read() != -1) {
+                            throw new ResponseTooLargeException(maxBytes);
+                        }
+                        break;
+                    }
+                    buffer = Arrays.copyOf(buffer, (int) Math.min(maxBytes, buffer.length * 2L));
+                }
+                int read = in.read(buffer, length, Math.min(buffer.length, maxBytes) - length);
+                if (read == -1) {
+                    break;
+                }
+                length += read;
+            }
+            return parser.parse(buffer, length);
+        } finally {
+            release(pooledBuffer);
+        }
+    }
+
+    private byte[] acquire() {
+        byte[] buffer = free.poll();
+        if (buffer == null) {
+            misses.incrementAndGet();
+            return new byte[bufferSize];
+        }
+        pooled.decrementAndGet();
+        hits.incrementAndGet();
+        return buffer;
+    }
+
+    private void release(byte[] buffer) {
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+        free.offer(buffer);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,12 @@
+package org.simpmc.simppay.service.http;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a response body is larger than the cap of its gateway.
+ */
+public class ResponseTooLargeException extends IOException {
+    public ResponseTooLargeException(int maxBytes) {
+        super("Response body exceeds " + maxBytes + " bytes");
+    }
+}
@@ -0,0 +1,54 @@
+package org.simpmc.simppay.service.journal;
+
+import com.google.gson.JsonObject;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.model.Payment;
+import org.simpmc.simppay.model.detail.BankingDetail;
+import org.simpmc.simppay.model.detail.CardDetail;
+import org.simpmc.simppay.model.detail.PaymentDetail;
+import org.simpmc.simppay.util.GsonUtil;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * One state transition of a payment in the {@link PaymentJournal}.
+ * Finished entries only carry the payment id, the others carry everything needed to poll the payment again.
+ *
+ * @param createdAt Epoch millis the payment was created, used for the polling deadline after a restart
+ */
+public record JournalEntry(State state, UUID paymentID, UUID playerUUID, PaymentType type, long createdAt,
+                           JsonObject detail) {
+
+    public enum State {
+        // Handed to the gateway, no answer yet
+        CREATED,
+        // Accepted by the gateway, being polled
+        PENDING,
+        SUCCESS,
+        FAILED;
+
+        public boolean isFinished() {
+            return this == SUCCESS || this == FAILED;
+        }
+    }
+
+    public static JournalEntry of(State state, Payment payment) {
+        return new JournalEntry(state, payment.getPaymentID(), payment.getPlayerUUID(), payment.getPaymentType(),
+                payment.getCreatedAt().getTime(), GsonUtil.gson.toJsonTree(payment.getDetail()).getAsJsonObject());
+    }
+
+    public static JournalEntry finished(State state, UUID paymentID) {
+        return new JournalEntry(state, paymentID, null, null, 0, null);
+    }
+
+    /**
+     * Rebuilds the payment as it was when this entry was written.
+     */
+    public Payment toPayment() {
+        Class<? extends PaymentDetail> detailClass = type == PaymentType.CARD ? CardDetail.class : BankingDetail.class;
+        Payment payment = new Payment(paymentID, playerUUID, GsonUtil.gson.fromJson(detail, detailClass));
+        payment.setCreatedAt(new Date(createdAt));
+        return payment;
+    }
+}
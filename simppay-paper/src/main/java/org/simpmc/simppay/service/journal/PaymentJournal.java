@@ -0,0 +1,289 @@
+package org.simpmc.simppay.service.journal;
+
+import com.google.gson.JsonParseException;
+import org.simpmc.simppay.util.GsonUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of payment state transitions.
+ * <p>
+ * - Appending copies one framed record into the mapping, no system call; the bytes survive the server process dying
+ * - {@link #sync()} forces the mapping to disk, called on a timer so many appends share one fsync (group commit)
+ * - Two files are used in turn: compaction writes the unfinished payments into the idle file under a higher
+ * generation, so a crash mid-compaction leaves the previous file intact and no file is ever renamed while mapped
+ * - Each record's checksum covers the file generation, so a torn tail or a record left from an older generation
+ * ends the replay instead of resurrecting a payment
+ * <p>
+ * File layout: {@code [magic int][generation long]} then records {@code [length int][crc int][JSON bytes]},
+ * ended by a zero length.
+ */
+public class PaymentJournal implements Closeable {
+    private static final int MAGIC = 0x53504A31; // "SPJ1"
+    private static final int HEADER_BYTES = 12;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final String[] FILE_NAMES = {"payment-journal-0.dat", "payment-journal-1.dat"};
+
+    private final Path directory;
+    private final int minCapacity;
+    // Latest record of every unfinished payment, the only records compaction keeps
+    private final LinkedHashMap<UUID, byte[]> live = new LinkedHashMap<>();
+    private final FileChannel[] channels = new FileChannel[2];
+    private final MappedByteBuffer[] maps = new MappedByteBuffer[2];
+    private int active;
+    private long generation;
+    private int position;
+    private volatile boolean dirty;
+    private long appended;
+    private long syncs;
+    private long compactions;
+
+    /**
+     * @param capacity Size of each journal file in bytes; grown by compaction if the unfinished payments need more
+     */
+    public PaymentJournal(Path directory, int capacity) {
+        this.directory = directory;
+        this.minCapacity = Math.max(4096, capacity);
+    }
+
+    /**
+     * Opens the journal files and replays the newest complete one.
+     *
+     * @return the latest entry of every payment that did not finish, in the order they were first written
+     */
+    public synchronized List<JournalEntry> open() throws IOException {
+        long[] generations = new long[2];
+        for (int i = 0; i < 2; i++) {
+            channels[i] = FileChannel.open(directory.resolve(FILE_NAMES[i]),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            maps[i] = map(i, (int) Math.max(minCapacity, Math.min(Integer.MAX_VALUE, channels[i].size())));
+            generations[i] = maps[i].getInt(0) == MAGIC ? maps[i].getLong(4) : 0;
+        }
+        if (generations[0] == 0 && generations[1] == 0) {
+            // New journal
+            active = 0;
+            generation = 1;
+            writeHeader(maps[0], generation);
+            position = HEADER_BYTES;
+            maps[0].putInt(position, 0);
+            maps[0].force();
+            return List.of();
+        }
+
+        active = generations[0] >= generations[1] ? 0 : 1;
+        generation = generations[active];
+        position = replay(maps[active]);
+        maps[active].putInt(position, 0);
+
+        List<JournalEntry> unfinished = new ArrayList<>(live.size());
+        for (byte[] payload : live.values()) {
+            unfinished.add(decode(payload));
+        }
+        return unfinished;
+    }
+
+    /**
+     * Records a transition. Finishing a payment that is not in the journal writes nothing.
+     */
+    public synchronized void append(JournalEntry entry) throws IOException {
+        if (entry.state().isFinished() && !live.containsKey(entry.paymentID())) {
+            return;
+        }
+        byte[] payload = GsonUtil.gson.toJson(entry).getBytes(StandardCharsets.UTF_8);
+        if (position + RECORD_HEADER_BYTES + payload.length + 4 > maps[active].capacity()) {
+            // Full: drop finished payments first, the unfinished ones are small
+            compact(payload.length);
+        }
+        write(maps[active], position, payload);
+        position += RECORD_HEADER_BYTES + payload.length;
+        if (entry.state().isFinished()) {
+            live.remove(entry.paymentID());
+        } else {
+            live.put(entry.paymentID(), payload);
+        }
+        appended++;
+        dirty = true;
+    }
+
+    /**
+     * Forces appended records to disk, if any were written since the last call.
+     */
+    public void sync() {
+        if (!dirty) {
+            return;
+        }
+        MappedByteBuffer map;
+        synchronized (this) {
+            dirty = false;
+            map = maps[active];
+            syncs++;
+        }
+        // Outside the lock, appends continue while the pages are written
+        map.force();
+    }
+
+    /**
+     * Compacts once more than the given share of the active file is used.
+     *
+     * @return true if the journal was compacted
+     */
+    public synchronized boolean compactIfNeeded(double usedRatio) throws IOException {
+        if (position < maps[active].capacity() * usedRatio) {
+            return false;
+        }
+        compact(0);
+        return true;
+    }
+
+    /**
+     * Rewrites the unfinished payments into the idle file and makes it the active one.
+     *
+     * @param reserve Bytes the next record needs on top of the unfinished payments
+     */
+    public synchronized void compact(int reserve) throws IOException {
+        int needed = HEADER_BYTES + 4 + RECORD_HEADER_BYTES + reserve;
+        for (byte[] payload : live.values()) {
+            needed += RECORD_HEADER_BYTES + payload.length;
+        }
+        int target = 1 - active;
+        int capacity = Math.max(minCapacity, needed * 2);
+        if (maps[target].capacity() < capacity) {
+            maps[target] = map(target, capacity);
+        }
+        MappedByteBuffer map = maps[target];
+        long nextGeneration = generation + 1;
+
+        // Invalidate first: until the new header is written, a restart replays the current file
+        map.putInt(0, 0);
+        map.force();
+        generation = nextGeneration;
+        int offset = HEADER_BYTES;
+        for (byte[] payload : live.values()) {
+            write(map, offset, payload);
+            offset += RECORD_HEADER_BYTES + payload.length;
+        }
+        map.putInt(offset, 0);
+        map.force();
+        writeHeader(map, nextGeneration);
+        map.force();
+
+        active = target;
+        position = offset;
+        dirty = false;
+        compactions++;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (int i = 0; i < 2; i++) {
+            if (maps[i] != null && i == active) {
+                maps[i].force();
+            }
+            if (channels[i] != null) {
+                try {
+                    channels[i].close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    public synchronized int getLiveCount() {
+        return live.size();
+    }
+
+    public synchronized int getUsedBytes() {
+        return position;
+    }
+
+    public synchronized int getCapacity() {
+        return maps[active].capacity();
+    }
+
+    public synchronized long getAppended() {
+        return appended;
+    }
+
+    public synchronized long getSyncs() {
+        return syncs;
+    }
+
+    public synchronized long getCompactions() {
+        return compactions;
+    }
+
+    private MappedByteBuffer map(int file, int capacity) throws IOException {
+        return channels[file].map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /**
+     * Loads every valid record of the file into {@link #live}.
+     *
+     * @return offset after the last valid record
+     */
+    private int replay(MappedByteBuffer map) {
+        int offset = HEADER_BYTES;
+        while (offset + RECORD_HEADER_BYTES <= map.capacity()) {
+            int length = map.getInt(offset);
+            if (length <= 0 || offset + RECORD_HEADER_BYTES + length > map.capacity()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            map.get(offset + RECORD_HEADER_BYTES, payload);
+            if (map.getInt(offset + 4) != checksum(payload)) {
+                // Torn write, or a record from an older generation of this file
+                break;
+            }
+            JournalEntry entry;
+            try {
+                entry = decode(payload);
+            } catch (JsonParseException e) {
+                break;
+            }
+            if (entry.state().isFinished()) {
+                live.remove(entry.paymentID());
+            } else {
+                live.put(entry.paymentID(), payload);
+            }
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    private void write(MappedByteBuffer map, int offset, byte[] payload) {
+        // End marker first, the length that makes the record visible last
+        map.putInt(offset + RECORD_HEADER_BYTES + payload.length, 0);
+        map.put(offset + RECORD_HEADER_BYTES, payload);
+        map.putInt(offset + 4, checksum(payload));
+        map.putInt(offset, payload.length);
+    }
+
+    private int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        for (int shift = 0; shift < 64; shift += 8) {
+            crc.update((int) (generation >>> shift));
+        }
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void writeHeader(MappedByteBuffer map, long generation) {
+        map.putLong(4, generation);
+        map.putInt(0, MAGIC);
+    }
+
+    private static JournalEntry decode(byte[] payload) {
+        return GsonUtil.gson.fromJson(new String(payload, StandardCharsets.UTF_8), JournalEntry.class);
+    }
+}
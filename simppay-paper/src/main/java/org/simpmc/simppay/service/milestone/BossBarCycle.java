@@ -0,0 +1,55 @@
+package org.simpmc.simppay.service.milestone;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.kyori.adventure.text.Component;
+
+import java.util.UUID;
+
+/**
+ * BossBar cycling state of one player, walked by {@link BossBarTicker}.
+ * The displayed milestone and amount are written by the async amount read and read by the ticker.
+ */
+public class BossBarCycle {
+    @Getter
+    private final UUID playerUUID;
+    // Index of the next milestone to show
+    @Getter
+    @Setter
+    private int index;
+    // 0 until the first milestone is shown, so a new cycle shows its BossBar on the next tick
+    @Getter
+    @Setter
+    private long cycleStartMillis;
+    @Getter
+    @Setter
+    private volatile Object displayedMilestone;
+    @Getter
+    @Setter
+    private volatile double displayedAmount;
+    @Getter
+    @Setter
+    private volatile boolean active = true;
+
+    // Last rendered title and the values it was rendered for
+    private Object titleMilestone;
+    private double titleAmount;
+    private Component title;
+
+    public BossBarCycle(UUID playerUUID) {
+        this.playerUUID = playerUUID;
+    }
+
+    /**
+     * @return the title rendered for this milestone and amount, or null if it has to be rendered again
+     */
+    public synchronized Component cachedTitle(Object milestone, double amount) {
+        return title != null && titleMilestone == milestone && titleAmount == amount ? title : null;
+    }
+
+    public synchronized void cacheTitle(Object milestone, double amount, Component title) {
+        this.titleMilestone = milestone;
+        this.titleAmount = amount;
+        this.title = title;
+    }
+}
@@ -0,0 +1,142 @@
+package org.simpmc.simppay.service.milestone;
+
+import org.simpmc.simppay.SPPlugin;
+import org.simpmc.simppay.util.MessageUtil;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * One async timer driving every milestone BossBar, instead of one timer task per player.
+ * <p>
+ * - Cycles are walked from a compact array, rebuilt only when a player starts or stops cycling
+ * - With a spread of N ticks, each run handles every N-th cycle, so each player is updated every N ticks
+ * and the work is split evenly across ticks
+ */
+public class BossBarTicker {
+
+    private final ConcurrentHashMap<UUID, BossBarCycle> cycles = new ConcurrentHashMap<>();
+    private final Handler handler;
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+    private volatile BossBarCycle[] snapshot = new BossBarCycle[0];
+    private volatile boolean dirty;
+    private volatile boolean running;
+    private volatile long lastRunNanos;
+    private volatile long maxRunNanos;
+    private long tick;
+
+    public BossBarTicker(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * @param spreadTicks Number of ticks between two updates of the same player, read on every run
+     */
+    public void start(IntSupplier spreadTicks) {
+        running = true;
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runTimerAsync(task -> {
+            if (!running) {
+                task.cancel();
+                return;
+            }
+            run(Math.max(1, spreadTicks.getAsInt()));
+        }, 1, 1);
+    }
+
+    public void stop() {
+        running = false;
+        clear();
+    }
+
+    /**
+     * Starts a fresh cycle for the player, replacing any previous one.
+     */
+    public BossBarCycle add(UUID playerUUID) {
+        BossBarCycle cycle = new BossBarCycle(playerUUID);
+        BossBarCycle previous = cycles.put(playerUUID, cycle);
+        if (previous != null) {
+            previous.setActive(false);
+        }
+        dirty = true;
+        return cycle;
+    }
+
+    public BossBarCycle get(UUID playerUUID) {
+        return cycles.get(playerUUID);
+    }
+
+    public void remove(UUID playerUUID) {
+        BossBarCycle cycle = cycles.remove(playerUUID);
+        if (cycle != null) {
+            cycle.setActive(false);
+            dirty = true;
+        }
+    }
+
+    public void clear() {
+        for (BossBarCycle cycle : cycles.values()) {
+            cycle.setActive(false);
+        }
+        cycles.clear();
+        dirty = true;
+    }
+
+    public int size() {
+        return cycles.size();
+    }
+
+    void run(int spread) {
+        long start = System.nanoTime();
+        if (dirty) {
+            dirty = false;
+            snapshot = cycles.values().toArray(new BossBarCycle[0]);
+        }
+        BossBarCycle[] current = snapshot;
+        long now = System.currentTimeMillis();
+        for (int i = (int) (tick++ % spread); i < current.length; i += spread) {
+            BossBarCycle cycle = current[i];
+            if (!cycle.isActive()) {
+                continue;
+            }
+            try {
+                handler.tick(cycle, now);
+            } catch (Exception e) {
+                MessageUtil.debug("[BossBar] Update failed for " + cycle.getPlayerUUID() + ": " + e.getMessage());
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        runs.incrementAndGet();
+        totalRunNanos.addAndGet(elapsed);
+        lastRunNanos = elapsed;
+        if (elapsed > maxRunNanos) {
+            maxRunNanos = elapsed;
+        }
+    }
+
+    public long getRuns() {
+        return runs.get();
+    }
+
+    public double getAverageRunMicros() {
+        long count = runs.get();
+        return count == 0 ? 0 : totalRunNanos.get() / 1_000.0 / count;
+    }
+
+    public double getLastRunMicros() {
+        return lastRunNanos / 1_000.0;
+    }
+
+    public double getMaxRunMicros() {
+        return maxRunNanos / 1_000.0;
+    }
+
+    /**
+     * Called from the ticker thread for each cycle due this tick.
+     */
+    public interface Handler {
+        void tick(BossBarCycle cycle, long nowMillis);
+    }
+}
@@ -0,0 +1,136 @@
+package org.simpmc.simppay.service.milestone;
+
+import org.simpmc.simppay.config.types.data.MilestoneConfig;
+import org.simpmc.simppay.data.milestone.MilestoneType;
+import org.simpmc.simppay.database.entities.MilestoneCompletion;
+import org.simpmc.simppay.util.PeriodWindow;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory milestone state: sorted thresholds per (scope, type) and completion bitsets per owner.
+ * <p>
+ * - Evaluating a payment is a binary search of the running total plus a scan of the unset bits below it, no queries
+ * - Completions are loaded from the database once (server on startup, players on join) and kept in memory afterwards
+ * - Timed milestones only count completions made in the current period, so they can be earned again next period
+ */
+public class MilestoneEvaluator {
+    private final ConcurrentHashMap<UUID, Map<MilestoneType, MilestoneProgress>> playerProgress = new ConcurrentHashMap<>();
+    private volatile Map<MilestoneType, MilestoneLadder> playerLadders = new EnumMap<>(MilestoneType.class);
+    private volatile Map<MilestoneType, MilestoneLadder> serverLadders = new EnumMap<>(MilestoneType.class);
+    private volatile Map<MilestoneType, MilestoneProgress> serverProgress;
+
+    /**
+     * Replaces the thresholds. Existing progress moves to the new ladders on its next evaluation.
+     */
+    public void setMilestones(Map<MilestoneType, List<MilestoneConfig>> playerMilestones, Map<MilestoneType, List<MilestoneConfig>> serverMilestones) {
+        playerLadders = buildLadders(playerMilestones);
+        serverLadders = buildLadders(serverMilestones);
+    }
+
+    public MilestoneLadder getPlayerLadder(MilestoneType type) {
+        return playerLadders.getOrDefault(type, MilestoneLadder.EMPTY);
+    }
+
+    public MilestoneLadder getServerLadder(MilestoneType type) {
+        return serverLadders.getOrDefault(type, MilestoneLadder.EMPTY);
+    }
+
+    public boolean isServerLoaded() {
+        return serverProgress != null;
+    }
+
+    public boolean isPlayerLoaded(UUID playerUUID) {
+        return playerProgress.containsKey(playerUUID);
+    }
+
+    /**
+     * Loads server completions, unless they are already loaded.
+     */
+    public synchronized void loadServer(List<MilestoneCompletion> completions, PeriodWindow window) {
+        if (serverProgress == null) {
+            serverProgress = buildProgress(serverLadders, completions, window);
+        }
+    }
+
+    /**
+     * Loads a player's completions, unless they are already loaded.
+     */
+    public void loadPlayer(UUID playerUUID, List<MilestoneCompletion> completions, PeriodWindow window) {
+        playerProgress.computeIfAbsent(playerUUID, k -> buildProgress(playerLadders, completions, window));
+    }
+
+    public void unloadPlayer(UUID playerUUID) {
+        playerProgress.remove(playerUUID);
+    }
+
+    /**
+     * @param total Server running total for the type's current period
+     * @return the server milestones completed by this total, empty if server completions are not loaded
+     */
+    public List<MilestoneConfig> advanceServer(MilestoneType type, long total, PeriodWindow window) {
+        Map<MilestoneType, MilestoneProgress> progress = serverProgress;
+        if (progress == null) {
+            return List.of();
+        }
+        return progress.get(type).advance(getServerLadder(type), total, periodStart(type, window));
+    }
+
+    /**
+     * @param total Player running total for the type's current period
+     * @return the player milestones completed by this total, empty if the player's completions are not loaded
+     */
+    public List<MilestoneConfig> advancePlayer(UUID playerUUID, MilestoneType type, long total, PeriodWindow window) {
+        Map<MilestoneType, MilestoneProgress> progress = playerProgress.get(playerUUID);
+        if (progress == null) {
+            return List.of();
+        }
+        return progress.get(type).advance(getPlayerLadder(type), total, periodStart(type, window));
+    }
+
+    public synchronized void clear() {
+        serverProgress = null;
+        playerProgress.clear();
+    }
+
+    /**
+     * @return start of the type's current period, 0 for all-time milestones
+     */
+    public static long periodStart(MilestoneType type, PeriodWindow window) {
+        return switch (type) {
+            case ALL -> 0L;
+            case DAILY -> window.getDayStart();
+            case WEEKLY -> window.getWeekStart();
+            case MONTHLY -> window.getMonthStart();
+            case YEARLY -> window.getYearStart();
+        };
+    }
+
+    private static Map<MilestoneType, MilestoneLadder> buildLadders(Map<MilestoneType, List<MilestoneConfig>> milestones) {
+        Map<MilestoneType, MilestoneLadder> ladders = new EnumMap<>(MilestoneType.class);
+        for (Map.Entry<MilestoneType, List<MilestoneConfig>> entry : milestones.entrySet()) {
+            ladders.put(entry.getKey(), new MilestoneLadder(entry.getValue()));
+        }
+        return ladders;
+    }
+
+    private static Map<MilestoneType, MilestoneProgress> buildProgress(Map<MilestoneType, MilestoneLadder> ladders,
+                                                                       List<MilestoneCompletion> completions, PeriodWindow window) {
+        Map<MilestoneType, MilestoneProgress> progress = new EnumMap<>(MilestoneType.class);
+        for (MilestoneType type : MilestoneType.values()) {
+            progress.put(type, new MilestoneProgress(ladders.getOrDefault(type, MilestoneLadder.EMPTY), periodStart(type, window)));
+        }
+        for (MilestoneCompletion completion : completions) {
+            MilestoneType type = completion.getMilestoneType();
+            // Completions from an earlier period no longer block timed milestones
+            if (completion.getCompletedAt().getTime() >= periodStart(type, window)) {
+                progress.get(type).markCompleted(completion.getMilestoneAmount());
+            }
+        }
+        return progress;
+    }
+}
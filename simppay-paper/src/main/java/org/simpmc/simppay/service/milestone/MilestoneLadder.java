@@ -0,0 +1,72 @@
+package org.simpmc.simppay.service.milestone;
+
+import org.simpmc.simppay.config.types.data.MilestoneConfig;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Milestones of one scope (player or server) and one period type, sorted by amount.
+ * Built once per config load; lookups are binary searches over a primitive array.
+ */
+public final class MilestoneLadder {
+    public static final MilestoneLadder EMPTY = new MilestoneLadder(List.of());
+
+    private final long[] amounts;
+    private final MilestoneConfig[] configs;
+
+    public MilestoneLadder(List<MilestoneConfig> milestones) {
+        this.configs = milestones.toArray(new MilestoneConfig[0]);
+        Arrays.sort(configs, Comparator.comparingLong(config -> config.amount));
+        this.amounts = new long[configs.length];
+        for (int i = 0; i < configs.length; i++) {
+            amounts[i] = configs[i].amount;
+        }
+    }
+
+    public int size() {
+        return amounts.length;
+    }
+
+    public long amount(int index) {
+        return amounts[index];
+    }
+
+    public MilestoneConfig config(int index) {
+        return configs[index];
+    }
+
+    /**
+     * @return the number of milestones reached by the total, which is also the index of the first unreached one
+     */
+    public int reachedCount(long total) {
+        int low = 0;
+        int high = amounts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (amounts[mid] <= total) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the index of the first milestone with exactly this amount, or -1 if there is none
+     */
+    public int indexOf(long amount) {
+        int index = reachedCount(amount - 1);
+        return index < amounts.length && amounts[index] == amount ? index : -1;
+    }
+
+    /**
+     * @return the lowest milestone above the total, or null if every milestone is reached
+     */
+    public MilestoneConfig next(long total) {
+        int index = reachedCount(total);
+        return index < configs.length ? configs[index] : null;
+    }
+}
@@ -0,0 +1,81 @@
+package org.simpmc.simppay.service.milestone;
+
+import org.simpmc.simppay.config.types.data.MilestoneConfig;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Completed milestones of one owner (a player or the server) for one period type, as a bitset over a {@link MilestoneLadder}.
+ * <p>
+ * - Bit i is set once the ladder's i-th milestone has been rewarded
+ * - Bits are cleared when the period the progress was counted in ends
+ * - When the ladder is rebuilt after a config reload, completed amounts are carried over to the new ladder
+ */
+public class MilestoneProgress {
+    private MilestoneLadder ladder;
+    private BitSet completed;
+    private long periodStart;
+
+    public MilestoneProgress(MilestoneLadder ladder, long periodStart) {
+        this.ladder = ladder;
+        this.completed = new BitSet(ladder.size());
+        this.periodStart = periodStart;
+    }
+
+    /**
+     * Marks every milestone with this amount as completed, for completions loaded from the database.
+     */
+    public synchronized void markCompleted(long amount) {
+        mark(ladder, completed, amount);
+    }
+
+    /**
+     * Completes every milestone the total has reached that is not completed yet.
+     *
+     * @param current            Current ladder for this scope and type
+     * @param total              Running total for the period
+     * @param currentPeriodStart Start of the current period, 0 for all-time milestones
+     * @return the newly completed milestones, lowest amount first
+     */
+    public synchronized List<MilestoneConfig> advance(MilestoneLadder current, long total, long currentPeriodStart) {
+        if (periodStart != currentPeriodStart) {
+            completed.clear();
+            periodStart = currentPeriodStart;
+        }
+        if (ladder != current) {
+            remap(current);
+        }
+        int reached = ladder.reachedCount(total);
+        List<MilestoneConfig> newlyCompleted = null;
+        for (int i = completed.nextClearBit(0); i < reached; i = completed.nextClearBit(i + 1)) {
+            completed.set(i);
+            if (newlyCompleted == null) {
+                newlyCompleted = new ArrayList<>();
+            }
+            newlyCompleted.add(ladder.config(i));
+        }
+        return newlyCompleted == null ? List.of() : newlyCompleted;
+    }
+
+    private void remap(MilestoneLadder current) {
+        BitSet remapped = new BitSet(current.size());
+        for (int i = completed.nextSetBit(0); i >= 0; i = completed.nextSetBit(i + 1)) {
+            mark(current, remapped, ladder.amount(i));
+        }
+        ladder = current;
+        completed = remapped;
+    }
+
+    private static void mark(MilestoneLadder ladder, BitSet bits, long amount) {
+        int index = ladder.indexOf(amount);
+        if (index < 0) {
+            return;
+        }
+        // Completions are stored by amount, so milestones sharing an amount complete together
+        while (index < ladder.size() && ladder.amount(index) == amount) {
+            bits.set(index++);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.simpmc.simppay.service.orderid;
+
+import org.simpmc.simppay.repository.OrderSequenceRepository;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Reserves order IDs from a sequence row in the shared database, so servers using the same PayOS account
+ * never hand out the same ID.
+ * <p>
+ * The local file is used as the floor of the sequence and raised after every block, so switching between
+ * file and database storage in either direction never goes back to IDs already sent to PayOS.
+ */
+public class DatabaseIdBlockSource implements IdBlockSource {
+    private final OrderSequenceRepository repository;
+    private final String sequenceName;
+    private final FileIdBlockSource local;
+
+    public DatabaseIdBlockSource(OrderSequenceRepository repository, String sequenceName, FileIdBlockSource local) {
+        this.repository = repository;
+        this.sequenceName = sequenceName;
+        this.local = local;
+    }
+
+    @Override
+    public long reserve(int size) throws IOException {
+        long first;
+        try {
+            first = repository.reserve(sequenceName, size, local.getCeiling());
+        } catch (SQLException e) {
+            throw new IOException("Could not reserve order IDs from the database", e);
+        }
+        local.raiseTo(first + size - 1);
+        return first;
+    }
+
+    @Override
+    public String getName() {
+        return "database";
+    }
+}
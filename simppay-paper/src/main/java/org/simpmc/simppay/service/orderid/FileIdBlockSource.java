@@ -0,0 +1,73 @@
+package org.simpmc.simppay.service.orderid;
+
+import org.simpmc.simppay.util.FileUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Keeps the highest reserved order ID in a small text file, the same {@code last_id.txt} older versions
+ * wrote the last used ID to.
+ * <p>
+ * Each reservation replaces the file with {@link FileUtil#writeAtomically}, so a crash leaves either the
+ * previous or the new value, never an empty or half-written file.
+ */
+public class FileIdBlockSource implements IdBlockSource {
+    private final Path path;
+    private long ceiling;
+
+    public FileIdBlockSource(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Reads the stored value. A missing file starts at zero.
+     *
+     * @throws IOException if the file exists but does not hold a number; starting over could reuse IDs
+     */
+    public synchronized long load() throws IOException {
+        if (!Files.exists(path)) {
+            ceiling = 0;
+            return ceiling;
+        }
+        String content = Files.readString(path, StandardCharsets.UTF_8).trim();
+        try {
+            ceiling = Long.parseLong(content);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid order ID in " + path.getFileName() + ": '" + content + "'", e);
+        }
+        return ceiling;
+    }
+
+    @Override
+    public synchronized long reserve(int size) throws IOException {
+        long first = ceiling + 1;
+        write(ceiling + size);
+        return first;
+    }
+
+    /**
+     * Moves the stored value up to {@code id} if it is lower, used to remember blocks reserved elsewhere.
+     */
+    public synchronized void raiseTo(long id) throws IOException {
+        if (id > ceiling) {
+            write(id);
+        }
+    }
+
+    public synchronized long getCeiling() {
+        return ceiling;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    private void write(long value) throws IOException {
+        FileUtil.writeAtomically(path, Long.toString(value).getBytes(StandardCharsets.UTF_8));
+        ceiling = value;
+    }
+}
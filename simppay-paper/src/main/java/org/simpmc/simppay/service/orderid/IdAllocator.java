@@ -0,0 +1,74 @@
+package org.simpmc.simppay.service.orderid;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out order IDs from a block reserved in an {@link IdBlockSource}.
+ * <p>
+ * Taking an ID is a single atomic increment; only the thread that finds the block used up reserves the
+ * next one, once per block. IDs left in a block when the server stops are skipped: the next start
+ * reserves a new block after the stored value.
+ */
+public class IdAllocator {
+    private final IdBlockSource source;
+    private final int blockSize;
+    private volatile Block block = new Block(0, 0);
+    private volatile long blocks;
+
+    public IdAllocator(IdBlockSource source, int blockSize) {
+        this.source = source;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public long next() throws IOException {
+        while (true) {
+            Block current = block;
+            long id = current.next.getAndIncrement();
+            if (id < current.end) {
+                return id;
+            }
+            refill(current);
+        }
+    }
+
+    /**
+     * @return IDs left in the current block
+     */
+    public long remaining() {
+        Block current = block;
+        return Math.max(0, current.end - current.next.get());
+    }
+
+    public long getBlocks() {
+        return blocks;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public String getSourceName() {
+        return source.getName();
+    }
+
+    private synchronized void refill(Block exhausted) throws IOException {
+        if (block != exhausted) {
+            // Another thread already reserved the next block
+            return;
+        }
+        long first = source.reserve(blockSize);
+        block = new Block(first, first + blockSize);
+        blocks++;
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long first, long end) {
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.simpmc.simppay.service.orderid;
+
+import java.io.IOException;
+
+/**
+ * Durable store of the highest order ID handed out, reserved a block at a time.
+ */
+public interface IdBlockSource {
+    /**
+     * Reserves the next {@code size} consecutive IDs. The reservation is on disk before this returns,
+     * so the IDs are never handed out again, even after a crash.
+     *
+     * @return the first ID of the block
+     */
+    long reserve(int size) throws IOException;
+
+    /**
+     * @return name shown in the stats
+     */
+    String getName();
+}
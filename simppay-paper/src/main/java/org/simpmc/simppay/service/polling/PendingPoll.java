@@ -0,0 +1,30 @@
+package org.simpmc.simppay.service.polling;
+
+import lombok.Getter;
+import org.simpmc.simppay.model.Payment;
+
+/**
+ * A payment waiting for its gateway to report a final status.
+ * Only changed while it is out of the {@link PollQueue}, so the queue order stays valid.
+ */
+@Getter
+public class PendingPoll {
+    private final Payment payment;
+    private final long deadline;
+    private long nextCheckAt;
+    private int attempt;
+
+    public PendingPoll(Payment payment, long deadline, long nextCheckAt) {
+        this.payment = payment;
+        this.deadline = deadline;
+        this.nextCheckAt = nextCheckAt;
+    }
+
+    /**
+     * Schedules the next check after a still-pending result, never later than the deadline.
+     */
+    public void reschedule(long now, PollBackoff backoff) {
+        nextCheckAt = Math.min(deadline, now + backoff.delayMillis(attempt));
+        attempt++;
+    }
+}
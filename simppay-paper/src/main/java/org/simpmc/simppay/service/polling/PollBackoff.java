@@ -0,0 +1,38 @@
+package org.simpmc.simppay.service.polling;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter for payment status checks.
+ * <p>
+ * - Attempt 0 waits the base interval, each further attempt doubles it up to the maximum
+ * - The delay is spread by +/- jitter so payments created together do not poll in lockstep
+ */
+public class PollBackoff {
+    private final long baseMillis;
+    private final long maxMillis;
+    private final double jitter;
+
+    /**
+     * @param jitter Fraction of the delay to spread by, 0.2 = +/-20%
+     */
+    public PollBackoff(long baseMillis, long maxMillis, double jitter) {
+        this.baseMillis = Math.max(1, baseMillis);
+        this.maxMillis = Math.max(this.baseMillis, maxMillis);
+        this.jitter = Math.max(0, Math.min(1, jitter));
+    }
+
+    public long delayMillis(int attempt) {
+        return delayMillis(attempt, ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param random Uniform value in [0, 1) picking the point within the jitter range
+     */
+    long delayMillis(int attempt, double random) {
+        // Shift is capped so the multiplication cannot overflow
+        long delay = Math.min(maxMillis, baseMillis << Math.min(Math.max(attempt, 0), 20));
+        double spread = 1 + jitter * (2 * random - 1);
+        return Math.max(1, Math.round(delay * spread));
+    }
+}
@@ -0,0 +1,53 @@
+package org.simpmc.simppay.service.polling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Pending payments ordered by their next check time, earliest first.
+ * A payment is out of the queue while it is being checked, so it is never polled twice at once.
+ */
+public class PollQueue {
+    private final PriorityQueue<PendingPoll> queue = new PriorityQueue<>(Comparator.comparingLong(PendingPoll::getNextCheckAt));
+
+    public synchronized void add(PendingPoll poll) {
+        queue.add(poll);
+    }
+
+    /**
+     * Removes and returns every payment due at now, earliest first.
+     */
+    public synchronized List<PendingPoll> pollDue(long now) {
+        List<PendingPoll> due = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().getNextCheckAt() <= now) {
+            due.add(queue.poll());
+        }
+        return due;
+    }
+
+    /**
+     * Removes and returns every queued payment matching the filter, due or not.
+     */
+    public synchronized List<PendingPoll> removeIf(Predicate<PendingPoll> filter) {
+        List<PendingPoll> removed = new ArrayList<>();
+        queue.removeIf(poll -> {
+            if (filter.test(poll)) {
+                removed.add(poll);
+                return true;
+            }
+            return false;
+        });
+        return removed;
+    }
+
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    public synchronized void clear() {
+        queue.clear();
+    }
+}
@@ -0,0 +1,62 @@
+package org.simpmc.simppay.service.webhook;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free queue with a fixed capacity, filled by many HTTP threads and drained by one consumer.
+ * A slot is reserved with a CAS on the size counter before the item is linked in, so producers never
+ * block and a full queue is rejected instead of growing.
+ */
+public class BoundedIngestQueue<T> {
+    private final Queue<T> items = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    public BoundedIngestQueue(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * @return false if the queue is full
+     */
+    public boolean offer(T item) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        items.offer(item);
+        return true;
+    }
+
+    /**
+     * Removes up to {@code max} items in arrival order.
+     */
+    public List<T> drain(int max) {
+        List<T> drained = new ArrayList<>(Math.min(max, Math.max(1, size.get())));
+        T item;
+        while (drained.size() < max && (item = items.poll()) != null) {
+            size.decrementAndGet();
+            drained.add(item);
+        }
+        return drained;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+}
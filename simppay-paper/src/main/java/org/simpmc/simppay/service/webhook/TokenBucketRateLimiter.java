@@ -0,0 +1,67 @@
+package org.simpmc.simppay.service.webhook;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token buckets: each key may burst up to {@code burst} requests and then
+ * {@code ratePerSecond} requests per second. A rate of 0 or less disables the limit.
+ */
+public class TokenBucketRateLimiter {
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final double ratePerNano;
+    private final double burst;
+
+    public TokenBucketRateLimiter(double ratePerSecond, int burst) {
+        this.ratePerNano = ratePerSecond / 1_000_000_000.0;
+        this.burst = Math.max(1, burst);
+    }
+
+    public boolean tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    boolean tryAcquire(String key, long nowNanos) {
+        if (ratePerNano <= 0) {
+            return true;
+        }
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(burst, nowNanos));
+        synchronized (bucket) {
+            bucket.tokens = Math.min(burst, bucket.tokens + (nowNanos - bucket.updatedAt) * ratePerNano);
+            bucket.updatedAt = nowNanos;
+            if (bucket.tokens < 1) {
+                return false;
+            }
+            bucket.tokens -= 1;
+            return true;
+        }
+    }
+
+    /**
+     * Forgets clients that have not sent anything for a while.
+     */
+    public void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    void evictIdle(long nowNanos) {
+        buckets.values().removeIf(bucket -> nowNanos - bucket.updatedAt > IDLE_NANOS);
+    }
+
+    public int trackedClients() {
+        return buckets.size();
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
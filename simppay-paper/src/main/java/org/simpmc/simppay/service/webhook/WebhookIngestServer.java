@@ -0,0 +1,417 @@
+package org.simpmc.simppay.service.webhook;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.simpmc.simppay.handler.banking.sepay.data.SepayWebhookPayload;
+import org.simpmc.simppay.util.GsonUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * HTTP front of the Sepay webhook: validates a request, stores the payload and acknowledges it.
+ * <p>
+ * - Requests are rate limited per IP, bodies above the size limit are refused before being read in full
+ * - The API key is compared in constant time
+ * - An accepted payload is appended to the spool file and put in a bounded queue under one lock, so the spool keeps
+ * the queue's order, then acknowledged; a full queue answers 503 so Sepay retries later
+ * - One consumer drains the queue in batches through {@link #dispatch}. A payload leaves the spool only once its batch
+ * was settled, so one acknowledged to Sepay is replayed if the server dies before it was handled
+ * - Settled lines are compacted away once they outnumber the unsettled ones, so the spool stays small under steady traffic
+ * - On start every spooled payload is queued again, those beyond the queue capacity wait in a backlog
+ * <p>
+ * Has no Bukkit dependency, so it can be load tested on its own.
+ */
+public class WebhookIngestServer {
+
+    public record Settings(int port, String webhookPath, String metricsPath, String apiKey, int maxBodyBytes,
+                           int queueCapacity, double rateLimitPerSecond, int rateLimitBurst) {
+    }
+
+    private record Ingested(long seq, SepayWebhookPayload payload, long receivedAtNanos) {
+    }
+
+    // Settled lines left in the spool before it is rewritten, at least; keeps rewrites rare at low volume
+    static final int COMPACT_MIN_LINES = 256;
+
+    private final Settings settings;
+    private final byte[] apiKey;
+    private final BoundedIngestQueue<Ingested> queue;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final WebhookSpool spool;
+    private final Object spoolLock = new Object();
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+    // Spooled payloads that were not settled yet, by sequence number in spool order; guarded by spoolLock
+    private final Map<Long, String> unsettledLines = new LinkedHashMap<>();
+    // Replayed payloads that did not fit in the queue; guarded by spoolLock
+    private final ArrayDeque<Ingested> backlog = new ArrayDeque<>();
+    // Guarded by spoolLock
+    private long nextSeq;
+    private int dispatchedUnsettled;
+    private int settledInSpool;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong ignored = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong unauthorized = new AtomicLong();
+    private final AtomicLong tooLarge = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+    private final AtomicLong queueFull = new AtomicLong();
+    private final AtomicLong spoolErrors = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong totalAckNanos = new AtomicLong();
+    private final AtomicLong totalDispatchDelayNanos = new AtomicLong();
+    private volatile long maxAckNanos;
+    private volatile long maxDispatchDelayNanos;
+    private volatile int replayed;
+    private HttpServer server;
+
+    public WebhookIngestServer(Settings settings, WebhookSpool spool) {
+        this.settings = settings;
+        this.apiKey = settings.apiKey().getBytes(StandardCharsets.UTF_8);
+        this.queue = new BoundedIngestQueue<>(settings.queueCapacity());
+        this.rateLimiter = new TokenBucketRateLimiter(settings.rateLimitPerSecond(), settings.rateLimitBurst());
+        this.spool = spool;
+    }
+
+    /**
+     * Queues the payloads left in the spool by the previous run, then starts listening.
+     *
+     * @throws IOException if the spool cannot be read; it is left untouched, since it may hold acknowledged payloads
+     */
+    public void start() throws IOException {
+        List<String> lines;
+        try {
+            lines = spool.readAll();
+        } catch (IOException e) {
+            throw new IOException("Could not read " + spool.getPath().getFileName() + ", left as is: " + e.getMessage(), e);
+        }
+        synchronized (spoolLock) {
+            long now = System.nanoTime();
+            for (String line : lines) {
+                SepayWebhookPayload payload;
+                try {
+                    payload = GsonUtil.gson.fromJson(line, SepayWebhookPayload.class);
+                } catch (JsonParseException e) {
+                    // A line cut short by a crash mid-append
+                    continue;
+                }
+                if (payload == null) {
+                    continue;
+                }
+                Ingested ingested = new Ingested(nextSeq++, payload, now);
+                unsettledLines.put(ingested.seq(), line);
+                if (!queue.offer(ingested)) {
+                    backlog.add(ingested);
+                }
+                replayed++;
+            }
+            try {
+                // Every replayed payload is queued or in the backlog before the old file is replaced
+                spool.rewrite(unsettledLines.values());
+            } catch (IOException e) {
+                // The old file is still in place and appended to, replayed payloads stay in it
+                spoolErrors.incrementAndGet();
+            }
+        }
+
+        server = HttpServer.create(new InetSocketAddress(settings.port()), 0);
+        server.createContext(settings.webhookPath(), this::handleWebhook);
+        server.createContext(settings.metricsPath(), this::handleMetrics);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests. Payloads still queued stay in the spool and are replayed on the next start.
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+        synchronized (spoolLock) {
+            spool.close();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Hands up to {@code max} queued payloads to {@code sink} in arrival order. Only one dispatch runs at a time.
+     * <p>
+     * The sink gets a callback to run once every payload of the batch was handled, which may be after it returned.
+     * Until then the batch stays in the spool.
+     *
+     * @return the number of payloads handed over
+     */
+    public int dispatch(int max, BiConsumer<List<SepayWebhookPayload>, Runnable> sink) {
+        if (!dispatching.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            List<Ingested> batch;
+            synchronized (spoolLock) {
+                batch = queue.drain(max);
+                dispatchedUnsettled += batch.size();
+                while (!backlog.isEmpty() && queue.offer(backlog.peek())) {
+                    backlog.poll();
+                }
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            long now = System.nanoTime();
+            List<SepayWebhookPayload> payloads = new ArrayList<>(batch.size());
+            List<Long> seqs = new ArrayList<>(batch.size());
+            for (Ingested ingested : batch) {
+                seqs.add(ingested.seq());
+                long delay = now - ingested.receivedAtNanos();
+                totalDispatchDelayNanos.addAndGet(delay);
+                if (delay > maxDispatchDelayNanos) {
+                    maxDispatchDelayNanos = delay;
+                }
+                payloads.add(ingested.payload());
+            }
+            AtomicBoolean settled = new AtomicBoolean();
+            sink.accept(payloads, () -> {
+                if (settled.compareAndSet(false, true)) {
+                    settle(seqs);
+                }
+            });
+            dispatched.addAndGet(payloads.size());
+            batches.incrementAndGet();
+            return payloads.size();
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    private void settle(List<Long> seqs) {
+        synchronized (spoolLock) {
+            for (Long seq : seqs) {
+                unsettledLines.remove(seq);
+            }
+            dispatchedUnsettled -= seqs.size();
+            settledInSpool += seqs.size();
+            try {
+                if (unsettledLines.isEmpty()) {
+                    spool.truncate();
+                    settledInSpool = 0;
+                } else if (settledInSpool >= Math.max(COMPACT_MIN_LINES, unsettledLines.size())) {
+                    // Each rewrite follows at least as many settles as lines it writes, and the file stays within twice the live lines
+                    spool.rewrite(unsettledLines.values());
+                    settledInSpool = 0;
+                }
+            } catch (IOException e) {
+                spoolErrors.incrementAndGet();
+            }
+        }
+    }
+
+    public void evictIdleClients() {
+        rateLimiter.evictIdle();
+    }
+
+    public int getReplayed() {
+        return replayed;
+    }
+
+    public long getSpoolErrors() {
+        return spoolErrors.get();
+    }
+
+    /**
+     * Constant-time comparison, so response timing does not reveal how much of a guessed key is right.
+     */
+    static boolean keyMatches(String provided, byte[] expected) {
+        return MessageDigest.isEqual(provided.getBytes(StandardCharsets.UTF_8), expected);
+    }
+
+    private void handleWebhook(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                sendResponse(exchange, 405, "{\"success\": false, \"error\": \"Method not allowed\"}");
+                return;
+            }
+            if (!rateLimiter.tryAcquire(exchange.getRemoteAddress().getAddress().getHostAddress())) {
+                rateLimited.incrementAndGet();
+                sendResponse(exchange, 429, "{\"success\": false, \"error\": \"Too many requests\"}");
+                return;
+            }
+            int status = authorize(exchange);
+            if (status == 401) {
+                sendResponse(exchange, 401, "{\"success\": false, \"error\": \"Unauthorized\"}");
+                return;
+            }
+            if (status == 403) {
+                sendResponse(exchange, 403, "{\"success\": false, \"error\": \"Forbidden\"}");
+                return;
+            }
+
+            byte[] body = readBody(exchange);
+            if (body == null) {
+                tooLarge.incrementAndGet();
+                sendResponse(exchange, 413, "{\"success\": false, \"error\": \"Payload too large\"}");
+                return;
+            }
+
+            SepayWebhookPayload payload;
+            try {
+                payload = GsonUtil.gson.fromJson(new String(body, StandardCharsets.UTF_8), SepayWebhookPayload.class);
+            } catch (JsonSyntaxException e) {
+                invalid.incrementAndGet();
+                sendResponse(exchange, 400, "{\"success\": false, \"error\": \"Invalid JSON\"}");
+                return;
+            }
+            if (payload == null) {
+                invalid.incrementAndGet();
+                sendResponse(exchange, 400, "{\"success\": false, \"error\": \"Invalid payload\"}");
+                return;
+            }
+            if (!payload.isIncomingTransfer()) {
+                ignored.incrementAndGet();
+                sendResponse(exchange, 200, "{\"success\": true, \"message\": \"Ignored non-incoming transfer\"}");
+                return;
+            }
+
+            boolean queued;
+            synchronized (spoolLock) {
+                String line = GsonUtil.gson.toJson(payload);
+                // Replayed payloads go first, they were acknowledged earlier
+                queued = backlog.isEmpty() && queue.offer(new Ingested(nextSeq, payload, start));
+                if (queued) {
+                    unsettledLines.put(nextSeq++, line);
+                    appendSpool(line);
+                }
+            }
+            if (!queued) {
+                queueFull.incrementAndGet();
+                sendResponse(exchange, 503, "{\"success\": false, \"error\": \"Queue full, retry later\"}");
+                return;
+            }
+            accepted.incrementAndGet();
+            sendResponse(exchange, 200, "{\"success\": true}");
+            recordAck(System.nanoTime() - start);
+        } catch (Exception e) {
+            sendResponse(exchange, 500, "{\"success\": false, \"error\": \"Internal server error\"}");
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+            sendResponse(exchange, 405, "{\"success\": false, \"error\": \"Method not allowed\"}");
+            return;
+        }
+        int status = authorize(exchange);
+        if (status != 200) {
+            sendResponse(exchange, status, "{\"success\": false, \"error\": \"Unauthorized\"}");
+            return;
+        }
+        sendResponse(exchange, 200, GsonUtil.gson.toJson(getStats()));
+    }
+
+    private int authorize(HttpExchange exchange) {
+        String authHeader = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Apikey") || authHeader.length() < 7) {
+            unauthorized.incrementAndGet();
+            return 401;
+        }
+        // Remove "Apikey " prefix
+        if (!keyMatches(authHeader.substring(7), apiKey)) {
+            unauthorized.incrementAndGet();
+            return 403;
+        }
+        return 200;
+    }
+
+    /**
+     * @return the body, or null if it is larger than the limit
+     */
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        int limit = settings.maxBodyBytes();
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength.trim()) > limit) {
+                    return null;
+                }
+            } catch (NumberFormatException ignored) {
+                // Chunked or malformed, the read below still enforces the limit
+            }
+        }
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(limit + 1);
+            return body.length > limit ? null : body;
+        }
+    }
+
+    private void appendSpool(String line) {
+        try {
+            spool.append(line);
+        } catch (IOException e) {
+            // Still queued in memory and written back by the next compaction, only lost if the server stops first
+            spoolErrors.incrementAndGet();
+        }
+    }
+
+    private void recordAck(long nanos) {
+        totalAckNanos.addAndGet(nanos);
+        if (nanos > maxAckNanos) {
+            maxAckNanos = nanos;
+        }
+    }
+
+    private static void sendResponse(HttpExchange exchange, int statusCode, String response) throws IOException {
+        byte[] responseBytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, responseBytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(responseBytes);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long acceptedCount = accepted.get();
+        long dispatchedCount = dispatched.get();
+        stats.put("queued", queue.size() + "/" + queue.capacity());
+        synchronized (spoolLock) {
+            stats.put("unsettled", dispatchedUnsettled);
+            stats.put("replay-backlog", backlog.size());
+        }
+        stats.put("accepted", acceptedCount);
+        stats.put("dispatched", dispatchedCount);
+        stats.put("batches", batches.get());
+        stats.put("ignored", ignored.get());
+        stats.put("rate-limited", rateLimited.get());
+        stats.put("unauthorized", unauthorized.get());
+        stats.put("too-large", tooLarge.get());
+        stats.put("invalid", invalid.get());
+        stats.put("queue-full", queueFull.get());
+        stats.put("spool-errors", spoolErrors.get());
+        stats.put("ack-avg-ms", String.format("%.2f", acceptedCount == 0 ? 0 : totalAckNanos.get() / (double) acceptedCount / 1_000_000));
+        stats.put("ack-max-ms", String.format("%.2f", maxAckNanos / 1_000_000.0));
+        stats.put("dispatch-delay-avg-ms", String.format("%.2f", dispatchedCount == 0 ? 0 : totalDispatchDelayNanos.get() / (double) dispatchedCount / 1_000_000));
+        stats.put("dispatch-delay-max-ms", String.format("%.2f", maxDispatchDelayNanos / 1_000_000.0));
+        stats.put("clients", rateLimiter.trackedClients());
+        return stats;
+    }
+}
@@ -0,0 +1,94 @@
+package org.simpmc.simppay.service.webhook;
+
+import org.simpmc.simppay.util.FileUtil;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Append-only file of accepted webhook payloads, one JSON object per line.
+ * Callers serialize access; the file is truncated once every spooled payload has been settled, and rewritten
+ * with the unsettled ones to drop settled lines before that.
+ */
+public class WebhookSpool {
+    private final Path path;
+    private BufferedWriter writer;
+
+    public WebhookSpool(Path path) {
+        this.path = path;
+    }
+
+    public List<String> readAll() throws IOException {
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+        // Decoded leniently: an append cut short mid-character only spoils its own line, which the caller skips
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8).lines()
+                .filter(line -> !line.isBlank())
+                .toList();
+    }
+
+    /**
+     * Opens the file for appending, keeping what it holds.
+     */
+    public void open() throws IOException {
+        open(StandardOpenOption.APPEND);
+    }
+
+    private void open(StandardOpenOption mode) throws IOException {
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, mode, StandardOpenOption.WRITE);
+    }
+
+    public void append(String line) throws IOException {
+        if (writer == null) {
+            return;
+        }
+        writer.write(line);
+        writer.newLine();
+        // Reaches the OS before the webhook is acknowledged, so it survives the server process dying
+        writer.flush();
+    }
+
+    public void truncate() throws IOException {
+        close();
+        open(StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Replaces the file with {@code lines} atomically, then keeps appending to it. If the rewrite fails the old
+     * file is left in place and appended to instead.
+     */
+    public void rewrite(Collection<String> lines) throws IOException {
+        close();
+        StringBuilder content = new StringBuilder();
+        for (String line : lines) {
+            content.append(line).append('\n');
+        }
+        try {
+            FileUtil.writeAtomically(path, content.toString().getBytes(StandardCharsets.UTF_8));
+        } finally {
+            open();
+        }
+    }
+
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+        }
+        writer = null;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,90 @@
+package org.simpmc.simppay.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Finds which of many reference codes occur in a text, in one pass over the text.
+ * <p>
+ * - Built once per set of codes, then each bank transfer description is scanned once whatever the number of codes
+ * - Matching ignores case, banks often upper-case transfer descriptions
+ */
+public class AhoCorasickMatcher {
+    private final Node root = new Node();
+
+    public AhoCorasickMatcher(Collection<String> patterns) {
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty()) {
+                continue;
+            }
+            Node node = root;
+            for (int i = 0; i < pattern.length(); i++) {
+                node = node.children.computeIfAbsent(Character.toUpperCase(pattern.charAt(i)), c -> new Node());
+            }
+            node.outputs.add(pattern);
+        }
+        buildFailureLinks();
+    }
+
+    public boolean isEmpty() {
+        return root.children.isEmpty();
+    }
+
+    /**
+     * @return every pattern found in the text, as given to the constructor, in order of first occurrence
+     */
+    public Set<String> findAll(CharSequence text) {
+        Set<String> found = new LinkedHashSet<>();
+        if (text == null) {
+            return found;
+        }
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toUpperCase(text.charAt(i));
+            while (node != root && !node.children.containsKey(c)) {
+                node = node.failure;
+            }
+            node = node.children.getOrDefault(c, root);
+            found.addAll(node.outputs);
+        }
+        return found;
+    }
+
+    private void buildFailureLinks() {
+        Queue<Node> queue = new ArrayDeque<>();
+        root.failure = root;
+        for (Node child : root.children.values()) {
+            child.failure = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                char c = entry.getKey();
+                Node child = entry.getValue();
+                Node fallback = node.failure;
+                while (fallback != root && !fallback.children.containsKey(c)) {
+                    fallback = fallback.failure;
+                }
+                Node target = fallback.children.get(c);
+                child.failure = target != null && target != child ? target : root;
+                // A match ending here also ends every pattern that is a suffix of it
+                child.outputs.addAll(child.failure.outputs);
+                queue.add(child);
+            }
+        }
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<String> outputs = new ArrayList<>(1);
+        private Node failure;
+    }
+}
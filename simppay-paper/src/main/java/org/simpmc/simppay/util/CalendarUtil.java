@@ -1,138 +1,89 @@
 package org.simpmc.simppay.util;
 
-import java.util.Calendar;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
 
 public class CalendarUtil {
-    // Get first day of the week (Monday), at 0h
-    public static long getFirstDayOfWeek(long timestamp) {
-        // Get the current date
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(timestamp);
-        calendar.setFirstDayOfWeek(Calendar.MONDAY);
+    // Zone every period boundary is computed in, set from MainConfig#timezone by PeriodService
+    private static volatile ZoneId zone = ZoneId.systemDefault();
 
+    public static ZoneId getZone() {
+        return zone;
+    }
 
-        // Set the time to the first day of the week (Monday)
-        calendar.set(Calendar.DAY_OF_WEEK, Calendar.MONDAY);
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
+    public static void setZone(ZoneId zone) {
+        CalendarUtil.zone = zone;
+    }
 
-        return calendar.getTimeInMillis();
+    // Get first day of the week (Monday), at 0h
+    public static long getFirstDayOfWeek(long timestamp) {
+        return startOf(weekStart(dayOf(timestamp, zone)), zone);
     }
 
     // Get first day of the month, at 0h
     public static long getFirstDayOfMonth(long timestamp) {
-        // Get the current date
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(timestamp);
-
-        // Set the time to the first day of the month
-        calendar.set(Calendar.DAY_OF_MONTH, 1);
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-
-        return calendar.getTimeInMillis();
+        return startOf(dayOf(timestamp, zone).withDayOfMonth(1), zone);
     }
 
     // Get first day of the year, at 0h
     public static long getFirstDayOfYear(long timestamp) {
-        // Get the current date
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(timestamp);
-
-        // Set the time to the first day of the year
-        calendar.set(Calendar.DAY_OF_YEAR, 1);
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-
-        return calendar.getTimeInMillis();
+        return startOf(dayOf(timestamp, zone).withDayOfYear(1), zone);
     }
 
     // get 0h of the day
     public static long getFirstHourOfDay(long timestamp) {
-        // Get the current date
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(timestamp);
-
-        // Set the time to the first hour of the day
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-
-        return calendar.getTimeInMillis();
+        return startOf(dayOf(timestamp, zone), zone);
     }
 
     public static long getLastDayOfWeek(long timestamp) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(timestamp);
-        calendar.setFirstDayOfWeek(Calendar.MONDAY);
-
-        // Set to the last day of the week (Sunday)
-        calendar.set(Calendar.DAY_OF_WEEK, Calendar.SUNDAY);
-        calendar.set(Calendar.HOUR_OF_DAY, 23);
-        calendar.set(Calendar.MINUTE, 59);
-        calendar.set(Calendar.SECOND, 59);
-        calendar.set(Calendar.MILLISECOND, 999);
-
-        return calendar.getTimeInMillis();
+        return startOf(weekStart(dayOf(timestamp, zone)).plusWeeks(1), zone) - 1;
     }
 
     public static long getLastDayOfMonth(long timestamp) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(timestamp);
-
-        // Set to the last day of the month
-        calendar.set(Calendar.DAY_OF_MONTH, calendar.getActualMaximum(Calendar.DAY_OF_MONTH));
-        calendar.set(Calendar.HOUR_OF_DAY, 23);
-        calendar.set(Calendar.MINUTE, 59);
-        calendar.set(Calendar.SECOND, 59);
-        calendar.set(Calendar.MILLISECOND, 999);
-
-        return calendar.getTimeInMillis();
+        return startOf(dayOf(timestamp, zone).withDayOfMonth(1).plusMonths(1), zone) - 1;
     }
 
     public static long getLastDayOfYear(long timestamp) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(timestamp);
-
-        // Set to the last day of the year
-        calendar.set(Calendar.DAY_OF_YEAR, calendar.getActualMaximum(Calendar.DAY_OF_YEAR));
-        calendar.set(Calendar.HOUR_OF_DAY, 23);
-        calendar.set(Calendar.MINUTE, 59);
-        calendar.set(Calendar.SECOND, 59);
-        calendar.set(Calendar.MILLISECOND, 999);
-
-        return calendar.getTimeInMillis();
+        return startOf(dayOf(timestamp, zone).withDayOfYear(1).plusYears(1), zone) - 1;
     }
 
     public static long getLastHourOfDay(long timestamp) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(timestamp);
+        return startOf(dayOf(timestamp, zone).plusDays(1), zone) - 1;
+    }
+
+    /**
+     * @return the local date of the timestamp in the zone
+     */
+    public static LocalDate dayOf(long timestamp, ZoneId zone) {
+        return Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate();
+    }
 
-        // Set to the last hour of the day
-        calendar.set(Calendar.HOUR_OF_DAY, 23);
-        calendar.set(Calendar.MINUTE, 59);
-        calendar.set(Calendar.SECOND, 59);
-        calendar.set(Calendar.MILLISECOND, 999);
+    /**
+     * @return epoch millis of the first instant of the day in the zone (not always 0h on DST days)
+     */
+    public static long startOf(LocalDate day, ZoneId zone) {
+        return day.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
 
-        return calendar.getTimeInMillis();
+    /**
+     * @return the Monday of the week containing the day
+     */
+    public static LocalDate weekStart(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
     }
 
     public static String getFormattedTimestamp(long timestamp) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(timestamp);
+        ZonedDateTime time = Instant.ofEpochMilli(timestamp).atZone(zone);
         return String.format("%02d/%02d/%04d %02d:%02d:%02d",
-                calendar.get(Calendar.DAY_OF_MONTH),
-                calendar.get(Calendar.MONTH) + 1, // Months are 0-based
-                calendar.get(Calendar.YEAR),
-                calendar.get(Calendar.HOUR_OF_DAY),
-                calendar.get(Calendar.MINUTE),
-                calendar.get(Calendar.SECOND));
+                time.getDayOfMonth(),
+                time.getMonthValue(),
+                time.getYear(),
+                time.getHour(),
+                time.getMinute(),
+                time.getSecond());
     }
 }
@@ -0,0 +1,14 @@
+package org.simpmc.simppay.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.simpmc.simppay.SPPlugin;
+
+public class EventUtil {
+    /**
+     * Fires a synchronous event on the next tick, for events raised from gateway or database threads.
+     */
+    public static void callSync(Event event) {
+        SPPlugin.getInstance().getFoliaLib().getScheduler().runNextTick(task -> Bukkit.getPluginManager().callEvent(event));
+    }
+}
@@ -21,6 +21,11 @@ import java.util.Locale;
 import java.util.UUID;
 
 public class MessageUtil {
+    // Built once; the per-player PlaceholderAPI tag is passed to each deserialize call instead
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.builder()
+            .tags(StandardTags.defaults())
+            .build();
+
     public static void sendMessage(Player player, String message) {
         taskMessage(message, player);
     }
@@ -42,31 +47,15 @@ public class MessageUtil {
     }
 
     public static Component getComponentParsed(String message, Player player) {
-        MiniMessage mm = MiniMessage.builder()
-                .tags(TagResolver.builder()
-                        .resolver(StandardTags.defaults())
-                        .resolver(papiTag(player))
-                        .build()
-                )
-                .build();
-
-        Component s = mm.deserialize(message);
-        return s;
+        return MINI_MESSAGE.deserialize(message, papiTag(player));
     }
 
     private static void taskMessage(String message, Player player) {
         SPPlugin.getInstance().getFoliaLib().getScheduler().runAtEntity(player, task -> {
             MessageConfig messageConfig = ConfigManager.getInstance().getConfig(MessageConfig.class);
-            MiniMessage mm = MiniMessage.builder()
-                    .tags(TagResolver.builder()
-                            .resolver(StandardTags.defaults())
-                            .resolver(papiTag(player))
-                            .build()
-                    )
-                    .build();
-
-            Component s = mm.deserialize(message);
-            Component prefix = mm.deserialize(messageConfig.prefix);
+            TagResolver papi = papiTag(player);
+            Component s = MINI_MESSAGE.deserialize(message, papi);
+            Component prefix = MINI_MESSAGE.deserialize(messageConfig.prefix, papi);
             player.sendMessage(prefix.append(s));
         });
     }
@@ -0,0 +1,67 @@
+package org.simpmc.simppay.util;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Immutable start / end boundaries of the day, week, month and year containing a reference time.
+ * The current window is computed once and reused until the day ends, so hot paths can compare
+ * period boundaries without touching {@link java.util.Calendar}.
+ */
+@Getter
+public final class PeriodWindow {
+    private static volatile PeriodWindow current;
+
+    private final ZoneId zone;
+    private final long dayStart;
+    private final long dayEnd;
+    private final long weekStart;
+    private final long weekEnd;
+    private final long monthStart;
+    private final long monthEnd;
+    private final long yearStart;
+    private final long yearEnd;
+
+    private PeriodWindow(long timestamp, ZoneId zone) {
+        LocalDate day = CalendarUtil.dayOf(timestamp, zone);
+        LocalDate week = CalendarUtil.weekStart(day);
+        LocalDate month = day.withDayOfMonth(1);
+        LocalDate year = day.withDayOfYear(1);
+        this.zone = zone;
+        this.dayStart = CalendarUtil.startOf(day, zone);
+        this.dayEnd = CalendarUtil.startOf(day.plusDays(1), zone) - 1;
+        this.weekStart = CalendarUtil.startOf(week, zone);
+        this.weekEnd = CalendarUtil.startOf(week.plusWeeks(1), zone) - 1;
+        this.monthStart = CalendarUtil.startOf(month, zone);
+        this.monthEnd = CalendarUtil.startOf(month.plusMonths(1), zone) - 1;
+        this.yearStart = CalendarUtil.startOf(year, zone);
+        this.yearEnd = CalendarUtil.startOf(year.plusYears(1), zone) - 1;
+    }
+
+    public static PeriodWindow of(long timestamp) {
+        return new PeriodWindow(timestamp, CalendarUtil.getZone());
+    }
+
+    public static PeriodWindow of(long timestamp, ZoneId zone) {
+        return new PeriodWindow(timestamp, zone);
+    }
+
+    /**
+     * @return the window containing now, recomputed only when the cached day has passed or the zone changed
+     */
+    public static PeriodWindow current() {
+        long now = System.currentTimeMillis();
+        PeriodWindow window = current;
+        if (window == null || !window.containsDay(now) || window.zone != CalendarUtil.getZone()) {
+            window = new PeriodWindow(now, CalendarUtil.getZone());
+            current = window;
+        }
+        return window;
+    }
+
+    public boolean containsDay(long timestamp) {
+        return timestamp >= dayStart && timestamp <= dayEnd;
+    }
+}
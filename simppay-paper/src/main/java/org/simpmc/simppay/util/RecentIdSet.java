@@ -0,0 +1,37 @@
+package org.simpmc.simppay.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the most recent ids, evicting the oldest once the capacity is reached.
+ * Used to never process the same gateway transaction twice while it is still listed by the gateway.
+ */
+public class RecentIdSet {
+    private final Map<String, Boolean> ids;
+
+    public RecentIdSet(int capacity) {
+        int max = Math.max(1, capacity);
+        this.ids = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    /**
+     * @return true if the id was not seen before
+     */
+    public synchronized boolean add(String id) {
+        return ids.put(id, Boolean.TRUE) == null;
+    }
+
+    public synchronized boolean contains(String id) {
+        return ids.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+}
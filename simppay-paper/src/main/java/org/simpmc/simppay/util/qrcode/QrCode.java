@@ -0,0 +1,530 @@
+/*
+ * Adapted from the QR Code generator library (Java)
+ *
+ * Copyright (c) Project Nayuki. (MIT License)
+ * https://www.nayuki.io/page/qr-code-generator-library
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * - The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ * - The Software is provided "as is", without warranty of any kind, express or
+ *   implied, including but not limited to the warranties of merchantability,
+ *   fitness for a particular purpose and noninfringement. In no event shall the
+ *   authors or copyright holders be liable for any claim, damages or other
+ *   liability, whether in an action of contract, tort or otherwise, arising from,
+ *   out of or in connection with the Software or the use or other dealings in the
+ *   Software.
+ */
+
+package org.simpmc.simppay.util.qrcode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal QR code encoder (ISO/IEC 18004, byte mode only), enough for bank transfer payloads.
+ * Picks the smallest version that fits, adds Reed-Solomon error correction and the mask with the lowest penalty.
+ * <p>
+ * Trimmed down from Project Nayuki's QR Code generator library, see the notice above and THIRD_PARTY_NOTICES.md.
+ */
+public final class QrCode {
+
+    public enum Ecc {
+        L(1), M(0), Q(3), H(2);
+
+        private final int formatBits;
+
+        Ecc(int formatBits) {
+            this.formatBits = formatBits;
+        }
+    }
+
+    private static final int MIN_VERSION = 1;
+    private static final int MAX_VERSION = 40;
+
+    // Indexed by [ecc.ordinal()][version], from the standard's tables 9 and 13-22
+    private static final int[][] ECC_CODEWORDS_PER_BLOCK = {
+            {-1, 7, 10, 15, 20, 26, 18, 20, 24, 30, 18, 20, 24, 26, 30, 22, 24, 28, 30, 28, 28, 28, 28, 30, 30, 26, 28, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30},
+            {-1, 10, 16, 26, 18, 24, 16, 18, 22, 22, 26, 30, 22, 22, 24, 24, 28, 28, 26, 26, 26, 26, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28},
+            {-1, 13, 22, 18, 26, 18, 24, 18, 22, 20, 24, 28, 26, 24, 20, 30, 24, 28, 28, 26, 30, 28, 30, 30, 30, 30, 28, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30},
+            {-1, 17, 28, 22, 16, 22, 28, 26, 26, 24, 28, 24, 28, 22, 24, 24, 30, 28, 28, 26, 28, 30, 24, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30},
+    };
+    private static final int[][] NUM_ERROR_CORRECTION_BLOCKS = {
+            {-1, 1, 1, 1, 1, 1, 2, 2, 2, 2, 4, 4, 4, 4, 4, 6, 6, 6, 6, 7, 8, 8, 9, 9, 10, 12, 12, 12, 13, 14, 15, 16, 17, 18, 19, 19, 20, 21, 22, 24, 25},
+            {-1, 1, 1, 1, 2, 2, 4, 4, 4, 5, 5, 5, 8, 9, 9, 10, 10, 11, 13, 14, 16, 17, 17, 18, 20, 21, 23, 25, 26, 28, 29, 31, 33, 35, 37, 38, 40, 43, 45, 47, 49},
+            {-1, 1, 1, 2, 2, 4, 4, 6, 6, 8, 8, 8, 10, 12, 16, 12, 17, 16, 18, 21, 20, 23, 23, 25, 27, 29, 34, 34, 35, 38, 40, 43, 45, 48, 51, 53, 56, 59, 62, 65, 68},
+            {-1, 1, 1, 2, 4, 4, 4, 5, 6, 8, 8, 11, 11, 16, 16, 18, 16, 19, 21, 25, 25, 25, 34, 30, 32, 35, 37, 40, 42, 45, 48, 51, 54, 57, 60, 63, 66, 70, 74, 77, 81},
+    };
+
+    private static final int PENALTY_N1 = 3;
+    private static final int PENALTY_N2 = 3;
+    private static final int PENALTY_N3 = 40;
+    private static final int PENALTY_N4 = 10;
+
+    private final int version;
+    private final int size;
+    private final Ecc ecc;
+    private final boolean[][] modules;
+    private final boolean[][] isFunction;
+    private int mask;
+
+    public static QrCode encodeText(String text, Ecc ecc) {
+        return encode(text.getBytes(StandardCharsets.UTF_8), ecc);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the data does not fit in a version 40 symbol
+     */
+    public static QrCode encode(byte[] data, Ecc ecc) {
+        int version = MIN_VERSION;
+        int capacityBits;
+        int usedBits;
+        while (true) {
+            capacityBits = numDataCodewords(version, ecc) * 8;
+            usedBits = 4 + charCountBits(version) + data.length * 8;
+            if (usedBits <= capacityBits) {
+                break;
+            }
+            if (++version > MAX_VERSION) {
+                throw new IllegalArgumentException("Data too long for a QR code: " + data.length + " bytes");
+            }
+        }
+
+        byte[] codewords = new byte[capacityBits / 8];
+        BitWriter bits = new BitWriter(codewords);
+        bits.append(0b0100, 4);
+        bits.append(data.length, charCountBits(version));
+        for (byte b : data) {
+            bits.append(b & 0xFF, 8);
+        }
+        bits.append(0, Math.min(4, capacityBits - bits.length));
+        bits.append(0, (8 - bits.length % 8) % 8);
+        for (int pad = 0xEC; bits.length < capacityBits; pad ^= 0xEC ^ 0x11) {
+            bits.append(pad, 8);
+        }
+        return new QrCode(version, ecc, codewords);
+    }
+
+    private QrCode(int version, Ecc ecc, byte[] dataCodewords) {
+        this.version = version;
+        this.ecc = ecc;
+        this.size = version * 4 + 17;
+        this.modules = new boolean[size][size];
+        this.isFunction = new boolean[size][size];
+
+        drawFunctionPatterns();
+        drawCodewords(addEccAndInterleave(dataCodewords));
+
+        int bestMask = 0;
+        int minPenalty = Integer.MAX_VALUE;
+        for (int m = 0; m < 8; m++) {
+            applyMask(m);
+            drawFormatBits(m);
+            int penalty = penaltyScore();
+            if (penalty < minPenalty) {
+                bestMask = m;
+                minPenalty = penalty;
+            }
+            applyMask(m); // XOR again to undo
+        }
+        mask = bestMask;
+        applyMask(mask);
+        drawFormatBits(mask);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Ecc getEcc() {
+        return ecc;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    public boolean isDark(int x, int y) {
+        return modules[y][x];
+    }
+
+    // ---- Function patterns ----
+
+    private void drawFunctionPatterns() {
+        for (int i = 0; i < size; i++) {
+            setFunctionModule(6, i, i % 2 == 0);
+            setFunctionModule(i, 6, i % 2 == 0);
+        }
+
+        drawFinderPattern(3, 3);
+        drawFinderPattern(size - 4, 3);
+        drawFinderPattern(3, size - 4);
+
+        int[] alignPositions = alignmentPatternPositions();
+        int last = alignPositions.length - 1;
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j <= last; j++) {
+                // Skip the three corners taken by finder patterns
+                if (!(i == 0 && j == 0 || i == 0 && j == last || i == last && j == 0)) {
+                    drawAlignmentPattern(alignPositions[i], alignPositions[j]);
+                }
+            }
+        }
+
+        // Reserve the format areas now, the real bits are drawn once the mask is chosen
+        drawFormatBits(0);
+        drawVersion();
+    }
+
+    private void drawFormatBits(int mask) {
+        int data = ecc.formatBits << 3 | mask;
+        int rem = data;
+        for (int i = 0; i < 10; i++) {
+            rem = (rem << 1) ^ ((rem >>> 9) * 0x537);
+        }
+        int bits = (data << 10 | rem) ^ 0x5412;
+
+        for (int i = 0; i <= 5; i++) {
+            setFunctionModule(8, i, bit(bits, i));
+        }
+        setFunctionModule(8, 7, bit(bits, 6));
+        setFunctionModule(8, 8, bit(bits, 7));
+        setFunctionModule(7, 8, bit(bits, 8));
+        for (int i = 9; i < 15; i++) {
+            setFunctionModule(14 - i, 8, bit(bits, i));
+        }
+
+        for (int i = 0; i < 8; i++) {
+            setFunctionModule(size - 1 - i, 8, bit(bits, i));
+        }
+        for (int i = 8; i < 15; i++) {
+            setFunctionModule(8, size - 15 + i, bit(bits, i));
+        }
+        setFunctionModule(8, size - 8, true); // Always dark
+    }
+
+    private void drawVersion() {
+        if (version < 7) {
+            return;
+        }
+        int rem = version;
+        for (int i = 0; i < 12; i++) {
+            rem = (rem << 1) ^ ((rem >>> 11) * 0x1F25);
+        }
+        int bits = version << 12 | rem;
+        for (int i = 0; i < 18; i++) {
+            boolean dark = bit(bits, i);
+            int a = size - 11 + i % 3;
+            int b = i / 3;
+            setFunctionModule(a, b, dark);
+            setFunctionModule(b, a, dark);
+        }
+    }
+
+    private void drawFinderPattern(int x, int y) {
+        for (int dy = -4; dy <= 4; dy++) {
+            for (int dx = -4; dx <= 4; dx++) {
+                int dist = Math.max(Math.abs(dx), Math.abs(dy));
+                int xx = x + dx;
+                int yy = y + dy;
+                if (0 <= xx && xx < size && 0 <= yy && yy < size) {
+                    setFunctionModule(xx, yy, dist != 2 && dist != 4);
+                }
+            }
+        }
+    }
+
+    private void drawAlignmentPattern(int x, int y) {
+        for (int dy = -2; dy <= 2; dy++) {
+            for (int dx = -2; dx <= 2; dx++) {
+                setFunctionModule(x + dx, y + dy, Math.max(Math.abs(dx), Math.abs(dy)) != 1);
+            }
+        }
+    }
+
+    private void setFunctionModule(int x, int y, boolean dark) {
+        modules[y][x] = dark;
+        isFunction[y][x] = true;
+    }
+
+    private int[] alignmentPatternPositions() {
+        if (version == 1) {
+            return new int[0];
+        }
+        int numAlign = version / 7 + 2;
+        int step = (version * 8 + numAlign * 3 + 5) / (numAlign * 4 - 4) * 2;
+        int[] result = new int[numAlign];
+        result[0] = 6;
+        for (int i = result.length - 1, pos = size - 7; i >= 1; i--, pos -= step) {
+            result[i] = pos;
+        }
+        return result;
+    }
+
+    // ---- Codewords ----
+
+    private byte[] addEccAndInterleave(byte[] data) {
+        int numBlocks = NUM_ERROR_CORRECTION_BLOCKS[ecc.ordinal()][version];
+        int blockEccLen = ECC_CODEWORDS_PER_BLOCK[ecc.ordinal()][version];
+        int rawCodewords = numRawDataModules(version) / 8;
+        int numShortBlocks = numBlocks - rawCodewords % numBlocks;
+        int shortBlockLen = rawCodewords / numBlocks;
+
+        byte[][] blocks = new byte[numBlocks][];
+        byte[] divisor = reedSolomonDivisor(blockEccLen);
+        for (int i = 0, k = 0; i < numBlocks; i++) {
+            int dataLen = shortBlockLen - blockEccLen + (i < numShortBlocks ? 0 : 1);
+            byte[] dat = Arrays.copyOfRange(data, k, k + dataLen);
+            k += dataLen;
+            byte[] block = Arrays.copyOf(dat, shortBlockLen + 1);
+            // Short blocks keep a dummy byte at dataLen so every block has the same layout
+            byte[] eccBytes = reedSolomonRemainder(dat, divisor);
+            System.arraycopy(eccBytes, 0, block, block.length - blockEccLen, blockEccLen);
+            blocks[i] = block;
+        }
+
+        byte[] result = new byte[rawCodewords];
+        int n = 0;
+        for (int i = 0; i < blocks[0].length; i++) {
+            for (int j = 0; j < blocks.length; j++) {
+                if (i != shortBlockLen - blockEccLen || j >= numShortBlocks) {
+                    result[n++] = blocks[j][i];
+                }
+            }
+        }
+        return result;
+    }
+
+    private void drawCodewords(byte[] data) {
+        int i = 0;
+        int totalBits = data.length * 8;
+        for (int right = size - 1; right >= 1; right -= 2) {
+            if (right == 6) {
+                right = 5; // Skip the vertical timing pattern
+            }
+            for (int vert = 0; vert < size; vert++) {
+                for (int j = 0; j < 2; j++) {
+                    int x = right - j;
+                    boolean upward = ((right + 1) & 2) == 0;
+                    int y = upward ? size - 1 - vert : vert;
+                    if (!isFunction[y][x] && i < totalBits) {
+                        modules[y][x] = bit(data[i >>> 3], 7 - (i & 7));
+                        i++;
+                    }
+                }
+            }
+        }
+    }
+
+    private void applyMask(int mask) {
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                boolean invert = switch (mask) {
+                    case 0 -> (x + y) % 2 == 0;
+                    case 1 -> y % 2 == 0;
+                    case 2 -> x % 3 == 0;
+                    case 3 -> (x + y) % 3 == 0;
+                    case 4 -> (x / 3 + y / 2) % 2 == 0;
+                    case 5 -> x * y % 2 + x * y % 3 == 0;
+                    case 6 -> (x * y % 2 + x * y % 3) % 2 == 0;
+                    case 7 -> ((x + y) % 2 + x * y % 3) % 2 == 0;
+                    default -> throw new IllegalArgumentException("Invalid mask: " + mask);
+                };
+                modules[y][x] ^= invert & !isFunction[y][x];
+            }
+        }
+    }
+
+    // ---- Mask penalty ----
+
+    private int penaltyScore() {
+        int result = 0;
+
+        for (int y = 0; y < size; y++) {
+            boolean runColor = false;
+            int runLength = 0;
+            int[] runHistory = new int[7];
+            for (int x = 0; x < size; x++) {
+                if (modules[y][x] == runColor) {
+                    runLength++;
+                    if (runLength == 5) {
+                        result += PENALTY_N1;
+                    } else if (runLength > 5) {
+                        result++;
+                    }
+                } else {
+                    finderPenaltyAddHistory(runLength, runHistory);
+                    if (!runColor) {
+                        result += finderPenaltyCountPatterns(runHistory) * PENALTY_N3;
+                    }
+                    runColor = modules[y][x];
+                    runLength = 1;
+                }
+            }
+            result += finderPenaltyTerminateAndCount(runColor, runLength, runHistory) * PENALTY_N3;
+        }
+
+        for (int x = 0; x < size; x++) {
+            boolean runColor = false;
+            int runLength = 0;
+            int[] runHistory = new int[7];
+            for (int y = 0; y < size; y++) {
+                if (modules[y][x] == runColor) {
+                    runLength++;
+                    if (runLength == 5) {
+                        result += PENALTY_N1;
+                    } else if (runLength > 5) {
+                        result++;
+                    }
+                } else {
+                    finderPenaltyAddHistory(runLength, runHistory);
+                    if (!runColor) {
+                        result += finderPenaltyCountPatterns(runHistory) * PENALTY_N3;
+                    }
+                    runColor = modules[y][x];
+                    runLength = 1;
+                }
+            }
+            result += finderPenaltyTerminateAndCount(runColor, runLength, runHistory) * PENALTY_N3;
+        }
+
+        for (int y = 0; y < size - 1; y++) {
+            for (int x = 0; x < size - 1; x++) {
+                boolean color = modules[y][x];
+                if (color == modules[y][x + 1] && color == modules[y + 1][x] && color == modules[y + 1][x + 1]) {
+                    result += PENALTY_N2;
+                }
+            }
+        }
+
+        int dark = 0;
+        for (boolean[] row : modules) {
+            for (boolean module : row) {
+                if (module) {
+                    dark++;
+                }
+            }
+        }
+        int total = size * size;
+        int k = (Math.abs(dark * 20 - total * 10) + total - 1) / total - 1;
+        result += k * PENALTY_N4;
+        return result;
+    }
+
+    private int finderPenaltyCountPatterns(int[] runHistory) {
+        int n = runHistory[1];
+        boolean core = n > 0 && runHistory[2] == n && runHistory[3] == n * 3 && runHistory[4] == n && runHistory[5] == n;
+        return (core && runHistory[0] >= n * 4 && runHistory[6] >= n ? 1 : 0)
+                + (core && runHistory[6] >= n * 4 && runHistory[0] >= n ? 1 : 0);
+    }
+
+    private int finderPenaltyTerminateAndCount(boolean currentRunColor, int currentRunLength, int[] runHistory) {
+        if (currentRunColor) {
+            finderPenaltyAddHistory(currentRunLength, runHistory);
+            currentRunLength = 0;
+        }
+        currentRunLength += size; // Light border past the edge
+        finderPenaltyAddHistory(currentRunLength, runHistory);
+        return finderPenaltyCountPatterns(runHistory);
+    }
+
+    private void finderPenaltyAddHistory(int currentRunLength, int[] runHistory) {
+        if (runHistory[0] == 0) {
+            currentRunLength += size; // Light border before the edge
+        }
+        System.arraycopy(runHistory, 0, runHistory, 1, runHistory.length - 1);
+        runHistory[0] = currentRunLength;
+    }
+
+    // ---- Tables and Reed-Solomon ----
+
+    private static int charCountBits(int version) {
+        return version <= 9 ? 8 : 16;
+    }
+
+    private static int numRawDataModules(int version) {
+        int result = (16 * version + 128) * version + 64;
+        if (version >= 2) {
+            int numAlign = version / 7 + 2;
+            result -= (25 * numAlign - 10) * numAlign - 55;
+            if (version >= 7) {
+                result -= 36;
+            }
+        }
+        return result;
+    }
+
+    private static int numDataCodewords(int version, Ecc ecc) {
+        return numRawDataModules(version) / 8
+                - ECC_CODEWORDS_PER_BLOCK[ecc.ordinal()][version] * NUM_ERROR_CORRECTION_BLOCKS[ecc.ordinal()][version];
+    }
+
+    private static byte[] reedSolomonDivisor(int degree) {
+        byte[] result = new byte[degree];
+        result[degree - 1] = 1;
+        int root = 1;
+        for (int i = 0; i < degree; i++) {
+            for (int j = 0; j < result.length; j++) {
+                result[j] = (byte) gfMultiply(result[j] & 0xFF, root);
+                if (j + 1 < result.length) {
+                    result[j] ^= result[j + 1];
+                }
+            }
+            root = gfMultiply(root, 0x02);
+        }
+        return result;
+    }
+
+    private static byte[] reedSolomonRemainder(byte[] data, byte[] divisor) {
+        byte[] result = new byte[divisor.length];
+        for (byte b : data) {
+            int factor = (b ^ result[0]) & 0xFF;
+            System.arraycopy(result, 1, result, 0, result.length - 1);
+            result[result.length - 1] = 0;
+            for (int i = 0; i < result.length; i++) {
+                result[i] ^= (byte) gfMultiply(divisor[i] & 0xFF, factor);
+            }
+        }
+        return result;
+    }
+
+    // Multiplication in GF(2^8) modulo x^8 + x^4 + x^3 + x^2 + 1
+    private static int gfMultiply(int x, int y) {
+        int z = 0;
+        for (int i = 7; i >= 0; i--) {
+            z = (z << 1) ^ ((z >>> 7) * 0x11D);
+            z ^= ((y >>> i) & 1) * x;
+        }
+        return z;
+    }
+
+    private static boolean bit(int x, int i) {
+        return ((x >>> i) & 1) != 0;
+    }
+
+    private static final class BitWriter {
+        private final byte[] out;
+        private int length;
+
+        BitWriter(byte[] out) {
+            this.out = out;
+        }
+
+        void append(int value, int count) {
+            for (int i = count - 1; i >= 0; i--, length++) {
+                if (((value >>> i) & 1) != 0) {
+                    out[length >>> 3] |= (byte) (0x80 >>> (length & 7));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.simpmc.simppay.util.qrcode;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Draws QR codes straight into 128x128 map colour bytes, as sent by {@link MapQR} and {@link ItemFrameQR}.
+ * <p>
+ * - Modules map to precomputed palette indices, no image decoding or colour matching
+ * - Each module row is drawn once and copied for every pixel row of its height
+ * - The last rendered payloads are cached, so re-showing a pending payment's QR costs a copy
+ */
+public final class QrMapRenderer {
+    public static final int MAP_SIZE = 128;
+
+    // Map colour ids are base colour * 4 + shade: SNOW at full brightness, COLOR_BLACK at its darkest shade
+    private static final byte LIGHT = 34;
+    private static final byte DARK = 119;
+
+    private static final int QUIET_ZONE = 4;
+    private static final int CACHE_SIZE = 32;
+
+    private static final Map<String, byte[]> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private QrMapRenderer() {
+    }
+
+    /**
+     * Encodes the payload at error correction level M and renders it.
+     *
+     * @return a new 128x128 array the caller may keep
+     */
+    public static byte[] render(String payload) {
+        byte[] cached;
+        synchronized (CACHE) {
+            cached = CACHE.get(payload);
+        }
+        if (cached == null) {
+            cached = render(QrCode.encodeText(payload, QrCode.Ecc.M));
+            synchronized (CACHE) {
+                CACHE.put(payload, cached);
+            }
+        }
+        return cached.clone();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the symbol is wider than the map
+     */
+    public static byte[] render(QrCode qr) {
+        int size = qr.getSize();
+        if (size > MAP_SIZE) {
+            throw new IllegalArgumentException("QR code of " + size + " modules does not fit on a map");
+        }
+        // Largest whole-pixel scale that keeps the quiet zone, or at least one pixel per module
+        int scale = Math.max(1, MAP_SIZE / (size + QUIET_ZONE * 2));
+        int offset = (MAP_SIZE - size * scale) / 2;
+
+        byte[] mapBytes = new byte[MAP_SIZE * MAP_SIZE];
+        Arrays.fill(mapBytes, LIGHT);
+        byte[] row = new byte[MAP_SIZE];
+        for (int y = 0; y < size; y++) {
+            Arrays.fill(row, LIGHT);
+            for (int x = 0; x < size; x++) {
+                if (qr.isDark(x, y)) {
+                    int start = offset + x * scale;
+                    Arrays.fill(row, start, start + scale, DARK);
+                }
+            }
+            int top = offset + y * scale;
+            for (int dy = 0; dy < scale; dy++) {
+                System.arraycopy(row, 0, mapBytes, (top + dy) * MAP_SIZE, MAP_SIZE);
+            }
+        }
+        return mapBytes;
+    }
+}
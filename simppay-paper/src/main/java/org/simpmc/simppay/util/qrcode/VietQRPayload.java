@@ -0,0 +1,108 @@
+package org.simpmc.simppay.util.qrcode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds VietQR (NAPAS, EMVCo merchant-presented) payloads for bank transfers, the same string banking apps
+ * scan from a qr.sepay.vn or img.vietqr.io image.
+ * <p>
+ * Everything up to the amount only depends on the bank and account, so that header is kept in a small LRU cache
+ * and each payment only appends the amount, description and CRC.
+ */
+public final class VietQRPayload {
+    private static final String NAPAS_GUID = "A000000727";
+    private static final String SERVICE_TRANSFER_TO_ACCOUNT = "QRIBFTTA";
+    private static final String CURRENCY_VND = "704";
+    private static final String COUNTRY_VN = "VN";
+    private static final int HEADER_CACHE_SIZE = 16;
+
+    private static final Map<String, String> HEADERS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > HEADER_CACHE_SIZE;
+        }
+    };
+
+    private VietQRPayload() {
+    }
+
+    /**
+     * @param bin           bank BIN (6 digits)
+     * @param accountNumber beneficiary account number
+     * @param amount        amount in VND, 0 to let the payer type it
+     * @param description   transfer content, usually the payment's reference code
+     */
+    public static String build(String bin, String accountNumber, long amount, String description) {
+        StringBuilder payload = new StringBuilder(160);
+        payload.append(header(bin, accountNumber));
+        if (amount > 0) {
+            appendField(payload, "54", Long.toString(amount));
+        }
+        appendField(payload, "58", COUNTRY_VN);
+        if (description != null && !description.isEmpty()) {
+            StringBuilder additional = new StringBuilder();
+            appendField(additional, "08", description);
+            appendField(payload, "62", additional);
+        }
+        payload.append("6304");
+        String crc = Integer.toHexString(crc16(payload.toString().getBytes(StandardCharsets.UTF_8)) | 0x10000).substring(1);
+        return payload.append(crc.toUpperCase()).toString();
+    }
+
+    private static String header(String bin, String accountNumber) {
+        String key = bin + ':' + accountNumber;
+        synchronized (HEADERS) {
+            String header = HEADERS.get(key);
+            if (header == null) {
+                header = buildHeader(bin, accountNumber);
+                HEADERS.put(key, header);
+            }
+            return header;
+        }
+    }
+
+    private static String buildHeader(String bin, String accountNumber) {
+        StringBuilder beneficiary = new StringBuilder();
+        appendField(beneficiary, "00", bin);
+        appendField(beneficiary, "01", accountNumber);
+
+        StringBuilder merchantAccount = new StringBuilder();
+        appendField(merchantAccount, "00", NAPAS_GUID);
+        appendField(merchantAccount, "01", beneficiary);
+        appendField(merchantAccount, "02", SERVICE_TRANSFER_TO_ACCOUNT);
+
+        StringBuilder header = new StringBuilder();
+        appendField(header, "00", "01"); // Payload format indicator
+        appendField(header, "01", "12"); // Dynamic QR, used once per payment
+        appendField(header, "38", merchantAccount);
+        appendField(header, "53", CURRENCY_VND);
+        return header.toString();
+    }
+
+    private static void appendField(StringBuilder out, String id, CharSequence value) {
+        if (value.length() > 99) {
+            throw new IllegalArgumentException("VietQR field " + id + " is longer than 99 characters");
+        }
+        out.append(id);
+        if (value.length() < 10) {
+            out.append('0');
+        }
+        out.append(value.length()).append(value);
+    }
+
+    /**
+     * CRC-16/CCITT-FALSE (polynomial 0x1021, initial value 0xFFFF), as required by EMVCo for field 63.
+     */
+    static int crc16(byte[] data) {
+        int crc = 0xFFFF;
+        for (byte b : data) {
+            crc ^= (b & 0xFF) << 8;
+            for (int i = 0; i < 8; i++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+            }
+        }
+        return crc & 0xFFFF;
+    }
+}
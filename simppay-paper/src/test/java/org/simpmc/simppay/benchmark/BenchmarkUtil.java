@@ -0,0 +1,42 @@
+package org.simpmc.simppay.benchmark;
+
+/**
+ * Minimal timing helpers shared by the benchmark suites (run via the "benchmark" Gradle task).
+ */
+public final class BenchmarkUtil {
+
+    private static volatile long sink;
+
+    private BenchmarkUtil() {
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs the task a few times to warm up, then returns the average wall time of {@code iterations} runs.
+     */
+    public static double averageMillis(int iterations, ThrowingRunnable task) throws Exception {
+        for (int i = 0; i < Math.max(3, iterations / 4); i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    }
+
+    /**
+     * Keeps the JIT from eliminating benchmarked work.
+     */
+    public static void consume(long value) {
+        sink += value;
+    }
+
+    public static void consume(Object value) {
+        sink += value == null ? 0 : value.hashCode();
+    }
+}
@@ -0,0 +1,59 @@
+package org.simpmc.simppay.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.service.cache.RankedIndex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares sorting a player -> amount map per leaderboard read with the {@link RankedIndex} used by the
+ * leaderboard engine, for top-10 reads, single rank lookups and payment updates.
+ * Run with: ./gradlew :simppay-paper:benchmark -Dsimppay.bench.players=10000,100000
+ */
+@Tag("benchmark")
+class LeaderboardBenchmark {
+
+    private static final int ITERATIONS = 200;
+
+    @Test
+    void topAndRank() throws Exception {
+        String sizes = System.getProperty("simppay.bench.players", "1000,10000,100000");
+        System.out.printf("%-10s %16s %16s %16s %16s %16s%n", "players", "sort top10 ms", "index top10 ms", "sort rank ms",
+                "index rank ms", "index update us");
+
+        for (String size : sizes.split(",")) {
+            int players = Integer.parseInt(size.trim());
+            Map<UUID, Long> totals = new ConcurrentHashMap<>();
+            List<UUID> ids = new ArrayList<>(players);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < players; i++) {
+                UUID id = UUID.randomUUID();
+                ids.add(id);
+                totals.put(id, 10_000L * (1 + random.nextInt(10_000)));
+            }
+            RankedIndex index = new RankedIndex();
+            index.replaceAll(totals);
+            UUID probe = ids.get(players / 2);
+
+            double sortTop = BenchmarkUtil.averageMillis(ITERATIONS, () -> BenchmarkUtil.consume(
+                    totals.entrySet().stream().sorted(Map.Entry.<UUID, Long>comparingByValue(Comparator.reverseOrder())).limit(10).toList()));
+            double indexTop = BenchmarkUtil.averageMillis(ITERATIONS, () -> BenchmarkUtil.consume(index.top(10)));
+            double sortRank = BenchmarkUtil.averageMillis(ITERATIONS, () -> {
+                long score = totals.get(probe);
+                BenchmarkUtil.consume(totals.values().stream().filter(v -> v > score).count());
+            });
+            double indexRank = BenchmarkUtil.averageMillis(ITERATIONS, () -> BenchmarkUtil.consume(index.rank(probe)));
+            double update = BenchmarkUtil.averageMillis(ITERATIONS * 10, () ->
+                    BenchmarkUtil.consume(index.add(ids.get(ThreadLocalRandom.current().nextInt(players)), 10_000)));
+
+            System.out.printf("%-10d %16.4f %16.4f %16.4f %16.4f %16.3f%n", players, sortTop, indexTop, sortRank, indexRank, update * 1000);
+        }
+    }
+}
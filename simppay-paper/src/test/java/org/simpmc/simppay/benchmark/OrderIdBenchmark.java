@@ -0,0 +1,79 @@
+package org.simpmc.simppay.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.service.orderid.FileIdBlockSource;
+import org.simpmc.simppay.service.orderid.IdAllocator;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares order ID throughput of the old allocator, which rewrote last_id.txt on every call, with block
+ * allocation, which fsyncs once per block, with several gateway threads asking for IDs at once.
+ * Run with: ./gradlew :simppay-paper:benchmark -Dsimppay.bench.ids=20000 -Dsimppay.bench.threads=8
+ */
+@Tag("benchmark")
+class OrderIdBenchmark {
+
+    @Test
+    void idsPerSecond() throws Exception {
+        int ids = Integer.getInteger("simppay.bench.ids", 20_000);
+        int threads = Integer.getInteger("simppay.bench.threads", 8);
+        int blockSize = Integer.getInteger("simppay.bench.blockSize", 100);
+        Path dir = Files.createTempDirectory("simppay-orderid");
+
+        Path legacyFile = dir.resolve("legacy_id.txt");
+        AtomicLong counter = new AtomicLong();
+        double legacy = run(ids, threads, () -> {
+            long next = counter.incrementAndGet();
+            try (Writer w = new OutputStreamWriter(new FileOutputStream(legacyFile.toFile(), false), StandardCharsets.UTF_8)) {
+                w.write(Long.toString(counter.get()));
+            }
+            return next;
+        });
+
+        FileIdBlockSource source = new FileIdBlockSource(dir.resolve("last_id.txt"));
+        source.load();
+        IdAllocator allocator = new IdAllocator(source, blockSize);
+        double blocks = run(ids, threads, allocator::next);
+
+        System.out.printf("rewrite per id (no fsync): %,.0f ids/s%n", legacy);
+        System.out.printf("block of %d (fsync per block): %,.0f ids/s, %d blocks%n", blockSize, blocks, allocator.getBlocks());
+    }
+
+    private static double run(int ids, int threads, IdSupplier supplier) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int perThread = ids / threads;
+        long start = System.nanoTime();
+        Future<?>[] workers = new Future<?>[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = executor.submit(() -> {
+                for (int n = 0; n < perThread; n++) {
+                    BenchmarkUtil.consume(supplier.next());
+                }
+                return null;
+            });
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        return perThread * threads / (elapsed / 1_000_000_000.0);
+    }
+
+    @FunctionalInterface
+    private interface IdSupplier {
+        long next() throws IOException;
+    }
+}
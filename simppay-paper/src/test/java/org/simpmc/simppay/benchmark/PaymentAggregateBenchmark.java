@@ -0,0 +1,82 @@
+package org.simpmc.simppay.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.database.entities.BankingPayment;
+import org.simpmc.simppay.database.entities.CardPayment;
+import org.simpmc.simppay.database.entities.SPPlayer;
+import org.simpmc.simppay.repository.PaymentAggregateRepository;
+import org.simpmc.simppay.repository.PaymentSummaryRepository;
+import org.simpmc.simppay.testutil.H2TestDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the old entity-loading totals with the SQL aggregates over the raw tables and over
+ * payment_daily_summary as the payment tables grow.
+ * Run with: ./gradlew :simppay-paper:benchmark -Dsimppay.bench.sizes=10000,100000,500000
+ */
+@Tag("benchmark")
+class PaymentAggregateBenchmark {
+
+    private static final int PLAYERS = 500;
+    private static final int ITERATIONS = 20;
+
+    @Test
+    void serverAndPlayerTotals() throws Exception {
+        String sizes = System.getProperty("simppay.bench.sizes", "10000,50000,200000");
+        System.out.printf("%-10s %18s %18s %18s %18s %18s%n", "rows", "legacy server ms", "sql server ms", "sql player ms",
+                "summary server ms", "summary player ms");
+
+        for (String size : sizes.split(",")) {
+            int rows = Integer.parseInt(size.trim());
+            try (H2TestDatabase db = new H2TestDatabase()) {
+                List<SPPlayer> players = seed(db, rows);
+                PaymentAggregateRepository repository = new PaymentAggregateRepository(db.bankDao, db.cardDao);
+                long now = System.currentTimeMillis();
+                SPPlayer probe = players.get(0);
+
+                double legacy = BenchmarkUtil.averageMillis(ITERATIONS, () -> {
+                    double total = db.bankDao.queryForAll().stream().mapToDouble(BankingPayment::getAmount).sum()
+                            + db.cardDao.queryForAll().stream().mapToDouble(CardPayment::getAmount).sum();
+                    BenchmarkUtil.consume((long) total);
+                });
+                double server = BenchmarkUtil.averageMillis(ITERATIONS, () -> BenchmarkUtil.consume(repository.queryTotals(null, now).getTotal()));
+                double player = BenchmarkUtil.averageMillis(ITERATIONS, () -> BenchmarkUtil.consume(repository.queryTotals(probe.getUuid(), now).getTotal()));
+
+                PaymentSummaryRepository summaries = new PaymentSummaryRepository(db.getConnectionSource(), db.summaryDao, db.summaryStateDao, db.bankDao, db.cardDao);
+                summaries.rebuild();
+                double summaryServer = BenchmarkUtil.averageMillis(ITERATIONS, () -> BenchmarkUtil.consume(summaries.queryTotals(null, now).getTotal()));
+                double summaryPlayer = BenchmarkUtil.averageMillis(ITERATIONS, () -> BenchmarkUtil.consume(summaries.queryTotals(probe.getUuid(), now).getTotal()));
+
+                System.out.printf("%-10d %18.3f %18.3f %18.3f %18.3f %18.3f%n", rows, legacy, server, player, summaryServer, summaryPlayer);
+            }
+        }
+    }
+
+    private static List<SPPlayer> seed(H2TestDatabase db, int rows) throws Exception {
+        List<SPPlayer> players = new ArrayList<>(PLAYERS);
+        for (int i = 0; i < PLAYERS; i++) {
+            players.add(db.addPlayer("player" + i));
+        }
+        long now = System.currentTimeMillis();
+        long threeYears = 3L * 365 * 24 * 60 * 60 * 1000;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        db.bankDao.callBatchTasks(() -> {
+            for (int i = 0; i < rows; i++) {
+                SPPlayer player = players.get(random.nextInt(PLAYERS));
+                long timestamp = now - random.nextLong(threeYears);
+                double amount = 10_000 * (1 + random.nextInt(50));
+                if ((i & 1) == 0) {
+                    db.addBank(player, amount, timestamp);
+                } else {
+                    db.addCard(player, amount, timestamp);
+                }
+            }
+            return null;
+        });
+        return players;
+    }
+}
@@ -0,0 +1,81 @@
+package org.simpmc.simppay.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.data.card.CardPrice;
+import org.simpmc.simppay.data.card.CardType;
+import org.simpmc.simppay.model.Payment;
+import org.simpmc.simppay.model.detail.CardDetail;
+import org.simpmc.simppay.service.journal.JournalEntry;
+import org.simpmc.simppay.service.journal.PaymentJournal;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Measures what journaling adds to sendCard: the CREATED and PENDING appends on the calling thread, and the
+ * group fsync and compaction check the timer runs every tick, compared with forcing the file after every append.
+ * Run with: ./gradlew :simppay-paper:benchmark -Dsimppay.bench.payments=20000
+ */
+@Tag("benchmark")
+class PaymentJournalBenchmark {
+
+    @Test
+    void appendLatency() throws Exception {
+        int payments = Integer.getInteger("simppay.bench.payments", 20_000);
+        Path dir = Files.createTempDirectory("simppay-journal");
+
+        try (PaymentJournal journal = new PaymentJournal(dir, 1024 * 1024)) {
+            journal.open();
+            // Warm up Gson's reflective adapters and the JIT
+            for (int i = 0; i < 2_000; i++) {
+                Payment payment = card(i);
+                journal.append(JournalEntry.of(JournalEntry.State.PENDING, payment));
+                journal.append(JournalEntry.finished(JournalEntry.State.FAILED, payment.getPaymentID()));
+            }
+            long[] appendNanos = new long[payments];
+            long syncNanos = 0;
+            for (int i = 0; i < payments; i++) {
+                Payment payment = card(i);
+                long start = System.nanoTime();
+                journal.append(JournalEntry.of(JournalEntry.State.CREATED, payment));
+                journal.append(JournalEntry.of(JournalEntry.State.PENDING, payment));
+                appendNanos[i] = System.nanoTime() - start;
+                journal.append(JournalEntry.finished(JournalEntry.State.SUCCESS, payment.getPaymentID()));
+                // One group sync per 20 payments, about what one 50 ms tick sees on a busy server
+                if (i % 20 == 19) {
+                    long syncStart = System.nanoTime();
+                    journal.sync();
+                    journal.compactIfNeeded(0.75);
+                    syncNanos += System.nanoTime() - syncStart;
+                }
+            }
+            Arrays.sort(appendNanos);
+            System.out.printf("journal %d payments: append avg %.2f us, p99 %.2f us, max %.2f us; group sync + compaction check avg %.2f ms; %d compactions%n",
+                    payments, Arrays.stream(appendNanos).average().orElse(0) / 1000.0,
+                    appendNanos[(int) (payments * 0.99)] / 1000.0, appendNanos[payments - 1] / 1000.0,
+                    syncNanos / 1_000_000.0 / Math.max(1, payments / 20), journal.getCompactions());
+
+            int forced = Math.min(payments, 500);
+            double perAppendSync = BenchmarkUtil.averageMillis(forced, () -> {
+                Payment payment = card(0);
+                journal.append(JournalEntry.of(JournalEntry.State.CREATED, payment));
+                journal.sync();
+                journal.append(JournalEntry.finished(JournalEntry.State.FAILED, payment.getPaymentID()));
+            });
+            System.out.printf("journal fsync per append: %.3f ms per payment%n", perAppendSync);
+        }
+    }
+
+    private static Payment card(int i) {
+        CardDetail detail = CardDetail.builder()
+                .pin("pin-" + i)
+                .serial("serial-" + i)
+                .price(CardPrice._50K)
+                .type(CardType.VIETTEL)
+                .build();
+        return new Payment(UUID.randomUUID(), UUID.randomUUID(), detail);
+    }
+}
@@ -0,0 +1,142 @@
+package org.simpmc.simppay.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.data.PaymentStatus;
+import org.simpmc.simppay.service.executor.BoundedExecutor;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures server tick times while players submit cards to a deliberately slow local gateway.
+ * <p>
+ * A simulated 20 TPS main thread submits a payment every few ticks, either the old way (waiting on the gateway
+ * future on the tick thread) or the new way (completing on the gateway executor and handing the result back
+ * through a task queue, like runAtEntity).
+ * Run with: ./gradlew :simppay-paper:benchmark -Dsimppay.bench.gatewayDelayMs=800 -Dsimppay.bench.ticks=100
+ */
+@Tag("benchmark")
+class PaymentSubmitTickBenchmark {
+
+    private static final long TICK_NANOS = 50_000_000L;
+    private static final String PENDING_RESPONSE = "{\"status\":99,\"message\":\"Pending\"}";
+
+    @Test
+    void tickTimesWithSlowGateway() throws Exception {
+        int delayMs = Integer.getInteger("simppay.bench.gatewayDelayMs", 800);
+        int ticks = Integer.getInteger("simppay.bench.ticks", 100);
+        int submitEvery = Integer.getInteger("simppay.bench.submitEveryTicks", 5);
+
+        HttpServer gateway = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        gateway.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        gateway.createContext("/chargingws/v2", exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = PENDING_RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        gateway.start();
+
+        URI uri = URI.create("http://127.0.0.1:" + gateway.getAddress().getPort() + "/chargingws/v2");
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            for (boolean blocking : new boolean[]{true, false}) {
+                BoundedExecutor executor = new BoundedExecutor("gateway-io", 16, 256, true);
+                Result result = runTicks(client, uri, executor, blocking, ticks, submitEvery);
+                System.out.printf("%-9s gateway %d ms, %d ticks: tick avg %.2f ms, p99 %.2f ms, max %.2f ms, %d/%d results delivered%n",
+                        blocking ? "blocking" : "async", delayMs, ticks, result.avgMs, result.p99Ms, result.maxMs,
+                        result.delivered, result.submitted);
+                executor.shutdown(2000);
+            }
+        } finally {
+            gateway.stop(0);
+        }
+    }
+
+    private static Result runTicks(HttpClient client, URI uri, BoundedExecutor executor, boolean blocking,
+                                   int ticks, int submitEvery) throws Exception {
+        // Stands in for the scheduler's per-player task queue
+        Queue<Runnable> mainThreadTasks = new ConcurrentLinkedQueue<>();
+        AtomicInteger delivered = new AtomicInteger();
+        int submitted = 0;
+        long[] tickNanos = new long[ticks];
+
+        for (int tick = 0; tick < ticks; tick++) {
+            long start = System.nanoTime();
+            Runnable task;
+            while ((task = mainThreadTasks.poll()) != null) {
+                task.run();
+            }
+            if (tick % submitEvery == 0) {
+                submitted++;
+                CompletableFuture<PaymentStatus> status = submit(client, uri, executor);
+                if (blocking) {
+                    BenchmarkUtil.consume(status.get());
+                    delivered.incrementAndGet();
+                } else {
+                    status.thenAccept(value -> mainThreadTasks.add(() -> {
+                        BenchmarkUtil.consume(value);
+                        delivered.incrementAndGet();
+                    }));
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            tickNanos[tick] = elapsed;
+            if (elapsed < TICK_NANOS) {
+                Thread.sleep((TICK_NANOS - elapsed) / 1_000_000);
+            }
+        }
+        // Let the last answers arrive, they are not part of the tick times
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (delivered.get() < submitted && System.nanoTime() < deadline) {
+            Runnable task;
+            while ((task = mainThreadTasks.poll()) != null) {
+                task.run();
+            }
+            Thread.sleep(10);
+        }
+
+        long total = 0;
+        for (long nanos : tickNanos) {
+            total += nanos;
+        }
+        Arrays.sort(tickNanos);
+        return new Result(total / 1_000_000.0 / ticks, tickNanos[(int) (ticks * 0.99)] / 1_000_000.0,
+                tickNanos[ticks - 1] / 1_000_000.0, submitted, delivered.get());
+    }
+
+    /**
+     * Same shape as a card handler: blocking HTTP call on the gateway executor, response mapped to a status.
+     */
+    private static CompletableFuture<PaymentStatus> submit(HttpClient client, URI uri, BoundedExecutor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .POST(HttpRequest.BodyPublishers.ofString("telco=VIETTEL&command=charging"))
+                        .build();
+                return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }, executor).thenApply(body -> body.contains("\"status\":99") ? PaymentStatus.PENDING : PaymentStatus.FAILED);
+    }
+
+    private record Result(double avgMs, double p99Ms, double maxMs, int submitted, int delivered) {
+    }
+}
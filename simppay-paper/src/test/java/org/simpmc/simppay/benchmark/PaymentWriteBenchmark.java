@@ -0,0 +1,98 @@
+package org.simpmc.simppay.benchmark;
+
+import com.j256.ormlite.misc.TransactionManager;
+import com.j256.ormlite.support.DatabaseConnection;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.database.entities.BankingPayment;
+import org.simpmc.simppay.database.entities.SPPlayer;
+import org.simpmc.simppay.handler.data.BankAPI;
+import org.simpmc.simppay.repository.PaymentBatchWriter;
+import org.simpmc.simppay.repository.PaymentSummaryRepository;
+import org.simpmc.simppay.testutil.H2TestDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compares writing payments one transaction each (createOrUpdate + summary upsert, the old per-payment task)
+ * with the write-behind batches (JDBC batch insert + grouped summary upserts in one transaction).
+ * Run with: ./gradlew :simppay-paper:benchmark -Dsimppay.bench.payments=5000 -Dsimppay.bench.batch=200
+ */
+@Tag("benchmark")
+class PaymentWriteBenchmark {
+
+    private static final int PLAYERS = 200;
+
+    @Test
+    void perRowVersusBatched() throws Exception {
+        int payments = Integer.getInteger("simppay.bench.payments", 5_000);
+        int batchSize = Integer.getInteger("simppay.bench.batch", 200);
+
+        double perRow;
+        try (H2TestDatabase db = new H2TestDatabase()) {
+            List<BankingPayment> rows = generate(db, payments);
+            PaymentSummaryRepository summaries = summaries(db);
+            long start = System.nanoTime();
+            for (BankingPayment payment : rows) {
+                TransactionManager.callInTransaction(db.getConnectionSource(), () -> {
+                    if (db.bankDao.createOrUpdate(payment).isCreated()) {
+                        summaries.record(payment.getPlayer().getUuid(), payment.getTimestamp(), PaymentType.BANKING, payment.getAmount(), 1);
+                    }
+                    return null;
+                });
+            }
+            perRow = (System.nanoTime() - start) / 1_000_000.0;
+        }
+
+        double batched;
+        try (H2TestDatabase db = new H2TestDatabase()) {
+            List<BankingPayment> rows = generate(db, payments);
+            PaymentSummaryRepository summaries = summaries(db);
+            long start = System.nanoTime();
+            for (int i = 0; i < rows.size(); i += batchSize) {
+                List<BankingPayment> batch = rows.subList(i, Math.min(rows.size(), i + batchSize));
+                TransactionManager.callInTransaction(db.getConnectionSource(), () -> {
+                    DatabaseConnection connection = db.getConnectionSource().getReadWriteConnection("banking_payments");
+                    try {
+                        PaymentBatchWriter.insertBanking(connection.getUnderlyingConnection(), batch);
+                    } finally {
+                        db.getConnectionSource().releaseConnection(connection);
+                    }
+                    summaries.recordBatch(batch, List.of());
+                    return null;
+                });
+            }
+            batched = (System.nanoTime() - start) / 1_000_000.0;
+        }
+
+        System.out.printf("%d payments: per-row %.1f ms (%.0f/s), batches of %d %.1f ms (%.0f/s)%n",
+                payments, perRow, payments / perRow * 1000, batchSize, batched, payments / batched * 1000);
+    }
+
+    private static PaymentSummaryRepository summaries(H2TestDatabase db) {
+        return new PaymentSummaryRepository(db.getConnectionSource(), db.summaryDao, db.summaryStateDao, db.bankDao, db.cardDao);
+    }
+
+    private static List<BankingPayment> generate(H2TestDatabase db, int payments) throws Exception {
+        List<SPPlayer> players = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            players.add(db.addPlayer("player" + i));
+        }
+        long now = System.currentTimeMillis();
+        List<BankingPayment> rows = new ArrayList<>(payments);
+        for (int i = 0; i < payments; i++) {
+            BankingPayment payment = new BankingPayment();
+            payment.setPaymentID(UUID.randomUUID());
+            payment.setPlayer(new SPPlayer(players.get(i % PLAYERS).getUuid()));
+            payment.setAmount(10_000);
+            payment.setTimestamp(now);
+            payment.setRefID("REF" + i);
+            payment.setApiProvider(BankAPI.SEPAY);
+            rows.add(payment);
+        }
+        return rows;
+    }
+}
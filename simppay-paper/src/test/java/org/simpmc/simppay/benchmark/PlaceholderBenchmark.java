@@ -0,0 +1,96 @@
+package org.simpmc.simppay.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.data.milestone.MilestoneType;
+import org.simpmc.simppay.database.dto.PaymentTotals;
+import org.simpmc.simppay.hook.hooks.PlaceholderResolver;
+import org.simpmc.simppay.service.cache.CacheDataService;
+import org.simpmc.simppay.service.cache.LeaderboardEntry;
+import org.simpmc.simppay.service.cache.LeaderboardType;
+import org.simpmc.simppay.service.database.StreakService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Placeholder resolution throughput: the previous onRequest path (equalsIgnoreCase chain, regex, String.format per call)
+ * against {@link PlaceholderResolver}, over a scoreboard-like mix of identifiers.
+ * Run with: ./gradlew :simppay-paper:benchmark -Dsimppay.bench.calls=1000000
+ */
+@Tag("benchmark")
+class PlaceholderBenchmark {
+
+    private static final Pattern LEADERBOARD_PATTERN = Pattern.compile("^top_(daily|weekly|monthly|alltime)_(\\d+)_(name|value)$");
+    private static final String[] IDENTIFIERS = {
+            "server_total_formatted", "server_daily_formatted", "total_formatted", "daily_formatted", "monthly",
+            "top_daily_1_name", "top_daily_1_value", "top_monthly_3_name", "top_monthly_3_value", "top_alltime_10_value"
+    };
+
+    @Test
+    void onRequestThroughput() throws Exception {
+        int calls = Integer.getInteger("simppay.bench.calls", 1_000_000);
+        CacheDataService cache = new CacheDataService();
+        List<UUID> players = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 1_000; i++) {
+            UUID uuid = UUID.randomUUID();
+            players.add(uuid);
+            cache.seedPlayerRollup(uuid, "player" + i, PaymentTotals.ZERO);
+            cache.recordPayment(uuid, 10_000L * (1 + random.nextInt(1_000)), PaymentType.BANKING);
+        }
+        PlaceholderResolver resolver = new PlaceholderResolver(cache, new StreakService());
+        UUID viewer = players.get(0);
+
+        double legacy = BenchmarkUtil.averageMillis(5, () -> {
+            for (int i = 0; i < calls; i++) {
+                BenchmarkUtil.consume(legacyResolve(cache, viewer, IDENTIFIERS[i % IDENTIFIERS.length]));
+            }
+        });
+        double resolved = BenchmarkUtil.averageMillis(5, () -> {
+            for (int i = 0; i < calls; i++) {
+                BenchmarkUtil.consume(resolver.resolve(viewer, IDENTIFIERS[i % IDENTIFIERS.length]));
+            }
+        });
+
+        System.out.printf("%-12s %14s %14s%n", "path", "ms per run", "calls per ms");
+        System.out.printf("%-12s %14.1f %14.0f%n", "legacy", legacy, calls / legacy);
+        System.out.printf("%-12s %14.1f %14.0f%n", "resolver", resolved, calls / resolved);
+    }
+
+    // The pre-resolver onRequest logic, reading the same in-memory values
+    private static String legacyResolve(CacheDataService cache, UUID uuid, String identifier) {
+        if (identifier.equalsIgnoreCase("server_total_formatted")) {
+            return String.format("%,d", cache.getServerAmount(MilestoneType.ALL));
+        }
+        if (identifier.equalsIgnoreCase("server_daily_formatted")) {
+            return String.format("%,d", cache.getServerAmount(MilestoneType.DAILY));
+        }
+        Matcher matcher = LEADERBOARD_PATTERN.matcher(identifier.toLowerCase());
+        if (matcher.matches()) {
+            LeaderboardType type = LeaderboardType.valueOf(matcher.group(1).toUpperCase());
+            int rank = Integer.parseInt(matcher.group(2));
+            List<LeaderboardEntry> leaderboard = cache.getLeaderboard(type, rank);
+            if (leaderboard.size() < rank) {
+                return "N/A";
+            }
+            LeaderboardEntry entry = leaderboard.get(rank - 1);
+            return matcher.group(3).equals("name") ? entry.getPlayerName() : String.format("%,d", entry.getAmount());
+        }
+        if (identifier.equalsIgnoreCase("total_formatted")) {
+            return String.format("%,d", cache.getPlayerAmount(uuid, MilestoneType.ALL));
+        }
+        if (identifier.equalsIgnoreCase("daily_formatted")) {
+            return String.format("%,d", cache.getPlayerAmount(uuid, MilestoneType.DAILY));
+        }
+        if (identifier.equalsIgnoreCase("monthly")) {
+            return String.valueOf(cache.getPlayerAmount(uuid, MilestoneType.MONTHLY));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,130 @@
+package org.simpmc.simppay.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.database.entities.SPPlayer;
+import org.simpmc.simppay.database.migration.SchemaMigrationRegistry;
+import org.simpmc.simppay.database.migration.SchemaMigrator;
+import org.simpmc.simppay.repository.PaymentAggregateRepository;
+import org.simpmc.simppay.testutil.H2TestDatabase;
+import org.simpmc.simppay.util.CalendarUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs the hot aggregate queries on a seeded payment history before and after the schema migrations,
+ * printing the H2 query plan and the average time of each.
+ * Run with: ./gradlew :simppay-paper:benchmark -Dsimppay.bench.rows=1000000
+ */
+@Tag("benchmark")
+class SchemaIndexBenchmark {
+
+    private static final int PLAYERS = 2_000;
+    private static final int ITERATIONS = 10;
+
+    @Test
+    void indexesBeforeAndAfterMigration() throws Exception {
+        int rows = Integer.getInteger("simppay.bench.rows", 1_000_000);
+        try (H2TestDatabase db = new H2TestDatabase()) {
+            List<SPPlayer> players = new ArrayList<>(PLAYERS);
+            db.playerDao.callBatchTasks(() -> {
+                for (int i = 0; i < PLAYERS; i++) {
+                    players.add(db.addPlayer("player" + i));
+                }
+                return null;
+            });
+            seed(db, players, rows);
+
+            PaymentAggregateRepository repository = new PaymentAggregateRepository(db.bankDao, db.cardDao);
+            long now = System.currentTimeMillis();
+            long dayStart = CalendarUtil.getFirstHourOfDay(now);
+            long dayEnd = CalendarUtil.getLastHourOfDay(now);
+            UUID probe = players.get(0).getUuid();
+            String playerPlan = "SELECT SUM(amount) FROM banking_payments WHERE player_uuid = '" + probe + "' AND timestamp BETWEEN 0 AND " + now;
+            String dailyPlan = "SELECT SUM(amount) FROM banking_payments WHERE timestamp BETWEEN " + dayStart + " AND " + dayEnd;
+
+            System.out.printf("%d payments, %d players%n", rows, PLAYERS);
+            for (String phase : new String[]{"before", "after"}) {
+                if (phase.equals("after")) {
+                    new SchemaMigrator(db.getDataSource(), db.getConnectionSource().getDatabaseType())
+                            .migrate(SchemaMigrationRegistry.getMigrations());
+                    try (Connection connection = db.getDataSource().getConnection();
+                         Statement statement = connection.createStatement()) {
+                        statement.execute("ANALYZE");
+                    }
+                }
+                double playerTotals = BenchmarkUtil.averageMillis(ITERATIONS, () -> BenchmarkUtil.consume(repository.queryTotals(probe, now)));
+                double serverDaily = BenchmarkUtil.averageMillis(ITERATIONS, () -> BenchmarkUtil.consume(repository.sumBetween(null, dayStart, dayEnd)));
+                double dailyTop = BenchmarkUtil.averageMillis(ITERATIONS, () -> BenchmarkUtil.consume(repository.topPlayersBetween(dayStart, dayEnd, 10)));
+
+                System.out.printf("-- %s migration%n", phase);
+                System.out.printf("player totals %10.3f ms | server daily %10.3f ms | daily top10 %10.3f ms%n", playerTotals, serverDaily, dailyTop);
+                System.out.println("player plan: " + explain(db, playerPlan));
+                System.out.println("daily plan:  " + explain(db, dailyPlan));
+            }
+        }
+    }
+
+    private static String explain(H2TestDatabase db, String sql) throws Exception {
+        try (Connection connection = db.getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            return rs.next() ? rs.getString(1).replaceAll("\\s+", " ") : "";
+        }
+    }
+
+    /**
+     * Plain JDBC batches, ORMLite's per-entity create is far too slow for a million rows.
+     */
+    private static void seed(H2TestDatabase db, List<SPPlayer> players, int rows) throws Exception {
+        long now = System.currentTimeMillis();
+        long threeYears = 3L * 365 * 24 * 60 * 60 * 1000;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (Connection connection = db.getDataSource().getConnection();
+             PreparedStatement bank = connection.prepareStatement(
+                     "INSERT INTO banking_payments (payment_id, player_uuid, amount, timestamp, ref_id, api_provider) VALUES (?, ?, ?, ?, ?, 'SEPAY')");
+             PreparedStatement card = connection.prepareStatement(
+                     "INSERT INTO card_payments (payment_id, player_uuid, pin, serial, price_value, card_type, ref_id, true_amount, amount, timestamp, api_provider) "
+                             + "VALUES (?, ?, 'pin', 'serial', ?, 'VIETTEL', ?, ?, ?, ?, 'CARD2K')")) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < rows; i++) {
+                String id = UUID.randomUUID().toString();
+                String player = players.get(random.nextInt(players.size())).getUuid().toString();
+                long timestamp = now - random.nextLong(threeYears);
+                double amount = 10_000 * (1 + random.nextInt(50));
+                if ((i & 1) == 0) {
+                    bank.setString(1, id);
+                    bank.setString(2, player);
+                    bank.setDouble(3, amount);
+                    bank.setLong(4, timestamp);
+                    bank.setString(5, "REF" + i);
+                    bank.addBatch();
+                } else {
+                    card.setString(1, id);
+                    card.setString(2, player);
+                    card.setDouble(3, amount);
+                    card.setString(4, "REF" + i);
+                    card.setDouble(5, amount * 0.8);
+                    card.setDouble(6, amount);
+                    card.setLong(7, timestamp);
+                    card.addBatch();
+                }
+                if (i % 10_000 == 9_999) {
+                    bank.executeBatch();
+                    card.executeBatch();
+                    connection.commit();
+                }
+            }
+            bank.executeBatch();
+            card.executeBatch();
+            connection.commit();
+        }
+    }
+}
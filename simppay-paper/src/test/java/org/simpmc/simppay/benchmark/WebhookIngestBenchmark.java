@@ -0,0 +1,112 @@
+package org.simpmc.simppay.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.service.webhook.WebhookIngestServer;
+import org.simpmc.simppay.service.webhook.WebhookSpool;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays Sepay webhook payloads against a local ingestion server and reports throughput and
+ * client-side ACK latency. The consumer drains the queue every 50 ms, like the plugin's tick timer.
+ * Run with: ./gradlew :simppay-paper:benchmark -Dsimppay.bench.webhooks=20000 -Dsimppay.bench.concurrency=64
+ */
+@Tag("benchmark")
+class WebhookIngestBenchmark {
+
+    private static final String API_KEY = "bench-key";
+    private static final String PAYLOAD = """
+            {"id":%d,"gateway":"Vietcombank","transactionDate":"2026-01-15 10:24:31","accountNumber":"0071000888888",\
+            "code":null,"content":"smc123%s chuyen tien","transferType":"in","transferAmount":50000,\
+            "accumulated":1250000,"subAccount":null,"referenceCode":"FT26015%06d","description":"BankAPINotify smc123%s"}""";
+
+    @Test
+    void replaySepayPayloads() throws Exception {
+        int webhooks = Integer.getInteger("simppay.bench.webhooks", 20_000);
+        int concurrency = Integer.getInteger("simppay.bench.concurrency", 64);
+
+        Path dir = Files.createTempDirectory("simppay-webhook-bench");
+        WebhookIngestServer server = new WebhookIngestServer(
+                new WebhookIngestServer.Settings(0, "/sepay/webhook", "/sepay/metrics", API_KEY, 16384, webhooks, 0, 1),
+                new WebhookSpool(dir.resolve("webhook-spool.jsonl")));
+        server.start();
+
+        AtomicLong consumed = new AtomicLong();
+        Thread consumer = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                server.dispatch(200, (batch, settled) -> {
+                    consumed.addAndGet(batch.size());
+                    settled.run();
+                });
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        URI uri = URI.create("http://127.0.0.1:" + server.getPort() + "/sepay/webhook");
+        long[] ackNanos = new long[webhooks];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            List<Future<?>> workers = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                workers.add(executor.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < webhooks) {
+                        String code = String.format("%010d", i);
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .header("Authorization", "Apikey " + API_KEY)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(PAYLOAD.formatted(i, code, i, code)))
+                                .build();
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        ackNanos[i] = System.nanoTime() - sent;
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+            while (consumed.get() + failures.get() < webhooks) {
+                Thread.sleep(10);
+            }
+            Arrays.sort(ackNanos);
+            System.out.printf("%d webhooks, %d connections: %.1f ms (%.0f req/s), ack p50 %.2f ms, p99 %.2f ms, max %.2f ms, non-200 %d%n",
+                    webhooks, concurrency, elapsedMs, webhooks / elapsedMs * 1000,
+                    ackNanos[webhooks / 2] / 1_000_000.0, ackNanos[(int) (webhooks * 0.99)] / 1_000_000.0,
+                    ackNanos[webhooks - 1] / 1_000_000.0, failures.get());
+            System.out.println(server.getStats());
+        } finally {
+            consumer.interrupt();
+            server.stop();
+            Files.deleteIfExists(dir.resolve("webhook-spool.jsonl"));
+            Files.deleteIfExists(dir);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.simpmc.simppay.database.migration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.testutil.H2TestDatabase;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigratorTest {
+
+    private H2TestDatabase db;
+    private SchemaMigrator migrator;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new H2TestDatabase();
+        migrator = new SchemaMigrator(db.getDataSource(), db.getConnectionSource().getDatabaseType());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        db.close();
+    }
+
+    @Test
+    void migrate_appliesPendingMigrationsOnce() throws Exception {
+        List<SchemaMigration> migrations = SchemaMigrationRegistry.getMigrations();
+        assertEquals(0, migrator.currentVersion());
+
+        assertEquals(migrations.size(), migrator.migrate(migrations).size());
+        assertEquals(migrations.get(migrations.size() - 1).version(), migrator.currentVersion());
+        try (Connection connection = db.getDataSource().getConnection()) {
+            assertTrue(IndexMigration.indexExists(connection, "banking_payments", "idx_banking_player_time"));
+            assertTrue(IndexMigration.indexExists(connection, "player_data", "idx_player_data_key"));
+            assertTrue(IndexMigration.indexExists(connection, "payment_daily_summary", "idx_summary_day"));
+        }
+
+        assertTrue(migrator.migrate(migrations).isEmpty());
+    }
+
+    @Test
+    void migrate_skipsIndexesThatAlreadyExist() throws Exception {
+        // Simulates a MySQL run that created some indexes and then failed before recording its version
+        try (Connection connection = db.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX `idx_card_time` ON `card_payments` (`timestamp`, `amount`)");
+        }
+
+        assertEquals(SchemaMigrationRegistry.getMigrations().size(), migrator.migrate(SchemaMigrationRegistry.getMigrations()).size());
+    }
+}
@@ -0,0 +1,30 @@
+package org.simpmc.simppay.handler.banking;
+
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.handler.banking.sepay.SepayReferenceExtractor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SepayReferenceExtractorTest {
+
+    @Test
+    void extract_findsPrefixedCodesIgnoringCase() {
+        String content = "MBVCB.1234.smc123ab12cd34ef.CT tu 0123 toi SMC123ZZZZ999999";
+
+        assertEquals(List.of("SMC123AB12CD34EF", "SMC123ZZZZ999999"), SepayReferenceExtractor.extract(content, "smc123"));
+        assertEquals(SepayReferenceExtractor.key("smc123ab12cd34ef"), SepayReferenceExtractor.extract(content, "smc123").get(0));
+    }
+
+    @Test
+    void extract_ignoresShortCodesAndOtherPrefixes() {
+        assertTrue(SepayReferenceExtractor.extract("smc123ABC thanh toan", "smc123").isEmpty());
+        assertTrue(SepayReferenceExtractor.extract("abc999AB12CD34EF", "smc123").isEmpty());
+        assertTrue(SepayReferenceExtractor.extract(null, "smc123").isEmpty());
+        // Regex characters in the prefix are taken literally
+        assertEquals(List.of("A.BAB12CD34EF"), SepayReferenceExtractor.extract("a.bAB12CD34EF", "a.b"));
+        assertTrue(SepayReferenceExtractor.extract("axbAB12CD34EF", "a.b").isEmpty());
+    }
+}
@@ -0,0 +1,46 @@
+package org.simpmc.simppay.hook.hooks;
+
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.database.dto.PaymentTotals;
+import org.simpmc.simppay.service.cache.CacheDataService;
+import org.simpmc.simppay.service.cache.LeaderboardType;
+import org.simpmc.simppay.service.database.StreakService;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlaceholderResolverTest {
+
+    @Test
+    void resolve_servesPreformattedValuesFromMemory() {
+        CacheDataService cache = new CacheDataService();
+        UUID alice = UUID.randomUUID();
+        cache.seedPlayerRollup(alice, "alice", new PaymentTotals(1_000_000, 0, 0, 0, 0, 1_000_000, 0));
+        cache.recordPayment(alice, 50_000, PaymentType.BANKING);
+        PlaceholderResolver resolver = new PlaceholderResolver(cache, new StreakService());
+
+        assertEquals("1050000", resolver.resolve(alice, "total"));
+        assertEquals("1,050,000", resolver.resolve(alice, "TOTAL_FORMATTED"));
+        assertSame(resolver.resolve(alice, "daily_formatted"), resolver.resolve(alice, "daily_formatted"));
+        assertEquals("50,000", resolver.resolve(null, "server_total_formatted"));
+        assertEquals("alice", resolver.resolve(null, "leaderboard_daily_1_name"));
+        assertEquals("50,000", resolver.resolve(null, "top_alltime_1_value"));
+        assertEquals("N/A", resolver.resolve(null, "leaderboard_all_2_amount"));
+        assertEquals("1", resolver.resolve(alice, "leaderboard_monthly_rank"));
+        assertNull(resolver.resolve(null, "total"));
+        assertNull(resolver.resolve(alice, "unknown"));
+    }
+
+    @Test
+    void parseLeaderboardKey_acceptsBothNamingSchemes() {
+        assertEquals(new PlaceholderResolver.LeaderboardKey(LeaderboardType.WEEKLY, 5, PlaceholderResolver.LeaderboardField.AMOUNT),
+                PlaceholderResolver.parseLeaderboardKey("leaderboard_weekly_5_amount"));
+        assertEquals(new PlaceholderResolver.LeaderboardKey(LeaderboardType.ALLTIME, 1, PlaceholderResolver.LeaderboardField.NAME),
+                PlaceholderResolver.parseLeaderboardKey("top_alltime_1_name"));
+        assertEquals(PlaceholderResolver.LeaderboardField.RANK, PlaceholderResolver.parseLeaderboardKey("leaderboard_all_rank").field());
+        assertNull(PlaceholderResolver.parseLeaderboardKey("top_hourly_1_name").type());
+        assertNull(PlaceholderResolver.parseLeaderboardKey("leaderboard_daily_0_name").type());
+    }
+}
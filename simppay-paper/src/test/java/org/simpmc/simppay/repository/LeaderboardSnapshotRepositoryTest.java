@@ -0,0 +1,63 @@
+package org.simpmc.simppay.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.database.entities.LeaderboardCache;
+import org.simpmc.simppay.service.cache.LeaderboardEntry;
+import org.simpmc.simppay.service.cache.LeaderboardType;
+import org.simpmc.simppay.testutil.H2TestDatabase;
+import org.simpmc.simppay.util.PeriodWindow;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardSnapshotRepositoryTest {
+
+    private H2TestDatabase db;
+    private LeaderboardSnapshotRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new H2TestDatabase();
+        repository = new LeaderboardSnapshotRepository(db.getConnectionSource(), db.leaderboardCacheDao);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        db.close();
+    }
+
+    @Test
+    void write_replacesPreviousSnapshot() throws Exception {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        repository.write(Map.of(LeaderboardType.WEEKLY, List.of(new LeaderboardEntry(bob, "bob", 10_000, 1))));
+        int rows = repository.write(Map.of(
+                LeaderboardType.DAILY, List.of(new LeaderboardEntry(alice, "alice", 50_000, 1), new LeaderboardEntry(bob, "bob", 20_000, 2)),
+                LeaderboardType.ALLTIME, List.of(new LeaderboardEntry(bob, "bob", 90_000, 1))));
+
+        assertEquals(3, rows);
+        Map<LeaderboardType, List<LeaderboardEntry>> snapshot = repository.read(PeriodWindow.current());
+        assertFalse(snapshot.containsKey(LeaderboardType.WEEKLY));
+        assertEquals(List.of("alice", "bob"), snapshot.get(LeaderboardType.DAILY).stream().map(LeaderboardEntry::getPlayerName).toList());
+        assertEquals(90_000, snapshot.get(LeaderboardType.ALLTIME).get(0).getAmount());
+    }
+
+    @Test
+    void read_skipsBoardsFromAnEndedPeriod() throws Exception {
+        PeriodWindow window = PeriodWindow.current();
+        Date yesterday = new Date(window.getDayStart() - 1);
+        db.leaderboardCacheDao.create(new LeaderboardCache(LeaderboardSnapshotRepository.keyOf(LeaderboardType.DAILY, 1), UUID.randomUUID(), "old", 1_000, 1, yesterday));
+        db.leaderboardCacheDao.create(new LeaderboardCache(LeaderboardSnapshotRepository.keyOf(LeaderboardType.ALLTIME, 1), UUID.randomUUID(), "kept", 1_000, 1, yesterday));
+
+        Map<LeaderboardType, List<LeaderboardEntry>> snapshot = repository.read(window);
+
+        assertNull(snapshot.get(LeaderboardType.DAILY));
+        assertEquals("kept", snapshot.get(LeaderboardType.ALLTIME).get(0).getPlayerName());
+    }
+}
@@ -0,0 +1,42 @@
+package org.simpmc.simppay.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.testutil.H2TestDatabase;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSequenceRepositoryTest {
+
+    private H2TestDatabase db;
+    private OrderSequenceRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new H2TestDatabase();
+        repository = new OrderSequenceRepository(db.getConnectionSource(), db.orderSequenceDao);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        db.close();
+    }
+
+    @Test
+    void reserve_startsAfterTheFloorAndHandsOutConsecutiveBlocks() throws Exception {
+        assertEquals(501, repository.reserve("payos", 100, 500));
+        // A second server with an older local file still continues after the shared value
+        assertEquals(601, repository.reserve("payos", 100, 0));
+        assertEquals(701, repository.reserve("payos", 50, 650));
+        assertEquals(750, db.orderSequenceDao.queryForId("payos").getReservedTo());
+    }
+
+    @Test
+    void reserve_floorAheadOfTheSequence_jumpsPastIt() throws Exception {
+        repository.reserve("payos", 10, 0);
+
+        assertEquals(1_001, repository.reserve("payos", 10, 1_000));
+        assertEquals(1, repository.reserve("other", 10, 0));
+    }
+}
@@ -0,0 +1,89 @@
+package org.simpmc.simppay.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.database.dto.PaymentTotals;
+import org.simpmc.simppay.database.entities.SPPlayer;
+import org.simpmc.simppay.testutil.H2TestDatabase;
+import org.simpmc.simppay.util.CalendarUtil;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentAggregateRepositoryTest {
+
+    private H2TestDatabase db;
+    private PaymentAggregateRepository repository;
+    private long now;
+    private long lastYear;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new H2TestDatabase();
+        repository = new PaymentAggregateRepository(db.bankDao, db.cardDao);
+        now = System.currentTimeMillis();
+        lastYear = CalendarUtil.getFirstDayOfYear(now) - 1;
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        db.close();
+    }
+
+    @Test
+    void emptyTables_returnZero() throws Exception {
+        assertEquals(PaymentTotals.ZERO, repository.queryTotals(null, now));
+        assertEquals(0, repository.sumAll(null));
+        assertEquals(0, repository.countPayments(UUID.randomUUID()));
+        assertTrue(repository.topPlayersAllTime(10).isEmpty());
+    }
+
+    @Test
+    void queryTotals_sumsBothTablesPerPeriod() throws Exception {
+        SPPlayer alice = db.addPlayer("alice");
+        SPPlayer bob = db.addPlayer("bob");
+        db.addBank(alice, 50_000, now);
+        db.addCard(alice, 20_000, now);
+        db.addBank(alice, 100_000, lastYear);
+        db.addCard(bob, 10_000, now);
+
+        PaymentTotals server = repository.queryTotals(null, now);
+        assertEquals(180_000, server.getTotal());
+        assertEquals(80_000, server.getDaily());
+        assertEquals(80_000, server.getYearly());
+        assertEquals(150_000, server.getBank());
+        assertEquals(30_000, server.getCard());
+
+        PaymentTotals player = repository.queryTotals(alice.getUuid(), now);
+        assertEquals(170_000, player.getTotal());
+        assertEquals(70_000, player.getDaily());
+        assertEquals(70_000, player.getYearly());
+        assertEquals(List.of(170_000L, 70_000L), List.of(repository.sumAll(alice.getUuid()),
+                repository.sumBetween(alice.getUuid(), CalendarUtil.getFirstHourOfDay(now), CalendarUtil.getLastHourOfDay(now))));
+        assertEquals(3, repository.countPayments(alice.getUuid()));
+    }
+
+    @Test
+    void topPlayers_areGroupedAndOrderedBySql() throws Exception {
+        SPPlayer alice = db.addPlayer("alice");
+        SPPlayer bob = db.addPlayer("bob");
+        SPPlayer carol = db.addPlayer("carol");
+        db.addBank(alice, 10_000, now);
+        db.addCard(bob, 30_000, now);
+        db.addBank(bob, 5_000, now);
+        db.addBank(carol, 500_000, lastYear);
+
+        LinkedHashMap<UUID, Long> today = repository.topPlayersBetween(
+                CalendarUtil.getFirstHourOfDay(now), CalendarUtil.getLastHourOfDay(now), 10);
+        assertEquals(List.of(bob.getUuid(), alice.getUuid()), List.copyOf(today.keySet()));
+        assertEquals(35_000L, today.get(bob.getUuid()));
+
+        LinkedHashMap<UUID, Long> allTime = repository.topPlayersAllTime(1);
+        assertEquals(1, allTime.size());
+        assertEquals(500_000L, allTime.get(carol.getUuid()));
+    }
+}
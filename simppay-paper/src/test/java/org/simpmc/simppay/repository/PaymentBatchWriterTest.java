@@ -0,0 +1,97 @@
+package org.simpmc.simppay.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.data.card.CardType;
+import org.simpmc.simppay.database.entities.BankingPayment;
+import org.simpmc.simppay.database.entities.CardPayment;
+import org.simpmc.simppay.database.entities.SPPlayer;
+import org.simpmc.simppay.handler.data.BankAPI;
+import org.simpmc.simppay.handler.data.CardAPI;
+import org.simpmc.simppay.testutil.H2TestDatabase;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentBatchWriterTest {
+
+    private H2TestDatabase db;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new H2TestDatabase();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        db.close();
+    }
+
+    @Test
+    void insertedRowsReadBackThroughOrmLite() throws Exception {
+        SPPlayer alice = db.addPlayer("alice");
+        BankingPayment bank = bank(alice, 50_000);
+        CardPayment card = card(alice, 20_000);
+
+        try (Connection connection = db.getDataSource().getConnection()) {
+            PaymentBatchWriter.insertBanking(connection, List.of(bank, bank(alice, 10_000)));
+            PaymentBatchWriter.insertCard(connection, List.of(card));
+        }
+
+        BankingPayment storedBank = db.bankDao.queryForId(bank.getPaymentID());
+        assertEquals(50_000, storedBank.getAmount());
+        assertEquals(bank.getTimestamp(), storedBank.getTimestamp());
+        assertEquals(BankAPI.SEPAY, storedBank.getApiProvider());
+        // Foreign players are not auto-refreshed, only the key is loaded
+        assertEquals(alice.getUuid(), storedBank.getPlayer().getUuid());
+        assertNull(storedBank.getPlayer().getName());
+        assertEquals(2, db.bankDao.countOf());
+
+        CardPayment storedCard = db.cardDao.queryForId(card.getPaymentID());
+        assertEquals(CardType.VIETTEL, storedCard.getCardType());
+        assertEquals(16_000, storedCard.getTrueAmount());
+        assertEquals(CardAPI.CARD2K, storedCard.getApiProvider());
+    }
+
+    @Test
+    void duplicatePaymentFailsTheBatch() throws Exception {
+        SPPlayer alice = db.addPlayer("alice");
+        BankingPayment bank = bank(alice, 50_000);
+        try (Connection connection = db.getDataSource().getConnection()) {
+            PaymentBatchWriter.insertBanking(connection, List.of(bank));
+            assertThrows(SQLException.class, () -> PaymentBatchWriter.insertBanking(connection, List.of(bank)));
+        }
+    }
+
+    private static BankingPayment bank(SPPlayer player, double amount) {
+        BankingPayment payment = new BankingPayment();
+        payment.setPaymentID(UUID.randomUUID());
+        payment.setPlayer(new SPPlayer(player.getUuid()));
+        payment.setAmount(amount);
+        payment.setTimestamp(System.currentTimeMillis());
+        payment.setRefID("REF1");
+        payment.setApiProvider(BankAPI.SEPAY);
+        return payment;
+    }
+
+    private static CardPayment card(SPPlayer player, double amount) {
+        CardPayment payment = new CardPayment();
+        payment.setPaymentID(UUID.randomUUID());
+        payment.setPlayer(new SPPlayer(player.getUuid()));
+        payment.setPin("pin");
+        payment.setSerial("serial");
+        payment.setPriceValue(amount);
+        payment.setCardType(CardType.VIETTEL);
+        payment.setRefID("REF2");
+        payment.setTrueAmount(amount * 0.8);
+        payment.setAmount(amount);
+        payment.setTimestamp(System.currentTimeMillis());
+        payment.setApiProvider(CardAPI.CARD2K);
+        return payment;
+    }
+}
@@ -0,0 +1,101 @@
+package org.simpmc.simppay.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.database.dto.PaymentCursor;
+import org.simpmc.simppay.database.dto.PaymentRecord;
+import org.simpmc.simppay.database.entities.BankingPayment;
+import org.simpmc.simppay.database.entities.CardPayment;
+import org.simpmc.simppay.database.entities.SPPlayer;
+import org.simpmc.simppay.testutil.H2TestDatabase;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentHistoryRepositoryTest {
+
+    private H2TestDatabase db;
+    private PaymentHistoryRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new H2TestDatabase();
+        repository = new PaymentHistoryRepository(db.bankDao, db.cardDao);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        db.close();
+    }
+
+    @Test
+    void emptyTables_returnEmptyPage() throws Exception {
+        assertTrue(repository.page(null, null, 10).isEmpty());
+        assertTrue(repository.page(UUID.randomUUID(), null, 10).isEmpty());
+    }
+
+    @Test
+    void page_walksBothTablesNewestFirstWithoutGapsOrDuplicates() throws Exception {
+        SPPlayer alice = db.addPlayer("alice");
+        SPPlayer bob = db.addPlayer("bob");
+        List<String[]> expected = new ArrayList<>();
+        // Several payments share a timestamp so the payment_id tie-break is exercised
+        for (int i = 0; i < 12; i++) {
+            long timestamp = 1_000_000L + (i / 3) * 1000L;
+            BankingPayment bank = db.addBank(i % 2 == 0 ? alice : bob, 10_000 + i, timestamp);
+            CardPayment card = db.addCard(alice, 20_000 + i, timestamp);
+            expected.add(new String[]{Long.toString(timestamp), bank.getPaymentID().toString()});
+            expected.add(new String[]{Long.toString(timestamp), card.getPaymentID().toString()});
+        }
+        expected.sort(Comparator.<String[], Long>comparing(row -> Long.parseLong(row[0]))
+                .thenComparing(row -> row[1]).reversed());
+
+        List<String> walked = new ArrayList<>();
+        PaymentCursor cursor = null;
+        List<PaymentRecord> page;
+        do {
+            page = repository.page(null, cursor, 5);
+            assertTrue(page.size() <= 5);
+            for (PaymentRecord record : page) {
+                walked.add(record.getPaymentId().toString());
+            }
+            cursor = page.isEmpty() ? null : PaymentCursor.of(page.get(page.size() - 1));
+        } while (page.size() == 5);
+
+        assertEquals(expected.stream().map(row -> row[1]).toList(), walked);
+    }
+
+    @Test
+    void page_filtersByPlayerAndFillsRecordFields() throws Exception {
+        SPPlayer alice = db.addPlayer("alice");
+        SPPlayer bob = db.addPlayer("bob");
+        db.addBank(alice, 50_000, 1_000L);
+        CardPayment card = db.addCard(alice, 20_000, 2_000L);
+        db.addBank(bob, 10_000, 3_000L);
+
+        List<PaymentRecord> page = repository.page(alice.getUuid(), null, 10);
+        assertEquals(2, page.size());
+
+        PaymentRecord newest = page.get(0);
+        assertEquals(card.getPaymentID(), newest.getPaymentId());
+        assertEquals(PaymentType.CARD, newest.getPaymentType());
+        assertEquals(2_000L, newest.getTimestamp().getTime());
+        assertEquals("alice", newest.getPlayerName());
+        assertEquals("serial", newest.getSerial().orElseThrow());
+        assertEquals(card.getCardType().toString(), newest.getTelco());
+        assertEquals(card.getApiProvider().name(), newest.getProvider());
+        assertEquals(16_000, newest.getTrueAmount().orElseThrow(), 0.001);
+
+        PaymentRecord oldest = page.get(1);
+        assertEquals(PaymentType.BANKING, oldest.getPaymentType());
+        assertEquals(50_000, oldest.getAmount(), 0.001);
+
+        assertEquals(List.of(), repository.page(alice.getUuid(), PaymentCursor.of(oldest), 10));
+    }
+}
@@ -0,0 +1,100 @@
+package org.simpmc.simppay.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.database.dto.PaymentTotals;
+import org.simpmc.simppay.database.entities.PaymentDailySummary;
+import org.simpmc.simppay.database.entities.SPPlayer;
+import org.simpmc.simppay.testutil.H2TestDatabase;
+import org.simpmc.simppay.util.CalendarUtil;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentSummaryRepositoryTest {
+
+    private H2TestDatabase db;
+    private PaymentAggregateRepository raw;
+    private PaymentSummaryRepository summaries;
+    private long now;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        db = new H2TestDatabase();
+        raw = new PaymentAggregateRepository(db.bankDao, db.cardDao);
+        summaries = new PaymentSummaryRepository(db.getConnectionSource(), db.summaryDao, db.summaryStateDao, db.bankDao, db.cardDao);
+        now = System.currentTimeMillis();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        db.close();
+    }
+
+    @Test
+    void rebuild_matchesRawAggregates() throws Exception {
+        SPPlayer alice = db.addPlayer("alice");
+        SPPlayer bob = db.addPlayer("bob");
+        long yesterday = CalendarUtil.getFirstHourOfDay(now) - 1;
+        long lastYear = CalendarUtil.getFirstDayOfYear(now) - 1;
+        db.addBank(alice, 50_000, now);
+        db.addBank(alice, 30_000, now);
+        db.addCard(alice, 20_000, yesterday);
+        db.addBank(alice, 100_000, lastYear);
+        db.addCard(bob, 10_000, now);
+        db.addBank(bob, 200_000, lastYear);
+
+        // alice: today bank, yesterday card, last year bank; bob: today card, last year bank
+        assertEquals(5, summaries.rebuild());
+
+        assertEquals(raw.queryTotals(null, now), summaries.queryTotals(null, now));
+        assertEquals(raw.queryTotals(alice.getUuid(), now), summaries.queryTotals(alice.getUuid(), now));
+        assertEquals(raw.countPayments(null), summaries.countPayments(null));
+        assertEquals(raw.topPlayersAllTime(10), summaries.topPlayersAllTime(10));
+        long yearStart = CalendarUtil.getFirstDayOfYear(now);
+        long yearEnd = CalendarUtil.getLastDayOfYear(now);
+        assertEquals(raw.topPlayersBetween(yearStart, yearEnd, 10), summaries.topPlayersBetween(yearStart, yearEnd, 10));
+
+        // A second rebuild replaces rather than doubles the rows
+        assertEquals(5, summaries.rebuild());
+        assertEquals(410_000, summaries.sumAll(null));
+    }
+
+    @Test
+    void record_upsertsOneRowPerDayAndType() throws Exception {
+        UUID player = UUID.randomUUID();
+        summaries.record(player, now, PaymentType.BANKING, 50_000, 1);
+        summaries.record(player, now, PaymentType.BANKING, 20_000, 1);
+        summaries.record(player, now, PaymentType.CARD, 10_000, 1);
+
+        PaymentDailySummary bankRow = db.summaryDao.queryForId(
+                PaymentDailySummary.idOf(player, CalendarUtil.getFirstHourOfDay(now), PaymentType.BANKING));
+        assertEquals(70_000, bankRow.getAmount());
+        assertEquals(2, bankRow.getPaymentCount());
+        assertEquals(new PaymentTotals(80_000, 80_000, 80_000, 80_000, 80_000, 70_000, 10_000), summaries.queryTotals(player, now));
+
+        // Removing a payment subtracts it again and never creates a row
+        summaries.record(player, now, PaymentType.BANKING, -20_000, -1);
+        summaries.record(player, now - 400L * 24 * 60 * 60 * 1000, PaymentType.CARD, -5_000, -1);
+        assertEquals(60_000, summaries.sumAll(player));
+        assertEquals(2, summaries.countPayments(player));
+        assertEquals(2, summaries.countRows());
+
+        summaries.deletePlayer(player);
+        assertEquals(0, summaries.countRows());
+    }
+
+    @Test
+    void builtZone_onlySetByACompletedRebuild() throws Exception {
+        // A live payment recorded before the backfill ran must not make the table look complete
+        summaries.record(UUID.randomUUID(), now, PaymentType.BANKING, 50_000, 1);
+        assertNull(summaries.builtZone());
+
+        summaries.rebuild();
+
+        assertEquals(CalendarUtil.getZone().getId(), summaries.builtZone());
+    }
+}
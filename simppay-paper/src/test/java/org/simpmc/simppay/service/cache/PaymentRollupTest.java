@@ -0,0 +1,52 @@
+package org.simpmc.simppay.service.cache;
+
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.data.milestone.MilestoneType;
+import org.simpmc.simppay.database.dto.PaymentTotals;
+import org.simpmc.simppay.util.PeriodWindow;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PaymentRollupTest {
+
+    private static PeriodWindow at(int year, int month, int day) {
+        return PeriodWindow.of(LocalDateTime.of(year, month, day, 12, 0)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    @Test
+    void add_updatesEveryBucketAndSplit() {
+        PeriodWindow window = at(2025, 3, 12);
+        PaymentRollup rollup = new PaymentRollup(new PaymentTotals(1_000, 100, 200, 300, 400, 600, 400), window);
+
+        rollup.add(50, PaymentType.BANKING, window);
+        rollup.add(20, PaymentType.CARD, window);
+
+        assertEquals(new PaymentTotals(1_070, 170, 270, 370, 470, 650, 420), rollup.snapshot(window));
+    }
+
+    @Test
+    void rollOver_resetsOnlyExpiredBuckets() {
+        // Wednesday 12 March 2025 -> Thursday 13 March: only the daily bucket expires
+        PaymentRollup rollup = new PaymentRollup(new PaymentTotals(1_000, 100, 200, 300, 400, 0, 0), at(2025, 3, 12));
+        PeriodWindow nextDay = at(2025, 3, 13);
+        assertEquals(0, rollup.get(MilestoneType.DAILY, nextDay));
+        assertEquals(200, rollup.get(MilestoneType.WEEKLY, nextDay));
+
+        // Monday 17 March: week rolls over, month does not
+        PeriodWindow nextWeek = at(2025, 3, 17);
+        rollup.add(10, PaymentType.BANKING, nextWeek);
+        assertEquals(10, rollup.get(MilestoneType.WEEKLY, nextWeek));
+        assertEquals(310, rollup.get(MilestoneType.MONTHLY, nextWeek));
+
+        // 1 January 2026: everything but the all-time total rolls over
+        PeriodWindow nextYear = at(2026, 1, 1);
+        assertEquals(0, rollup.get(MilestoneType.YEARLY, nextYear));
+        assertEquals(0, rollup.get(MilestoneType.MONTHLY, nextYear));
+        assertEquals(1_010, rollup.get(MilestoneType.ALL, nextYear));
+    }
+}
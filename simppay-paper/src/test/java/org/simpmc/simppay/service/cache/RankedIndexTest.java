@@ -0,0 +1,92 @@
+package org.simpmc.simppay.service.cache;
+
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.util.PeriodWindow;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RankedIndexTest {
+
+    @Test
+    void randomUpdates_matchSortedScores() {
+        Random random = new Random(42);
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            players.add(new UUID(0, i));
+        }
+        RankedIndex index = new RankedIndex();
+        Map<UUID, Long> expected = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            UUID player = players.get(random.nextInt(players.size()));
+            long amount = 10_000L * (1 + random.nextInt(20));
+            index.add(player, amount);
+            expected.merge(player, amount, Long::sum);
+        }
+
+        List<UUID> sorted = new ArrayList<>(expected.keySet());
+        sorted.sort(Comparator.<UUID>comparingLong(expected::get).reversed().thenComparing(Comparator.naturalOrder()));
+
+        assertEquals(sorted.size(), index.size());
+        assertEquals(expected.values().stream().mapToLong(Long::longValue).sum(), index.total());
+        List<RankedIndex.Ranked> top = index.top(10);
+        for (int i = 0; i < sorted.size(); i++) {
+            UUID player = sorted.get(i);
+            assertEquals(i + 1, index.rank(player));
+            assertEquals(player, index.at(i + 1).playerUUID());
+            assertEquals(expected.get(player), index.score(player));
+            if (i < top.size()) {
+                assertEquals(player, top.get(i).playerUUID());
+            }
+        }
+        assertNull(index.at(sorted.size() + 1));
+        assertEquals(0, index.rank(new UUID(1, 1)));
+    }
+
+    @Test
+    void engine_resetsOnlyExpiredPeriods() {
+        PeriodWindow wednesday = PeriodWindow.of(LocalDateTime.of(2025, 3, 12, 12, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        PeriodWindow thursday = PeriodWindow.of(LocalDateTime.of(2025, 3, 13, 12, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        UUID alice = new UUID(0, 1);
+        UUID bob = new UUID(0, 2);
+        LeaderboardEngine engine = new LeaderboardEngine(wednesday);
+        engine.reload(Map.of(), Map.of(alice, "alice", bob, "bob"), wednesday);
+
+        engine.record(alice, 50_000, wednesday);
+        engine.record(bob, 20_000, thursday);
+
+        assertEquals("bob", engine.entryAt(LeaderboardType.DAILY, 1, thursday).getPlayerName());
+        assertEquals(1, engine.size(LeaderboardType.DAILY, thursday));
+        assertEquals(1, engine.rankOf(LeaderboardType.WEEKLY, alice, thursday));
+        assertEquals(2, engine.rankOf(LeaderboardType.ALLTIME, bob, thursday));
+        assertEquals(20_000, engine.total(LeaderboardType.DAILY, thursday));
+        assertEquals(70_000, engine.total(LeaderboardType.ALLTIME, thursday));
+    }
+
+    @Test
+    void engine_reloadsOneBoardOnly() {
+        PeriodWindow window = PeriodWindow.current();
+        UUID alice = new UUID(0, 1);
+        UUID bob = new UUID(0, 2);
+        LeaderboardEngine engine = new LeaderboardEngine(window);
+        engine.record(alice, 50_000, window);
+
+        engine.reload(LeaderboardType.DAILY, Map.of(alice, 50_000L, bob, 30_000L), Map.of(bob, "bob"), window);
+
+        assertEquals(80_000, engine.total(LeaderboardType.DAILY, window));
+        assertEquals("bob", engine.entryAt(LeaderboardType.DAILY, 2, window).getPlayerName());
+        // The other boards keep what they had
+        assertEquals(50_000, engine.total(LeaderboardType.ALLTIME, window));
+        assertEquals(0, engine.rankOf(LeaderboardType.ALLTIME, bob, window));
+    }
+}
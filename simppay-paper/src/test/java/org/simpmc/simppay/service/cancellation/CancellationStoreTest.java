@@ -0,0 +1,68 @@
+package org.simpmc.simppay.service.cancellation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.simpmc.simppay.model.Payment;
+import org.simpmc.simppay.model.detail.BankingDetail;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CancellationStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void save_thenLoad_keepsRetryState() throws Exception {
+        CancellationStore store = new CancellationStore(dir.resolve("cancellation-queue.jsonl"));
+        PendingCancellation first = PendingCancellation.of(payment("ref-1"), "PAYOS", 1_000).retryAt(6_000);
+        PendingCancellation second = PendingCancellation.of(payment("ref-2"), "PAYOS", 2_000);
+
+        store.save(List.of(first, second));
+
+        assertEquals(List.of(first, second), store.load());
+        assertEquals(1, first.attempts());
+        assertEquals("ref-1", first.toPayment().getDetail().getRefID());
+        assertEquals(50_000, first.toPayment().getDetail().getAmount());
+    }
+
+    @Test
+    void save_emptyBacklog_removesTheFile() throws Exception {
+        Path path = dir.resolve("cancellation-queue.jsonl");
+        CancellationStore store = new CancellationStore(path);
+        store.save(List.of(PendingCancellation.of(payment("ref-1"), "PAYOS", 1_000)));
+        assertTrue(Files.exists(path));
+
+        store.save(List.of());
+
+        assertFalse(Files.exists(path));
+        assertTrue(store.load().isEmpty());
+    }
+
+    @Test
+    void load_skipsUnreadableLines() throws Exception {
+        Path path = dir.resolve("cancellation-queue.jsonl");
+        CancellationStore store = new CancellationStore(path);
+        PendingCancellation entry = PendingCancellation.of(payment("ref-1"), "SEPAY", 1_000);
+        store.save(List.of(entry));
+        Files.writeString(path, "{\"paymentID\":\"not-a-uuid\n", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        assertEquals(List.of(entry), store.load());
+    }
+
+    private static Payment payment(String refID) {
+        BankingDetail detail = BankingDetail.builder()
+                .amount(50_000)
+                .refID(refID)
+                .build();
+        return new Payment(UUID.randomUUID(), UUID.randomUUID(), detail);
+    }
+}
@@ -0,0 +1,80 @@
+package org.simpmc.simppay.service.database;
+
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.database.entities.SPPlayer;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerIdentityCacheTest {
+
+    @Test
+    void getByName_ignoresCaseAndFollowsRenames() {
+        PlayerIdentityCache cache = new PlayerIdentityCache(10);
+        UUID uuid = UUID.randomUUID();
+        cache.put(player(uuid, "Steve"), true);
+
+        assertSame(cache.get(uuid), cache.getByName("sTEVE"));
+
+        cache.put(player(uuid, "Alex"), false);
+        assertNull(cache.getByName("steve"));
+        assertEquals("Alex", cache.getByName("alex").getName());
+        assertEquals(1, cache.onlineSize(), "a rename keeps an online player pinned");
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedOfflinePlayersOnly() {
+        PlayerIdentityCache cache = new PlayerIdentityCache(2);
+        UUID online = UUID.randomUUID();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        cache.put(player(online, "online"), true);
+        cache.put(player(a, "a"), false);
+        cache.put(player(b, "b"), false);
+        cache.get(a);
+        cache.put(player(c, "c"), false);
+
+        assertNotNull(cache.get(online));
+        assertNotNull(cache.get(a));
+        assertNull(cache.get(b));
+        assertNull(cache.getByName("b"));
+        assertNotNull(cache.get(c));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void unpin_makesPlayerEvictable() {
+        PlayerIdentityCache cache = new PlayerIdentityCache(1);
+        UUID quitter = UUID.randomUUID();
+        cache.put(player(quitter, "quitter"), true);
+        cache.unpin(quitter);
+        cache.put(player(UUID.randomUUID(), "other"), false);
+
+        assertNull(cache.get(quitter));
+        assertEquals(0, cache.onlineSize());
+        assertEquals(1, cache.offlineSize());
+    }
+
+    @Test
+    void get_countsHitsAndMisses() {
+        PlayerIdentityCache cache = new PlayerIdentityCache(10);
+        UUID uuid = UUID.randomUUID();
+        cache.get(uuid);
+        cache.put(player(uuid, "Steve"), false);
+        cache.get(uuid);
+        cache.getByName("steve");
+        cache.invalidate(uuid);
+        cache.getByName("steve");
+
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    private static SPPlayer player(UUID uuid, String name) {
+        SPPlayer player = new SPPlayer(uuid);
+        player.setName(name);
+        return player;
+    }
+}
@@ -0,0 +1,69 @@
+package org.simpmc.simppay.service.database;
+
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.config.types.StreakConfig;
+import org.simpmc.simppay.database.entities.PlayerStreakPayment;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreakProgressTest {
+    private static final ZoneId ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    @Test
+    void advance_countsConsecutiveDaysAndResetsAfterAGap() {
+        PlayerStreakPayment streak = StreakProgress.newStreak(UUID.randomUUID(), DAY, ZONE);
+
+        assertEquals(StreakProgress.Outcome.SAME_DAY, StreakProgress.advance(streak, DAY, ZONE));
+        assertEquals(StreakProgress.Outcome.INCREMENTED, StreakProgress.advance(streak, DAY.plusDays(1), ZONE));
+        assertEquals(StreakProgress.Outcome.INCREMENTED, StreakProgress.advance(streak, DAY.plusDays(2), ZONE));
+        assertEquals(3, streak.getCurrentStreak());
+        assertEquals(3, streak.getBestStreak());
+
+        streak.setLastRewardTier(3);
+        assertEquals(StreakProgress.Outcome.RESET, StreakProgress.advance(streak, DAY.plusDays(4), ZONE));
+        assertEquals(1, streak.getCurrentStreak());
+        assertEquals(3, streak.getBestStreak());
+        assertEquals(0, streak.getLastRewardTier());
+        assertEquals(StreakProgress.startOf(DAY.plusDays(4), ZONE), streak.getLastRechargeDate());
+    }
+
+    @Test
+    void isBroken_onlyOnceYesterdayHasPassedWithoutPayment() {
+        PlayerStreakPayment streak = StreakProgress.newStreak(UUID.randomUUID(), DAY, ZONE);
+
+        assertFalse(StreakProgress.isBroken(streak, DAY, ZONE));
+        assertFalse(StreakProgress.isBroken(streak, DAY.plusDays(1), ZONE));
+        assertTrue(StreakProgress.isBroken(streak, DAY.plusDays(2), ZONE));
+
+        StreakProgress.expire(streak);
+        assertEquals(0, streak.getCurrentStreak());
+        assertEquals(1, streak.getBestStreak());
+        // An expired streak is not swept again
+        assertFalse(StreakProgress.isBroken(streak, DAY.plusDays(2), ZONE));
+        // and the next payment starts over at 1
+        assertEquals(StreakProgress.Outcome.RESET, StreakProgress.advance(streak, DAY.plusDays(2), ZONE));
+        assertEquals(1, streak.getCurrentStreak());
+    }
+
+    @Test
+    void claimRewards_collectsEveryReachedTierAndRecordsTheHighest() {
+        List<StreakConfig.StreakReward> rewards = List.of(
+                new StreakConfig.StreakReward(7, "week", List.of()),
+                new StreakConfig.StreakReward(3, "three", List.of()),
+                new StreakConfig.StreakReward(5, "five", List.of()));
+        PlayerStreakPayment streak = StreakProgress.newStreak(UUID.randomUUID(), DAY, ZONE);
+        streak.setCurrentStreak(5);
+
+        List<StreakConfig.StreakReward> reached = StreakProgress.claimRewards(streak, rewards);
+
+        assertEquals(List.of("three", "five"), reached.stream().map(reward -> reward.name).toList());
+        assertEquals(5, streak.getLastRewardTier());
+        assertTrue(StreakProgress.claimRewards(streak, rewards).isEmpty());
+    }
+}
@@ -0,0 +1,68 @@
+package org.simpmc.simppay.service.executor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedExecutorTest {
+
+    @Test
+    void execute_rejectsPastConcurrencyPlusQueue() throws Exception {
+        for (boolean virtual : new boolean[]{true, false}) {
+            BoundedExecutor executor = new BoundedExecutor("test", 2, 1, virtual);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(3);
+            for (int i = 0; i < 3; i++) {
+                executor.execute(() -> {
+                    await(release);
+                    done.countDown();
+                });
+            }
+
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+            }));
+            assertEquals(1, executor.getRejected());
+
+            release.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            executor.shutdown(1000);
+        }
+    }
+
+    @Test
+    void execute_neverRunsMoreThanConcurrencyAtOnce() throws Exception {
+        BoundedExecutor executor = new BoundedExecutor("test", 3, 100, true);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(50);
+        for (int i = 0; i < 50; i++) {
+            executor.execute(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException ignored) {
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(peak.get() <= 3, "peak " + peak.get());
+        assertEquals(50L, executor.getStats().get("test-completed"));
+        executor.shutdown(1000);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
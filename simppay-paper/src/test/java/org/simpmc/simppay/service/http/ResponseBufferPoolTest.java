@@ -0,0 +1,39 @@
+package org.simpmc.simppay.service.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseBufferPoolTest {
+
+    @Test
+    void read_reusesBuffersAndGrowsForLargerBodies() throws Exception {
+        ResponseBufferPool pool = new ResponseBufferPool(8, 4);
+
+        assertEquals("hello", pool.read(stream("hello"), 64, (body, length) -> new String(body, 0, length, StandardCharsets.UTF_8)));
+        assertEquals("a larger body than eight bytes", pool.read(stream("a larger body than eight bytes"), 64,
+                (body, length) -> new String(body, 0, length, StandardCharsets.UTF_8)));
+        assertEquals(0, (int) pool.read(stream(""), 64, (body, length) -> length));
+
+        assertEquals(1, pool.getMisses());
+        assertEquals(2, pool.getHits());
+    }
+
+    @Test
+    void read_rejectsBodiesOverTheCap() throws Exception {
+        ResponseBufferPool pool = new ResponseBufferPool(4, 4);
+
+        assertEquals(10, (int) pool.read(stream("0123456789"), 10, (body, length) -> length));
+        assertThrows(ResponseTooLargeException.class, () -> pool.read(stream("0123456789A"), 10, (body, length) -> length));
+        // Buffer larger than the cap
+        ResponseBufferPool large = new ResponseBufferPool(64, 4);
+        assertThrows(ResponseTooLargeException.class, () -> large.read(stream("0123456789A"), 10, (body, length) -> length));
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,120 @@
+package org.simpmc.simppay.service.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.simpmc.simppay.data.PaymentType;
+import org.simpmc.simppay.data.card.CardPrice;
+import org.simpmc.simppay.data.card.CardType;
+import org.simpmc.simppay.model.Payment;
+import org.simpmc.simppay.model.detail.BankingDetail;
+import org.simpmc.simppay.model.detail.CardDetail;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void open_replaysOnlyUnfinishedPaymentsWithTheirLatestState() throws Exception {
+        Payment card = card("pin-1");
+        Payment bank = bank("ref-1");
+        Payment paid = bank("ref-2");
+        try (PaymentJournal journal = new PaymentJournal(dir, 64 * 1024)) {
+            assertTrue(journal.open().isEmpty());
+            journal.append(JournalEntry.of(JournalEntry.State.CREATED, card));
+            journal.append(JournalEntry.of(JournalEntry.State.CREATED, bank));
+            journal.append(JournalEntry.of(JournalEntry.State.PENDING, bank));
+            journal.append(JournalEntry.of(JournalEntry.State.PENDING, paid));
+            journal.append(JournalEntry.finished(JournalEntry.State.SUCCESS, paid.getPaymentID()));
+            journal.sync();
+        }
+
+        try (PaymentJournal journal = new PaymentJournal(dir, 64 * 1024)) {
+            List<JournalEntry> unfinished = journal.open();
+
+            assertEquals(List.of(card.getPaymentID(), bank.getPaymentID()), unfinished.stream().map(JournalEntry::paymentID).toList());
+            assertEquals(JournalEntry.State.CREATED, unfinished.get(0).state());
+            assertEquals(JournalEntry.State.PENDING, unfinished.get(1).state());
+            Payment restored = unfinished.get(0).toPayment();
+            assertEquals(PaymentType.CARD, restored.getPaymentType());
+            assertEquals("pin-1", ((CardDetail) restored.getDetail()).getPin());
+            assertEquals(card.getCreatedAt(), restored.getCreatedAt());
+            assertEquals("ref-1", unfinished.get(1).toPayment().getDetail().getRefID());
+        }
+    }
+
+    @Test
+    void compact_keepsUnfinishedPaymentsAndIgnoresOlderGenerations() throws Exception {
+        Payment open = bank("ref-open");
+        try (PaymentJournal journal = new PaymentJournal(dir, 4096)) {
+            journal.open();
+            journal.append(JournalEntry.of(JournalEntry.State.PENDING, open));
+            // Far more than one file holds, finished payments are dropped along the way
+            for (int i = 0; i < 200; i++) {
+                Payment payment = bank("ref-" + i);
+                journal.append(JournalEntry.of(JournalEntry.State.PENDING, payment));
+                journal.append(JournalEntry.finished(JournalEntry.State.FAILED, payment.getPaymentID()));
+            }
+            assertTrue(journal.getCompactions() > 1);
+            assertEquals(1, journal.getLiveCount());
+        }
+
+        try (PaymentJournal journal = new PaymentJournal(dir, 4096)) {
+            List<JournalEntry> unfinished = journal.open();
+            assertEquals(List.of(open.getPaymentID()), unfinished.stream().map(JournalEntry::paymentID).toList());
+        }
+    }
+
+    @Test
+    void open_stopsAtATornRecord() throws Exception {
+        Payment first = bank("ref-1");
+        Payment second = bank("ref-2");
+        int tornAt;
+        try (PaymentJournal journal = new PaymentJournal(dir, 64 * 1024)) {
+            journal.open();
+            journal.append(JournalEntry.of(JournalEntry.State.PENDING, first));
+            tornAt = journal.getUsedBytes();
+            journal.append(JournalEntry.of(JournalEntry.State.PENDING, second));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve("payment-journal-0.dat").toFile(), "rw")) {
+            // Flip a byte inside the second record's payload
+            file.seek(tornAt + 20);
+            int value = file.read();
+            file.seek(tornAt + 20);
+            file.write(value ^ 0xFF);
+        }
+
+        try (PaymentJournal journal = new PaymentJournal(dir, 64 * 1024)) {
+            List<JournalEntry> unfinished = journal.open();
+            assertEquals(List.of(first.getPaymentID()), unfinished.stream().map(JournalEntry::paymentID).toList());
+            // New records go where the torn one was
+            journal.append(JournalEntry.of(JournalEntry.State.PENDING, second));
+            assertEquals(2, journal.getLiveCount());
+        }
+    }
+
+    private static Payment card(String pin) {
+        CardDetail detail = CardDetail.builder()
+                .pin(pin)
+                .serial("serial")
+                .price(CardPrice._50K)
+                .type(CardType.VIETTEL)
+                .build();
+        return new Payment(UUID.randomUUID(), UUID.randomUUID(), detail);
+    }
+
+    private static Payment bank(String refID) {
+        BankingDetail detail = BankingDetail.builder()
+                .amount(20_000)
+                .refID(refID)
+                .build();
+        return new Payment(UUID.randomUUID(), UUID.randomUUID(), detail);
+    }
+}
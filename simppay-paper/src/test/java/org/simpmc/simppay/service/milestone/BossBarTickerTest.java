@@ -0,0 +1,41 @@
+package org.simpmc.simppay.service.milestone;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BossBarTickerTest {
+
+    @Test
+    void run_spreadsCyclesEvenlyAcrossTicks() {
+        Map<UUID, Integer> updates = new HashMap<>();
+        int[] perRun = new int[1];
+        BossBarTicker ticker = new BossBarTicker((cycle, now) -> {
+            updates.merge(cycle.getPlayerUUID(), 1, Integer::sum);
+            perRun[0]++;
+        });
+        for (int i = 0; i < 10; i++) {
+            ticker.add(UUID.randomUUID());
+        }
+
+        for (int run = 0; run < 4; run++) {
+            perRun[0] = 0;
+            ticker.run(4);
+            assertEquals(run < 2 ? 3 : 2, perRun[0]);
+        }
+        assertEquals(10, updates.size());
+        updates.values().forEach(count -> assertEquals(1, count));
+
+        ticker.remove(updates.keySet().iterator().next());
+        perRun[0] = 0;
+        for (int run = 0; run < 4; run++) {
+            ticker.run(4);
+        }
+        assertEquals(9, perRun[0]);
+        assertEquals(8, ticker.getRuns());
+    }
+}
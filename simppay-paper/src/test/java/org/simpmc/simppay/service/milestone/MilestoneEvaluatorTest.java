@@ -0,0 +1,88 @@
+package org.simpmc.simppay.service.milestone;
+
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.config.types.data.MilestoneConfig;
+import org.simpmc.simppay.data.milestone.MilestoneType;
+import org.simpmc.simppay.database.entities.MilestoneCompletion;
+import org.simpmc.simppay.util.PeriodWindow;
+
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MilestoneEvaluatorTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @Test
+    void advance_completesEachReachedMilestoneOnce() {
+        MilestoneEvaluator evaluator = evaluator(List.of(500_000, 100_000, 200_000, 1_000_000));
+        UUID player = UUID.randomUUID();
+        PeriodWindow window = PeriodWindow.current();
+        // 200k was rewarded before the restart
+        evaluator.loadPlayer(player, List.of(completion(MilestoneType.ALL, 200_000, new Date())), window);
+
+        assertEquals(List.of(), evaluator.advancePlayer(player, MilestoneType.ALL, 50_000, window));
+        assertEquals(List.of(100_000L, 500_000L), amounts(evaluator.advancePlayer(player, MilestoneType.ALL, 600_000, window)));
+        assertEquals(List.of(), evaluator.advancePlayer(player, MilestoneType.ALL, 700_000, window));
+        assertEquals(List.of(1_000_000L), amounts(evaluator.advancePlayer(player, MilestoneType.ALL, 1_000_000, window)));
+        assertTrue(evaluator.advancePlayer(UUID.randomUUID(), MilestoneType.ALL, 1_000_000, window).isEmpty());
+    }
+
+    @Test
+    void advance_timedMilestonesResetEachPeriod() {
+        MilestoneEvaluator evaluator = evaluator(List.of(100_000));
+        UUID player = UUID.randomUUID();
+        PeriodWindow today = PeriodWindow.current();
+        PeriodWindow tomorrow = PeriodWindow.of(today.getDayEnd() + 1);
+        // Yesterday's completion does not count today
+        evaluator.loadPlayer(player, List.of(completion(MilestoneType.DAILY, 100_000, new Date(today.getDayStart() - DAY))), today);
+
+        assertEquals(List.of(100_000L), amounts(evaluator.advancePlayer(player, MilestoneType.DAILY, 150_000, today)));
+        assertEquals(List.of(), evaluator.advancePlayer(player, MilestoneType.DAILY, 250_000, today));
+        assertEquals(List.of(100_000L), amounts(evaluator.advancePlayer(player, MilestoneType.DAILY, 100_000, tomorrow)));
+    }
+
+    @Test
+    void setMilestones_keepsCompletionsAcrossReload() {
+        MilestoneEvaluator evaluator = evaluator(List.of(100_000, 300_000));
+        PeriodWindow window = PeriodWindow.current();
+        evaluator.loadServer(List.of(), window);
+        assertEquals(List.of(100_000L), amounts(evaluator.advanceServer(MilestoneType.ALL, 150_000, window)));
+
+        Map<MilestoneType, List<MilestoneConfig>> reloaded = milestones(List.of(50_000, 100_000, 300_000));
+        evaluator.setMilestones(reloaded, reloaded);
+
+        assertEquals(List.of(50_000L), amounts(evaluator.advanceServer(MilestoneType.ALL, 150_000, window)));
+    }
+
+    private static MilestoneEvaluator evaluator(List<Integer> amounts) {
+        MilestoneEvaluator evaluator = new MilestoneEvaluator();
+        Map<MilestoneType, List<MilestoneConfig>> milestones = milestones(amounts);
+        evaluator.setMilestones(milestones, milestones);
+        return evaluator;
+    }
+
+    private static Map<MilestoneType, List<MilestoneConfig>> milestones(List<Integer> amounts) {
+        Map<MilestoneType, List<MilestoneConfig>> milestones = new EnumMap<>(MilestoneType.class);
+        for (MilestoneType type : MilestoneType.values()) {
+            milestones.put(type, amounts.stream().map(amount -> new MilestoneConfig(type, amount, null, List.of())).toList());
+        }
+        return milestones;
+    }
+
+    private static MilestoneCompletion completion(MilestoneType type, long amount, Date completedAt) {
+        MilestoneCompletion completion = new MilestoneCompletion(null, type, amount, false);
+        completion.setCompletedAt(completedAt);
+        return completion;
+    }
+
+    private static List<Long> amounts(List<MilestoneConfig> configs) {
+        return configs.stream().map(config -> (long) config.amount).toList();
+    }
+}
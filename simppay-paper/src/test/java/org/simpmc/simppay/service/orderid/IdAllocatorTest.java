@@ -0,0 +1,87 @@
+package org.simpmc.simppay.service.orderid;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdAllocatorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void next_concurrentCallers_neverShareAnId() throws Exception {
+        AtomicInteger reservations = new AtomicInteger();
+        FileIdBlockSource file = new FileIdBlockSource(dir.resolve("last_id.txt"));
+        IdBlockSource counting = new IdBlockSource() {
+            @Override
+            public long reserve(int size) throws IOException {
+                reservations.incrementAndGet();
+                return file.reserve(size);
+            }
+
+            @Override
+            public String getName() {
+                return "counting";
+            }
+        };
+        IdAllocator allocator = new IdAllocator(counting, 50);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Future<?>[] workers = new Future<?>[8];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = executor.submit(() -> {
+                for (int n = 0; n < 1_000; n++) {
+                    assertTrue(ids.add(allocator.next()));
+                }
+                return null;
+            });
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+
+        assertEquals(8_000, ids.size());
+        assertEquals(160, reservations.get());
+        assertEquals(8_000, file.getCeiling());
+    }
+
+    @Test
+    void restart_skipsTheRestOfTheBlock() throws Exception {
+        Path path = dir.resolve("last_id.txt");
+        FileIdBlockSource file = new FileIdBlockSource(path);
+        file.load();
+        IdAllocator allocator = new IdAllocator(file, 100);
+        assertEquals(1, allocator.next());
+        assertEquals(2, allocator.next());
+        assertEquals("100", Files.readString(path, StandardCharsets.UTF_8));
+
+        // Crash: IDs 3..100 were reserved but never handed out
+        FileIdBlockSource reopened = new FileIdBlockSource(path);
+        assertEquals(100, reopened.load());
+        assertEquals(101, new IdAllocator(reopened, 100).next());
+        assertFalse(Files.exists(dir.resolve("last_id.txt.tmp")));
+    }
+
+    @Test
+    void load_rejectsACorruptFileInsteadOfStartingOver() throws Exception {
+        Path path = dir.resolve("last_id.txt");
+        Files.writeString(path, "", StandardCharsets.UTF_8);
+
+        assertThrows(IOException.class, () -> new FileIdBlockSource(path).load());
+    }
+}
@@ -0,0 +1,62 @@
+package org.simpmc.simppay.service.polling;
+
+import org.junit.jupiter.api.Test;
+import org.simpmc.simppay.model.Payment;
+import org.simpmc.simppay.model.detail.BankingDetail;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PollQueueTest {
+
+    @Test
+    void pollDue_returnsOnlyDuePaymentsEarliestFirst() {
+        PollQueue queue = new PollQueue();
+        PendingPoll late = poll(3_000);
+        PendingPoll early = poll(1_000);
+        PendingPoll middle = poll(2_000);
+        queue.add(late);
+        queue.add(early);
+        queue.add(middle);
+
+        assertEquals(List.of(early, middle), queue.pollDue(2_000));
+        assertTrue(queue.pollDue(2_999).isEmpty());
+        assertEquals(List.of(late), queue.removeIf(poll -> true));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void backoff_doublesUpToTheCapWithinJitter() {
+        PollBackoff backoff = new PollBackoff(5_000, 20_000, 0.2);
+
+        assertEquals(5_000, backoff.delayMillis(0, 0.5));
+        assertEquals(10_000, backoff.delayMillis(1, 0.5));
+        assertEquals(20_000, backoff.delayMillis(2, 0.5));
+        assertEquals(20_000, backoff.delayMillis(50, 0.5));
+        assertEquals(4_000, backoff.delayMillis(0, 0));
+        assertEquals(24_000, backoff.delayMillis(9, 1));
+    }
+
+    @Test
+    void reschedule_neverPassesTheDeadline() {
+        PendingPoll poll = new PendingPoll(payment(), 12_000, 0);
+        PollBackoff backoff = new PollBackoff(5_000, 20_000, 0);
+
+        poll.reschedule(0, backoff);
+        assertEquals(5_000, poll.getNextCheckAt());
+        poll.reschedule(5_000, backoff);
+        assertEquals(12_000, poll.getNextCheckAt());
+        assertEquals(2, poll.getAttempt());
+    }
+
+    private static PendingPoll poll(long nextCheckAt) {
+        return new PendingPoll(payment(), Long.MAX_VALUE, nextCheckAt);
+    }
+
+    private static Payment payment() {
+        return new Payment(UUID.randomUUID(), UUID.randomUUID(), new BankingDetail(10_000, "ref", "desc", null));
+    }
+}
@@ -0,0 +1,54 @@
+package org.simpmc.simppay.service.webhook;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedIngestQueueTest {
+
+    @Test
+    void offer_rejectsWhenFullAndDrainKeepsOrder() {
+        BoundedIngestQueue<Integer> queue = new BoundedIngestQueue<>(3);
+
+        assertTrue(queue.offer(1));
+        assertTrue(queue.offer(2));
+        assertTrue(queue.offer(3));
+        assertFalse(queue.offer(4));
+
+        assertEquals(List.of(1, 2), queue.drain(2));
+        assertEquals(1, queue.size());
+        assertTrue(queue.offer(5));
+        assertEquals(List.of(3, 5), queue.drain(10));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void concurrentProducers_neverExceedCapacity() throws Exception {
+        BoundedIngestQueue<Integer> queue = new BoundedIngestQueue<>(1000);
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (queue.offer(i)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(1000, accepted.get());
+        assertEquals(1000, queue.drain(Integer.MAX_VALUE).size());
+    }
+}
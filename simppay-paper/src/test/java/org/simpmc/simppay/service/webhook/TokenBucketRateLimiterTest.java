@@ -0,0 +1,47 @@
+package org.simpmc.simppay.service.webhook;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_allowsBurstThenRefillsAtRate() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 3);
+
+        assertTrue(limiter.tryAcquire("1.2.3.4", 0));
+        assertTrue(limiter.tryAcquire("1.2.3.4", 0));
+        assertTrue(limiter.tryAcquire("1.2.3.4", 0));
+        assertFalse(limiter.tryAcquire("1.2.3.4", 0));
+        // Other clients have their own bucket
+        assertTrue(limiter.tryAcquire("5.6.7.8", 0));
+
+        assertTrue(limiter.tryAcquire("1.2.3.4", SECOND / 2));
+        assertFalse(limiter.tryAcquire("1.2.3.4", SECOND / 2));
+        // Refill never exceeds the burst
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("1.2.3.4", 60 * SECOND));
+        }
+        assertFalse(limiter.tryAcquire("1.2.3.4", 60 * SECOND));
+    }
+
+    @Test
+    void zeroRate_disablesLimitAndEvictIdleForgetsClients() {
+        TokenBucketRateLimiter unlimited = new TokenBucketRateLimiter(0, 1);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(unlimited.tryAcquire("1.2.3.4", 0));
+        }
+        assertEquals(0, unlimited.trackedClients());
+
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1);
+        limiter.tryAcquire("1.2.3.4", 0);
+        limiter.tryAcquire("5.6.7.8", 400 * SECOND);
+        limiter.evictIdle(400 * SECOND);
+        assertEquals(1, limiter.trackedClients());
+    }
+}
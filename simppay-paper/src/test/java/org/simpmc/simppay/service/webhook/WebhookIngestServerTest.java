@@ -0,0 +1,135 @@
+package org.simpmc.simppay.service.webhook;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookIngestServerTest {
+
+    private static final String API_KEY = "test-key";
+
+    @Test
+    void spool_keepsPayloadUntilItsBatchIsSettled(@TempDir Path dir) throws Exception {
+        WebhookSpool spool = new WebhookSpool(dir.resolve("webhook-spool.jsonl"));
+        WebhookIngestServer server = server(spool, 16);
+        server.start();
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            assertEquals(200, post(client, server, 1));
+
+            List<Runnable> deferred = new ArrayList<>();
+            assertEquals(1, server.dispatch(10, (batch, settled) -> deferred.add(settled)));
+            // Handed over but not handled yet, a crash now must replay it
+            assertEquals(1, spool.readAll().size());
+
+            deferred.getFirst().run();
+            assertTrue(spool.readAll().isEmpty());
+            assertEquals(0, server.getStats().get("unsettled"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void start_replaysEverySpooledPayloadBeyondTheQueueCapacity(@TempDir Path dir) throws Exception {
+        Path path = dir.resolve("webhook-spool.jsonl");
+        StringBuilder content = new StringBuilder();
+        for (int id = 1; id <= 5; id++) {
+            content.append(payload(id)).append('\n');
+        }
+        // Cut short by a crash mid-append
+        content.append("{\"id\": 6, \"transf");
+        Files.writeString(path, content);
+
+        WebhookSpool spool = new WebhookSpool(path);
+        WebhookIngestServer server = server(spool, 2);
+        server.start();
+        try {
+            assertEquals(5, server.getReplayed());
+            // Nothing is dropped from the file before it was handled, only the unreadable line
+            assertEquals(5, spool.readAll().size());
+
+            List<Long> ids = new ArrayList<>();
+            while (server.dispatch(10, (batch, settled) -> {
+                batch.forEach(payload -> ids.add(payload.getId()));
+                settled.run();
+            }) > 0) {
+                // Drains the queue, then the backlog that did not fit in it
+            }
+            assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids);
+            assertTrue(spool.readAll().isEmpty());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void start_leavesAnUnreadableSpoolUntouched(@TempDir Path dir) throws Exception {
+        Path path = dir.resolve("webhook-spool.jsonl");
+        // A directory cannot be read as a file
+        Files.createDirectory(path);
+        Files.writeString(path.resolve("marker"), "kept");
+
+        WebhookIngestServer server = server(new WebhookSpool(path), 16);
+        assertThrows(IOException.class, server::start);
+        assertEquals("kept", Files.readString(path.resolve("marker")));
+    }
+
+    @Test
+    void settle_compactsTheSpoolWhileAPayloadIsStillUnsettled(@TempDir Path dir) throws Exception {
+        Path path = dir.resolve("webhook-spool.jsonl");
+        int traffic = WebhookIngestServer.COMPACT_MIN_LINES + 20;
+        StringBuilder content = new StringBuilder();
+        for (int id = 0; id <= traffic; id++) {
+            content.append(payload(id)).append('\n');
+        }
+        Files.writeString(path, content);
+
+        WebhookSpool spool = new WebhookSpool(path);
+        WebhookIngestServer server = server(spool, 16);
+        server.start();
+        try {
+            List<Runnable> held = new ArrayList<>();
+            assertEquals(1, server.dispatch(1, (batch, settled) -> held.add(settled)));
+            while (server.dispatch(10, (batch, settled) -> settled.run()) > 0) {
+                // Everything else is handled while the first payload is not, so the spool is never empty
+            }
+
+            List<String> lines = spool.readAll();
+            assertTrue(lines.size() < traffic, "spool has " + lines.size() + " lines");
+            assertTrue(lines.stream().anyMatch(line -> line.contains("\"id\": 0,")));
+
+            held.getFirst().run();
+            assertTrue(spool.readAll().isEmpty());
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static WebhookIngestServer server(WebhookSpool spool, int queueCapacity) {
+        return new WebhookIngestServer(
+                new WebhookIngestServer.Settings(0, "/sepay/webhook", "/sepay/metrics", API_KEY, 16384, queueCapacity, 0, 1), spool);
+    }
+
+    private static String payload(int id) {
+        return "{\"id\": " + id + ", \"transferType\": \"in\", \"transferAmount\": 10000, \"content\": \"SP" + id + "\"}";
+    }
+
+    private static int post(HttpClient client, WebhookIngestServer server, int id) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + "/sepay/webhook"))
+                .header("Authorization", "Apikey " + API_KEY)
+                .POST(HttpRequest.BodyPublishers.ofString(payload(id)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,117 @@
+package org.simpmc.simppay.testutil;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.table.TableUtils;
+import org.h2.jdbcx.JdbcDataSource;
+import org.simpmc.simppay.data.card.CardType;
+import org.simpmc.simppay.database.entities.BankingPayment;
+import org.simpmc.simppay.database.entities.CardPayment;
+import org.simpmc.simppay.database.entities.LeaderboardCache;
+import org.simpmc.simppay.database.entities.MilestoneCompletion;
+import org.simpmc.simppay.database.entities.OrderIdSequence;
+import org.simpmc.simppay.database.entities.PaymentDailySummary;
+import org.simpmc.simppay.database.entities.PaymentSummaryState;
+import org.simpmc.simppay.database.entities.PlayerData;
+import org.simpmc.simppay.database.entities.SPPlayer;
+import org.simpmc.simppay.handler.data.BankAPI;
+import org.simpmc.simppay.handler.data.CardAPI;
+
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Throwaway in-memory H2 database with the payment tables created, for repository tests and benchmarks.
+ */
+public class H2TestDatabase implements AutoCloseable {
+
+    private final JdbcConnectionSource connectionSource;
+    private final JdbcDataSource dataSource;
+    public final Dao<SPPlayer, UUID> playerDao;
+    public final Dao<BankingPayment, UUID> bankDao;
+    public final Dao<CardPayment, UUID> cardDao;
+    public final Dao<PaymentDailySummary, String> summaryDao;
+    public final Dao<PaymentSummaryState, String> summaryStateDao;
+    public final Dao<LeaderboardCache, String> leaderboardCacheDao;
+    public final Dao<OrderIdSequence, String> orderSequenceDao;
+
+    public H2TestDatabase() throws SQLException {
+        // Query cache off so repeated benchmark queries measure real execution
+        String url = "jdbc:h2:mem:simppay-" + UUID.randomUUID() + ";QUERY_CACHE_SIZE=0";
+        connectionSource = new JdbcConnectionSource(url, "root", "password");
+        // Extra connections to the same in-memory database, which lives as long as connectionSource is open
+        dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("root");
+        dataSource.setPassword("password");
+
+        TableUtils.createTableIfNotExists(connectionSource, SPPlayer.class);
+        TableUtils.createTableIfNotExists(connectionSource, BankingPayment.class);
+        TableUtils.createTableIfNotExists(connectionSource, CardPayment.class);
+        TableUtils.createTableIfNotExists(connectionSource, PaymentDailySummary.class);
+        TableUtils.createTableIfNotExists(connectionSource, PaymentSummaryState.class);
+        TableUtils.createTableIfNotExists(connectionSource, PlayerData.class);
+        TableUtils.createTableIfNotExists(connectionSource, MilestoneCompletion.class);
+        TableUtils.createTableIfNotExists(connectionSource, LeaderboardCache.class);
+        TableUtils.createTableIfNotExists(connectionSource, OrderIdSequence.class);
+
+        playerDao = DaoManager.createDao(connectionSource, SPPlayer.class);
+        bankDao = DaoManager.createDao(connectionSource, BankingPayment.class);
+        cardDao = DaoManager.createDao(connectionSource, CardPayment.class);
+        summaryDao = DaoManager.createDao(connectionSource, PaymentDailySummary.class);
+        summaryStateDao = DaoManager.createDao(connectionSource, PaymentSummaryState.class);
+        leaderboardCacheDao = DaoManager.createDao(connectionSource, LeaderboardCache.class);
+        orderSequenceDao = DaoManager.createDao(connectionSource, OrderIdSequence.class);
+    }
+
+    public JdbcConnectionSource getConnectionSource() {
+        return connectionSource;
+    }
+
+    public JdbcDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public SPPlayer addPlayer(String name) throws SQLException {
+        SPPlayer player = new SPPlayer();
+        player.setUuid(UUID.randomUUID());
+        player.setName(name);
+        playerDao.create(player);
+        return player;
+    }
+
+    public BankingPayment addBank(SPPlayer player, double amount, long timestamp) throws SQLException {
+        BankingPayment payment = new BankingPayment();
+        payment.setPaymentID(UUID.randomUUID());
+        payment.setPlayer(player);
+        payment.setAmount(amount);
+        payment.setTimestamp(timestamp);
+        payment.setRefID("REF" + payment.getPaymentID().toString().substring(0, 8));
+        payment.setApiProvider(BankAPI.SEPAY);
+        bankDao.create(payment);
+        return payment;
+    }
+
+    public CardPayment addCard(SPPlayer player, double amount, long timestamp) throws SQLException {
+        CardPayment payment = new CardPayment();
+        payment.setPaymentID(UUID.randomUUID());
+        payment.setPlayer(player);
+        payment.setPin("pin");
+        payment.setSerial("serial");
+        payment.setPriceValue(amount);
+        payment.setCardType(CardType.VIETTEL);
+        payment.setRefID("REF" + payment.getPaymentID().toString().substring(0, 8));
+        payment.setTrueAmount(amount * 0.8);
+        payment.setAmount(amount);
+        payment.setTimestamp(timestamp);
+        payment.setApiProvider(CardAPI.CARD2K);
+        cardDao.create(payment);
+        return payment;
+    }
+
+    @Override
+    public void close() throws Exception {
+        connectionSource.close();
+    }
+}
@@ -0,0 +1,39 @@
+package org.simpmc.simppay.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AhoCorasickMatcherTest {
+
+    @Test
+    void findAll_matchesEveryCodeInOnePass() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("a1b2c3d4e5", "ffff000011", "b2c3"));
+
+        assertEquals(Set.of("a1b2c3d4e5", "b2c3"), matcher.findAll("MBVCB.123 A1B2C3D4E5 chuyen tien"));
+        assertEquals(Set.of("ffff000011"), matcher.findAll("nap ffff000011"));
+        assertTrue(matcher.findAll("a1b2c3d4e6").contains("b2c3"));
+        assertTrue(matcher.findAll("nothing here").isEmpty());
+        assertTrue(matcher.findAll(null).isEmpty());
+    }
+
+    @Test
+    void findAll_followsFailureLinksAcrossOverlaps() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("he", "she", "his", "hers"));
+
+        assertEquals(Set.of("she", "he", "hers"), matcher.findAll("ushers"));
+        assertEquals(Set.of("his", "she", "he"), matcher.findAll("ahishe"));
+    }
+
+    @Test
+    void emptyPatterns_matchNothing() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of(""));
+
+        assertTrue(matcher.isEmpty());
+        assertTrue(matcher.findAll("anything").isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package org.simpmc.simppay.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeriodWindowTest {
+    private static final ZoneId VIETNAM = ZoneId.of("Asia/Ho_Chi_Minh");
+
+    @AfterEach
+    void tearDown() {
+        CalendarUtil.setZone(ZoneId.systemDefault());
+    }
+
+    @Test
+    void of_computesBoundariesInTheZone() {
+        // Sunday 2026-03-15 23:30 in Vietnam
+        long timestamp = millis(LocalDateTime.of(2026, 3, 15, 23, 30), VIETNAM);
+
+        PeriodWindow window = PeriodWindow.of(timestamp, VIETNAM);
+
+        assertEquals(millis(LocalDateTime.of(2026, 3, 15, 0, 0), VIETNAM), window.getDayStart());
+        assertEquals(millis(LocalDateTime.of(2026, 3, 16, 0, 0), VIETNAM) - 1, window.getDayEnd());
+        assertEquals(millis(LocalDateTime.of(2026, 3, 9, 0, 0), VIETNAM), window.getWeekStart());
+        assertEquals(millis(LocalDateTime.of(2026, 3, 16, 0, 0), VIETNAM) - 1, window.getWeekEnd());
+        assertEquals(millis(LocalDateTime.of(2026, 3, 1, 0, 0), VIETNAM), window.getMonthStart());
+        assertEquals(millis(LocalDateTime.of(2026, 4, 1, 0, 0), VIETNAM) - 1, window.getMonthEnd());
+        assertEquals(millis(LocalDateTime.of(2026, 1, 1, 0, 0), VIETNAM), window.getYearStart());
+        assertEquals(millis(LocalDateTime.of(2027, 1, 1, 0, 0), VIETNAM) - 1, window.getYearEnd());
+        // 01:30 Monday in Tokyo
+        assertNotEquals(window.getDayStart(), PeriodWindow.of(timestamp, ZoneId.of("Asia/Tokyo")).getDayStart());
+    }
+
+    @Test
+    void of_matchesCalendarUtilInTheConfiguredZone() {
+        CalendarUtil.setZone(VIETNAM);
+        long timestamp = millis(LocalDateTime.of(2028, 2, 29, 12, 0), VIETNAM);
+
+        PeriodWindow window = PeriodWindow.of(timestamp);
+
+        assertEquals(CalendarUtil.getFirstHourOfDay(timestamp), window.getDayStart());
+        assertEquals(CalendarUtil.getLastDayOfWeek(timestamp), window.getWeekEnd());
+        assertEquals(CalendarUtil.getLastDayOfMonth(timestamp), window.getMonthEnd());
+        assertEquals(CalendarUtil.getFirstDayOfYear(timestamp), window.getYearStart());
+        assertEquals("29/02/2028 12:00:00", CalendarUtil.getFormattedTimestamp(timestamp));
+    }
+
+    @Test
+    void current_isRecomputedWhenTheZoneChanges() {
+        CalendarUtil.setZone(VIETNAM);
+        PeriodWindow first = PeriodWindow.current();
+        assertSame(first, PeriodWindow.current());
+
+        CalendarUtil.setZone(ZoneId.of("America/New_York"));
+        PeriodWindow second = PeriodWindow.current();
+
+        assertNotSame(first, second);
+        assertEquals(ZoneId.of("America/New_York"), second.getZone());
+        assertTrue(second.containsDay(System.currentTimeMillis()));
+    }
+
+    private static long millis(LocalDateTime time, ZoneId zone) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,25 @@
+package org.simpmc.simppay.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecentIdSetTest {
+
+    @Test
+    void add_reportsDuplicatesAndEvictsOldest() {
+        RecentIdSet ids = new RecentIdSet(2);
+
+        assertTrue(ids.add("tx1"));
+        assertFalse(ids.add("tx1"));
+        assertTrue(ids.add("tx2"));
+        assertTrue(ids.add("tx3"));
+
+        assertEquals(2, ids.size());
+        assertFalse(ids.contains("tx1"));
+        assertTrue(ids.contains("tx2"));
+        assertTrue(ids.contains("tx3"));
+    }
+}
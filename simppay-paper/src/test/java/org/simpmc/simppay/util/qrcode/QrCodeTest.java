@@ -0,0 +1,269 @@
+package org.simpmc.simppay.util.qrcode;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads encoded symbols back with a minimal decoder written from ISO/IEC 18004 (format info, masking, module
+ * placement, block interleaving, Reed-Solomon syndromes, byte mode), independent of the encoder's own tables.
+ */
+class QrCodeTest {
+
+    // Block structure from the standard's table 9: total codewords, ECC codewords per block, number of blocks
+    private record Layout(int version, QrCode.Ecc ecc, int totalCodewords, int eccPerBlock, int blocks,
+                          int[] alignment) {
+    }
+
+    private static final Layout V1_M = new Layout(1, QrCode.Ecc.M, 26, 10, 1, new int[0]);
+    private static final Layout V1_H = new Layout(1, QrCode.Ecc.H, 26, 17, 1, new int[0]);
+    private static final Layout V8_M = new Layout(8, QrCode.Ecc.M, 242, 22, 4, new int[]{6, 24, 42});
+
+    @Test
+    void decode_versionOneRoundTrips() {
+        assertRoundTrip("hello", V1_M);
+        assertRoundTrip("SMC", V1_H);
+    }
+
+    @Test
+    void decode_vietQrPayloadRoundTrips() {
+        String payload = VietQRPayload.build("970436", "0071000888888", 50000, "SMC1A2B3C4D5");
+        assertRoundTrip(payload, V8_M);
+    }
+
+    private static void assertRoundTrip(String text, Layout layout) {
+        QrCode qr = QrCode.encodeText(text, layout.ecc());
+        assertEquals(layout.version(), qr.getVersion());
+        int size = layout.version() * 4 + 17;
+        assertEquals(size, qr.getSize());
+
+        int format = readFormat(qr);
+        assertEquals(layout.ecc(), eccOf(format >>> 3));
+        int mask = format & 7;
+        assertEquals(qr.getMask(), mask);
+
+        byte[] raw = readCodewords(qr, layout, mask);
+        byte[] data = deinterleaveAndCheck(raw, layout);
+        assertEquals(text, readByteSegment(data, layout.version()));
+    }
+
+    private static int readFormat(QrCode qr) {
+        int bits = 0;
+        for (int i = 0; i <= 5; i++) {
+            bits |= (qr.isDark(8, i) ? 1 : 0) << i;
+        }
+        bits |= (qr.isDark(8, 7) ? 1 : 0) << 6;
+        bits |= (qr.isDark(8, 8) ? 1 : 0) << 7;
+        bits |= (qr.isDark(7, 8) ? 1 : 0) << 8;
+        for (int i = 9; i < 15; i++) {
+            bits |= (qr.isDark(14 - i, 8) ? 1 : 0) << i;
+        }
+        bits ^= 0x5412;
+        for (int candidate = 0; candidate < 32; candidate++) {
+            if (bchFormat(candidate) == bits) {
+                return candidate;
+            }
+        }
+        return fail("No valid format information: " + Integer.toBinaryString(bits));
+    }
+
+    // (15,5) BCH code with generator x^10 + x^8 + x^5 + x^4 + x^2 + x + 1
+    private static int bchFormat(int data) {
+        int remainder = data << 10;
+        for (int i = 14; i >= 10; i--) {
+            if ((remainder >>> i & 1) != 0) {
+                remainder ^= 0x537 << (i - 10);
+            }
+        }
+        return data << 10 | remainder;
+    }
+
+    private static QrCode.Ecc eccOf(int formatEcc) {
+        return switch (formatEcc) {
+            case 1 -> QrCode.Ecc.L;
+            case 0 -> QrCode.Ecc.M;
+            case 3 -> QrCode.Ecc.Q;
+            default -> QrCode.Ecc.H;
+        };
+    }
+
+    private static byte[] readCodewords(QrCode qr, Layout layout, int mask) {
+        int size = qr.getSize();
+        boolean[][] reserved = functionModules(layout, size);
+        byte[] raw = new byte[layout.totalCodewords()];
+        int bit = 0;
+        // Two-module columns from the right, alternating up and down, skipping the vertical timing pattern
+        for (int right = size - 1; right >= 1; right -= 2) {
+            if (right == 6) {
+                right = 5;
+            }
+            boolean upward = ((size - 1 - right) / 2) % 2 == 0;
+            for (int step = 0; step < size; step++) {
+                int y = upward ? size - 1 - step : step;
+                for (int x = right; x >= right - 1; x--) {
+                    if (reserved[y][x] || bit >= raw.length * 8) {
+                        continue;
+                    }
+                    boolean dark = qr.isDark(x, y) ^ masked(mask, x, y);
+                    if (dark) {
+                        raw[bit >>> 3] |= (byte) (0x80 >>> (bit & 7));
+                    }
+                    bit++;
+                }
+            }
+        }
+        assertEquals(raw.length * 8, bit);
+        return raw;
+    }
+
+    private static boolean[][] functionModules(Layout layout, int size) {
+        boolean[][] reserved = new boolean[size][size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                // Finder patterns, separators and format information
+                boolean finder = (x < 9 && y < 9) || (x >= size - 8 && y < 9) || (x < 9 && y >= size - 8);
+                boolean timing = x == 6 || y == 6;
+                boolean version = layout.version() >= 7
+                        && ((x >= size - 11 && x < size - 8 && y < 6) || (y >= size - 11 && y < size - 8 && x < 6));
+                reserved[y][x] = finder || timing || version;
+            }
+        }
+        int[] centres = layout.alignment();
+        for (int cy : centres) {
+            for (int cx : centres) {
+                boolean overlapsFinder = (cx == 6 && cy == 6) || (cx == 6 && cy == centres[centres.length - 1])
+                        || (cy == 6 && cx == centres[centres.length - 1]);
+                if (overlapsFinder) {
+                    continue;
+                }
+                for (int dy = -2; dy <= 2; dy++) {
+                    for (int dx = -2; dx <= 2; dx++) {
+                        reserved[cy + dy][cx + dx] = true;
+                    }
+                }
+            }
+        }
+        return reserved;
+    }
+
+    // Mask conditions from the standard's table 10, with i = row and j = column
+    private static boolean masked(int mask, int j, int i) {
+        return switch (mask) {
+            case 0 -> (i + j) % 2 == 0;
+            case 1 -> i % 2 == 0;
+            case 2 -> j % 3 == 0;
+            case 3 -> (i + j) % 3 == 0;
+            case 4 -> (i / 2 + j / 3) % 2 == 0;
+            case 5 -> (i * j) % 2 + (i * j) % 3 == 0;
+            case 6 -> ((i * j) % 2 + (i * j) % 3) % 2 == 0;
+            default -> ((i + j) % 2 + (i * j) % 3) % 2 == 0;
+        };
+    }
+
+    /**
+     * Splits the interleaved codewords into blocks, checks every block's Reed-Solomon syndromes are zero and
+     * returns the data codewords in order.
+     */
+    private static byte[] deinterleaveAndCheck(byte[] raw, Layout layout) {
+        int blocks = layout.blocks();
+        int shortBlockLength = raw.length / blocks;
+        int longBlocks = raw.length % blocks;
+        List<ByteArrayOutputStream> data = new ArrayList<>();
+        List<ByteArrayOutputStream> ecc = new ArrayList<>();
+        for (int b = 0; b < blocks; b++) {
+            data.add(new ByteArrayOutputStream());
+            ecc.add(new ByteArrayOutputStream());
+        }
+        int shortData = shortBlockLength - layout.eccPerBlock();
+        int pos = 0;
+        // Short blocks come first; long blocks carry one more data codeword
+        for (int i = 0; i <= shortData; i++) {
+            for (int b = 0; b < blocks; b++) {
+                if (i < shortData || b >= blocks - longBlocks) {
+                    data.get(b).write(raw[pos++]);
+                }
+            }
+        }
+        for (int i = 0; i < layout.eccPerBlock(); i++) {
+            for (int b = 0; b < blocks; b++) {
+                ecc.get(b).write(raw[pos++]);
+            }
+        }
+        assertEquals(raw.length, pos);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int b = 0; b < blocks; b++) {
+            byte[] blockData = data.get(b).toByteArray();
+            byte[] codeword = new byte[blockData.length + layout.eccPerBlock()];
+            System.arraycopy(blockData, 0, codeword, 0, blockData.length);
+            System.arraycopy(ecc.get(b).toByteArray(), 0, codeword, blockData.length, layout.eccPerBlock());
+            for (int k = 0; k < layout.eccPerBlock(); k++) {
+                assertEquals(0, evaluate(codeword, GF_EXP[k]), "syndrome " + k + " of block " + b);
+            }
+            out.writeBytes(blockData);
+        }
+        return out.toByteArray();
+    }
+
+    private static String readByteSegment(byte[] data, int version) {
+        int[] cursor = {0};
+        assertEquals(0b0100, readBits(data, cursor, 4), "byte mode indicator");
+        int length = readBits(data, cursor, version <= 9 ? 8 : 16);
+        byte[] text = new byte[length];
+        for (int i = 0; i < length; i++) {
+            text[i] = (byte) readBits(data, cursor, 8);
+        }
+        int left = data.length * 8 - cursor[0];
+        assertEquals(0, readBits(data, cursor, Math.min(4, left)), "terminator");
+        // Byte-aligned padding alternates 0xEC and 0x11
+        cursor[0] = (cursor[0] + 7) / 8 * 8;
+        for (int i = 0; cursor[0] < data.length * 8; i++) {
+            assertEquals(i % 2 == 0 ? 0xEC : 0x11, readBits(data, cursor, 8), "pad codeword");
+        }
+        return new String(text, StandardCharsets.UTF_8);
+    }
+
+    private static int readBits(byte[] data, int[] cursor, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++, cursor[0]++) {
+            value = value << 1 | (data[cursor[0] >>> 3] >>> (7 - (cursor[0] & 7)) & 1);
+        }
+        return value;
+    }
+
+    // GF(256) with the QR field polynomial x^8 + x^4 + x^3 + x^2 + 1
+    private static final int[] GF_EXP = new int[256];
+    private static final int[] GF_LOG = new int[256];
+
+    static {
+        int x = 1;
+        for (int i = 0; i < 255; i++) {
+            GF_EXP[i] = x;
+            GF_LOG[x] = i;
+            x <<= 1;
+            if (x >= 0x100) {
+                x ^= 0x11D;
+            }
+        }
+    }
+
+    private static int evaluate(byte[] codeword, int point) {
+        int result = 0;
+        for (byte b : codeword) {
+            result = multiply(result, point) ^ (b & 0xFF);
+        }
+        return result;
+    }
+
+    private static int multiply(int a, int b) {
+        if (a == 0 || b == 0) {
+            return 0;
+        }
+        return GF_EXP[(GF_LOG[a] + GF_LOG[b]) % 255];
+    }
+}
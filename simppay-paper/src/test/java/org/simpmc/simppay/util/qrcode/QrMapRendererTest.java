@@ -0,0 +1,60 @@
+package org.simpmc.simppay.util.qrcode;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QrMapRendererTest {
+
+    private static final byte LIGHT = 34;
+    private static final byte DARK = 119;
+
+    @Test
+    void encode_picksSmallestVersionAndDrawsFinderPatterns() {
+        QrCode small = QrCode.encodeText("hello", QrCode.Ecc.M);
+        assertEquals(1, small.getVersion());
+        assertEquals(21, small.getSize());
+
+        String payload = VietQRPayload.build("970436", "0071000888888", 50000, "SMC1A2B3C4D5");
+        QrCode qr = QrCode.encodeText(payload, QrCode.Ecc.M);
+        // 124 bytes need version 8 at level M (capacity 152)
+        assertEquals(8, qr.getVersion());
+        for (int[] corner : new int[][]{{0, 0}, {qr.getSize() - 7, 0}, {0, qr.getSize() - 7}}) {
+            for (int dy = 0; dy < 7; dy++) {
+                for (int dx = 0; dx < 7; dx++) {
+                    int ring = Math.max(Math.abs(dx - 3), Math.abs(dy - 3));
+                    assertEquals(ring != 2, qr.isDark(corner[0] + dx, corner[1] + dy));
+                }
+            }
+        }
+    }
+
+    @Test
+    void render_scalesModulesIntoTheMapWithAQuietZone() {
+        QrCode qr = QrCode.encodeText("hello", QrCode.Ecc.M);
+        byte[] map = QrMapRenderer.render(qr);
+
+        assertEquals(128 * 128, map.length);
+        // 21 modules + 8 quiet modules fit 4 times in 128 pixels, centred at (128 - 84) / 2
+        int scale = 4;
+        int offset = 22;
+        for (int y = 0; y < 128; y++) {
+            for (int x = 0; x < 128; x++) {
+                int mx = Math.floorDiv(x - offset, scale);
+                int my = Math.floorDiv(y - offset, scale);
+                boolean inside = mx >= 0 && my >= 0 && mx < qr.getSize() && my < qr.getSize();
+                byte expected = inside && qr.isDark(mx, my) ? DARK : LIGHT;
+                assertEquals(expected, map[y * 128 + x], "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void render_returnsCopiesOfCachedPayloads() {
+        byte[] first = QrMapRenderer.render("SMC-CACHE");
+        first[0] = DARK;
+        byte[] second = QrMapRenderer.render("SMC-CACHE");
+
+        assertEquals(LIGHT, second[0]);
+    }
+}
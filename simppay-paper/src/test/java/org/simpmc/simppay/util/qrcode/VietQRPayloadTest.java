@@ -0,0 +1,47 @@
+package org.simpmc.simppay.util.qrcode;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VietQRPayloadTest {
+
+    @Test
+    void crc16_matchesCcittFalseCheckValue() {
+        assertEquals(0x29B1, VietQRPayload.crc16("123456789".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void build_writesNapasTransferFieldsInOrder() {
+        String payload = VietQRPayload.build("970436", "0071000888888", 50000, "SMC1A2B3C4D5");
+
+        assertEquals("000201"
+                + "010212"
+                + "3857" + "0010A000000727" + "01270006970436011300710008888880208QRIBFTTA"
+                + "5303704"
+                + "540550000"
+                + "5802VN"
+                + "62160812SMC1A2B3C4D5"
+                + "6304", payload.substring(0, payload.length() - 4));
+        String crc = payload.substring(payload.length() - 4);
+        int expected = VietQRPayload.crc16(payload.substring(0, payload.length() - 4).getBytes(StandardCharsets.US_ASCII));
+        assertEquals(String.format("%04X", expected), crc);
+    }
+
+    @Test
+    void build_skipsZeroAmountAndEmptyDescription() {
+        String payload = VietQRPayload.build("970436", "0071000888888", 0, "");
+
+        assertFalse(payload.contains("5405"));
+        assertFalse(payload.contains("5802VN62"));
+        assertTrue(payload.contains("5303704" + "5802VN" + "6304"));
+    }
+
+    @Test
+    void build_rejectsFieldsOver99Characters() {
+        assertThrows(IllegalArgumentException.class,
+                () -> VietQRPayload.build("970436", "0071000888888", 1000, "x".repeat(100)));
+    }
+}